@@ -1,13 +1,18 @@
 package com.genai.rewardbot.auth;
 
+import com.genai.rewardbot.auth.service.UserImportJob;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = "com.genai.rewardbot")
 @EntityScan(basePackages = "com.genai.rewardbot.common.entity")
 @EnableJpaRepositories(basePackages = "com.genai.rewardbot.auth.repository")
+@EnableScheduling
+@RegisterReflectionForBinding(UserImportJob.RowError.class)
 public class AuthServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,36 @@
+package com.genai.rewardbot.auth.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.SecurityFilterChain;
+
+/**
+ * The token endpoints are public: callers log in and register without credentials, and logout,
+ * revoke and validate carry the token they act on. The signing keys and the revocation filter
+ * are polled by the other services, which verify tokens locally. User lookup and the bulk
+ * import stay behind HTTP basic ({@code spring.security.user.*}). The API is JSON without
+ * cookies, so there is no session and no CSRF token.
+ */
+@Configuration
+public class SecurityConfig {
+
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+        http
+                .csrf(AbstractHttpConfigurer::disable)
+                .cors(Customizer.withDefaults())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(requests -> requests
+                        .requestMatchers("/api/auth/login", "/api/auth/register", "/api/auth/validate",
+                                "/api/auth/logout", "/api/auth/revoke").permitAll()
+                        .requestMatchers("/api/auth/keys", "/api/auth/revocations/**").permitAll()
+                        .requestMatchers("/api/auth/health", "/actuator/**", "/error").permitAll()
+                        .anyRequest().authenticated())
+                .httpBasic(Customizer.withDefaults());
+        return http.build();
+    }
+}
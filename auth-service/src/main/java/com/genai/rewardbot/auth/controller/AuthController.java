@@ -1,9 +1,17 @@
 package com.genai.rewardbot.auth.controller;
 
 import com.genai.rewardbot.auth.service.AuthService;
-import com.genai.rewardbot.common.entity.User;
+import com.genai.rewardbot.auth.service.TokenRevocationService;
+import com.genai.rewardbot.auth.util.SigningKeys;
+import com.genai.rewardbot.common.dto.UserResponseDto;
+import com.genai.rewardbot.common.security.JsonWebKeySet;
+import com.genai.rewardbot.common.security.JsonWebKeys;
+import com.genai.rewardbot.common.security.VerifiedToken;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -11,6 +19,7 @@ import jakarta.validation.Valid;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -20,6 +29,8 @@ import java.util.Optional;
 public class AuthController {
 
     private final AuthService authService;
+    private final SigningKeys signingKeys;
+    private final TokenRevocationService tokenRevocationService;
 
     @PostMapping("/login")
     public ResponseEntity<Map<String, Object>> login(@Valid @RequestBody LoginRequest request) {
@@ -70,15 +81,14 @@ public class AuthController {
         
         try {
             String token = authHeader.replace("Bearer ", "");
-            boolean isValid = authService.validateToken(token);
+            // Single parse and signature check; hot tokens are a cache lookup
+            Optional<VerifiedToken> verified = authService.verifyToken(token);
             
-            response.put("valid", isValid);
+            response.put("valid", verified.isPresent());
             
-            if (isValid) {
-                String mobileNumber = authService.extractMobileNumber(token);
-                Long userId = authService.extractUserId(token);
-                response.put("mobileNumber", mobileNumber);
-                response.put("userId", userId);
+            if (verified.isPresent()) {
+                response.put("mobileNumber", verified.get().mobileNumber());
+                response.put("userId", verified.get().userId());
             }
             
         } catch (Exception e) {
@@ -90,11 +100,72 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<Map<String, Object>> logout(@RequestHeader("Authorization") String authHeader) {
+        String token = authHeader.replace("Bearer ", "");
+        boolean revoked = tokenRevocationService.revoke(token, "logout");
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", revoked);
+        response.put("message", revoked ? "Logged out" : "Token is not valid");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Withdraws a token before its expiry, e.g. a session reported as compromised.
+     */
+    @PostMapping("/revoke")
+    public ResponseEntity<Map<String, Object>> revoke(@RequestBody RevokeRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        if (request.getToken() == null || request.getToken().isBlank()) {
+            response.put("success", false);
+            response.put("message", "Token is required");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        String reason = request.getReason() != null && !request.getReason().isBlank() ? request.getReason() : "revoked";
+        boolean revoked = tokenRevocationService.revoke(request.getToken(), reason);
+        response.put("success", revoked);
+        response.put("message", revoked ? "Token revoked" : "Token is not valid");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Bloom filter over revoked token ids, polled by services that verify tokens locally.
+     */
+    @GetMapping(value = "/revocations/filter", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> revocationFilter() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(tokenRevocationService.filterSnapshot());
+    }
+
+    /**
+     * Exact check behind a filter hit: 200 if the token id is revoked, 404 otherwise.
+     */
+    @GetMapping("/revocations/{tokenId}")
+    public ResponseEntity<Map<String, Object>> revocation(@PathVariable String tokenId) {
+        Map<String, Object> response = new HashMap<>();
+        boolean revoked = tokenRevocationService.isRevoked(tokenId);
+        response.put("revoked", revoked);
+        return ResponseEntity.status(revoked ? HttpStatus.OK : HttpStatus.NOT_FOUND).body(response);
+    }
+
+    /**
+     * Public half of every live signing key, for services that verify tokens locally.
+     */
+    @GetMapping("/keys")
+    public ResponseEntity<JsonWebKeySet> keys() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+                .body(JsonWebKeys.toJwkSet(signingKeys.getPublicKeys()));
+    }
+
     @GetMapping("/user/{mobileNumber}")
     public ResponseEntity<Map<String, Object>> getUserByMobileNumber(@PathVariable String mobileNumber) {
         log.info("Get user request for mobile number: {}", mobileNumber);
         
-        Optional<User> userOptional = authService.getUserByMobileNumber(mobileNumber);
+        Optional<UserResponseDto> userOptional = authService.getUserByMobileNumber(mobileNumber);
         Map<String, Object> response = new HashMap<>();
         
         if (userOptional.isPresent()) {
@@ -124,6 +195,17 @@ public class AuthController {
         public void setMobileNumber(String mobileNumber) { this.mobileNumber = mobileNumber; }
     }
 
+    public static class RevokeRequest {
+        private String token;
+        private String reason;
+
+        public String getToken() { return token; }
+        public void setToken(String token) { this.token = token; }
+
+        public String getReason() { return reason; }
+        public void setReason(String reason) { this.reason = reason; }
+    }
+
     public static class RegisterRequest {
         private String mobileNumber;
         private String firstName;
@@ -0,0 +1,88 @@
+package com.genai.rewardbot.auth.controller;
+
+import com.genai.rewardbot.auth.service.UserImportJob;
+import com.genai.rewardbot.auth.service.UserImportService;
+import com.genai.rewardbot.auth.util.UserImportParser;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bulk onboarding: POST a CSV or NDJSON customer file as the raw request body, then poll the
+ * returned job for progress and the per-row error report.
+ */
+@RestController
+@RequestMapping("/api/auth/users/import")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class UserImportController {
+
+    private final UserImportService userImportService;
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> startImport(
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            @RequestParam(required = false) String format,
+            InputStream body) {
+        Map<String, Object> response = new HashMap<>();
+
+        UserImportParser.Format importFormat = resolveFormat(format, contentType);
+        if (importFormat == null) {
+            response.put("success", false);
+            response.put("message", "Unsupported format; use csv or ndjson");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        try {
+            UserImportJob job = userImportService.startImport(body, importFormat);
+            response.put("success", true);
+            response.put("message", "Import started");
+            response.put("jobId", job.getId());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        } catch (IOException e) {
+            log.error("Could not receive import file: {}", e.getMessage());
+            response.put("success", false);
+            response.put("message", "Could not read upload");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<Map<String, Object>> getImport(@PathVariable String jobId) {
+        Optional<UserImportJob> job = userImportService.getJob(jobId);
+        Map<String, Object> response = new HashMap<>();
+
+        if (job.isPresent()) {
+            response.put("success", true);
+            response.put("report", job.get().toReport());
+            return ResponseEntity.ok(response);
+        }
+        response.put("success", false);
+        response.put("message", "Import job not found");
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    }
+
+    private UserImportParser.Format resolveFormat(String format, String contentType) {
+        if (format != null) {
+            return switch (format.toLowerCase()) {
+                case "csv" -> UserImportParser.Format.CSV;
+                case "ndjson", "jsonl" -> UserImportParser.Format.NDJSON;
+                default -> null;
+            };
+        }
+        if (contentType != null && (contentType.contains("ndjson") || contentType.contains("jsonl"))) {
+            return UserImportParser.Format.NDJSON;
+        }
+        return UserImportParser.Format.CSV;
+    }
+}
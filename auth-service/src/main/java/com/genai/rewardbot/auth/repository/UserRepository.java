@@ -1,8 +1,14 @@
 package com.genai.rewardbot.auth.repository;
 
+import com.genai.rewardbot.common.config.CacheRegions;
+import com.genai.rewardbot.common.dto.UserResponseDto;
 import com.genai.rewardbot.common.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -11,13 +17,31 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.USER_QUERIES)
+    })
     Optional<User> findByMobileNumber(String mobileNumber);
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.USER_QUERIES)
+    })
     boolean existsByMobileNumber(String mobileNumber);
     
-    @Query("SELECT u FROM User u LEFT JOIN FETCH u.cards c LEFT JOIN FETCH c.rewardPoints WHERE u.mobileNumber = :mobileNumber AND u.isActive = true")
-    Optional<User> findByMobileNumberWithCardsAndRewards(@Param("mobileNumber") String mobileNumber);
+    // Read path for the API: one statement, no entity hydration
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.USER_QUERIES)
+    })
+    @Query("SELECT new com.genai.rewardbot.common.dto.UserResponseDto(u.id, u.mobileNumber, u.firstName, u.lastName, " +
+           "u.email, u.isActive, u.createdAt, u.updatedAt) FROM User u WHERE u.mobileNumber = :mobileNumber")
+    Optional<UserResponseDto> findProfileByMobileNumber(@Param("mobileNumber") String mobileNumber);
+    
+    @EntityGraph(value = User.GRAPH_CARDS)
+    @Query("SELECT u FROM User u WHERE u.mobileNumber = :mobileNumber AND u.isActive = true")
+    Optional<User> findByMobileNumberWithCards(@Param("mobileNumber") String mobileNumber);
     
     @Query("SELECT COUNT(u) FROM User u WHERE u.isActive = true")
     long countActiveUsers();
-} 
\ No newline at end of file
+}
@@ -0,0 +1,126 @@
+package com.genai.rewardbot.auth.repository;
+
+import com.genai.rewardbot.common.config.CacheRegions;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Conflict-safe user inserts. The unique index on {@code mobile_number} decides who wins, so
+ * there is no exists-then-insert window and no separate sequence round trip: ids come from
+ * {@code user_sequence.NEXTVAL} inside the statement.
+ *
+ * <p>Writes bypass Hibernate, so the users query cache region is evicted after commit; cached
+ * "not found" lookups would otherwise hide the new rows.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserWriteRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO users (id, mobile_number, first_name, last_name, email, is_active, created_at, updated_at)
+            VALUES (user_sequence.NEXTVAL, ?, ?, ?, ?, 1, ?, ?)
+            """;
+
+    private static final String MERGE_SQL = """
+            MERGE INTO users u
+            USING (SELECT ? AS mobile_number, ? AS first_name, ? AS last_name, ? AS email FROM dual) s
+            ON (u.mobile_number = s.mobile_number)
+            WHEN NOT MATCHED THEN
+                INSERT (id, mobile_number, first_name, last_name, email, is_active, created_at, updated_at)
+                VALUES (user_sequence.NEXTVAL, s.mobile_number, s.first_name, s.last_name, s.email, 1, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Inserts one user in a single statement and returns the new id, or empty if the mobile
+     * number is already registered (including by a concurrent request).
+     */
+    public Optional<Long> insertIfAbsent(NewUser user) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        try {
+            jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(INSERT_SQL, new String[] {"id"});
+                bindUser(ps, 1, user);
+                Timestamp now = Timestamp.valueOf(user.createdAt());
+                ps.setTimestamp(5, now);
+                ps.setTimestamp(6, now);
+                return ps;
+            }, keyHolder);
+        } catch (DuplicateKeyException e) {
+            return Optional.empty();
+        }
+        evictUserQueriesAfterCommit();
+        return Optional.of(keyHolder.getKey().longValue());
+    }
+
+    /**
+     * Insert-or-ignore for a batch of users, sent as one JDBC batch. Returns per-row update
+     * counts: 1 for inserted, 0 for already registered.
+     *
+     * @throws DuplicateKeyException if a concurrent writer inserted one of the numbers between
+     *                               the MERGE's match and its insert; retry row by row
+     */
+    public int[] mergeBatch(List<NewUser> users) {
+        int[] counts = jdbcTemplate.batchUpdate(MERGE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                NewUser user = users.get(i);
+                bindUser(ps, 1, user);
+                Timestamp now = Timestamp.valueOf(user.createdAt());
+                ps.setTimestamp(5, now);
+                ps.setTimestamp(6, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return users.size();
+            }
+        });
+        evictUserQueriesAfterCommit();
+        return counts;
+    }
+
+    private static void bindUser(PreparedStatement ps, int index, NewUser user) throws SQLException {
+        ps.setString(index, user.mobileNumber());
+        ps.setString(index + 1, user.firstName());
+        ps.setString(index + 2, user.lastName());
+        ps.setString(index + 3, user.email());
+    }
+
+    private void evictUserQueriesAfterCommit() {
+        Runnable evict = () -> entityManagerFactory.getCache()
+                .unwrap(org.hibernate.Cache.class)
+                .evictQueryRegion(CacheRegions.USER_QUERIES);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        } else {
+            evict.run();
+        }
+    }
+
+    public record NewUser(String mobileNumber, String firstName, String lastName, String email,
+                          LocalDateTime createdAt) {
+    }
+}
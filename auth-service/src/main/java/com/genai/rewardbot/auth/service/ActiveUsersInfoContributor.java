@@ -0,0 +1,21 @@
+package com.genai.rewardbot.auth.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds the active user count, summed over all shards, to {@code /actuator/info}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ActiveUsersInfoContributor implements InfoContributor {
+
+    private final AuthService authService;
+
+    @Override
+    public void contribute(Info.Builder builder) {
+        builder.withDetail("activeUsers", authService.countActiveUsers());
+    }
+}
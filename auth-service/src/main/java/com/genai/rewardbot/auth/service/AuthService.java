@@ -1,28 +1,47 @@
 package com.genai.rewardbot.auth.service;
 
 import com.genai.rewardbot.auth.repository.UserRepository;
+import com.genai.rewardbot.auth.repository.UserWriteRepository;
 import com.genai.rewardbot.auth.util.JwtUtil;
+import com.genai.rewardbot.common.datasource.ReplicaLagGuard;
+import com.genai.rewardbot.common.dto.UserResponseDto;
 import com.genai.rewardbot.common.entity.User;
+import com.genai.rewardbot.common.security.VerifiedToken;
+import com.genai.rewardbot.common.sharding.ShardRouter;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional
+@Transactional(readOnly = true)
 public class AuthService {
 
     private final UserRepository userRepository;
+    private final UserWriteRepository userWriteRepository;
+    private final Validator validator;
     private final JwtUtil jwtUtil;
+    private final ReplicaLagGuard replicaLagGuard;
+    private final ShardRouter shardRouter;
 
     public AuthenticationResponse authenticateUser(String mobileNumber) {
         log.info("Authenticating user with mobile number: {}", mobileNumber);
         
-        Optional<User> userOptional = userRepository.findByMobileNumber(mobileNumber);
+        // Login straight after register must not miss the new user on a lagging replica
+        Optional<User> userOptional;
+        try (ShardRouter.Scope shard = shardRouter.on(mobileNumber);
+             ReplicaLagGuard.Scope ignored = replicaLagGuard.pinIfRecentlyWritten(mobileNumber)) {
+            userOptional = replicaLagGuard.findWithPrimaryFallback(() -> userRepository.findByMobileNumber(mobileNumber));
+        }
         
         if (userOptional.isPresent()) {
             User user = userOptional.get();
@@ -34,28 +53,47 @@ public class AuthService {
             String token = jwtUtil.generateToken(mobileNumber, user.getId());
             log.info("User authenticated successfully: {}", mobileNumber);
             
-            return new AuthenticationResponse(true, "Authentication successful", token, user.getId(), user);
+            return new AuthenticationResponse(true, "Authentication successful", token, user.getId(), toUserResponseDto(user));
         } else {
             log.warn("User not found with mobile number: {}", mobileNumber);
             return new AuthenticationResponse(false, "User not found", null, null, null);
         }
     }
 
+    @Transactional
     public AuthenticationResponse registerUser(String mobileNumber, String firstName, String lastName, String email) {
         log.info("Registering new user with mobile number: {}", mobileNumber);
         
-        if (userRepository.existsByMobileNumber(mobileNumber)) {
+        Set<ConstraintViolation<User>> violations = validator.validate(new User(mobileNumber, firstName, lastName, email));
+        if (!violations.isEmpty()) {
+            String message = violations.iterator().next().getMessage();
+            log.warn("Rejected registration for {}: {}", mobileNumber, message);
+            return new AuthenticationResponse(false, message, null, null, null);
+        }
+        
+        // One conflict-safe insert: the unique index decides, so concurrent registrations cannot both succeed.
+        // A mobile number always hashes to the same shard, so the index there is the only one that matters
+        LocalDateTime now = LocalDateTime.now();
+        Optional<Long> userId;
+        try (ShardRouter.Scope ignored = shardRouter.on(mobileNumber)) {
+            userId = userWriteRepository.insertIfAbsent(
+                    new UserWriteRepository.NewUser(mobileNumber, firstName, lastName, email, now));
+        }
+        if (userId.isEmpty()) {
             log.warn("User already exists with mobile number: {}", mobileNumber);
             return new AuthenticationResponse(false, "User already exists", null, null, null);
         }
+        replicaLagGuard.recordWrite(mobileNumber);
         
-        User newUser = new User(mobileNumber, firstName, lastName, email);
-        User savedUser = userRepository.save(newUser);
-        
-        String token = jwtUtil.generateToken(mobileNumber, savedUser.getId());
+        String token = jwtUtil.generateToken(mobileNumber, userId.get());
         log.info("User registered successfully: {}", mobileNumber);
         
-        return new AuthenticationResponse(true, "Registration successful", token, savedUser.getId(), savedUser);
+        UserResponseDto user = new UserResponseDto(userId.get(), mobileNumber, firstName, lastName, email, true, now, now);
+        return new AuthenticationResponse(true, "Registration successful", token, userId.get(), user);
+    }
+
+    public Optional<VerifiedToken> verifyToken(String token) {
+        return jwtUtil.verify(token);
     }
 
     public boolean validateToken(String token) {
@@ -70,12 +108,35 @@ public class AuthService {
         return jwtUtil.extractUserId(token);
     }
 
-    public Optional<User> getUserByMobileNumber(String mobileNumber) {
-        return userRepository.findByMobileNumber(mobileNumber);
+    public Optional<UserResponseDto> getUserByMobileNumber(String mobileNumber) {
+        try (ShardRouter.Scope shard = shardRouter.on(mobileNumber);
+             ReplicaLagGuard.Scope ignored = replicaLagGuard.pinIfRecentlyWritten(mobileNumber)) {
+            return userRepository.findProfileByMobileNumber(mobileNumber);
+        }
+    }
+
+    public Optional<User> getUserWithCards(String mobileNumber) {
+        try (ShardRouter.Scope shard = shardRouter.on(mobileNumber);
+             ReplicaLagGuard.Scope ignored = replicaLagGuard.pinIfRecentlyWritten(mobileNumber)) {
+            return userRepository.findByMobileNumberWithCards(mobileNumber);
+        }
+    }
+
+    /**
+     * Active users over all shards. Each shard counts in its own transaction on a scatter thread,
+     * so this runs outside the class's transaction.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long countActiveUsers() {
+        return shardRouter.scatter(shard -> userRepository.countActiveUsers()).stream()
+                .mapToLong(Long::longValue)
+                .sum();
     }
 
-    public Optional<User> getUserWithCardsAndRewards(String mobileNumber) {
-        return userRepository.findByMobileNumberWithCardsAndRewards(mobileNumber);
+    // Copies scalar columns only so callers never serialize a managed entity or its lazy associations
+    private UserResponseDto toUserResponseDto(User user) {
+        return new UserResponseDto(user.getId(), user.getMobileNumber(), user.getFirstName(), user.getLastName(),
+                user.getEmail(), user.getIsActive(), user.getCreatedAt(), user.getUpdatedAt());
     }
 
     // Inner class for authentication response
@@ -84,9 +145,9 @@ public class AuthService {
         private String message;
         private String token;
         private Long userId;
-        private User user;
+        private UserResponseDto user;
 
-        public AuthenticationResponse(boolean success, String message, String token, Long userId, User user) {
+        public AuthenticationResponse(boolean success, String message, String token, Long userId, UserResponseDto user) {
             this.success = success;
             this.message = message;
             this.token = token;
@@ -99,6 +160,6 @@ public class AuthService {
         public String getMessage() { return message; }
         public String getToken() { return token; }
         public Long getUserId() { return userId; }
-        public User getUser() { return user; }
+        public UserResponseDto getUser() { return user; }
     }
 } 
\ No newline at end of file
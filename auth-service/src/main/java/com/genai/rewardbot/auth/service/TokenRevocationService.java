@@ -0,0 +1,143 @@
+package com.genai.rewardbot.auth.service;
+
+import com.genai.rewardbot.auth.repository.RevokedTokenRepository;
+import com.genai.rewardbot.common.entity.RevokedToken;
+import com.genai.rewardbot.common.security.TokenRevocations;
+import com.genai.rewardbot.common.security.TokenVerifier;
+import com.genai.rewardbot.common.security.VerifiedToken;
+import com.genai.rewardbot.common.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Owns the revocation list. Revoked ids are persisted until the token would have expired
+ * anyway, and a Bloom filter over the live ones is rebuilt periodically for this service's
+ * verifier and served to the others.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TokenRevocations tokenRevocations;
+    private final TokenVerifier tokenVerifier;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final double falsePositiveRate;
+    private final long minCapacity;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  TokenRevocations tokenRevocations,
+                                  TokenVerifier tokenVerifier,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${auth.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+                                  @Value("${auth.revocation.min-capacity:10000}") long minCapacity) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.tokenRevocations = tokenRevocations;
+        this.tokenVerifier = tokenVerifier;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.falsePositiveRate = falsePositiveRate;
+        this.minCapacity = minCapacity;
+    }
+
+    @PostConstruct
+    public void init() {
+        tokenRevocations.setExactLookup(revokedTokenRepository::existsById);
+        // Built before the first request so revoked tokens are never briefly accepted after a restart
+        rebuildFilter();
+    }
+
+    /**
+     * Revokes a currently valid token. Returns false for tokens that are already invalid,
+     * already revoked, or carry no id.
+     */
+    @Transactional
+    public boolean revoke(String token, String reason) {
+        Optional<VerifiedToken> verified = tokenVerifier.verify(token);
+        if (verified.isEmpty() || verified.get().tokenId() == null) {
+            return false;
+        }
+        VerifiedToken revoked = verified.get();
+        revokedTokenRepository.save(new RevokedToken(
+                revoked.tokenId(),
+                revoked.mobileNumber(),
+                LocalDateTime.ofInstant(revoked.expiresAt(), ZoneId.systemDefault()),
+                null,
+                reason));
+        // Only once the row is committed: a rolled back revocation must not linger in memory
+        Runnable apply = () -> {
+            tokenRevocations.markRevoked(revoked.tokenId());
+            tokenVerifier.invalidate(token);
+            log.info("Revoked token {} for {} ({})", revoked.tokenId(), revoked.mobileNumber(), reason);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+        return true;
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return tokenRevocations.isRevoked(tokenId);
+    }
+
+    /**
+     * Current filter in {@link BloomFilter#writeTo} form, for the other services to poll.
+     */
+    public byte[] filterSnapshot() {
+        BloomFilter filter = tokenRevocations.currentFilter()
+                .orElseThrow(() -> new IllegalStateException("Revocation filter not built yet"));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream((int) Math.min(Integer.MAX_VALUE, filter.bitCount() / 8 + 16));
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            filter.writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Scheduled(fixedDelayString = "${auth.revocation.rebuild-interval:PT5M}",
+               initialDelayString = "${auth.revocation.rebuild-interval:PT5M}")
+    public void rebuildFilter() {
+        LocalDateTime now = LocalDateTime.now();
+        Integer purged = writeTransaction.execute(status -> revokedTokenRepository.deleteExpired(now));
+
+        BloomFilter filter = readTransaction.execute(status -> {
+            long live = revokedTokenRepository.countLive(now);
+            // Sized for what is live now plus what may be revoked before the next rebuild
+            BloomFilter next = BloomFilter.create(Math.max(minCapacity, live + live / 2), falsePositiveRate);
+            try (Stream<String> ids = revokedTokenRepository.streamLiveTokenIds(now)) {
+                ids.forEach(next::put);
+            }
+            log.info("Rebuilt revocation filter: {} live revocations, {} bits, {} hashes, {} expired rows purged",
+                    live, next.bitCount(), next.hashCount(), purged);
+            return next;
+        });
+        tokenRevocations.replaceFilter(filter);
+    }
+}
@@ -0,0 +1,123 @@
+package com.genai.rewardbot.auth.service;
+
+import com.genai.rewardbot.auth.util.UserImportParser;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress and error report of one bulk import. Counters are updated by the chunk writers
+ * while the job runs, so a report can be taken at any time.
+ */
+public class UserImportJob {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    public record RowError(long line, String message) {
+    }
+
+    private final String id;
+    private final UserImportParser.Format format;
+    private final int maxReportedErrors;
+    private final Instant startedAt = Instant.now();
+
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong inserted = new AtomicLong();
+    private final AtomicLong alreadyRegistered = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final List<RowError> errors = new ArrayList<>();
+
+    private volatile Status status = Status.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile String failure;
+
+    UserImportJob(String id, UserImportParser.Format format, int maxReportedErrors) {
+        this.id = id;
+        this.format = format;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public UserImportParser.Format getFormat() {
+        return format;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isFinished() {
+        return status != Status.RUNNING;
+    }
+
+    void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+
+    void inserted(long count) {
+        inserted.addAndGet(count);
+    }
+
+    void alreadyRegistered(long count) {
+        alreadyRegistered.addAndGet(count);
+    }
+
+    void rejected(long line, String message) {
+        rejected.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new RowError(line, message));
+            }
+        }
+    }
+
+    void complete() {
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    void fail(String message) {
+        failure = message;
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+
+    public Map<String, Object> toReport() {
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("jobId", id);
+        report.put("status", status);
+        report.put("format", format);
+        report.put("startedAt", startedAt.toString());
+        report.put("finishedAt", finishedAt != null ? finishedAt.toString() : null);
+        report.put("elapsedMs", Duration.between(startedAt, end).toMillis());
+        report.put("rowsRead", rowsRead.get());
+        report.put("inserted", inserted.get());
+        report.put("alreadyRegistered", alreadyRegistered.get());
+        report.put("rejected", rejected.get());
+        if (failure != null) {
+            report.put("failure", failure);
+        }
+        synchronized (errors) {
+            report.put("errors", List.copyOf(errors));
+            report.put("errorsTruncated", rejected.get() > errors.size());
+        }
+        return report;
+    }
+}
@@ -0,0 +1,255 @@
+package com.genai.rewardbot.auth.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.genai.rewardbot.auth.repository.UserWriteRepository;
+import com.genai.rewardbot.auth.repository.UserWriteRepository.NewUser;
+import com.genai.rewardbot.auth.util.UserImportParser;
+import com.genai.rewardbot.common.entity.User;
+import com.genai.rewardbot.common.sharding.ShardRouter;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk onboarding of partner customer files. The upload is spooled to a temp file and the
+ * request returns at once; a coordinator thread then streams the file, validates each row
+ * against the {@link User} constraints and hands chunks to a small writer pool. Each chunk is one
+ * transaction and one JDBC batch of insert-or-ignore MERGEs, so re-running a file is harmless.
+ * With sharding, a chunk is split by shard into one transaction and batch per shard.
+ */
+@Service
+@Slf4j
+public class UserImportService {
+
+    private final UserWriteRepository userWriteRepository;
+    private final Validator validator;
+    private final UserImportParser parser;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final Map<String, UserImportJob> jobs = new ConcurrentHashMap<>();
+
+    private final int chunkSize;
+    private final int writerThreads;
+    private final int maxReportedErrors;
+    private final int retainedJobs;
+
+    private final ExecutorService coordinator;
+    private final ExecutorService writers;
+
+    public UserImportService(UserWriteRepository userWriteRepository,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             ShardRouter shardRouter,
+                             @Value("${app.user-import.chunk-size:1000}") int chunkSize,
+                             @Value("${app.user-import.writer-threads:4}") int writerThreads,
+                             @Value("${app.user-import.max-reported-errors:1000}") int maxReportedErrors,
+                             @Value("${app.user-import.retained-jobs:50}") int retainedJobs) {
+        this.userWriteRepository = userWriteRepository;
+        this.validator = validator;
+        this.parser = new UserImportParser(objectMapper);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        this.chunkSize = chunkSize;
+        this.writerThreads = writerThreads;
+        this.maxReportedErrors = maxReportedErrors;
+        this.retainedJobs = retainedJobs;
+        this.coordinator = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "user-import"));
+        this.writers = Executors.newFixedThreadPool(writerThreads, runnable -> new Thread(runnable, "user-import-writer"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        coordinator.shutdownNow();
+        writers.shutdownNow();
+    }
+
+    public UserImportJob startImport(InputStream body, UserImportParser.Format format) throws IOException {
+        Path spool = Files.createTempFile("user-import-", "." + format.name().toLowerCase());
+        try {
+            Files.copy(body, spool, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(spool);
+            throw e;
+        }
+
+        UserImportJob job = new UserImportJob(UUID.randomUUID().toString(), format, maxReportedErrors);
+        jobs.put(job.getId(), job);
+        trimFinishedJobs();
+        log.info("User import {} accepted ({}, {} bytes)", job.getId(), format, Files.size(spool));
+        coordinator.execute(() -> run(job, spool));
+        return job;
+    }
+
+    public Optional<UserImportJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    private void run(UserImportJob job, Path spool) {
+        // Bounds the parsed-but-unwritten rows held in memory
+        Semaphore inFlight = new Semaphore(writerThreads * 2);
+        List<Future<?>> pending = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(spool, StandardCharsets.UTF_8)) {
+            List<UserImportParser.Row> chunk = new ArrayList<>(chunkSize);
+            parser.parse(reader, job.getFormat(), row -> {
+                job.rowRead();
+                String error = row.error() != null ? row.error() : validate(row);
+                if (error != null) {
+                    job.rejected(row.line(), error);
+                    return;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    pending.add(submit(job, List.copyOf(chunk), inFlight));
+                    chunk.clear();
+                }
+            });
+            if (!chunk.isEmpty()) {
+                pending.add(submit(job, List.copyOf(chunk), inFlight));
+            }
+            for (Future<?> future : pending) {
+                future.get();
+            }
+            job.complete();
+            log.info("User import {} completed: {}", job.getId(), job.toReport());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail("Interrupted");
+        } catch (IOException | IllegalArgumentException | ExecutionException e) {
+            log.error("User import {} failed", job.getId(), e);
+            job.fail(e.getMessage());
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+            try {
+                Files.deleteIfExists(spool);
+            } catch (IOException e) {
+                log.warn("Could not delete import spool file {}", spool);
+            }
+        }
+    }
+
+    private Future<?> submit(UserImportJob job, List<UserImportParser.Row> rows, Semaphore inFlight) {
+        inFlight.acquireUninterruptibly();
+        return writers.submit(() -> {
+            try {
+                writeChunk(job, rows);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private void writeChunk(UserImportJob job, List<UserImportParser.Row> rows) {
+        Map<Integer, List<UserImportParser.Row>> byShard = shardRouter.groupByShard(rows, UserImportParser.Row::mobileNumber);
+        for (Map.Entry<Integer, List<UserImportParser.Row>> shard : byShard.entrySet()) {
+            List<UserImportParser.Row> writable = new ArrayList<>(shard.getValue().size());
+            for (UserImportParser.Row row : shard.getValue()) {
+                if (shardRouter.isFrozen(row.mobileNumber())) {
+                    job.rejected(row.line(), "Shard move in progress; re-run the file to import this row");
+                } else {
+                    writable.add(row);
+                }
+            }
+            if (!writable.isEmpty()) {
+                try (ShardRouter.Scope ignored = shardRouter.onShard(shard.getKey())) {
+                    writeShardChunk(job, writable);
+                }
+            }
+        }
+    }
+
+    private void writeShardChunk(UserImportJob job, List<UserImportParser.Row> rows) {
+        LocalDateTime now = LocalDateTime.now();
+        List<NewUser> users = rows.stream()
+                .map(row -> new NewUser(row.mobileNumber(), row.firstName(), row.lastName(), row.email(), now))
+                .toList();
+        try {
+            int[] counts = transactionTemplate.execute(status -> userWriteRepository.mergeBatch(users));
+            long inserted = 0;
+            for (int count : counts) {
+                // ojdbc reports real per-row counts for batched MERGE; 0 means the number was already registered
+                if (count != 0) {
+                    inserted++;
+                }
+            }
+            job.inserted(inserted);
+            job.alreadyRegistered(counts.length - inserted);
+        } catch (DataAccessException e) {
+            // A concurrent registration or a bad row failed the batch; settle the chunk row by row
+            log.debug("Batch of {} failed ({}); retrying row by row", rows.size(), e.getMessage());
+            writeRowByRow(job, rows, users);
+        }
+    }
+
+    private void writeRowByRow(UserImportJob job, List<UserImportParser.Row> rows, List<NewUser> users) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Iterator<UserImportParser.Row> rowIterator = rows.iterator();
+            for (NewUser user : users) {
+                UserImportParser.Row row = rowIterator.next();
+                try {
+                    if (userWriteRepository.insertIfAbsent(user).isPresent()) {
+                        job.inserted(1);
+                    } else {
+                        job.alreadyRegistered(1);
+                    }
+                } catch (DataAccessException e) {
+                    job.rejected(row.line(), e.getMostSpecificCause().getMessage());
+                }
+            }
+        });
+    }
+
+    private String validate(UserImportParser.Row row) {
+        Set<ConstraintViolation<User>> violations = validator.validate(
+                new User(row.mobileNumber(), row.firstName(), row.lastName(), row.email()));
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void trimFinishedJobs() {
+        if (jobs.size() <= retainedJobs) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(UserImportJob::isFinished)
+                .sorted((a, b) -> a.getStartedAt().compareTo(b.getStartedAt()))
+                .limit(jobs.size() - retainedJobs)
+                .map(UserImportJob::getId)
+                .toList()
+                .forEach(jobs::remove);
+    }
+}
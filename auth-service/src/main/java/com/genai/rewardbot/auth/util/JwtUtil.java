@@ -1,27 +1,43 @@
 package com.genai.rewardbot.auth.util;
 
+import com.genai.rewardbot.common.security.TokenVerifier;
+import com.genai.rewardbot.common.security.VerifiedToken;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
+@RequiredArgsConstructor
+@Slf4j
 public class JwtUtil {
 
-    @Value("${jwt.secret:genai-reward-bot-secret-key-for-jwt-token-generation-and-validation}")
-    private String secret;
+    private final SigningKeys signingKeys;
+    private final TokenVerifier tokenVerifier;
 
     @Value("${jwt.expiration:86400000}") // 24 hours
     private Long expiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @PostConstruct
+    void init() {
+        // auth-service trusts exactly the keys it publishes
+        tokenVerifier.updateKeys(signingKeys.getVerificationKeys());
+    }
+
+    /**
+     * Verifies a token locally; hot tokens are a cache lookup rather than a signature check.
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        return tokenVerifier.verify(token);
     }
 
     public String extractMobileNumber(String token) {
@@ -33,22 +49,10 @@ public class JwtUtil {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = tokenVerifier.parseClaims(token);
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
     public String generateToken(String mobileNumber) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("type", "auth");
@@ -64,30 +68,27 @@ public class JwtUtil {
 
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
+                .header().keyId(signingKeys.getActiveKid()).and()
                 .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .signWith(signingKeys.getActivePrivateKey(), Jwts.SIG.RS256)
                 .compact();
     }
 
     public Boolean validateToken(String token, String mobileNumber) {
-        final String extractedMobileNumber = extractMobileNumber(token);
-        return (extractedMobileNumber.equals(mobileNumber) && !isTokenExpired(token));
+        return verify(token)
+                .map(verified -> verified.mobileNumber().equals(mobileNumber))
+                .orElse(false);
     }
 
     public Boolean validateToken(String token) {
-        try {
-            return !isTokenExpired(token);
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
-        }
+        return verify(token).isPresent();
     }
 
     public Long extractUserId(String token) {
-        Claims claims = extractAllClaims(token);
-        Object userId = claims.get("userId");
-        return userId != null ? Long.valueOf(userId.toString()) : null;
+        return verify(token).map(VerifiedToken::userId).orElse(null);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,113 @@
+package com.genai.rewardbot.auth.util;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * RSA key pairs used to sign tokens. Keys live in a directory as {@code <kid>.pub} (X.509 PEM)
+ * with an optional {@code <kid>.key} (PKCS#8 PEM); only the active kid needs its private half.
+ * To rotate, add the new pair, switch {@code jwt.signing.active-kid}, and delete the old pair
+ * once the last token it signed has expired.
+ */
+@Component
+@Slf4j
+public class SigningKeys {
+
+    private static final String PUBLIC_KEY_SUFFIX = ".pub";
+    private static final String PRIVATE_KEY_SUFFIX = ".key";
+
+    @Value("${jwt.signing.key-directory:}")
+    private String keyDirectory;
+
+    @Value("${jwt.signing.active-kid:}")
+    private String activeKid;
+
+    private PrivateKey activePrivateKey;
+    private Map<String, RSAPublicKey> publicKeys;
+
+    @PostConstruct
+    void load() throws IOException, GeneralSecurityException {
+        if (keyDirectory == null || keyDirectory.isBlank()) {
+            generateEphemeralKey();
+            return;
+        }
+
+        Path directory = Path.of(keyDirectory);
+        Map<String, RSAPublicKey> keys = new LinkedHashMap<>();
+        KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + PUBLIC_KEY_SUFFIX)) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                String kid = fileName.substring(0, fileName.length() - PUBLIC_KEY_SUFFIX.length());
+                keys.put(kid, (RSAPublicKey) keyFactory.generatePublic(new X509EncodedKeySpec(readPem(file))));
+            }
+        }
+
+        if (activeKid == null || !keys.containsKey(activeKid)) {
+            throw new IllegalStateException("jwt.signing.active-kid '" + activeKid
+                    + "' has no public key in " + directory);
+        }
+        Path privateKeyFile = directory.resolve(activeKid + PRIVATE_KEY_SUFFIX);
+        this.activePrivateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(readPem(privateKeyFile)));
+        this.publicKeys = Map.copyOf(keys);
+        log.info("Loaded signing keys {} from {}, signing with {}", keys.keySet(), directory, activeKid);
+    }
+
+    private void generateEphemeralKey() throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        this.activeKid = "dev-" + Long.toHexString(System.currentTimeMillis());
+        this.activePrivateKey = keyPair.getPrivate();
+        this.publicKeys = Map.of(activeKid, (RSAPublicKey) keyPair.getPublic());
+        log.warn("jwt.signing.key-directory not set; signing with ephemeral key {}. "
+                + "Tokens will not survive a restart or be accepted by other auth-service instances", activeKid);
+    }
+
+    private static byte[] readPem(Path file) throws IOException {
+        String pem = Files.readString(file, StandardCharsets.US_ASCII);
+        StringBuilder base64 = new StringBuilder(pem.length());
+        for (String line : pem.split("\\R")) {
+            if (!line.startsWith("-----")) {
+                base64.append(line.trim());
+            }
+        }
+        return Base64.getDecoder().decode(base64.toString());
+    }
+
+    public String getActiveKid() {
+        return activeKid;
+    }
+
+    public PrivateKey getActivePrivateKey() {
+        return activePrivateKey;
+    }
+
+    public Map<String, RSAPublicKey> getPublicKeys() {
+        return publicKeys;
+    }
+
+    public Map<String, PublicKey> getVerificationKeys() {
+        return Map.copyOf(publicKeys);
+    }
+}
@@ -0,0 +1,169 @@
+package com.genai.rewardbot.auth.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Line-at-a-time reader for onboarding files. CSV needs a header naming the columns
+ * ({@code mobileNumber,firstName,lastName,email}; snake_case also accepted) and one record per
+ * line; NDJSON is one object per line with the same field names. A line that cannot be parsed
+ * becomes a row carrying an error rather than stopping the import.
+ */
+public class UserImportParser {
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private static final String[] FIELDS = {"mobilenumber", "firstname", "lastname", "email"};
+
+    private final ObjectReader jsonReader;
+
+    public UserImportParser(ObjectMapper objectMapper) {
+        this.jsonReader = objectMapper.readerFor(JsonNode.class);
+    }
+
+    public void parse(BufferedReader reader, Format format, Consumer<Row> sink) throws IOException {
+        if (format == Format.CSV) {
+            parseCsv(reader, sink);
+        } else {
+            parseNdjson(reader, sink);
+        }
+    }
+
+    private void parseCsv(BufferedReader reader, Consumer<Row> sink) throws IOException {
+        String header = reader.readLine();
+        if (header == null) {
+            return;
+        }
+        int[] columns = mapHeader(splitCsvLine(stripBom(header)));
+        if (columns[0] < 0) {
+            throw new IllegalArgumentException("CSV header has no mobileNumber column");
+        }
+
+        long lineNumber = 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                List<String> values = splitCsvLine(line);
+                sink.accept(new Row(lineNumber, column(values, columns[0]), column(values, columns[1]),
+                        column(values, columns[2]), column(values, columns[3]), null));
+            } catch (IllegalArgumentException e) {
+                sink.accept(Row.invalid(lineNumber, e.getMessage()));
+            }
+        }
+    }
+
+    private void parseNdjson(BufferedReader reader, Consumer<Row> sink) throws IOException {
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                JsonNode node = jsonReader.readValue(lineNumber == 1 ? stripBom(line) : line);
+                if (!node.isObject()) {
+                    sink.accept(Row.invalid(lineNumber, "Expected a JSON object"));
+                    continue;
+                }
+                sink.accept(new Row(lineNumber, text(node, "mobileNumber", "mobile_number"),
+                        text(node, "firstName", "first_name"), text(node, "lastName", "last_name"),
+                        text(node, "email", "email"), null));
+            } catch (JsonProcessingException e) {
+                sink.accept(Row.invalid(lineNumber, "Malformed JSON: " + e.getOriginalMessage()));
+            }
+        }
+    }
+
+    private static int[] mapHeader(List<String> names) {
+        int[] columns = {-1, -1, -1, -1};
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT);
+            for (int f = 0; f < FIELDS.length; f++) {
+                if (FIELDS[f].equals(name)) {
+                    columns[f] = i;
+                }
+            }
+        }
+        return columns;
+    }
+
+    private static String column(List<String> values, int index) {
+        if (index < 0 || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String text(JsonNode node, String name, String alternateName) {
+        JsonNode value = node.hasNonNull(name) ? node.get(name) : node.get(alternateName);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        String text = value.asText().trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    private static String stripBom(String line) {
+        return !line.isEmpty() && line.charAt(0) == '\uFEFF' ? line.substring(1) : line;
+    }
+
+    // RFC 4180 fields within one line: quoted fields may contain commas and doubled quotes
+    static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        values.add(field.toString());
+        return values;
+    }
+
+    public record Row(long line, String mobileNumber, String firstName, String lastName, String email,
+                      String error) {
+
+        static Row invalid(long line, String error) {
+            return new Row(line, null, null, null, null, error);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.genai.rewardbot.auth.config;
+
+import com.genai.rewardbot.auth.controller.AuthController;
+import com.genai.rewardbot.auth.service.AuthService;
+import com.genai.rewardbot.auth.service.TokenRevocationService;
+import com.genai.rewardbot.auth.util.SigningKeys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = AuthController.class)
+@ContextConfiguration(classes = {AuthController.class, SecurityConfig.class})
+class SecurityConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AuthService authService;
+
+    @MockBean
+    private SigningKeys signingKeys;
+
+    @MockBean
+    private TokenRevocationService tokenRevocationService;
+
+    @Test
+    void keysArePublic() throws Exception {
+        when(signingKeys.getPublicKeys()).thenReturn(Map.of());
+
+        mockMvc.perform(get("/api/auth/keys")).andExpect(status().isOk());
+    }
+
+    @Test
+    void revocationsArePublic() throws Exception {
+        when(tokenRevocationService.filterSnapshot()).thenReturn(new byte[0]);
+
+        mockMvc.perform(get("/api/auth/revocations/filter")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/auth/revocations/some-token-id")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void loginNeedsNoCsrfToken() throws Exception {
+        when(authService.authenticateUser(anyString()))
+                .thenReturn(new AuthService.AuthenticationResponse(false, "User not found", null, null, null));
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"mobileNumber\":\"9876543210\"}"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void userLookupNeedsCredentials() throws Exception {
+        mockMvc.perform(get("/api/auth/user/9876543210")).andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,125 @@
+package com.genai.rewardbot.auth.service;
+
+import com.genai.rewardbot.auth.repository.RevokedTokenRepository;
+import com.genai.rewardbot.common.security.TokenRevocations;
+import com.genai.rewardbot.common.security.TokenVerifier;
+import com.genai.rewardbot.common.util.BloomFilter;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationServiceTest {
+
+    private static final String KID = "test-key";
+    private static final String TOKEN_ID = "token-1";
+
+    private final TokenRevocations tokenRevocations = new TokenRevocations(100, Duration.ofMinutes(1));
+    private final RevokedTokenRepository revokedTokenRepository = mock(RevokedTokenRepository.class);
+    private TokenVerifier tokenVerifier;
+    private TokenRevocationService service;
+    private String token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        tokenVerifier = new TokenVerifier(100, Duration.ofMinutes(10));
+        tokenVerifier.updateKeys(Map.of(KID, keyPair.getPublic()));
+        tokenVerifier.setRevocationCheck(tokenRevocations::isRevoked);
+        tokenRevocations.replaceFilter(BloomFilter.create(1000, 0.001));
+
+        service = new TokenRevocationService(revokedTokenRepository, tokenRevocations, tokenVerifier,
+                mock(PlatformTransactionManager.class), 0.001, 1000);
+        token = Jwts.builder()
+                .header().keyId(KID).and()
+                .id(TOKEN_ID)
+                .subject("9876543210")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(keyPair.getPrivate(), Jwts.SIG.RS256)
+                .compact();
+        // Cached as valid, as it would be after earlier requests
+        assertThat(tokenVerifier.verify(token)).isPresent();
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void revocationTakesEffectOnCommit() {
+        assertThat(service.revoke(token, "logout")).isTrue();
+
+        assertThat(tokenRevocations.isRevoked(TOKEN_ID)).isFalse();
+        assertThat(tokenVerifier.verify(token)).isPresent();
+
+        complete(true);
+
+        assertThat(tokenRevocations.isRevoked(TOKEN_ID)).isTrue();
+        assertThat(tokenRevocations.currentFilter().orElseThrow().mightContain(TOKEN_ID)).isTrue();
+        assertThat(tokenVerifier.verify(token)).isEmpty();
+    }
+
+    @Test
+    void rolledBackRevocationLeavesTheTokenValid() {
+        assertThat(service.revoke(token, "logout")).isTrue();
+
+        complete(false);
+
+        assertThat(tokenRevocations.isRevoked(TOKEN_ID)).isFalse();
+        assertThat(tokenRevocations.currentFilter().orElseThrow().mightContain(TOKEN_ID)).isFalse();
+        assertThat(tokenVerifier.verify(token)).isPresent();
+    }
+
+    @Test
+    void revocationCommittedDuringARebuildIsInTheNewFilter() {
+        // The revocation commits after the rebuild has read the list and before it swaps
+        when(revokedTokenRepository.streamLiveTokenIds(any())).thenAnswer(invocation -> {
+            assertThat(service.revoke(token, "logout")).isTrue();
+            complete(true);
+            return Stream.empty();
+        });
+        // Once the filter covers it, a check goes to the persisted row
+        tokenRevocations.setExactLookup(revokedTokenRepository::existsById);
+        when(revokedTokenRepository.existsById(TOKEN_ID)).thenReturn(true);
+
+        service.rebuildFilter();
+
+        assertThat(tokenRevocations.currentFilter().orElseThrow().mightContain(TOKEN_ID)).isTrue();
+        assertThat(tokenVerifier.verify(token)).isEmpty();
+    }
+
+    private static void complete(boolean committed) {
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (committed) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(committed
+                    ? TransactionSynchronization.STATUS_COMMITTED
+                    : TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+    }
+}
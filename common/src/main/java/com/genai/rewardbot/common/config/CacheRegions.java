@@ -0,0 +1,20 @@
+package com.genai.rewardbot.common.config;
+
+/**
+ * Hibernate second-level cache region names.
+ * Sizing and TTLs for each region live in {@code hibernate-cache.conf}.
+ */
+public final class CacheRegions {
+
+    public static final String USERS = "users";
+    public static final String USER_CARDS = "users.cards";
+    public static final String CARDS = "cards";
+    public static final String USER_DATA_VERSIONS = "user-data-versions";
+
+    public static final String USER_QUERIES = "query.users";
+    public static final String CARD_QUERIES = "query.cards";
+    public static final String REWARD_TOTAL_QUERIES = "query.reward-totals";
+
+    private CacheRegions() {
+    }
+}
@@ -0,0 +1,93 @@
+package com.genai.rewardbot.common.config;
+
+import com.genai.rewardbot.common.dto.CardDto;
+import com.genai.rewardbot.common.dto.GenAiQueryDto;
+import com.genai.rewardbot.common.dto.RewardAnalyticsDto;
+import com.genai.rewardbot.common.dto.RewardPointDto;
+import com.genai.rewardbot.common.dto.RewardSummaryDto;
+import com.genai.rewardbot.common.dto.UserResponseDto;
+import com.genai.rewardbot.common.entity.Card;
+import com.genai.rewardbot.common.entity.OutboxEvent;
+import com.genai.rewardbot.common.entity.RevokedToken;
+import com.genai.rewardbot.common.entity.RewardPoint;
+import com.genai.rewardbot.common.entity.RewardRollup;
+import com.genai.rewardbot.common.entity.User;
+import com.genai.rewardbot.common.entity.UserDataVersion;
+import com.genai.rewardbot.common.outbox.ChangeEvent;
+import com.genai.rewardbot.common.valuation.MoneyConverter;
+import com.genai.rewardbot.common.valuation.MoneyJson;
+import com.genai.rewardbot.common.valuation.PointValueConverter;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.stream.Stream;
+
+/**
+ * Reflection and resource hints for what the services load from this module at runtime,
+ * applied by every service's AOT/native build through {@code META-INF/spring/aot.factories}.
+ * Spring's own AOT processing covers beans, repositories and controller signatures; this adds
+ * what it cannot infer: DTOs inside {@code Map} responses, Hibernate's access to entities and
+ * converters, the JCache configuration and jjwt's implementation classes, which jjwt-api
+ * instantiates by name.
+ */
+public class CommonRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final Class<?>[] ENTITIES = {
+            User.class, Card.class, RewardPoint.class, RevokedToken.class, OutboxEvent.class,
+            UserDataVersion.class, RewardRollup.class, RewardRollup.Key.class,
+            MoneyConverter.class, PointValueConverter.class
+    };
+
+    private static final Class<?>[] JSON_TYPES = {
+            CardDto.class, RewardPointDto.class, RewardSummaryDto.class, RewardAnalyticsDto.class,
+            GenAiQueryDto.class, UserResponseDto.class, ChangeEvent.class
+    };
+
+    private static final Class<?>[] JSON_CODECS = {
+            MoneyJson.MoneySerializer.class, MoneyJson.MoneyDeserializer.class,
+            MoneyJson.PointValueSerializer.class, MoneyJson.PointValueDeserializer.class
+    };
+
+    private static final String[] JJWT_IMPLEMENTATIONS = {
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardCurves",
+            "io.jsonwebtoken.impl.security.DefaultDynamicJwkBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetParserBuilder",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.resources().registerPattern("hibernate-cache.conf");
+        hints.resources().registerPattern("db/migration/oracle/*.sql");
+
+        for (Class<?> type : ENTITIES) {
+            hints.reflection().registerType(type, MemberCategory.values());
+        }
+
+        BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+        bindings.registerReflectionHints(hints.reflection(), JSON_TYPES);
+        for (Class<?> codec : JSON_CODECS) {
+            hints.reflection().registerType(codec, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        }
+
+        Stream.of(JJWT_IMPLEMENTATIONS).map(TypeReference::of).forEach(type -> hints.reflection().registerType(type,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS));
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.io.*");
+    }
+}
@@ -1,14 +1,40 @@
 package com.genai.rewardbot.common.config;
 
-import org.springframework.boot.autoconfigure.domain.EntityScan;
+import com.genai.rewardbot.common.datasource.ReplicaLagGuard;
+import com.genai.rewardbot.common.sharding.ShardRouter;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Each application enables its own repositories and entity scan; declaring them here as well
+// registers every repository twice, which fails startup
 @Configuration
-@EnableJpaRepositories(basePackages = "com.genai.rewardbot.**.repository")
-@EntityScan(basePackages = "com.genai.rewardbot.common.entity")
 @EnableTransactionManagement
 public class DatabaseConfig {
-    // Configuration will be handled through application properties
-} 
\ No newline at end of file
+
+    // Inert unless a replica is configured (see ReadWriteRoutingConfig)
+    @Bean
+    public ReplicaLagGuard replicaLagGuard(PlatformTransactionManager transactionManager,
+                                           EntityManagerFactory entityManagerFactory,
+                                           @Value("${app.datasource.replica.url:}") String replicaUrl,
+                                           @Value("${app.datasource.replica.max-lag:PT5S}") Duration maxLag,
+                                           @Value("${app.datasource.replica.max-tracked-keys:100000}") long maxTrackedKeys) {
+        return new ReplicaLagGuard(!replicaUrl.isBlank(), maxLag, maxTrackedKeys, transactionManager,
+                SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory));
+    }
+
+    // One shard, every route a no-op, unless sharding is on (see ShardingConfig)
+    @Bean
+    @ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "false", matchIfMissing = true)
+    public ShardRouter shardRouter(DataSource dataSource) {
+        return ShardRouter.single(dataSource);
+    }
+}
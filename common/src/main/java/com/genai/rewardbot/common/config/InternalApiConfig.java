@@ -0,0 +1,40 @@
+package com.genai.rewardbot.common.config;
+
+import com.genai.rewardbot.common.security.InternalApiKey;
+import com.genai.rewardbot.common.security.InternalApiKeyFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Guards the servlet paths in {@code app.internal-api.paths} (e.g. {@code /internal/*}) with
+ * {@code app.internal-api.key}. Without a key every request to them is refused.
+ */
+@Configuration
+@ConditionalOnProperty("app.internal-api.paths")
+@Slf4j
+public class InternalApiConfig {
+
+    // Ahead of token verification, which leaves these paths to this filter
+    public static final int INTERNAL_API_FILTER_ORDER = TokenVerificationConfig.TOKEN_FILTER_ORDER - 1;
+
+    @Bean
+    public FilterRegistrationBean<InternalApiKeyFilter> internalApiKeyFilter(
+            @Value("${app.internal-api.key:}") String key,
+            @Value("${app.internal-api.paths}") List<String> paths) {
+        InternalApiKey internalApiKey = new InternalApiKey(key);
+        if (!internalApiKey.isEnabled()) {
+            log.warn("app.internal-api.key is not set; {} answer 401 until it is", paths);
+        }
+        FilterRegistrationBean<InternalApiKeyFilter> registration =
+                new FilterRegistrationBean<>(new InternalApiKeyFilter(internalApiKey));
+        registration.setUrlPatterns(paths);
+        registration.setOrder(INTERNAL_API_FILTER_ORDER);
+        return registration;
+    }
+}
@@ -0,0 +1,30 @@
+package com.genai.rewardbot.common.config;
+
+import com.genai.rewardbot.common.ratelimit.RateLimitFilter;
+import com.genai.rewardbot.common.security.TokenVerifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Per-mobile-number rate limiting, enabled with {@code app.rate-limit.enabled=true}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.rate-limit.enabled", havingValue = "true")
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    // After token verification so verified callers are keyed by their token
+    public static final int RATE_LIMIT_FILTER_ORDER = TokenVerificationConfig.TOKEN_FILTER_ORDER + 1;
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimitProperties properties,
+                                                                   TokenVerifier tokenVerifier) {
+        FilterRegistrationBean<RateLimitFilter> registration =
+                new FilterRegistrationBean<>(new RateLimitFilter(properties, tokenVerifier));
+        registration.setOrder(RATE_LIMIT_FILTER_ORDER);
+        return registration;
+    }
+}
@@ -0,0 +1,48 @@
+package com.genai.rewardbot.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-route request limits, e.g.
+ * <pre>
+ * app.rate-limit.routes[0].pattern=/api/auth/login
+ * app.rate-limit.routes[0].methods=POST
+ * app.rate-limit.routes[0].capacity=10
+ * app.rate-limit.routes[0].refill-period=PT1M
+ * </pre>
+ * allows bursts of 10 logins per mobile number, refilled at 10 per minute.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = false;
+
+    // Upper bound on tracked callers per route; idle callers are forgotten first
+    private int maxKeys = 100_000;
+
+    private Duration evictionInterval = Duration.ofSeconds(30);
+
+    // Bodies larger than this are not parsed for a mobile number; the caller is keyed by address instead
+    private int maxInspectedBodyBytes = 16 * 1024;
+
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Route {
+
+        private String pattern;
+
+        // Empty means every method
+        private List<String> methods = new ArrayList<>();
+
+        private long capacity = 60;
+
+        private Duration refillPeriod = Duration.ofMinutes(1);
+    }
+}
@@ -0,0 +1,108 @@
+package com.genai.rewardbot.common.config;
+
+import com.genai.rewardbot.common.sharding.ShardDirectory;
+import com.genai.rewardbot.common.sharding.ShardRebalancer;
+import com.genai.rewardbot.common.sharding.ShardRouter;
+import com.genai.rewardbot.common.sharding.ShardRoutingDataSource;
+import com.genai.rewardbot.common.sharding.ShardSequences;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hash-sharded user data, enabled with {@code app.sharding.enabled=true} (see
+ * {@link ShardingProperties}). Each shard gets its own pool; a shard without credentials or a
+ * driver takes those of {@code spring.datasource.*}, whose url is then unused. Migrations run on
+ * every shard, after which the id sequences are interleaved. Cannot be combined with a replica.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean
+    public ShardRouter shardRouter(ShardingProperties properties, DataSourceProperties defaults,
+                                   @Value("${app.datasource.replica.url:}") String replicaUrl) {
+        if (!replicaUrl.isBlank()) {
+            throw new IllegalStateException("app.sharding and app.datasource.replica cannot be used together");
+        }
+        if (properties.getShards().isEmpty() || properties.getShards().size() > properties.getIdStride()) {
+            throw new IllegalStateException("app.sharding.shards needs 1 to " + properties.getIdStride() + " entries");
+        }
+        List<DataSource> shards = new ArrayList<>();
+        for (int shard = 0; shard < properties.getShards().size(); shard++) {
+            ShardingProperties.Shard config = properties.getShards().get(shard);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("shard-" + shard);
+            pool.setJdbcUrl(config.getUrl());
+            pool.setUsername(config.getUsername() != null ? config.getUsername() : defaults.getUsername());
+            pool.setPassword(config.getPassword() != null ? config.getPassword() : defaults.getPassword());
+            // Left unset, Hikari picks the driver from the url
+            pool.setDriverClassName(config.getDriverClassName() != null
+                    ? config.getDriverClassName() : defaults.getDriverClassName());
+            pool.setMaximumPoolSize(config.getMaximumPoolSize());
+            shards.add(pool);
+        }
+        ShardDirectory directory = new ShardDirectory(shards.get(ShardRouter.CATALOG_SHARD),
+                properties.getBuckets(), shards.size(), properties.getDirectoryRefresh());
+        return ShardRouter.sharded(shards, directory, properties.getBuckets());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRouter shardRouter) {
+        ShardRoutingDataSource routing = new ShardRoutingDataSource(shardRouter.directory());
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            targets.put(shard, shardRouter.dataSource(shard));
+        }
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(shardRouter.dataSource(ShardRouter.CATALOG_SHARD));
+        routing.afterPropertiesSet();
+        // Defers the physical connection until the route and the read-only flag are known
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public ShardRebalancer shardRebalancer(ShardRouter shardRouter, ShardingProperties properties) {
+        return new ShardRebalancer(shardRouter, properties.getDirectoryRefresh());
+    }
+
+    // Found by component scanning on its own, so it does not inherit the enclosing condition
+    @Configuration
+    @ConditionalOnClass(Flyway.class)
+    @ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+    static class ShardMigrationConfig {
+
+        // Boot migrates the primary DataSource only, which would be whichever shard has no route
+        @Bean
+        public FlywayMigrationStrategy shardedFlywayMigrationStrategy(ShardRouter shardRouter,
+                                                                      ShardingProperties properties) {
+            return flyway -> {
+                for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                    Flyway.configure()
+                            .configuration(flyway.getConfiguration())
+                            .dataSource(shardRouter.dataSource(shard))
+                            .load()
+                            .migrate();
+                }
+                ShardSequences.align(shardRouter, properties.getIdStride());
+            };
+        }
+    }
+}
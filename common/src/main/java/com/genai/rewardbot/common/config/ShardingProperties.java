@@ -0,0 +1,52 @@
+package com.genai.rewardbot.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hash-sharded user data, e.g.
+ * <pre>
+ * app.sharding.enabled=true
+ * app.sharding.shards[0].url=jdbc:oracle:thin:@localhost:1521/XEPDB1
+ * app.sharding.shards[1].url=jdbc:oracle:thin:@localhost:1522/XEPDB1
+ * </pre>
+ * Every service must list the same shards in the same order: a shard's position is its id.
+ * Shard 0 is the catalog, holding the bucket directory and tables not owned by a user.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.sharding")
+public class ShardingProperties {
+
+    private boolean enabled = false;
+
+    // Mobile numbers hash into this many buckets; buckets, not users, are assigned to shards and moved.
+    // Fixed for the life of the data
+    private int buckets = 1024;
+
+    // Shard s issues ids congruent to s modulo the stride, so it is also the most shards there can be.
+    // Fixed for the life of the data
+    private int idStride = 64;
+
+    // How stale an instance's copy of the bucket directory may be; moves wait twice this between steps
+    private Duration directoryRefresh = Duration.ofSeconds(10);
+
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    public static class Shard {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private String driverClassName;
+
+        private int maximumPoolSize = 10;
+    }
+}
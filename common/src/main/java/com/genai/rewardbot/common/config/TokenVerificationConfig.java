@@ -0,0 +1,73 @@
+package com.genai.rewardbot.common.config;
+
+import com.genai.rewardbot.common.security.JwksKeySetRefresher;
+import com.genai.rewardbot.common.security.RevocationListRefresher;
+import com.genai.rewardbot.common.security.TokenAuthenticationFilter;
+import com.genai.rewardbot.common.security.TokenRevocations;
+import com.genai.rewardbot.common.security.TokenVerifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Local token verification. Every service gets a {@link TokenVerifier}; services that set
+ * {@code auth.jwks-uri} also poll auth-service's key set and authenticate requests with it,
+ * and those that set {@code auth.revocations-uri} poll its revocation filter.
+ */
+@Configuration
+public class TokenVerificationConfig {
+
+    // Ahead of everything that wants to know who the caller is
+    public static final int TOKEN_FILTER_ORDER = Ordered.HIGHEST_PRECEDENCE + 10;
+
+    @Bean
+    public TokenRevocations tokenRevocations(@Value("${auth.revocation.confirmed-cache.max-size:10000}") long cacheMaxSize,
+                                             @Value("${auth.revocation.confirmed-cache.ttl:PT10M}") Duration cacheTtl) {
+        return new TokenRevocations(cacheMaxSize, cacheTtl);
+    }
+
+    @Bean
+    public TokenVerifier tokenVerifier(TokenRevocations tokenRevocations,
+                                       @Value("${auth.token.cache.max-size:100000}") long cacheMaxSize,
+                                       @Value("${auth.token.cache.ttl:PT10M}") Duration cacheTtl) {
+        TokenVerifier verifier = new TokenVerifier(cacheMaxSize, cacheTtl);
+        verifier.setRevocationCheck(tokenRevocations::isRevoked);
+        return verifier;
+    }
+
+    @Bean
+    @ConditionalOnProperty("auth.jwks-uri")
+    public JwksKeySetRefresher jwksKeySetRefresher(TokenVerifier tokenVerifier,
+                                                   @Value("${auth.jwks-uri}") URI jwksUri,
+                                                   @Value("${auth.jwks-refresh-interval:PT5M}") Duration refreshInterval,
+                                                   @Value("${auth.jwks-min-refresh-interval:PT30S}") Duration minRefreshInterval) {
+        return new JwksKeySetRefresher(tokenVerifier, jwksUri, refreshInterval, minRefreshInterval);
+    }
+
+    @Bean
+    @ConditionalOnProperty("auth.revocations-uri")
+    public RevocationListRefresher revocationListRefresher(TokenRevocations tokenRevocations,
+                                                           @Value("${auth.revocations-uri}") URI revocationsUri,
+                                                           @Value("${auth.revocations-refresh-interval:PT30S}") Duration refreshInterval) {
+        return new RevocationListRefresher(tokenRevocations, revocationsUri, refreshInterval);
+    }
+
+    @Bean
+    @ConditionalOnProperty("auth.jwks-uri")
+    public FilterRegistrationBean<TokenAuthenticationFilter> tokenAuthenticationFilter(
+            TokenVerifier tokenVerifier,
+            @Value("${auth.token.enforce:true}") boolean enforce,
+            @Value("${auth.token.public-paths:}") List<String> publicPaths) {
+        FilterRegistrationBean<TokenAuthenticationFilter> registration =
+                new FilterRegistrationBean<>(new TokenAuthenticationFilter(tokenVerifier, enforce, publicPaths));
+        registration.setOrder(TOKEN_FILTER_ORDER);
+        return registration;
+    }
+}
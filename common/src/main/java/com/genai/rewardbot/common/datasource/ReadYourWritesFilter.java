@@ -0,0 +1,35 @@
+package com.genai.rewardbot.common.datasource;
+
+import com.genai.rewardbot.common.security.TokenAuthenticationFilter;
+import com.genai.rewardbot.common.security.VerifiedToken;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Pins a whole request to the primary when the authenticated caller's data was written within
+ * the replica lag window, so every read-only transaction the request opens sees the write.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final ReplicaLagGuard replicaLagGuard;
+
+    public ReadYourWritesFilter(ReplicaLagGuard replicaLagGuard) {
+        this.replicaLagGuard = replicaLagGuard;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String mobileNumber = TokenAuthenticationFilter.currentToken(request)
+                .map(VerifiedToken::mobileNumber)
+                .orElse(null);
+        try (ReplicaLagGuard.Scope ignored = replicaLagGuard.pinIfRecentlyWritten(mobileNumber)) {
+            chain.doFilter(request, response);
+        }
+    }
+}
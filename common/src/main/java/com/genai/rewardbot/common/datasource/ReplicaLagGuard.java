@@ -0,0 +1,117 @@
+package com.genai.rewardbot.common.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Keeps read-after-write flows off a lagging replica. Writers record the key they touched
+ * (a mobile number) and, for {@code maxLag} after commit, reads for that key are pinned to the
+ * primary. Lookups that miss on the replica can also be retried once on the primary, which
+ * covers writes made by another instance or service.
+ *
+ * <p>Pinning decides the route of the connection a transaction has not opened yet, so open the
+ * scope before the transaction's first statement.
+ */
+public class ReplicaLagGuard {
+
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final Cache<Object, Boolean> recentWrites;
+    private final TransactionTemplate primaryReadTemplate;
+    private final EntityManager entityManager;
+
+    public ReplicaLagGuard(boolean enabled, Duration maxLag, long maxTrackedKeys,
+                           PlatformTransactionManager transactionManager, EntityManager entityManager) {
+        this.enabled = enabled;
+        this.recentWrites = Caffeine.newBuilder()
+                .expireAfterWrite(maxLag)
+                .maximumSize(maxTrackedKeys)
+                .build();
+        this.primaryReadTemplate = new TransactionTemplate(transactionManager);
+        this.primaryReadTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.primaryReadTemplate.setReadOnly(true);
+        this.entityManager = entityManager;
+    }
+
+    public static boolean isPrimaryPinned() {
+        return Boolean.TRUE.equals(PRIMARY_PINNED.get());
+    }
+
+    /**
+     * Starts the lag window for {@code key} once the current transaction commits.
+     */
+    public void recordWrite(Object key) {
+        if (!enabled || key == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentWrites.put(key, Boolean.TRUE);
+                }
+            });
+        } else {
+            recentWrites.put(key, Boolean.TRUE);
+        }
+    }
+
+    public Scope pinIfRecentlyWritten(Object key) {
+        if (!enabled || key == null || recentWrites.getIfPresent(key) == null) {
+            return Scope.NONE;
+        }
+        return pinPrimary();
+    }
+
+    public Scope pinPrimary() {
+        Boolean previous = PRIMARY_PINNED.get();
+        PRIMARY_PINNED.set(Boolean.TRUE);
+        return () -> {
+            if (previous == null) {
+                PRIMARY_PINNED.remove();
+            } else {
+                PRIMARY_PINNED.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Runs {@code finder}; if it comes back empty from the replica, runs it again in a fresh
+     * read-only transaction on the primary. The retry bypasses the query cache and refreshes it,
+     * so a miss cached from the replica does not outlive the lag.
+     */
+    public <T> Optional<T> findWithPrimaryFallback(Supplier<Optional<T>> finder) {
+        Optional<T> found = finder.get();
+        if (found.isPresent() || !enabled || isPrimaryPinned()) {
+            return found;
+        }
+        try (Scope ignored = pinPrimary()) {
+            return primaryReadTemplate.execute(status -> {
+                entityManager.unwrap(Session.class).setCacheMode(CacheMode.REFRESH);
+                return finder.get();
+            });
+        }
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        Scope NONE = () -> { };
+
+        @Override
+        void close();
+    }
+}
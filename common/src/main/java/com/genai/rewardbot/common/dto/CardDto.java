@@ -1,6 +1,9 @@
 package com.genai.rewardbot.common.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.genai.rewardbot.common.valuation.MoneyJson;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -20,7 +23,9 @@ public class CardDto {
     private String cardType;
     private String vendorName;
     private String vendorCode;
-    private BigDecimal cardBalance;
+    @JsonSerialize(using = MoneyJson.MoneySerializer.class)
+    @JsonDeserialize(using = MoneyJson.MoneyDeserializer.class)
+    private Long cardBalance; // Minor units
     private String currency;
     private Boolean isActive;
     
@@ -34,7 +39,7 @@ public class CardDto {
     private List<RewardPointDto> rewardPoints;
     
     public CardDto(Long id, String cardNumber, String cardType, String vendorName, 
-                   String vendorCode, BigDecimal cardBalance, String currency) {
+                   String vendorCode, Long cardBalance, String currency) {
         this.id = id;
         this.cardNumber = cardNumber;
         this.maskedCardNumber = maskCardNumber(cardNumber);
@@ -45,6 +50,16 @@ public class CardDto {
         this.currency = currency;
     }
     
+    // Constructor projection used by repository queries; reward totals are filled in separately
+    public CardDto(Long id, String cardNumber, String cardType, String vendorName, String vendorCode,
+                   Long cardBalance, String currency, Boolean isActive, LocalDateTime expiryDate,
+                   BigDecimal cashbackRate) {
+        this(id, cardNumber, cardType, vendorName, vendorCode, cardBalance, currency);
+        this.isActive = isActive;
+        this.expiryDate = expiryDate;
+        this.cashbackRate = cashbackRate;
+    }
+    
     private String maskCardNumber(String cardNumber) {
         if (cardNumber == null || cardNumber.length() < 4) {
             return "****";
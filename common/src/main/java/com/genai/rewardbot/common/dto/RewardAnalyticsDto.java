@@ -0,0 +1,33 @@
+package com.genai.rewardbot.common.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RewardAnalyticsDto {
+    
+    private Long totalEarned;
+    private Long totalRedeemed;
+    private Long thisMonthEarned;
+    private Long thisMonthRedeemed;
+    private Long transactions; // Lots earned over the account's lifetime
+    
+    private List<MonthlyPoints> monthly; // Oldest first, one entry per month including empty ones
+    private Map<String, Long> earnedBySource; // PURCHASE, CASHBACK, BONUS, ... -> lifetime points
+    private Map<String, Long> earnedByVendor; // Vendor code -> lifetime points
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MonthlyPoints {
+        private String month; // yyyy-MM
+        private Long earned;
+        private Long redeemed;
+    }
+}
@@ -1,6 +1,10 @@
 package com.genai.rewardbot.common.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.genai.rewardbot.common.valuation.MoneyJson;
+import com.genai.rewardbot.common.valuation.PointValue;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -28,12 +32,17 @@ public class RewardPointDto {
     private String transactionId;
     private Boolean isExpired;
     private Boolean isExpiringSoon; // Within 30 days
-    private Double pointValue;
-    private Double totalValue; // pointsAvailable * pointValue
+    @JsonSerialize(using = MoneyJson.PointValueSerializer.class)
+    @JsonDeserialize(using = MoneyJson.PointValueDeserializer.class)
+    private Long pointValue; // 1/10,000 currency units per point
+    
+    @JsonSerialize(using = MoneyJson.MoneySerializer.class)
+    @JsonDeserialize(using = MoneyJson.MoneyDeserializer.class)
+    private Long totalValue; // pointsAvailable * pointValue, in minor units
     
     public RewardPointDto(Long id, Integer pointsEarned, Integer pointsUsed, Integer pointsAvailable,
                          LocalDateTime earningDate, LocalDateTime expiryDate, String source, 
-                         String description, Double pointValue) {
+                         String description, Long pointValue) {
         this.id = id;
         this.pointsEarned = pointsEarned;
         this.pointsUsed = pointsUsed;
@@ -43,7 +52,7 @@ public class RewardPointDto {
         this.source = source;
         this.description = description;
         this.pointValue = pointValue;
-        this.totalValue = pointsAvailable * (pointValue != null ? pointValue : 0.0);
+        this.totalValue = PointValue.valueOf(pointsAvailable, pointValue != null ? pointValue : 0L);
         
         // Calculate if expired or expiring soon
         if (expiryDate != null) {
@@ -55,4 +64,12 @@ public class RewardPointDto {
             this.isExpiringSoon = false;
         }
     }
+    
+    // Constructor projection used by repository queries
+    public RewardPointDto(Long id, Integer pointsEarned, Integer pointsUsed, Integer pointsAvailable,
+                         LocalDateTime earningDate, LocalDateTime expiryDate, String source,
+                         String description, String transactionId, Long pointValue) {
+        this(id, pointsEarned, pointsUsed, pointsAvailable, earningDate, expiryDate, source, description, pointValue);
+        this.transactionId = transactionId;
+    }
 } 
\ No newline at end of file
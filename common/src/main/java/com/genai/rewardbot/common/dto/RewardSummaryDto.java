@@ -1,6 +1,9 @@
 package com.genai.rewardbot.common.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.genai.rewardbot.common.valuation.MoneyJson;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -22,17 +25,23 @@ public class RewardSummaryDto {
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime nextExpiryDate;
     
-    private Double totalPointsValue; // Total monetary value of available points
+    @JsonSerialize(using = MoneyJson.MoneySerializer.class)
+    @JsonDeserialize(using = MoneyJson.MoneyDeserializer.class)
+    private Long totalPointsValue; // Total monetary value of available points, in minor units
     private Integer numberOfActiveCards;
     private Map<String, Integer> pointsByVendor; // Vendor name -> total points
-    private Map<String, Double> valueByVendor; // Vendor name -> total value
+    @JsonSerialize(contentUsing = MoneyJson.MoneySerializer.class)
+    @JsonDeserialize(contentUsing = MoneyJson.MoneyDeserializer.class)
+    private Map<String, Long> valueByVendor; // Vendor name -> total value, in minor units
     
     // Top redemption suggestions
     private String topRedemptionSuggestion;
-    private Double estimatedCashbackValue;
+    @JsonSerialize(using = MoneyJson.MoneySerializer.class)
+    @JsonDeserialize(using = MoneyJson.MoneyDeserializer.class)
+    private Long estimatedCashbackValue; // Minor units
     
     public RewardSummaryDto(Integer totalPointsAvailable, Integer pointsExpiringSoon, 
-                           Double totalPointsValue, Integer numberOfActiveCards) {
+                           Long totalPointsValue, Integer numberOfActiveCards) {
         this.totalPointsAvailable = totalPointsAvailable;
         this.pointsExpiringSoon = pointsExpiringSoon;
         this.totalPointsValue = totalPointsValue;
@@ -36,4 +36,13 @@ public class UserResponseDto {
         this.lastName = lastName;
         this.email = email;
     }
+    
+    // Constructor projection used by repository queries
+    public UserResponseDto(Long id, String mobileNumber, String firstName, String lastName, String email,
+                           Boolean isActive, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, mobileNumber, firstName, lastName, email);
+        this.isActive = isActive;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
 } 
\ No newline at end of file
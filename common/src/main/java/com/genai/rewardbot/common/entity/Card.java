@@ -1,11 +1,18 @@
 package com.genai.rewardbot.common.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.genai.rewardbot.common.config.CacheRegions;
+import com.genai.rewardbot.common.valuation.MoneyConverter;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.PositiveOrZero;
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -14,12 +21,22 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "cards")
-@Data
+@Table(name = "cards", indexes = {
+    @Index(name = "idx_cards_user_active", columnList = "user_id, is_active"),
+    @Index(name = "idx_cards_vendor", columnList = "vendor_code")
+})
+@NamedEntityGraph(name = Card.GRAPH_REWARD_POINTS, attributeNodes = @NamedAttributeNode("rewardPoints"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.CARDS)
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
 @AllArgsConstructor
 public class Card {
     
+    public static final String GRAPH_REWARD_POINTS = "Card.rewardPoints";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "card_seq")
     @SequenceGenerator(name = "card_seq", sequenceName = "card_sequence", allocationSize = 1)
@@ -40,8 +57,9 @@ public class Card {
     private String vendorCode; // Short code for vendor like "HDFC", "AMZN", "FLIP"
     
     @Column(name = "card_balance", precision = 15, scale = 2)
+    @Convert(converter = MoneyConverter.class)
     @PositiveOrZero(message = "Card balance must be positive or zero")
-    private BigDecimal cardBalance = BigDecimal.ZERO;
+    private Long cardBalance = 0L; // Minor units (paise), see Money
     
     @Column(name = "currency", length = 3)
     private String currency = "INR";
@@ -65,13 +83,17 @@ public class Card {
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    @JsonIgnore
     private User user;
     
     @OneToMany(mappedBy = "card", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @JsonIgnore
     private List<RewardPoint> rewardPoints;
     
     public Card(String cardNumber, String cardType, String vendorName, String vendorCode, 
-                BigDecimal cardBalance, User user) {
+                Long cardBalance, User user) {
         this.cardNumber = cardNumber;
         this.cardType = cardType;
         this.vendorName = vendorName;
@@ -0,0 +1,60 @@
+package com.genai.rewardbot.common.entity;
+
+import com.genai.rewardbot.common.outbox.ChangeEventType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change written in the same transaction as the mutation it describes. The relay gives
+ * each row its feed position ({@code publishedSeq}) when it publishes it; unpublished rows
+ * have none.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+    @Index(name = "idx_outbox_events_published", columnList = "published_seq, id")
+})
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_seq")
+    @SequenceGenerator(name = "outbox_seq", sequenceName = "outbox_sequence", allocationSize = 1)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30)
+    private ChangeEventType eventType;
+
+    @Column(name = "mobile_number", nullable = false, length = 15)
+    private String mobileNumber;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "card_id")
+    private Long cardId;
+
+    @Column(name = "points_delta")
+    private Integer pointsDelta;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "published_seq")
+    private Long publishedSeq;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+}
@@ -1,18 +1,32 @@
 package com.genai.rewardbot.common.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.genai.rewardbot.common.valuation.PointValueConverter;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.PositiveOrZero;
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reward_points")
-@Data
+@Table(name = "reward_points", indexes = {
+    @Index(name = "idx_reward_points_card_expiry", columnList = "card_id, is_expired, expiry_date"),
+    @Index(name = "idx_reward_points_card_available", columnList = "card_id, points_available"),
+    @Index(name = "idx_reward_points_card_earning", columnList = "card_id, earning_date, id"),
+    @Index(name = "idx_reward_points_earning_date", columnList = "earning_date"),
+    @Index(name = "idx_reward_points_unswept", columnList = "is_expired, expiry_key"),
+    @Index(name = "ux_reward_points_card_txn", columnList = "card_id, transaction_id", unique = true)
+})
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
 @AllArgsConstructor
 public class RewardPoint {
@@ -40,20 +54,28 @@ public class RewardPoint {
     @Column(name = "expiry_date")
     private LocalDateTime expiryDate;
     
+    // Partition key, computed by the database: expiryDate, or 9999-01-01 for points that never expire.
+    // Filter on it rather than expiryDate so queries prune partitions; not populated on new instances.
+    @Column(name = "expiry_key", insertable = false, updatable = false,
+            columnDefinition = "TIMESTAMP GENERATED ALWAYS AS (NVL(expiry_date, TIMESTAMP '9999-01-01 00:00:00'))")
+    @Setter(AccessLevel.NONE)
+    private LocalDateTime expiryKey;
+    
     @Column(name = "source", length = 100)
     private String source; // Transaction source: PURCHASE, CASHBACK, BONUS, etc.
     
     @Column(name = "description", length = 255)
     private String description; // Description of how points were earned
     
-    @Column(name = "transaction_id", length = 50)
-    private String transactionId; // Reference to original transaction
+    @Column(name = "transaction_id", length = 50, nullable = false)
+    private String transactionId; // Reference to original transaction, unique per card
     
     @Column(name = "is_expired")
     private Boolean isExpired = false;
     
-    @Column(name = "point_value", precision = 10, scale = 2)
-    private Double pointValue; // Value of each point in currency
+    @Column(name = "point_value", precision = 10, scale = 4)
+    @Convert(converter = PointValueConverter.class)
+    private Long pointValue; // Value of each point in 1/10,000 currency units, see PointValue
     
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
@@ -65,6 +87,8 @@ public class RewardPoint {
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "card_id", nullable = false)
+    @ToString.Exclude
+    @JsonIgnore
     private Card card;
     
     public RewardPoint(Integer pointsEarned, LocalDateTime earningDate, LocalDateTime expiryDate, 
@@ -0,0 +1,72 @@
+package com.genai.rewardbot.common.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+
+import java.io.Serializable;
+import java.time.YearMonth;
+
+/**
+ * Points earned and redeemed per user, month, source and vendor. Maintained by reward-service
+ * alongside every lot write and rebuildable from {@code reward_points}; analytics endpoints
+ * read only this table, so their cost follows the number of buckets, not lots.
+ */
+@Entity
+@Table(name = "reward_rollups")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class RewardRollup {
+
+    // Stands in for a null source or vendor code so every bucket has a complete key
+    public static final String UNKNOWN = "UNKNOWN";
+
+    @EmbeddedId
+    private Key key;
+
+    @Column(name = "points_earned", nullable = false)
+    private Long pointsEarned;
+
+    @Column(name = "points_redeemed", nullable = false)
+    private Long pointsRedeemed;
+
+    @Column(name = "lots_earned", nullable = false)
+    private Integer lotsEarned;
+
+    public static int bucketMonth(YearMonth month) {
+        return month.getYear() * 100 + month.getMonthValue();
+    }
+
+    public static YearMonth yearMonth(int bucketMonth) {
+        return YearMonth.of(bucketMonth / 100, bucketMonth % 100);
+    }
+
+    @Embeddable
+    @Getter
+    @Setter
+    @ToString
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        @Column(name = "user_id", nullable = false)
+        private Long userId;
+
+        @Column(name = "bucket_month", nullable = false)
+        private Integer bucketMonth; // yyyyMM, e.g. 202410
+
+        @Column(name = "source", nullable = false, length = 100)
+        private String source;
+
+        @Column(name = "vendor_code", nullable = false, length = 10)
+        private String vendorCode;
+    }
+}
@@ -1,11 +1,18 @@
 package com.genai.rewardbot.common.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.genai.rewardbot.common.config.CacheRegions;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
-import lombok.Data;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -14,11 +21,18 @@ import java.util.List;
 
 @Entity
 @Table(name = "users")
-@Data
+@NamedEntityGraph(name = User.GRAPH_CARDS, attributeNodes = @NamedAttributeNode("cards"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.USERS)
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
     
+    public static final String GRAPH_CARDS = "User.cards";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
     @SequenceGenerator(name = "user_seq", sequenceName = "user_sequence", allocationSize = 1)
@@ -27,15 +41,19 @@ public class User {
     @Column(name = "mobile_number", unique = true, nullable = false, length = 15)
     @NotBlank(message = "Mobile number is required")
     @Pattern(regexp = "^\\+?[1-9]\\d{1,14}$", message = "Invalid mobile number format")
+    @Size(max = 15, message = "Mobile number must be at most 15 characters")
     private String mobileNumber;
     
     @Column(name = "first_name", length = 50)
+    @Size(max = 50, message = "First name must be at most 50 characters")
     private String firstName;
     
     @Column(name = "last_name", length = 50)
+    @Size(max = 50, message = "Last name must be at most 50 characters")
     private String lastName;
     
     @Column(name = "email", length = 100)
+    @Size(max = 100, message = "Email must be at most 100 characters")
     private String email;
     
     @Column(name = "is_active")
@@ -50,6 +68,9 @@ public class User {
     private LocalDateTime updatedAt;
     
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.USER_CARDS)
+    @ToString.Exclude
+    @JsonIgnore
     private List<Card> cards;
     
     public User(String mobileNumber, String firstName, String lastName, String email) {
@@ -0,0 +1,36 @@
+package com.genai.rewardbot.common.entity;
+
+import com.genai.rewardbot.common.config.CacheRegions;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+/**
+ * Counter bumped in every transaction that changes a user's cards or points. Read endpoints
+ * derive their ETags from it, so a conditional request is answered from this one row, usually
+ * straight from the second-level cache. Kept out of {@code users} so bumping it does not
+ * invalidate cached user queries.
+ */
+@Entity
+@Table(name = "user_data_versions")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.USER_DATA_VERSIONS)
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDataVersion {
+
+    @Id
+    @Column(name = "mobile_number", length = 15)
+    private String mobileNumber;
+
+    @Column(name = "data_version", nullable = false)
+    private Long dataVersion;
+}
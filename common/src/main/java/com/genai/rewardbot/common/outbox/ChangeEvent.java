@@ -0,0 +1,16 @@
+package com.genai.rewardbot.common.outbox;
+
+import java.time.Instant;
+
+/**
+ * One published change to a user's reward data, as carried by reward-service's change feed.
+ * {@code seq} is the feed position and doubles as the SSE event id.
+ */
+public record ChangeEvent(long seq,
+                          ChangeEventType type,
+                          String mobileNumber,
+                          Long userId,
+                          Long cardId,
+                          Integer pointsDelta,
+                          Instant occurredAt) {
+}
@@ -0,0 +1,9 @@
+package com.genai.rewardbot.common.outbox;
+
+public enum ChangeEventType {
+    POINTS_EARNED,
+    POINTS_REDEEMED,
+    POINTS_EXPIRED,
+    CARD_ADDED,
+    CARD_DEACTIVATED
+}
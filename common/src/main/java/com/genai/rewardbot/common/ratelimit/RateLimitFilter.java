@@ -0,0 +1,169 @@
+package com.genai.rewardbot.common.ratelimit;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.genai.rewardbot.common.config.RateLimitProperties;
+import com.genai.rewardbot.common.security.TokenAuthenticationFilter;
+import com.genai.rewardbot.common.security.TokenVerifier;
+import com.genai.rewardbot.common.security.VerifiedToken;
+import com.genai.rewardbot.common.util.FilterErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Applies the configured per-route token buckets. Callers are keyed by the mobile number of
+ * their verified token, else the {@code mobileNumber} field of a small JSON body (login,
+ * register, GenAI queries), else their address. Where no {@link TokenAuthenticationFilter} ran
+ * (auth-service), a bearer token is verified here; hot tokens are a cache lookup, which the
+ * controller's own check then hits too. Every limited response carries
+ * {@code RateLimit-Limit}, {@code RateLimit-Remaining} and {@code RateLimit-Reset}; rejected
+ * ones get 429 with {@code Retry-After}.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String MOBILE_NUMBER_FIELD = "mobileNumber";
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final TokenVerifier tokenVerifier;
+    private final List<RouteLimit> routes = new ArrayList<>();
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final int maxInspectedBodyBytes;
+    private final ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rate-limit-evictor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RateLimitFilter(RateLimitProperties properties, TokenVerifier tokenVerifier) {
+        this.tokenVerifier = tokenVerifier;
+        for (RateLimitProperties.Route route : properties.getRoutes()) {
+            Set<String> methods = route.getMethods().stream()
+                    .map(method -> method.toUpperCase(Locale.ROOT))
+                    .collect(Collectors.toUnmodifiableSet());
+            routes.add(new RouteLimit(route.getPattern(), methods,
+                    new TokenBucketLimiter(route.getCapacity(), route.getRefillPeriod(), properties.getMaxKeys())));
+            log.info("Rate limiting {} {} to {} per {}", methods.isEmpty() ? "*" : methods, route.getPattern(),
+                    route.getCapacity(), route.getRefillPeriod());
+        }
+        this.maxInspectedBodyBytes = properties.getMaxInspectedBodyBytes();
+        long interval = properties.getEvictionInterval().toMillis();
+        evictor.scheduleWithFixedDelay(this::evictIdle, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RouteLimit route = match(request);
+        if (route == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        HttpServletRequest effectiveRequest = request;
+        String key = TokenAuthenticationFilter.currentToken(request)
+                .or(() -> TokenAuthenticationFilter.bearerToken(request).flatMap(tokenVerifier::verify))
+                .map(VerifiedToken::mobileNumber)
+                .orElse(null);
+        if (key == null && isSmallJsonBody(request)) {
+            // Exactly the declared length: one right-sized array instead of readAllBytes' 8 KiB chunks
+            byte[] body = request.getInputStream().readNBytes((int) request.getContentLengthLong());
+            CachedBodyRequest cached = new CachedBodyRequest(request, body);
+            key = readMobileNumber(cached.getBody());
+            effectiveRequest = cached;
+        }
+        key = key != null ? "m:" + key : "a:" + request.getRemoteAddr();
+
+        TokenBucketLimiter.Decision decision = route.limiter().tryAcquire(key);
+        response.setHeader("RateLimit-Limit", Long.toString(decision.limit()));
+        response.setHeader("RateLimit-Remaining", Long.toString(decision.remaining()));
+        response.setHeader("RateLimit-Reset", Long.toString(ceilSeconds(decision.resetNanos())));
+
+        if (!decision.allowed()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(ceilSeconds(decision.retryAfterNanos())));
+            FilterErrorResponse.write(response, 429, "Too many requests, please try again later");
+            return;
+        }
+
+        chain.doFilter(effectiveRequest, response);
+    }
+
+    @Override
+    public void destroy() {
+        evictor.shutdownNow();
+    }
+
+    private RouteLimit match(HttpServletRequest request) {
+        if (HttpMethod.OPTIONS.matches(request.getMethod())) {
+            return null;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (RouteLimit route : routes) {
+            if ((route.methods().isEmpty() || route.methods().contains(request.getMethod()))
+                    && pathMatcher.match(route.pattern(), path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private boolean isSmallJsonBody(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        long length = request.getContentLengthLong();
+        return contentType != null && contentType.contains("json") && length > 0 && length <= maxInspectedBodyBytes;
+    }
+
+    // Streams only as far as the top-level mobileNumber field; no tree or object binding
+    private static String readMobileNumber(byte[] body) {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (MOBILE_NUMBER_FIELD.equals(field) && value == JsonToken.VALUE_STRING) {
+                    String mobileNumber = parser.getText().trim();
+                    return mobileNumber.isEmpty() ? null : mobileNumber;
+                }
+                parser.skipChildren();
+            }
+            return null;
+        } catch (IOException e) {
+            // Malformed body: the controller will reject it; limit by address meanwhile
+            return null;
+        }
+    }
+
+    private static long ceilSeconds(long nanos) {
+        return (nanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+    }
+
+    private void evictIdle() {
+        for (RouteLimit route : routes) {
+            route.limiter().evictIdle();
+        }
+    }
+
+    private record RouteLimit(String pattern, Set<String> methods, TokenBucketLimiter limiter) {
+    }
+}
@@ -0,0 +1,137 @@
+package com.genai.rewardbot.common.ratelimit;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets keyed by caller, one {@code long} per key. Each bucket is stored as its
+ * theoretical arrival time (GCRA): a request is admitted while that time is within the burst
+ * tolerance of now, and admitting it advances the time by one emission interval with a single
+ * CAS. There are no locks, and no refill bookkeeping.
+ *
+ * <p>Keys are spread over independent stripes, each with a hard cap on entries. A bucket whose
+ * arrival time has passed is full, so dropping it loses nothing; idle buckets are swept
+ * periodically and whenever a full stripe needs room.
+ */
+public class TokenBucketLimiter {
+
+    private static final int EVICTION_SAMPLE = 16;
+
+    private final long capacity;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final Map<String, AtomicLong>[] stripes;
+    private final int stripeMask;
+    private final int maxKeysPerStripe;
+    private final LongSupplier nanoClock;
+
+    public TokenBucketLimiter(long capacity, Duration refillPeriod, int maxKeys) {
+        this(capacity, refillPeriod, maxKeys, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    TokenBucketLimiter(long capacity, Duration refillPeriod, int maxKeys, LongSupplier nanoClock) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        this.capacity = capacity;
+        this.emissionIntervalNanos = Math.max(1, refillPeriod.toNanos() / capacity);
+        this.burstToleranceNanos = emissionIntervalNanos * (capacity - 1);
+        int stripeCount = Integer.highestOneBit(Math.max(1, Math.min(64, Runtime.getRuntime().availableProcessors() * 4)));
+        this.stripes = new Map[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.stripeMask = stripeCount - 1;
+        this.maxKeysPerStripe = Math.max(1, maxKeys / stripeCount);
+        this.nanoClock = nanoClock;
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public Decision tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = bucketFor(key, now);
+        while (true) {
+            long arrival = bucket.get();
+            long base = arrival - now > 0 ? arrival : now;
+            long backlog = base - now;
+            if (backlog > burstToleranceNanos) {
+                return new Decision(false, capacity, 0, backlog, backlog - burstToleranceNanos);
+            }
+            long next = base + emissionIntervalNanos;
+            if (bucket.compareAndSet(arrival, next)) {
+                long used = next - now;
+                long remaining = (burstToleranceNanos + emissionIntervalNanos - used) / emissionIntervalNanos;
+                return new Decision(true, capacity, remaining, used, 0);
+            }
+        }
+    }
+
+    /**
+     * Drops every full bucket. A request racing the sweep can at worst land on a fresh bucket
+     * and get one extra token.
+     */
+    public void evictIdle() {
+        long now = nanoClock.getAsLong();
+        for (Map<String, AtomicLong> stripe : stripes) {
+            stripe.values().removeIf(bucket -> bucket.get() - now <= 0);
+        }
+    }
+
+    public long size() {
+        long size = 0;
+        for (Map<String, AtomicLong> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private AtomicLong bucketFor(String key, long now) {
+        int hash = key.hashCode();
+        Map<String, AtomicLong> stripe = stripes[(hash ^ (hash >>> 16)) & stripeMask];
+        AtomicLong bucket = stripe.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (stripe.size() >= maxKeysPerStripe) {
+            makeRoom(stripe, now);
+        }
+        return stripe.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    private void makeRoom(Map<String, AtomicLong> stripe, long now) {
+        stripe.values().removeIf(bucket -> bucket.get() - now <= 0);
+        if (stripe.size() < maxKeysPerStripe) {
+            return;
+        }
+        // Every bucket is busy: drop the one closest to full out of a small sample
+        String victim = null;
+        long earliest = Long.MAX_VALUE;
+        Iterator<Map.Entry<String, AtomicLong>> entries = stripe.entrySet().iterator();
+        for (int i = 0; i < EVICTION_SAMPLE && entries.hasNext(); i++) {
+            Map.Entry<String, AtomicLong> entry = entries.next();
+            long backlog = entry.getValue().get() - now;
+            if (victim == null || backlog < earliest) {
+                victim = entry.getKey();
+                earliest = backlog;
+            }
+        }
+        if (victim != null) {
+            stripe.remove(victim);
+        }
+    }
+
+    /**
+     * Outcome of one acquire. {@code resetNanos} is the time until the bucket is full again and
+     * {@code retryAfterNanos} the time until the next token when denied.
+     */
+    public record Decision(boolean allowed, long limit, long remaining, long resetNanos, long retryAfterNanos) {
+    }
+}
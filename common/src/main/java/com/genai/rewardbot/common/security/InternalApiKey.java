@@ -0,0 +1,31 @@
+package com.genai.rewardbot.common.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Shared key for service-to-service endpoints that are not called on behalf of a user. With no
+ * key configured nothing matches, so those endpoints stay closed until one is set.
+ */
+public final class InternalApiKey {
+
+    public static final String HEADER = "X-Internal-Key";
+
+    private final byte[] key;
+
+    public InternalApiKey(String key) {
+        this.key = key != null ? key.getBytes(StandardCharsets.UTF_8) : new byte[0];
+    }
+
+    public boolean isEnabled() {
+        return key.length > 0;
+    }
+
+    public boolean matches(String presented) {
+        if (!isEnabled() || presented == null) {
+            return false;
+        }
+        // Constant time, so the key cannot be guessed byte by byte
+        return MessageDigest.isEqual(key, presented.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,34 @@
+package com.genai.rewardbot.common.security;
+
+import com.genai.rewardbot.common.util.FilterErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Rejects requests to the service-to-service paths it is registered on with 401 unless they
+ * present the {@link InternalApiKey} in {@link InternalApiKey#HEADER}.
+ */
+public class InternalApiKeyFilter extends OncePerRequestFilter {
+
+    private final InternalApiKey key;
+
+    public InternalApiKeyFilter(InternalApiKey key) {
+        this.key = key;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!HttpMethod.OPTIONS.matches(request.getMethod()) && !key.matches(request.getHeader(InternalApiKey.HEADER))) {
+            FilterErrorResponse.write(response, HttpServletResponse.SC_UNAUTHORIZED, "Invalid or missing internal key");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
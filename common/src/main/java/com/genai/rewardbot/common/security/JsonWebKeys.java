@@ -0,0 +1,76 @@
+package com.genai.rewardbot.common.security;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Conversion between RSA public keys and their JWK representation.
+ */
+@Slf4j
+public final class JsonWebKeys {
+
+    public static final String KEY_TYPE_RSA = "RSA";
+    public static final String USE_SIGNATURE = "sig";
+    public static final String ALGORITHM_RS256 = "RS256";
+
+    private JsonWebKeys() {
+    }
+
+    public static JsonWebKey toJwk(String kid, RSAPublicKey key) {
+        return new JsonWebKey(KEY_TYPE_RSA, kid, USE_SIGNATURE, ALGORITHM_RS256,
+                encodeUnsigned(key.getModulus()), encodeUnsigned(key.getPublicExponent()));
+    }
+
+    public static JsonWebKeySet toJwkSet(Map<String, ? extends PublicKey> keys) {
+        JsonWebKeySet set = new JsonWebKeySet();
+        keys.forEach((kid, key) -> set.getKeys().add(toJwk(kid, (RSAPublicKey) key)));
+        return set;
+    }
+
+    /**
+     * Decodes the RSA signing keys of a set. Keys of other types, or that fail to decode,
+     * are skipped so one bad entry does not take the whole set down.
+     */
+    public static Map<String, PublicKey> toPublicKeys(JsonWebKeySet set) {
+        Map<String, PublicKey> keys = new LinkedHashMap<>();
+        if (set == null || set.getKeys() == null) {
+            return keys;
+        }
+        for (JsonWebKey jwk : set.getKeys()) {
+            if (!KEY_TYPE_RSA.equals(jwk.getKty()) || jwk.getKid() == null
+                    || (jwk.getUse() != null && !USE_SIGNATURE.equals(jwk.getUse()))) {
+                continue;
+            }
+            try {
+                RSAPublicKeySpec spec = new RSAPublicKeySpec(decodeUnsigned(jwk.getN()), decodeUnsigned(jwk.getE()));
+                keys.put(jwk.getKid(), KeyFactory.getInstance(KEY_TYPE_RSA).generatePublic(spec));
+            } catch (GeneralSecurityException | IllegalArgumentException | NullPointerException e) {
+                log.warn("Skipping undecodable JWK {}: {}", jwk.getKid(), e.getMessage());
+            }
+        }
+        return keys;
+    }
+
+    private static String encodeUnsigned(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        // Drop the sign byte BigInteger adds when the top bit is set
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static BigInteger decodeUnsigned(String value) {
+        return new BigInteger(1, Base64.getUrlDecoder().decode(value));
+    }
+}
@@ -0,0 +1,102 @@
+package com.genai.rewardbot.common.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a {@link TokenVerifier} in step with auth-service's published key set. The set is polled
+ * in the background and re-fetched early when a token names a key we have not seen, throttled so
+ * forged {@code kid}s cannot turn into a request flood. Fetch failures keep the last good set, so
+ * callers stay authenticated through an auth-service outage.
+ */
+@Slf4j
+public class JwksKeySetRefresher {
+
+    private static final Duration FETCH_TIMEOUT = Duration.ofSeconds(5);
+
+    private final TokenVerifier verifier;
+    private final URI jwksUri;
+    private final Duration refreshInterval;
+    private final long minUnknownKeyRefreshNanos;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong lastFetchNanos = new AtomicLong(System.nanoTime() - Long.MAX_VALUE / 2);
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jwks-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public JwksKeySetRefresher(TokenVerifier verifier, URI jwksUri, Duration refreshInterval,
+                               Duration minUnknownKeyRefresh) {
+        this.verifier = verifier;
+        this.jwksUri = jwksUri;
+        this.refreshInterval = refreshInterval;
+        this.minUnknownKeyRefreshNanos = minUnknownKeyRefresh.toNanos();
+        this.httpClient = HttpClient.newBuilder().connectTimeout(FETCH_TIMEOUT).build();
+    }
+
+    @PostConstruct
+    public void start() {
+        verifier.setUnknownKeyListener(this::onUnknownKey);
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("Polling token keys from {} every {}", jwksUri, refreshInterval);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    public void refresh() {
+        lastFetchNanos.set(System.nanoTime());
+        HttpRequest request = HttpRequest.newBuilder(jwksUri)
+                .timeout(FETCH_TIMEOUT)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                log.warn("Key set fetch from {} returned HTTP {}; keeping {}", jwksUri, response.statusCode(),
+                        verifier.keyIds());
+                return;
+            }
+            Map<String, PublicKey> keys = JsonWebKeys.toPublicKeys(
+                    objectMapper.readValue(response.body(), JsonWebKeySet.class));
+            if (keys.isEmpty()) {
+                log.warn("Key set from {} has no usable signing keys; keeping {}", jwksUri, verifier.keyIds());
+                return;
+            }
+            verifier.updateKeys(keys);
+        } catch (IOException e) {
+            log.warn("Key set fetch from {} failed: {}; keeping {}", jwksUri, e.getMessage(), verifier.keyIds());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void onUnknownKey(String kid) {
+        long last = lastFetchNanos.get();
+        long now = System.nanoTime();
+        if (now - last >= minUnknownKeyRefreshNanos && lastFetchNanos.compareAndSet(last, now)) {
+            log.debug("Token signed with unknown key {}; refreshing key set", kid);
+            scheduler.execute(this::refresh);
+        }
+    }
+}
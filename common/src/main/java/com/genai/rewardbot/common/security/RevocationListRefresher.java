@@ -0,0 +1,104 @@
+package com.genai.rewardbot.common.security;
+
+import com.genai.rewardbot.common.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feeds {@link TokenRevocations} in services that do not own the revocation list. The Bloom
+ * filter snapshot is polled from auth-service; the rare filter hit is confirmed with a single
+ * lookup there. A failed poll keeps the previous snapshot.
+ */
+@Slf4j
+public class RevocationListRefresher {
+
+    private static final Duration FETCH_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration LOOKUP_TIMEOUT = Duration.ofSeconds(2);
+
+    private final TokenRevocations revocations;
+    private final String revocationsUri;
+    private final Duration refreshInterval;
+    private final HttpClient httpClient;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "revocation-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RevocationListRefresher(TokenRevocations revocations, URI revocationsUri, Duration refreshInterval) {
+        this.revocations = revocations;
+        this.revocationsUri = revocationsUri.toString().replaceAll("/+$", "");
+        this.refreshInterval = refreshInterval;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(FETCH_TIMEOUT).build();
+    }
+
+    @PostConstruct
+    public void start() {
+        revocations.setExactLookup(this::isRevokedRemotely);
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("Polling token revocations from {} every {}", revocationsUri, refreshInterval);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    public void refresh() {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(revocationsUri + "/filter"))
+                .timeout(FETCH_TIMEOUT)
+                .GET()
+                .build();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                log.warn("Revocation filter fetch from {} returned HTTP {}", revocationsUri, response.statusCode());
+                return;
+            }
+            BloomFilter filter = BloomFilter.readFrom(new DataInputStream(new ByteArrayInputStream(response.body())));
+            revocations.replaceFilter(filter);
+        } catch (IOException e) {
+            log.warn("Revocation filter fetch from {} failed: {}", revocationsUri, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean isRevokedRemotely(String tokenId) {
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create(revocationsUri + "/" + URLEncoder.encode(tokenId, StandardCharsets.UTF_8)))
+                .timeout(LOOKUP_TIMEOUT)
+                .GET()
+                .build();
+        try {
+            int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (status == 200) {
+                return true;
+            }
+            if (status == 404) {
+                return false;
+            }
+            throw new IllegalStateException("Revocation lookup returned HTTP " + status);
+        } catch (IOException e) {
+            throw new IllegalStateException("Revocation lookup failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Revocation lookup interrupted", e);
+        }
+    }
+}
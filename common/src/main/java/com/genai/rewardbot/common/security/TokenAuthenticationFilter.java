@@ -0,0 +1,81 @@
+package com.genai.rewardbot.common.security;
+
+import com.genai.rewardbot.common.util.FilterErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Authenticates the {@code Authorization: Bearer} token of each request locally and exposes the
+ * result as a request attribute. When enforcing, requests without a valid token are rejected
+ * with 401 unless their path is listed as public.
+ */
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String VERIFIED_TOKEN_ATTRIBUTE = TokenAuthenticationFilter.class.getName() + ".verifiedToken";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final TokenVerifier verifier;
+    private final boolean enforce;
+    private final List<String> publicPaths;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public TokenAuthenticationFilter(TokenVerifier verifier, boolean enforce, List<String> publicPaths) {
+        this.verifier = verifier;
+        this.enforce = enforce;
+        this.publicPaths = List.copyOf(publicPaths);
+    }
+
+    public static Optional<VerifiedToken> currentToken(HttpServletRequest request) {
+        return Optional.ofNullable((VerifiedToken) request.getAttribute(VERIFIED_TOKEN_ATTRIBUTE));
+    }
+
+    /**
+     * The request's bearer token as presented, not yet verified.
+     */
+    public static Optional<String> bearerToken(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            return Optional.empty();
+        }
+        return Optional.of(header.substring(BEARER_PREFIX.length()).trim());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Optional<VerifiedToken> verified = bearerToken(request).flatMap(verifier::verify);
+
+        if (verified.isPresent()) {
+            request.setAttribute(VERIFIED_TOKEN_ATTRIBUTE, verified.get());
+        } else if (enforce && !isPublic(request)) {
+            FilterErrorResponse.write(response, HttpServletResponse.SC_UNAUTHORIZED, "Invalid or missing token");
+            return;
+        }
+
+        chain.doFilter(request, response);
+    }
+
+    private boolean isPublic(HttpServletRequest request) {
+        if (HttpMethod.OPTIONS.matches(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String pattern : publicPaths) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
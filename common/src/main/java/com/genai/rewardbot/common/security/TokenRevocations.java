@@ -0,0 +1,85 @@
+package com.genai.rewardbot.common.security;
+
+import com.genai.rewardbot.common.util.BloomFilter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Revoked token ids as seen by the verify path. A Bloom filter built from the persisted
+ * revocation list answers almost every check with a few word reads; only a filter hit goes to
+ * the exact lookup, whose answers are cached. Revocations made in this process since the last
+ * rebuild are held exactly until the next filter contains them.
+ */
+public class TokenRevocations {
+
+    private volatile BloomFilter filter;
+    private final Set<String> recent = ConcurrentHashMap.newKeySet();
+    private volatile Predicate<String> exactLookup = tokenId -> false;
+    private final Cache<String, Boolean> confirmed;
+
+    public TokenRevocations(long confirmedCacheSize, Duration confirmedCacheTtl) {
+        this.confirmed = Caffeine.newBuilder()
+                .maximumSize(confirmedCacheSize)
+                .expireAfterWrite(confirmedCacheTtl)
+                .build();
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        if (recent.contains(tokenId)) {
+            return true;
+        }
+        BloomFilter current = filter;
+        if (current == null || !current.mightContain(tokenId)) {
+            return false;
+        }
+        try {
+            return confirmed.get(tokenId, id -> exactLookup.test(id));
+        } catch (RuntimeException e) {
+            // Most filter hits are real revocations, so fail closed; the failure is not cached
+            return true;
+        }
+    }
+
+    /**
+     * Records a revocation made here so it takes effect before the next rebuild. It is also
+     * added to the current filter, so snapshots served to other services carry it straight away.
+     */
+    public void markRevoked(String tokenId) {
+        recent.add(tokenId);
+        confirmed.put(tokenId, Boolean.TRUE);
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(tokenId);
+        }
+    }
+
+    /**
+     * Swaps in a freshly built filter. It was built from a read taken before the swap, so local
+     * revocations that committed in between are added to it first; a revocation racing the swap
+     * has already put itself in {@link #recent}, or finds the new filter. Once the new filter
+     * covers them they are dropped from the exact set.
+     */
+    public void replaceFilter(BloomFilter newFilter) {
+        this.filter = newFilter;
+        recent.forEach(newFilter::put);
+        recent.removeIf(newFilter::mightContain);
+        confirmed.invalidateAll();
+    }
+
+    public Optional<BloomFilter> currentFilter() {
+        return Optional.ofNullable(filter);
+    }
+
+    public void setExactLookup(Predicate<String> exactLookup) {
+        this.exactLookup = exactLookup;
+    }
+}
@@ -0,0 +1,205 @@
+package com.genai.rewardbot.common.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.MalformedJwtException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Verifies auth-service tokens locally against a set of public keys selected by the token's
+ * {@code kid} header. Several keys can be live at once, so a new signing key is rolled out by
+ * publishing it alongside the old one and retiring the old one once its tokens have expired.
+ */
+@Slf4j
+public class TokenVerifier {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    // Replaced wholesale on rotation; readers never see a half-updated set
+    private volatile Map<String, PublicKey> keys = Map.of();
+
+    private volatile Consumer<String> unknownKeyListener = kid -> { };
+
+    private volatile Predicate<String> revocationCheck = tokenId -> false;
+
+    private final JwtParser parser;
+
+    // Recently verified tokens keyed by SHA-256 of the compact token; entries never outlive the token's exp
+    private final Cache<TokenDigest, VerifiedToken> verifiedTokens;
+
+    public TokenVerifier(long cacheMaxSize, Duration cacheTtl) {
+        this.parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        String kid = header.getKeyId();
+                        PublicKey key = kid != null ? keys.get(kid) : null;
+                        if (key == null) {
+                            unknownKeyListener.accept(kid);
+                        }
+                        return key;
+                    }
+                })
+                .build();
+
+        long maxTtlNanos = cacheTtl.toNanos();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<TokenDigest, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(TokenDigest key, VerifiedToken value, long currentTime) {
+                        long untilExpiry = TimeUnit.MILLISECONDS.toNanos(
+                                value.expiresAt().toEpochMilli() - System.currentTimeMillis());
+                        return Math.max(0, Math.min(maxTtlNanos, untilExpiry));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(TokenDigest key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(TokenDigest key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        log.info("Token verifier initialised (verified-token cache: max {} entries, ttl {})", cacheMaxSize, cacheTtl);
+    }
+
+    /**
+     * Replaces the trusted key set. Cached verifications are dropped when a key is retired so
+     * tokens signed with it stop being accepted immediately.
+     */
+    public void updateKeys(Map<String, PublicKey> newKeys) {
+        Map<String, PublicKey> previous = this.keys;
+        this.keys = Map.copyOf(newKeys);
+        if (!newKeys.keySet().containsAll(previous.keySet())) {
+            verifiedTokens.invalidateAll();
+        }
+        if (!previous.keySet().equals(newKeys.keySet())) {
+            log.info("Token verification keys updated: {}", newKeys.keySet());
+        }
+    }
+
+    public Set<String> keyIds() {
+        return keys.keySet();
+    }
+
+    /**
+     * Called with the {@code kid} of any token whose key is not in the current set, so a
+     * key set source can fetch a freshly rotated key without waiting for its next poll.
+     */
+    public void setUnknownKeyListener(Consumer<String> listener) {
+        this.unknownKeyListener = listener;
+    }
+
+    /**
+     * Tokens whose id matches are rejected even though their signature and expiry are valid.
+     */
+    public void setRevocationCheck(Predicate<String> revocationCheck) {
+        this.revocationCheck = revocationCheck;
+    }
+
+    /**
+     * Parses and verifies a token once, returning its claims. Hot tokens are answered from the
+     * verified-token cache with a single SHA-256 of the token instead of a signature check.
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+
+        TokenDigest digest = TokenDigest.of(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && !cached.isExpired(Instant.now())) {
+            return revocationCheck.test(cached.tokenId()) ? Optional.empty() : Optional.of(cached);
+        }
+
+        try {
+            var jws = parser.parseSignedClaims(token);
+            VerifiedToken verified = toVerifiedToken(requireExpiration(jws.getPayload()), jws.getHeader().getKeyId());
+            if (revocationCheck.test(verified.tokenId())) {
+                return Optional.empty();
+            }
+            verifiedTokens.put(digest, verified);
+            return Optional.of(verified);
+        } catch (JwtException | IllegalArgumentException e) {
+            // Expired, malformed, badly signed and unknown-key tokens all end up here; none are cached
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Full parse without the cache, for callers that need claims beyond {@link VerifiedToken}.
+     *
+     * @throws JwtException if the token is invalid
+     */
+    public Claims parseClaims(String token) {
+        return requireExpiration(parser.parseSignedClaims(token).getPayload());
+    }
+
+    public void invalidate(String token) {
+        verifiedTokens.invalidate(TokenDigest.of(token));
+    }
+
+    // The parser only checks exp when it is present; a token without one would never expire
+    private static Claims requireExpiration(Claims claims) {
+        if (claims.getExpiration() == null) {
+            throw new MalformedJwtException("Token has no exp claim");
+        }
+        return claims;
+    }
+
+    private VerifiedToken toVerifiedToken(Claims claims, String keyId) {
+        Object userId = claims.get("userId");
+        return new VerifiedToken(
+                claims.getSubject(),
+                userId != null ? Long.valueOf(userId.toString()) : null,
+                claims.get("type", String.class),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration().toInstant(),
+                keyId,
+                claims.getId());
+    }
+
+    /**
+     * SHA-256 of a compact token held as four longs, giving a cheap equals/hashCode for cache keys.
+     */
+    private record TokenDigest(long a, long b, long c, long d) {
+
+        static TokenDigest of(String token) {
+            MessageDigest sha256 = SHA_256.get();
+            ByteBuffer digest = ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+            return new TokenDigest(digest.getLong(), digest.getLong(), digest.getLong(), digest.getLong());
+        }
+    }
+}
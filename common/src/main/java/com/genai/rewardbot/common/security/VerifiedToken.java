@@ -0,0 +1,15 @@
+package com.genai.rewardbot.common.security;
+
+import java.time.Instant;
+
+/**
+ * Claims of a token whose signature and expiry have been checked. Immutable, so instances
+ * can be shared through the verified-token cache.
+ */
+public record VerifiedToken(String mobileNumber, Long userId, String type, Instant issuedAt, Instant expiresAt,
+                            String keyId, String tokenId) {
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
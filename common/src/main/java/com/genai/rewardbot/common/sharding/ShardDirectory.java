@@ -0,0 +1,177 @@
+package com.genai.rewardbot.common.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The bucket to shard map, kept in {@code shard_buckets} on the catalog shard. Every instance
+ * routes from a local copy refreshed every {@code refreshInterval}, so a change takes up to that
+ * long to reach all of them; {@link ShardRebalancer} waits it out between the steps of a move.
+ */
+@Slf4j
+public class ShardDirectory {
+
+    private static final String SELECT_SQL =
+            "SELECT bucket, shard_id, target_shard, frozen FROM shard_buckets ORDER BY bucket";
+
+    private static final String INSERT_SQL = """
+            INSERT INTO shard_buckets (bucket, shard_id, frozen)
+            SELECT ?, ?, 0 FROM dual
+            WHERE NOT EXISTS (SELECT 1 FROM shard_buckets WHERE bucket = ?)
+            """;
+
+    private final JdbcTemplate catalog;
+    private final int buckets;
+    private final int shardCount;
+    private final Duration refreshInterval;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "shard-directory-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Bucket[] snapshot;
+
+    public ShardDirectory(DataSource catalog, int buckets, int shardCount, Duration refreshInterval) {
+        this.catalog = new JdbcTemplate(catalog);
+        this.buckets = buckets;
+        this.shardCount = shardCount;
+        this.refreshInterval = refreshInterval;
+    }
+
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, refreshInterval.toMillis(),
+                refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    public Bucket bucket(int bucket) {
+        Bucket[] current = snapshot;
+        if (current == null) {
+            current = load();
+        }
+        return current[bucket];
+    }
+
+    public List<Bucket> buckets() {
+        Bucket[] current = snapshot;
+        return List.of(current == null ? load() : current);
+    }
+
+    /**
+     * Reads the directory, first giving any bucket without a row its initial shard
+     * ({@code bucket mod shards}). Concurrent starts insert the same rows, so either wins.
+     */
+    public synchronized Bucket[] load() {
+        if (snapshot == null) {
+            int existing = catalog.queryForObject("SELECT COUNT(*) FROM shard_buckets", Integer.class);
+            if (existing < buckets) {
+                for (int bucket = 0; bucket < buckets; bucket++) {
+                    catalog.update(INSERT_SQL, bucket, bucket % shardCount, bucket);
+                }
+                log.info("Initialised {} shard buckets over {} shards", buckets - existing, shardCount);
+            }
+        }
+        return refresh();
+    }
+
+    public Bucket[] refresh() {
+        Bucket[] loaded = new Bucket[buckets];
+        catalog.query(SELECT_SQL, (RowCallbackHandler) rs -> {
+            int bucket = rs.getInt(1);
+            if (bucket < buckets) {
+                // wasNull() answers for the last column read, so target_shard is read last
+                int shard = rs.getInt(2);
+                int target = rs.getInt(3);
+                Integer targetShard = rs.wasNull() ? null : target;
+                loaded[bucket] = new Bucket(bucket, shard, targetShard, rs.getBoolean(4));
+            }
+        });
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            if (loaded[bucket] == null) {
+                throw new IllegalStateException("shard_buckets has no row for bucket " + bucket);
+            }
+            if (loaded[bucket].shard() >= shardCount) {
+                throw new IllegalStateException("Bucket " + bucket + " is on shard " + loaded[bucket].shard()
+                        + " but only " + shardCount + " shards are configured");
+            }
+        }
+        snapshot = loaded;
+        return loaded;
+    }
+
+    private void refreshQuietly() {
+        try {
+            if (snapshot == null) {
+                load();
+            } else {
+                refresh();
+            }
+        } catch (RuntimeException e) {
+            // Keep routing on the previous copy
+            log.warn("Shard directory refresh failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Marks {@code bucket} as moving to {@code targetShard}; false if it is already moving.
+     */
+    public boolean beginMove(int bucket, int targetShard) {
+        return update("UPDATE shard_buckets SET target_shard = ?, updated_at = CURRENT_TIMESTAMP"
+                + " WHERE bucket = ? AND target_shard IS NULL AND shard_id <> ?", targetShard, bucket, targetShard);
+    }
+
+    public boolean freeze(int bucket) {
+        return update("UPDATE shard_buckets SET frozen = 1, updated_at = CURRENT_TIMESTAMP"
+                + " WHERE bucket = ? AND target_shard IS NOT NULL", bucket);
+    }
+
+    public boolean completeMove(int bucket) {
+        return update("UPDATE shard_buckets SET shard_id = target_shard, target_shard = NULL, frozen = 0,"
+                + " updated_at = CURRENT_TIMESTAMP WHERE bucket = ? AND target_shard IS NOT NULL", bucket);
+    }
+
+    public boolean abortMove(int bucket) {
+        return update("UPDATE shard_buckets SET target_shard = NULL, frozen = 0, updated_at = CURRENT_TIMESTAMP"
+                + " WHERE bucket = ?", bucket);
+    }
+
+    public int[] bucketCounts() {
+        int[] counts = new int[shardCount];
+        for (Bucket bucket : buckets()) {
+            counts[bucket.shard()]++;
+        }
+        return counts;
+    }
+
+    public List<Bucket> moving() {
+        List<Bucket> moving = new ArrayList<>();
+        for (Bucket bucket : buckets()) {
+            if (bucket.targetShard() != null) {
+                moving.add(bucket);
+            }
+        }
+        return moving;
+    }
+
+    private boolean update(String sql, Object... args) {
+        boolean updated = catalog.update(sql, args) == 1;
+        refresh();
+        return updated;
+    }
+
+    public record Bucket(int bucket, int shard, Integer targetShard, boolean frozen) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.genai.rewardbot.common.sharding;
+
+import org.springframework.dao.TransientDataAccessResourceException;
+
+/**
+ * A write for a user whose bucket is in the final step of a move. Transient: the bucket is
+ * writable again, on its new shard, once the move completes.
+ */
+public class ShardFrozenException extends TransientDataAccessResourceException {
+
+    public ShardFrozenException(int bucket) {
+        super("Shard bucket " + bucket + " is being moved; retry shortly");
+    }
+}
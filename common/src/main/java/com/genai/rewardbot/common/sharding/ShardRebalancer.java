@@ -0,0 +1,353 @@
+package com.genai.rewardbot.common.sharding;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Moves buckets between shards while the services keep running. A move copies the bucket's
+ * users and everything they own to the target shard in chunks, then freezes the bucket (reads
+ * continue, writes fail with {@link ShardFrozenException}), copies whatever changed meanwhile,
+ * switches the directory and finally deletes the rows from the source. Each directory change is
+ * followed by a pause of twice the refresh interval so every instance has seen it.
+ *
+ * <p>Outbox events are not copied: the source's relay still publishes those written before the
+ * freeze, and later ones are written on the target.
+ *
+ * <p>A bucket is a CRC32 of the mobile number, which SQL cannot compute and no column stores, so
+ * finding a bucket's users reads the id and mobile number of every user on the shard. A move does
+ * that twice on the source, once per copy pass; the purge reuses the second pass's users, as the
+ * frozen bucket gains none. An aborted move reads the target once more to remove its partial copy.
+ */
+@Slf4j
+public class ShardRebalancer {
+
+    private static final int CHUNK_USERS = 200;
+
+    // In foreign key order; expiry_key is a virtual column and is never copied
+    private static final List<Table> TABLES = List.of(
+            new Table("users", List.of("id"),
+                    List.of("mobile_number", "first_name", "last_name", "email", "is_active", "created_at", "updated_at"),
+                    "id IN (%s)"),
+            new Table("cards", List.of("id"),
+                    List.of("card_number", "card_type", "vendor_name", "vendor_code", "card_balance", "currency",
+                            "is_active", "expiry_date", "cashback_rate", "created_at", "updated_at", "user_id"),
+                    "user_id IN (%s)"),
+            new Table("reward_points", List.of("id"),
+                    List.of("points_earned", "points_used", "points_available", "earning_date", "expiry_date", "source",
+                            "description", "transaction_id", "is_expired", "point_value", "created_at", "updated_at",
+                            "card_id"),
+                    "card_id IN (SELECT c.id FROM cards c WHERE c.user_id IN (%s))"),
+            new Table("user_data_versions", List.of("mobile_number"),
+                    List.of("data_version"),
+                    "mobile_number IN (SELECT u.mobile_number FROM users u WHERE u.id IN (%s))"),
+            new Table("reward_rollups", List.of("user_id", "bucket_month", "source", "vendor_code"),
+                    List.of("points_earned", "points_redeemed", "lots_earned"),
+                    "user_id IN (%s)"),
+            new Table("expiry_digests", List.of("user_id"),
+                    List.of("mobile_number", "points_7d", "points_30d", "lots_30d", "next_expiry", "digest_date",
+                            "computed_at"),
+                    "user_id IN (%s)"));
+
+    private final ShardRouter router;
+    private final ShardDirectory directory;
+    private final Duration settle;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "shard-rebalancer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Status status = Status.idle();
+
+    public ShardRebalancer(ShardRouter router, Duration directoryRefresh) {
+        this.router = router;
+        this.directory = router.directory();
+        this.settle = directoryRefresh.multipliedBy(2);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public Status status() {
+        return status;
+    }
+
+    /**
+     * Moves that leave every shard within one bucket of an even share, taking buckets from the
+     * fullest shards first.
+     */
+    public List<Move> plan() {
+        int[] counts = directory.bucketCounts();
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        int[] goal = new int[counts.length];
+        for (int shard = 0; shard < counts.length; shard++) {
+            goal[shard] = total / counts.length + (shard < total % counts.length ? 1 : 0);
+        }
+        List<Move> moves = new ArrayList<>();
+        int to = 0;
+        for (ShardDirectory.Bucket bucket : directory.buckets()) {
+            int from = bucket.shard();
+            if (counts[from] <= goal[from] || bucket.targetShard() != null) {
+                continue;
+            }
+            while (to < counts.length && counts[to] >= goal[to]) {
+                to++;
+            }
+            if (to == counts.length) {
+                break;
+            }
+            moves.add(new Move(bucket.bucket(), from, to));
+            counts[from]--;
+            counts[to]++;
+        }
+        return moves;
+    }
+
+    /**
+     * Runs {@code moves} one bucket at a time in the background; false if moves are already running.
+     */
+    public synchronized boolean start(List<Move> moves) {
+        if (status.running()) {
+            return false;
+        }
+        status = new Status(true, moves.size(), 0, null, Instant.now(), null, null);
+        executor.execute(() -> run(moves));
+        return true;
+    }
+
+    private void run(List<Move> moves) {
+        int done = 0;
+        try {
+            for (Move move : moves) {
+                status = new Status(true, moves.size(), done, move, status.startedAt(), null, null);
+                moveBucket(move.bucket(), move.to());
+                done++;
+            }
+            status = new Status(false, moves.size(), done, null, status.startedAt(), Instant.now(), null);
+        } catch (RuntimeException e) {
+            log.error("Shard rebalance stopped after {} of {} moves", done, moves.size(), e);
+            status = new Status(false, moves.size(), done, status.current(), status.startedAt(), Instant.now(),
+                    e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = new Status(false, moves.size(), done, status.current(), status.startedAt(), Instant.now(),
+                    "interrupted");
+        }
+    }
+
+    private void moveBucket(int bucket, int to) throws InterruptedException {
+        int from = directory.bucket(bucket).shard();
+        if (!directory.beginMove(bucket, to)) {
+            throw new IllegalStateException("Bucket " + bucket + " is already moving or on shard " + to);
+        }
+        boolean switched = false;
+        try {
+            long started = System.nanoTime();
+            copy(bucketUserIds(bucket, from), from, to);
+            directory.freeze(bucket);
+            Thread.sleep(settle.toMillis());
+            long frozenAt = System.nanoTime();
+            List<Long> userIds = bucketUserIds(bucket, from);
+            copy(userIds, from, to);
+            if (!directory.completeMove(bucket)) {
+                throw new IllegalStateException("Bucket " + bucket + " move was aborted");
+            }
+            switched = true;
+            log.info("Moved bucket {} ({} users) from shard {} to {} in {} ms, writes frozen for {} ms",
+                    bucket, userIds.size(), from, to, (System.nanoTime() - started) / 1_000_000,
+                    (System.nanoTime() - frozenAt) / 1_000_000 + settle.toMillis());
+            Thread.sleep(settle.toMillis());
+            purge(userIds, from);
+        } finally {
+            if (!switched) {
+                directory.abortMove(bucket);
+                // The partial copy would otherwise be counted by scatter-gather queries
+                purge(bucketUserIds(bucket, to), to);
+            }
+        }
+    }
+
+    /**
+     * Makes the target's rows for {@code userIds} equal to the source's, one chunk of users per
+     * target transaction. Unchanged rows are not written, so the second pass only carries the
+     * changes made during the first.
+     */
+    private void copy(List<Long> userIds, int from, int to) {
+        JdbcTemplate source = new JdbcTemplate(router.dataSource(from));
+        JdbcTemplate target = new JdbcTemplate(router.dataSource(to));
+        TransactionTemplate targetTransaction =
+                new TransactionTemplate(new DataSourceTransactionManager(router.dataSource(to)));
+        for (List<Long> chunk : chunks(userIds)) {
+            targetTransaction.executeWithoutResult(transaction -> {
+                List<Map<List<Object>, List<Object>>> stale = new ArrayList<>();
+                for (Table table : TABLES) {
+                    Map<List<Object>, List<Object>> wanted = table.read(source, chunk);
+                    Map<List<Object>, List<Object>> present = table.read(target, chunk);
+                    table.upsert(target, wanted, present);
+                    present.keySet().removeAll(wanted.keySet());
+                    stale.add(present);
+                }
+                for (int i = TABLES.size() - 1; i >= 0; i--) {
+                    TABLES.get(i).delete(target, stale.get(i).keySet());
+                }
+            });
+        }
+    }
+
+    private void purge(List<Long> userIds, int from) {
+        JdbcTemplate source = new JdbcTemplate(router.dataSource(from));
+        TransactionTemplate sourceTransaction =
+                new TransactionTemplate(new DataSourceTransactionManager(router.dataSource(from)));
+        for (List<Long> chunk : chunks(userIds)) {
+            sourceTransaction.executeWithoutResult(transaction -> {
+                for (int i = TABLES.size() - 1; i >= 0; i--) {
+                    TABLES.get(i).deleteOwned(source, chunk);
+                }
+            });
+        }
+    }
+
+    private List<Long> bucketUserIds(int bucket, int shard) {
+        List<Long> userIds = new ArrayList<>();
+        new JdbcTemplate(router.dataSource(shard)).query("SELECT id, mobile_number FROM users ORDER BY id",
+                (RowCallbackHandler) rs -> {
+                    if (router.bucketOf(rs.getString(2)) == bucket) {
+                        userIds.add(rs.getLong(1));
+                    }
+                });
+        return userIds;
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += CHUNK_USERS) {
+            chunks.add(ids.subList(i, Math.min(ids.size(), i + CHUNK_USERS)));
+        }
+        return chunks;
+    }
+
+    private record Table(String name, List<String> keyColumns, List<String> valueColumns, String ownedBy) {
+
+        private String where(int users) {
+            return ownedBy.formatted(String.join(",", Collections.nCopies(users, "?")));
+        }
+
+        private String columns() {
+            List<String> all = new ArrayList<>(keyColumns);
+            all.addAll(valueColumns);
+            return String.join(", ", all);
+        }
+
+        private Map<List<Object>, List<Object>> read(JdbcTemplate jdbc, List<Long> userIds) {
+            Map<List<Object>, List<Object>> rows = new LinkedHashMap<>();
+            jdbc.query("SELECT " + columns() + " FROM " + name + " WHERE " + where(userIds.size()),
+                    (RowCallbackHandler) rs -> {
+                        List<Object> row = values(rs);
+                        rows.put(row.subList(0, keyColumns.size()), row.subList(keyColumns.size(), row.size()));
+                    }, userIds.toArray());
+            return rows;
+        }
+
+        private void upsert(JdbcTemplate jdbc, Map<List<Object>, List<Object>> wanted,
+                            Map<List<Object>, List<Object>> present) {
+            List<Object[]> inserts = new ArrayList<>();
+            List<Object[]> updates = new ArrayList<>();
+            for (Map.Entry<List<Object>, List<Object>> row : wanted.entrySet()) {
+                List<Object> existing = present.get(row.getKey());
+                if (existing == null) {
+                    List<Object> args = new ArrayList<>(row.getKey());
+                    args.addAll(row.getValue());
+                    inserts.add(args.toArray());
+                } else if (!existing.equals(row.getValue())) {
+                    List<Object> args = new ArrayList<>(row.getValue());
+                    args.addAll(row.getKey());
+                    updates.add(args.toArray());
+                }
+            }
+            if (!inserts.isEmpty()) {
+                jdbc.batchUpdate("INSERT INTO " + name + " (" + columns() + ") VALUES ("
+                        + String.join(", ", Collections.nCopies(keyColumns.size() + valueColumns.size(), "?")) + ")",
+                        inserts);
+            }
+            if (!updates.isEmpty()) {
+                jdbc.batchUpdate("UPDATE " + name + " SET "
+                        + valueColumns.stream().map(column -> column + " = ?").collect(Collectors.joining(", "))
+                        + " WHERE " + keyMatch(), updates);
+            }
+        }
+
+        private void delete(JdbcTemplate jdbc, Iterable<List<Object>> keys) {
+            List<Object[]> deletes = new ArrayList<>();
+            keys.forEach(key -> deletes.add(key.toArray()));
+            if (!deletes.isEmpty()) {
+                jdbc.batchUpdate("DELETE FROM " + name + " WHERE " + keyMatch(), deletes);
+            }
+        }
+
+        private void deleteOwned(JdbcTemplate jdbc, List<Long> userIds) {
+            jdbc.update("DELETE FROM " + name + " WHERE " + where(userIds.size()), userIds.toArray());
+        }
+
+        private String keyMatch() {
+            return keyColumns.stream().map(column -> column + " = ?").collect(Collectors.joining(" AND "));
+        }
+
+        // Timestamps through getTimestamp so both sides compare as java.sql.Timestamp whatever the driver's default
+        private static List<Object> values(ResultSet rs) throws SQLException {
+            ResultSetMetaData meta = rs.getMetaData();
+            List<Object> values = new ArrayList<>(meta.getColumnCount());
+            for (int column = 1; column <= meta.getColumnCount(); column++) {
+                values.add(meta.getColumnType(column) == Types.TIMESTAMP ? rs.getTimestamp(column) : rs.getObject(column));
+            }
+            return values;
+        }
+    }
+
+    public record Move(int bucket, int from, int to) {
+    }
+
+    public record Status(boolean running, int moves, int completed, Move current, Instant startedAt,
+                         Instant finishedAt, String error) {
+
+        static Status idle() {
+            return new Status(false, 0, 0, null, null, null, null);
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("running", running);
+            map.put("moves", moves);
+            map.put("completed", completed);
+            map.put("current", current);
+            map.put("startedAt", startedAt);
+            map.put("finishedAt", finishedAt);
+            map.put("error", error);
+            return map;
+        }
+    }
+}
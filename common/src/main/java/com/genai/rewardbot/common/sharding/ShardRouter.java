@@ -0,0 +1,263 @@
+package com.genai.rewardbot.common.sharding;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.zip.CRC32;
+
+/**
+ * Decides which shard the current thread's next transaction runs on. A user's rows (users,
+ * cards, reward lots, rollups, data version and outbox events) all live on the shard that owns
+ * the bucket their mobile number hashes to; everything else lives on the catalog shard, which is
+ * also where statements go when no route is set.
+ *
+ * <p>Like {@link com.genai.rewardbot.common.datasource.ReplicaLagGuard}, a route picks the
+ * connection a transaction has not opened yet, so open the scope before the first statement.
+ * With sharding disabled there is one shard and every scope is a no-op.
+ *
+ * <p>A sharded router owns the shard pools and the directory's refresh, and closes them on shutdown.
+ */
+@Slf4j
+public class ShardRouter {
+
+    public static final int CATALOG_SHARD = 0;
+
+    private static final ThreadLocal<Route> ROUTE = new ThreadLocal<>();
+
+    private final List<DataSource> shards;
+    private final ShardDirectory directory;
+    private final int buckets;
+    private final ExecutorService scatterPool;
+
+    private ShardRouter(List<DataSource> shards, ShardDirectory directory, int buckets) {
+        this.shards = List.copyOf(shards);
+        this.directory = directory;
+        this.buckets = buckets;
+        if (directory == null) {
+            this.scatterPool = null;
+        } else {
+            AtomicInteger threads = new AtomicInteger();
+            this.scatterPool = Executors.newFixedThreadPool(shards.size(), runnable -> {
+                Thread thread = new Thread(runnable, "shard-scatter-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public static ShardRouter sharded(List<DataSource> shards, ShardDirectory directory, int buckets) {
+        return new ShardRouter(shards, directory, buckets);
+    }
+
+    public static ShardRouter single(DataSource dataSource) {
+        return new ShardRouter(List.of(dataSource), null, 1);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (isSharded()) {
+            // The directory loads on first use: shard_buckets may not be migrated yet
+            directory.start();
+            log.info("Sharding {} buckets over {} shards", buckets, shards.size());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!isSharded()) {
+            return;
+        }
+        scatterPool.shutdownNow();
+        directory.stop();
+        for (DataSource shard : shards) {
+            if (shard instanceof Closeable pool) {
+                try {
+                    pool.close();
+                } catch (IOException e) {
+                    log.warn("Could not close shard pool: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    static Route currentRoute() {
+        return ROUTE.get();
+    }
+
+    public boolean isSharded() {
+        return directory != null;
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    public ShardDirectory directory() {
+        return directory;
+    }
+
+    /**
+     * The shard's own pool, bypassing routing; for tools that work on several shards at once.
+     */
+    public DataSource dataSource(int shard) {
+        return shards.get(shard);
+    }
+
+    public int bucketOf(String mobileNumber) {
+        if (!isSharded()) {
+            return 0;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(mobileNumber.getBytes(StandardCharsets.UTF_8));
+        return (int) (crc.getValue() % buckets);
+    }
+
+    public int shardOf(String mobileNumber) {
+        return isSharded() ? directory.bucket(bucketOf(mobileNumber)).shard() : CATALOG_SHARD;
+    }
+
+    /**
+     * Whether writes for {@code mobileNumber} are refused because its bucket is being moved. Only
+     * needed by callers that route with {@link #onShard}, which skips the check.
+     */
+    public boolean isFrozen(String mobileNumber) {
+        return isSharded() && directory.bucket(bucketOf(mobileNumber)).frozen();
+    }
+
+    /**
+     * Whether a job working through {@code shard}'s rows may write for this user: the shard owns
+     * the user's bucket and the bucket is not frozen. During a move the target already holds a
+     * copy of the bucket's rows, which only the move itself may change.
+     */
+    public boolean isWritableOn(int shard, String mobileNumber) {
+        if (!isSharded()) {
+            return true;
+        }
+        ShardDirectory.Bucket bucket = directory.bucket(bucketOf(mobileNumber));
+        return bucket.shard() == shard && !bucket.frozen();
+    }
+
+    /**
+     * Routes to the shard owning {@code mobileNumber}, resolved when the connection is opened.
+     */
+    public Scope on(String mobileNumber) {
+        if (!isSharded() || mobileNumber == null) {
+            return Scope.NONE;
+        }
+        return push(new Route(bucketOf(mobileNumber), null));
+    }
+
+    public Scope onShard(int shard) {
+        if (!isSharded()) {
+            return Scope.NONE;
+        }
+        if (shard < 0 || shard >= shards.size()) {
+            throw new IllegalArgumentException("No shard " + shard);
+        }
+        return push(new Route(null, shard));
+    }
+
+    /**
+     * Runs {@code work} once per shard in parallel, each call routed to its shard, and returns the
+     * results in shard order. Each call runs on its own thread, so it must start its own
+     * transactions; the caller's transaction, if any, is not visible to it.
+     */
+    public <T> List<T> scatter(IntFunction<T> work) {
+        if (!isSharded()) {
+            return List.of(work.apply(CATALOG_SHARD));
+        }
+        List<CompletableFuture<T>> calls = new ArrayList<>(shards.size());
+        for (int shard = 0; shard < shards.size(); shard++) {
+            int target = shard;
+            calls.add(CompletableFuture.supplyAsync(() -> {
+                try (Scope ignored = onShard(target)) {
+                    return work.apply(target);
+                }
+            }, scatterPool));
+        }
+        List<T> results = new ArrayList<>(calls.size());
+        try {
+            for (CompletableFuture<T> call : calls) {
+                results.add(call.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    /**
+     * Runs {@code work} once per shard on the calling thread, routed to each in turn.
+     */
+    public void forEachShard(IntConsumer work) {
+        for (int shard = 0; shard < shards.size(); shard++) {
+            try (Scope ignored = onShard(shard)) {
+                work.accept(shard);
+            }
+        }
+    }
+
+    /**
+     * Splits {@code items} by the shard currently owning each one's mobile number, keeping order
+     * within a shard.
+     */
+    public <T> Map<Integer, List<T>> groupByShard(Collection<T> items, Function<T, String> mobileNumber) {
+        Map<Integer, List<T>> byShard = new TreeMap<>();
+        if (!isSharded()) {
+            byShard.put(CATALOG_SHARD, new ArrayList<>(items));
+            return byShard;
+        }
+        for (T item : items) {
+            byShard.computeIfAbsent(shardOf(mobileNumber.apply(item)), shard -> new ArrayList<>()).add(item);
+        }
+        return byShard;
+    }
+
+    private Scope push(Route route) {
+        Route previous = ROUTE.get();
+        ROUTE.set(route);
+        return () -> {
+            if (previous == null) {
+                ROUTE.remove();
+            } else {
+                ROUTE.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Either a bucket, resolved through the directory, or an explicit shard.
+     */
+    record Route(Integer bucket, Integer shard) {
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        Scope NONE = () -> { };
+
+        @Override
+        void close();
+    }
+}
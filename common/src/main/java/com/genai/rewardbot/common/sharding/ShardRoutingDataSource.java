@@ -0,0 +1,35 @@
+package com.genai.rewardbot.common.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Picks the shard for {@link ShardRouter}'s current route. Must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so the route is read
+ * when the first statement runs, after the transaction's read-only flag is known: only read-only
+ * transactions may touch a frozen bucket.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ShardDirectory directory;
+
+    public ShardRoutingDataSource(ShardDirectory directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        ShardRouter.Route route = ShardRouter.currentRoute();
+        if (route == null) {
+            return ShardRouter.CATALOG_SHARD;
+        }
+        if (route.shard() != null) {
+            return route.shard();
+        }
+        ShardDirectory.Bucket bucket = directory.bucket(route.bucket());
+        if (bucket.frozen() && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            throw new ShardFrozenException(bucket.bucket());
+        }
+        return bucket.shard();
+    }
+}
@@ -0,0 +1,88 @@
+package com.genai.rewardbot.common.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps ids unique across shards: shard s draws every id from sequences that step by
+ * {@code stride} and start at a value congruent to s, so a user keeps its ids when its bucket
+ * moves. Entities allocate one id per fetch ({@code allocationSize = 1}), so Hibernate needs no
+ * matching change.
+ *
+ * <p>A shard whose sequence is not yet interleaved (a fresh or newly added shard, or a database
+ * from before sharding) restarts above the highest id or sequence value on any shard.
+ */
+@Slf4j
+public final class ShardSequences {
+
+    // Sequence -> the table whose ids it issues
+    private static final Map<String, String> SEQUENCES = new LinkedHashMap<>();
+
+    static {
+        SEQUENCES.put("USER_SEQUENCE", "users");
+        SEQUENCES.put("CARD_SEQUENCE", "cards");
+        SEQUENCES.put("REWARD_SEQUENCE", "reward_points");
+        SEQUENCES.put("OUTBOX_SEQUENCE", "outbox_events");
+    }
+
+    private ShardSequences() {
+    }
+
+    /**
+     * Interleaves every shard's sequences. Instances starting together take turns on a lock on
+     * the catalog's {@code shard_buckets}, held on a connection of its own: the ALTERs commit
+     * implicitly and would otherwise release it.
+     */
+    public static void align(ShardRouter router, int stride) {
+        if (router.shardCount() > stride) {
+            throw new IllegalStateException(router.shardCount() + " shards exceed the id stride of " + stride);
+        }
+        try (Connection lock = router.dataSource(ShardRouter.CATALOG_SHARD).getConnection()) {
+            lock.setAutoCommit(false);
+            try (Statement statement = lock.createStatement()) {
+                statement.execute("LOCK TABLE shard_buckets IN EXCLUSIVE MODE");
+                for (Map.Entry<String, String> sequence : SEQUENCES.entrySet()) {
+                    align(router, stride, sequence.getKey(), sequence.getValue());
+                }
+            } finally {
+                lock.rollback();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not lock shard_buckets to align sequences", e);
+        }
+    }
+
+    private static void align(ShardRouter router, int stride, String sequence, String table) {
+        int shards = router.shardCount();
+        long[] lastNumber = new long[shards];
+        long[] increment = new long[shards];
+        long floor = 0;
+        for (int shard = 0; shard < shards; shard++) {
+            JdbcTemplate jdbc = new JdbcTemplate(router.dataSource(shard));
+            int index = shard;
+            jdbc.query("SELECT last_number, increment_by FROM user_sequences WHERE sequence_name = ?", (RowCallbackHandler) rs -> {
+                lastNumber[index] = rs.getLong(1);
+                increment[index] = rs.getLong(2);
+            }, sequence);
+            Long maxId = jdbc.queryForObject("SELECT NVL(MAX(id), 0) FROM " + table, Long.class);
+            floor = Math.max(floor, Math.max(lastNumber[shard], maxId == null ? 0 : maxId));
+        }
+        for (int shard = 0; shard < shards; shard++) {
+            if (increment[shard] == stride && Math.floorMod(lastNumber[shard], stride) == shard) {
+                continue;
+            }
+            long start = (floor / stride + 1) * stride + shard;
+            JdbcTemplate jdbc = new JdbcTemplate(router.dataSource(shard));
+            jdbc.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY " + stride);
+            jdbc.execute("ALTER SEQUENCE " + sequence + " RESTART START WITH " + start);
+            log.info("Shard {}: {} now issues {} + n*{}", shard, sequence, start, stride);
+        }
+    }
+}
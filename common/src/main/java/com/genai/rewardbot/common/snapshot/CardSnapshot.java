@@ -0,0 +1,19 @@
+package com.genai.rewardbot.common.snapshot;
+
+/**
+ * One active card in a {@link UserRewardSnapshot}. Amounts are in money minor units, the
+ * cashback rate in basis points, and {@code nextExpiryEpochDay} is -1 when nothing expires.
+ */
+public record CardSnapshot(long cardId,
+                           String vendorName,
+                           String vendorCode,
+                           String cardType,
+                           String lastFour,
+                           long balanceMinor,
+                           String currency,
+                           long cashbackRateBasisPoints,
+                           long pointsAvailable,
+                           long pointsExpiringSoon,
+                           long nextExpiryEpochDay,
+                           long pointsValueMinor) {
+}
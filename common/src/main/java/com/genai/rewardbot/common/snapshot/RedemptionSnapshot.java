@@ -0,0 +1,15 @@
+package com.genai.rewardbot.common.snapshot;
+
+/**
+ * One line of a user's best-value redemption plan in a {@link UserRewardSnapshot}: redeem
+ * {@code quantity} of the item for {@code pointsUsed} points worth {@code valueMinor} in money
+ * minor units, before {@code redeemByEpochDay} (-1 when none of those points expire).
+ */
+public record RedemptionSnapshot(String code,
+                                 String name,
+                                 String vendorCode,
+                                 long quantity,
+                                 long pointsUsed,
+                                 long valueMinor,
+                                 long redeemByEpochDay) {
+}
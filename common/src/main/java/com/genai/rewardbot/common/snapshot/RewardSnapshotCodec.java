@@ -0,0 +1,240 @@
+package com.genai.rewardbot.common.snapshot;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary encoding of {@link UserRewardSnapshot} for the internal reward-service to
+ * genai-service hop. Layout: magic {@code 'R' 'S'}, a version byte, then the fields in record
+ * order. Integers are LEB128 varints (zig-zag for values that may be negative) and strings are
+ * a varint of length + 1 (0 meaning null) followed by UTF-8 bytes.
+ *
+ * <p>New fields go on the end under a new {@link #VERSION}. Readers reject versions they do
+ * not know, so roll out readers before writers. Version 2 appended the redemption plan;
+ * version 1 snapshots still decode, with null redemptions.
+ */
+public final class RewardSnapshotCodec {
+
+    public static final String MEDIA_TYPE = "application/vnd.rewardbot.snapshot";
+
+    public static final int VERSION = 2;
+
+    private static final byte MAGIC_0 = 'R';
+    private static final byte MAGIC_1 = 'S';
+
+    // Bounds for a single user; anything larger is a corrupt message, not a big customer
+    private static final int MAX_CARDS = 10_000;
+    private static final int MAX_REDEMPTIONS = 10_000;
+    private static final int MAX_STRING_BYTES = 4096;
+
+    private RewardSnapshotCodec() {
+    }
+
+    public static byte[] encode(UserRewardSnapshot snapshot) {
+        Writer out = new Writer(64 + snapshot.cards().size() * 64);
+        out.writeByte(MAGIC_0);
+        out.writeByte(MAGIC_1);
+        out.writeByte(VERSION);
+        out.writeVarLong(snapshot.userId());
+        out.writeString(snapshot.mobileNumber());
+        out.writeString(snapshot.firstName());
+        out.writeString(snapshot.lastName());
+        out.writeVarLong(snapshot.generatedAtEpochMillis());
+        out.writeVarLong(snapshot.cards().size());
+        for (CardSnapshot card : snapshot.cards()) {
+            out.writeVarLong(card.cardId());
+            out.writeString(card.vendorName());
+            out.writeString(card.vendorCode());
+            out.writeString(card.cardType());
+            out.writeString(card.lastFour());
+            out.writeZigZag(card.balanceMinor());
+            out.writeString(card.currency());
+            out.writeZigZag(card.cashbackRateBasisPoints());
+            out.writeVarLong(card.pointsAvailable());
+            out.writeVarLong(card.pointsExpiringSoon());
+            out.writeZigZag(card.nextExpiryEpochDay());
+            out.writeZigZag(card.pointsValueMinor());
+        }
+        List<RedemptionSnapshot> redemptions = snapshot.redemptions() != null ? snapshot.redemptions() : List.of();
+        out.writeVarLong(redemptions.size());
+        for (RedemptionSnapshot redemption : redemptions) {
+            out.writeString(redemption.code());
+            out.writeString(redemption.name());
+            out.writeString(redemption.vendorCode());
+            out.writeVarLong(redemption.quantity());
+            out.writeVarLong(redemption.pointsUsed());
+            out.writeZigZag(redemption.valueMinor());
+            out.writeZigZag(redemption.redeemByEpochDay());
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes are not a snapshot this version can read
+     */
+    public static UserRewardSnapshot decode(byte[] bytes) {
+        Reader in = new Reader(bytes);
+        if (in.readByte() != MAGIC_0 || in.readByte() != MAGIC_1) {
+            throw new IllegalArgumentException("Not a reward snapshot");
+        }
+        int version = in.readByte();
+        if (version != 1 && version != VERSION) {
+            throw new IllegalArgumentException("Unsupported reward snapshot version " + version);
+        }
+
+        long userId = in.readVarLong();
+        String mobileNumber = in.readString();
+        String firstName = in.readString();
+        String lastName = in.readString();
+        long generatedAt = in.readVarLong();
+        long cardCount = in.readVarLong();
+        if (cardCount < 0 || cardCount > MAX_CARDS) {
+            throw new IllegalArgumentException("Implausible card count " + cardCount);
+        }
+        List<CardSnapshot> cards = new ArrayList<>((int) cardCount);
+        for (int i = 0; i < cardCount; i++) {
+            cards.add(new CardSnapshot(
+                    in.readVarLong(),
+                    in.readString(),
+                    in.readString(),
+                    in.readString(),
+                    in.readString(),
+                    in.readZigZag(),
+                    in.readString(),
+                    in.readZigZag(),
+                    in.readVarLong(),
+                    in.readVarLong(),
+                    in.readZigZag(),
+                    in.readZigZag()));
+        }
+        List<RedemptionSnapshot> redemptions = null;
+        if (version >= 2) {
+            long redemptionCount = in.readVarLong();
+            if (redemptionCount < 0 || redemptionCount > MAX_REDEMPTIONS) {
+                throw new IllegalArgumentException("Implausible redemption count " + redemptionCount);
+            }
+            List<RedemptionSnapshot> read = new ArrayList<>((int) redemptionCount);
+            for (int i = 0; i < redemptionCount; i++) {
+                read.add(new RedemptionSnapshot(
+                        in.readString(),
+                        in.readString(),
+                        in.readString(),
+                        in.readVarLong(),
+                        in.readVarLong(),
+                        in.readZigZag(),
+                        in.readZigZag()));
+            }
+            redemptions = List.copyOf(read);
+        }
+        if (in.remaining() != 0) {
+            throw new IllegalArgumentException("Trailing bytes after reward snapshot");
+        }
+        return new UserRewardSnapshot(userId, mobileNumber, firstName, lastName, generatedAt, List.copyOf(cards),
+                redemptions);
+    }
+
+    private static final class Writer {
+
+        private byte[] buffer;
+        private int size;
+
+        Writer(int initialCapacity) {
+            this.buffer = new byte[initialCapacity];
+        }
+
+        void writeByte(int value) {
+            ensure(1);
+            buffer[size++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void writeZigZag(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(utf8.length + 1L);
+            ensure(utf8.length);
+            System.arraycopy(utf8, 0, buffer, size, utf8.length);
+            size += utf8.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] buffer;
+        private int position;
+
+        Reader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        int readByte() {
+            if (position >= buffer.length) {
+                throw new IllegalArgumentException("Truncated reward snapshot");
+            }
+            return buffer[position++];
+        }
+
+        long readVarLong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in reward snapshot");
+        }
+
+        long readZigZag() {
+            long raw = readVarLong();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        String readString() {
+            long length = readVarLong();
+            if (length == 0) {
+                return null;
+            }
+            // A ten-byte varint can decode to a negative length
+            long bytes = length - 1;
+            if (bytes < 0 || bytes > MAX_STRING_BYTES || bytes > remaining()) {
+                throw new IllegalArgumentException("Malformed string in reward snapshot");
+            }
+            String value = new String(buffer, position, (int) bytes, StandardCharsets.UTF_8);
+            position += (int) bytes;
+            return value;
+        }
+
+        int remaining() {
+            return buffer.length - position;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.genai.rewardbot.common.snapshot;
+
+import java.util.List;
+
+/**
+ * Everything genai-service needs about a user's rewards in one message, carried between
+ * services by {@link RewardSnapshotCodec}. {@code redemptions} is the precomputed best-value
+ * plan, empty when the user has nothing redeemable and null when the sender predates plans.
+ */
+public record UserRewardSnapshot(long userId,
+                                 String mobileNumber,
+                                 String firstName,
+                                 String lastName,
+                                 long generatedAtEpochMillis,
+                                 List<CardSnapshot> cards,
+                                 List<RedemptionSnapshot> redemptions) {
+
+    public long totalPointsAvailable() {
+        long total = 0;
+        for (CardSnapshot card : cards) {
+            total += card.pointsAvailable();
+        }
+        return total;
+    }
+
+    public long totalPointsExpiringSoon() {
+        long total = 0;
+        for (CardSnapshot card : cards) {
+            total += card.pointsExpiringSoon();
+        }
+        return total;
+    }
+
+    public long totalRedemptionValueMinor() {
+        long total = 0;
+        if (redemptions == null) {
+            return total;
+        }
+        for (RedemptionSnapshot redemption : redemptions) {
+            total += redemption.valueMinor();
+        }
+        return total;
+    }
+
+    public long totalBalanceMinor() {
+        long total = 0;
+        for (CardSnapshot card : cards) {
+            total += card.balanceMinor();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,29 @@
+package com.genai.rewardbot.common.util;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+
+/**
+ * The JSON error body servlet filters answer with when they stop a request before it reaches a
+ * controller, in the controllers' {@code {"success":false,"message":...}} shape.
+ */
+public final class FilterErrorResponse {
+
+    private FilterErrorResponse() {
+    }
+
+    /**
+     * Writes {@code status} with {@code message}, which is written as is and so must not need
+     * JSON escaping.
+     */
+    public static void write(HttpServletResponse response, int status, String message) throws IOException {
+        // Controllers allow any origin; say so here too or browsers report a CORS error instead of the status
+        response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"success\":false,\"message\":\"" + message + "\"}");
+    }
+}
@@ -0,0 +1,86 @@
+package com.genai.rewardbot.common.valuation;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Scaled-long arithmetic shared by {@link Money} and {@link PointValue}.
+ * Hot-path methods work on primitives only; BigDecimal and String conversions are for boundaries.
+ */
+final class FixedPoint {
+
+    private static final long[] POWERS_OF_TEN = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L
+    };
+
+    private FixedPoint() {
+    }
+
+    static long factor(int scale) {
+        return POWERS_OF_TEN[scale];
+    }
+
+    /**
+     * Divides with banker's rounding (half-even), matching {@link RoundingMode#HALF_EVEN}.
+     */
+    static long divideHalfEven(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        // Compares the remainder with the rest of the divisor rather than doubling it, which can overflow
+        long absRemainder = Math.abs(remainder);
+        long rest = Math.abs(divisor) - absRemainder;
+        boolean negative = (dividend < 0) != (divisor < 0);
+        if (absRemainder > rest || (absRemainder == rest && (quotient & 1) != 0)) {
+            return negative ? quotient - 1 : quotient + 1;
+        }
+        return quotient;
+    }
+
+    static long rescale(long units, int fromScale, int toScale) {
+        if (fromScale == toScale) {
+            return units;
+        }
+        if (fromScale < toScale) {
+            return Math.multiplyExact(units, factor(toScale - fromScale));
+        }
+        return divideHalfEven(units, factor(fromScale - toScale));
+    }
+
+    static long fromBigDecimal(BigDecimal value, int scale) {
+        return value.setScale(scale, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    static BigDecimal toBigDecimal(long units, int scale) {
+        return BigDecimal.valueOf(units, scale);
+    }
+
+    static long parse(String text, int scale) {
+        return fromBigDecimal(new BigDecimal(text.trim()), scale);
+    }
+
+    static String format(long units, int scale) {
+        StringBuilder sb = new StringBuilder(24);
+        appendTo(sb, units, scale);
+        return sb.toString();
+    }
+
+    static void appendTo(StringBuilder sb, long units, int scale) {
+        if (units < 0) {
+            sb.append('-');
+        }
+        long factor = factor(scale);
+        // Math.abs(Long.MIN_VALUE) overflows; such values are rejected by the exact arithmetic upstream
+        long abs = Math.abs(units);
+        sb.append(abs / factor);
+        if (scale > 0) {
+            sb.append('.');
+            long fraction = abs % factor;
+            for (long digit = factor / 10; digit > 0; digit /= 10) {
+                sb.append((char) ('0' + (fraction / digit) % 10));
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.genai.rewardbot.common.valuation;
+
+import java.util.Arrays;
+
+/**
+ * Fixed set of {@link ValueAccumulator}-style totals indexed by a dense group number
+ * (for example a vendor's position in the user's card list). Backed by primitive arrays,
+ * so adding a lot never allocates.
+ */
+public final class GroupedValueAccumulator {
+
+    private final long[] points;
+    private final long[] valueUnits;
+    private final int[] lots;
+
+    public GroupedValueAccumulator(int groups) {
+        this.points = new long[groups];
+        this.valueUnits = new long[groups];
+        this.lots = new int[groups];
+    }
+
+    public void add(int group, long lotPoints, long pointValueUnits) {
+        points[group] = Math.addExact(points[group], lotPoints);
+        valueUnits[group] = Math.addExact(valueUnits[group], Math.multiplyExact(lotPoints, pointValueUnits));
+        lots[group]++;
+    }
+
+    public int groups() {
+        return points.length;
+    }
+
+    public long points(int group) {
+        return points[group];
+    }
+
+    public int lots(int group) {
+        return lots[group];
+    }
+
+    /** Group value in money minor units, rounded half-even. */
+    public long value(int group) {
+        return FixedPoint.rescale(valueUnits[group], PointValue.SCALE, Money.SCALE);
+    }
+
+    public long totalPoints() {
+        long total = 0;
+        for (long p : points) {
+            total = Math.addExact(total, p);
+        }
+        return total;
+    }
+
+    /** Value across all groups, rounded once so it is not skewed by per-group rounding. */
+    public long totalValue() {
+        long total = 0;
+        for (long v : valueUnits) {
+            total = Math.addExact(total, v);
+        }
+        return FixedPoint.rescale(total, PointValue.SCALE, Money.SCALE);
+    }
+
+    public void reset() {
+        Arrays.fill(points, 0);
+        Arrays.fill(valueUnits, 0);
+        Arrays.fill(lots, 0);
+    }
+}
@@ -0,0 +1,61 @@
+package com.genai.rewardbot.common.valuation;
+
+import java.math.BigDecimal;
+
+/**
+ * Monetary amounts as {@code long} minor units (paise for INR, cents for USD).
+ * All arithmetic is exact and overflow-checked; nothing here allocates except the boundary conversions.
+ */
+public final class Money {
+
+    /** Number of fractional digits held in a minor-unit amount. */
+    public static final int SCALE = 2;
+
+    /** Rates are expressed in basis points: 1% = 100, 2.5% = 250. */
+    public static final int RATE_SCALE = 2;
+
+    private static final long BASIS_POINTS_PER_UNIT = 10_000L;
+
+    private Money() {
+    }
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    /**
+     * Applies a percentage rate in basis points, e.g. a 2.5% cashback estimate on an amount.
+     */
+    public static long applyRate(long amountMinorUnits, long rateBasisPoints) {
+        return FixedPoint.divideHalfEven(Math.multiplyExact(amountMinorUnits, rateBasisPoints), BASIS_POINTS_PER_UNIT);
+    }
+
+    // Boundary conversions
+
+    public static long of(BigDecimal amount) {
+        return FixedPoint.fromBigDecimal(amount, SCALE);
+    }
+
+    public static long parse(String amount) {
+        return FixedPoint.parse(amount, SCALE);
+    }
+
+    public static BigDecimal toBigDecimal(long minorUnits) {
+        return FixedPoint.toBigDecimal(minorUnits, SCALE);
+    }
+
+    public static String format(long minorUnits) {
+        return FixedPoint.format(minorUnits, SCALE);
+    }
+
+    /**
+     * Converts a percentage such as {@code 2.50} (2.5%) into basis points.
+     */
+    public static long rateToBasisPoints(BigDecimal percent) {
+        return FixedPoint.fromBigDecimal(percent, RATE_SCALE);
+    }
+}
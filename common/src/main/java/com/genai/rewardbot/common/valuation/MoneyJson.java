@@ -0,0 +1,64 @@
+package com.genai.rewardbot.common.valuation;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Jackson bindings that expose minor-unit and point-value longs as plain decimal numbers
+ * ({@code 25000.50}, {@code 0.2500}) so API consumers see the same shape as before.
+ */
+public final class MoneyJson {
+
+    private MoneyJson() {
+    }
+
+    public static class MoneySerializer extends StdSerializer<Long> {
+        public MoneySerializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public void serialize(Long minorUnits, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeNumber(Money.format(minorUnits));
+        }
+    }
+
+    public static class MoneyDeserializer extends StdDeserializer<Long> {
+        public MoneyDeserializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public Long deserialize(JsonParser parser, DeserializationContext ctxt) throws IOException {
+            return Money.of(parser.getDecimalValue());
+        }
+    }
+
+    public static class PointValueSerializer extends StdSerializer<Long> {
+        public PointValueSerializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public void serialize(Long pointValueUnits, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeNumber(PointValue.format(pointValueUnits));
+        }
+    }
+
+    public static class PointValueDeserializer extends StdDeserializer<Long> {
+        public PointValueDeserializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public Long deserialize(JsonParser parser, DeserializationContext ctxt) throws IOException {
+            return PointValue.of(parser.getDecimalValue());
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.genai.rewardbot.common.valuation;
+
+import java.math.BigDecimal;
+
+/**
+ * Per-point monetary value as {@code long} units of 1/10,000 of the currency unit, so programs
+ * paying fractions of a paisa per point are represented exactly (0.25 INR/point = 2500).
+ */
+public final class PointValue {
+
+    /** Number of fractional digits held in a point value. */
+    public static final int SCALE = 4;
+
+    private PointValue() {
+    }
+
+    /**
+     * Value of a lot in money minor units, rounded half-even once.
+     * Use {@link ValueAccumulator} when summing many lots so rounding happens only on the total.
+     */
+    public static long valueOf(long points, long pointValueUnits) {
+        return FixedPoint.rescale(Math.multiplyExact(points, pointValueUnits), SCALE, Money.SCALE);
+    }
+
+    /**
+     * Number of whole points needed to cover an amount in minor units, rounding up.
+     */
+    public static long pointsFor(long amountMinorUnits, long pointValueUnits) {
+        if (pointValueUnits <= 0) {
+            throw new IllegalArgumentException("Point value must be positive");
+        }
+        long target = FixedPoint.rescale(amountMinorUnits, Money.SCALE, SCALE);
+        return Math.floorDiv(Math.addExact(target, pointValueUnits - 1), pointValueUnits);
+    }
+
+    // Boundary conversions
+
+    public static long of(BigDecimal value) {
+        return FixedPoint.fromBigDecimal(value, SCALE);
+    }
+
+    public static long parse(String value) {
+        return FixedPoint.parse(value, SCALE);
+    }
+
+    public static BigDecimal toBigDecimal(long pointValueUnits) {
+        return FixedPoint.toBigDecimal(pointValueUnits, SCALE);
+    }
+
+    public static String format(long pointValueUnits) {
+        return FixedPoint.format(pointValueUnits, SCALE);
+    }
+}
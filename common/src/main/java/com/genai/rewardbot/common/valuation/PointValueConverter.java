@@ -0,0 +1,23 @@
+package com.genai.rewardbot.common.valuation;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Maps a scaled per-point value {@code Long} attribute to a {@code NUMBER(p,4)} column.
+ */
+@Converter
+public class PointValueConverter implements AttributeConverter<Long, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Long pointValueUnits) {
+        return pointValueUnits != null ? PointValue.toBigDecimal(pointValueUnits) : null;
+    }
+
+    @Override
+    public Long convertToEntityAttribute(BigDecimal value) {
+        return value != null ? PointValue.of(value) : null;
+    }
+}
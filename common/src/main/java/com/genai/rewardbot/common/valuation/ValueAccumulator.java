@@ -0,0 +1,48 @@
+package com.genai.rewardbot.common.valuation;
+
+/**
+ * Running total of points and their value across reward lots.
+ * <p>
+ * Values are summed at point-value scale and rounded to money minor units only when read,
+ * so the total is exact however many lots are added. Not thread-safe; use one per aggregation
+ * and {@link #reset()} to reuse it.
+ */
+public final class ValueAccumulator {
+
+    private long points;
+    private long valueUnits;
+    private int lots;
+
+    public ValueAccumulator add(long lotPoints, long pointValueUnits) {
+        points = Math.addExact(points, lotPoints);
+        valueUnits = Math.addExact(valueUnits, Math.multiplyExact(lotPoints, pointValueUnits));
+        lots++;
+        return this;
+    }
+
+    public ValueAccumulator addAll(ValueAccumulator other) {
+        points = Math.addExact(points, other.points);
+        valueUnits = Math.addExact(valueUnits, other.valueUnits);
+        lots += other.lots;
+        return this;
+    }
+
+    public long points() {
+        return points;
+    }
+
+    public int lots() {
+        return lots;
+    }
+
+    /** Total value in money minor units, rounded half-even. */
+    public long value() {
+        return FixedPoint.rescale(valueUnits, PointValue.SCALE, Money.SCALE);
+    }
+
+    public void reset() {
+        points = 0;
+        valueUnits = 0;
+        lots = 0;
+    }
+}
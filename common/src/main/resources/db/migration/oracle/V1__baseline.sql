@@ -0,0 +1,128 @@
+-- GenAI Reward Bot Database Schema for Oracle
+-- Baseline: the schema as it stood before migrations took over from ddl-auto.
+-- Databases created that way are baselined at this version and continue from V2.
+
+-- Create sequences
+CREATE SEQUENCE user_sequence START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE card_sequence START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE reward_sequence START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE outbox_sequence START WITH 1 INCREMENT BY 1;
+
+-- Create users table
+CREATE TABLE users (
+    id NUMBER(19) PRIMARY KEY,
+    mobile_number VARCHAR2(15) NOT NULL UNIQUE,
+    first_name VARCHAR2(50),
+    last_name VARCHAR2(50),
+    email VARCHAR2(100),
+    is_active NUMBER(1) DEFAULT 1,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Create cards table
+CREATE TABLE cards (
+    id NUMBER(19) PRIMARY KEY,
+    card_number VARCHAR2(20) NOT NULL UNIQUE,
+    card_type VARCHAR2(50),
+    vendor_name VARCHAR2(100) NOT NULL,
+    vendor_code VARCHAR2(10),
+    card_balance NUMBER(15,2) DEFAULT 0,
+    currency VARCHAR2(3) DEFAULT 'INR',
+    is_active NUMBER(1) DEFAULT 1,
+    expiry_date TIMESTAMP,
+    cashback_rate NUMBER(5,2),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    user_id NUMBER(19) NOT NULL,
+    CONSTRAINT fk_cards_user FOREIGN KEY (user_id) REFERENCES users(id)
+);
+
+-- Create reward_points table
+CREATE TABLE reward_points (
+    id NUMBER(19) PRIMARY KEY,
+    points_earned NUMBER(10) NOT NULL,
+    points_used NUMBER(10) DEFAULT 0,
+    points_available NUMBER(10) NOT NULL,
+    earning_date TIMESTAMP NOT NULL,
+    expiry_date TIMESTAMP,
+    source VARCHAR2(100),
+    description VARCHAR2(255),
+    transaction_id VARCHAR2(50),
+    is_expired NUMBER(1) DEFAULT 0,
+    point_value NUMBER(10,4),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    card_id NUMBER(19) NOT NULL,
+    CONSTRAINT fk_reward_points_card FOREIGN KEY (card_id) REFERENCES cards(id)
+);
+
+-- Tokens withdrawn before their exp; purged once expired
+CREATE TABLE revoked_tokens (
+    token_id VARCHAR2(36) PRIMARY KEY,
+    mobile_number VARCHAR2(15),
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    reason VARCHAR2(50)
+);
+
+-- Change events written with the mutation they describe; published_seq is set by the relay
+CREATE TABLE outbox_events (
+    id NUMBER(19) PRIMARY KEY,
+    event_type VARCHAR2(30) NOT NULL,
+    mobile_number VARCHAR2(15) NOT NULL,
+    user_id NUMBER(19),
+    card_id NUMBER(19),
+    points_delta NUMBER(10),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    published_seq NUMBER(19),
+    published_at TIMESTAMP
+);
+
+-- Per-user change counter behind reward-service ETags
+CREATE TABLE user_data_versions (
+    mobile_number VARCHAR2(15) PRIMARY KEY,
+    data_version NUMBER(19) NOT NULL
+);
+
+-- Pre-aggregated analytics: one row per user, month (yyyyMM), source and vendor
+CREATE TABLE reward_rollups (
+    user_id NUMBER(19) NOT NULL,
+    bucket_month NUMBER(6) NOT NULL,
+    source VARCHAR2(100) NOT NULL,
+    vendor_code VARCHAR2(10) NOT NULL,
+    points_earned NUMBER(19) DEFAULT 0 NOT NULL,
+    points_redeemed NUMBER(19) DEFAULT 0 NOT NULL,
+    lots_earned NUMBER(10) DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_reward_rollups PRIMARY KEY (user_id, bucket_month, source, vendor_code)
+);
+
+-- Create indexes for better performance
+-- mobile_number and card_number are already indexed by their UNIQUE constraints.
+-- Composite indexes follow the user-id keyed access paths in reward-service:
+--   cards by (user_id, is_active)
+--   reward lots by (card_id, is_expired, expiry_date) for expiry windows and totals
+--   reward lots by (card_id, points_available) for redeemable lots
+--   reward lots by (card_id, earning_date, id) for keyset-paginated history
+CREATE INDEX idx_cards_user_active ON cards(user_id, is_active);
+CREATE INDEX idx_cards_vendor ON cards(vendor_code);
+CREATE INDEX idx_reward_points_card_expiry ON reward_points(card_id, is_expired, expiry_date);
+CREATE INDEX idx_reward_points_card_available ON reward_points(card_id, points_available);
+CREATE INDEX idx_reward_points_card_earning ON reward_points(card_id, earning_date, id);
+CREATE INDEX idx_reward_points_earning_date ON reward_points(earning_date);
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens(expires_at);
+-- Also covers unpublished rows (NULL published_seq) because id is never null
+CREATE INDEX idx_outbox_events_published ON outbox_events(published_seq, id);
+
+-- Add comments for documentation
+COMMENT ON TABLE users IS 'User information with mobile number as primary identifier';
+COMMENT ON TABLE cards IS 'Credit/Debit/Loyalty cards from various vendors';
+COMMENT ON TABLE reward_points IS 'Reward points earned on each card with expiry tracking';
+COMMENT ON TABLE outbox_events IS 'Transactional outbox behind the reward change feed';
+COMMENT ON TABLE reward_rollups IS 'Points earned/redeemed per user, month, source and vendor for analytics';
+COMMENT ON TABLE revoked_tokens IS 'Token ids (jti) revoked before expiry, e.g. on logout';
+
+COMMENT ON COLUMN users.mobile_number IS 'Unique mobile number for user authentication';
+COMMENT ON COLUMN cards.vendor_code IS 'Short code for vendor (HDFC, AMZN, FLIP, etc.)';
+COMMENT ON COLUMN reward_points.points_available IS 'Points available for redemption (earned - used)';
+COMMENT ON COLUMN reward_points.point_value IS 'Monetary value of each point in INR (4 decimal places)'; 
\ No newline at end of file
@@ -0,0 +1,28 @@
+-- reward_points: one partition per expiry month, indexes local to each partition.
+--
+-- expiry_date is NULL for lots that never expire, and interval partitioning needs a non-null
+-- key, so the table is partitioned on expiry_key: expiry_date, or 9999-01-01 when there is none.
+-- Queries filter on expiry_key to prune; expired months are archived or dropped as a whole
+-- (see RewardPartitionMaintenance in reward-service).
+ALTER TABLE reward_points ADD (
+    expiry_key TIMESTAMP GENERATED ALWAYS AS (NVL(expiry_date, TIMESTAMP '9999-01-01 00:00:00')) VIRTUAL
+);
+
+-- Converted in place: existing rows are moved into their months without blocking DML.
+-- p_before_2000 is the range section of the interval table; later months are created on first insert.
+-- The primary key index stays global so id lookups remain a single probe.
+ALTER TABLE reward_points MODIFY
+    PARTITION BY RANGE (expiry_key) INTERVAL (NUMTOYMINTERVAL(1, 'MONTH'))
+    (PARTITION p_before_2000 VALUES LESS THAN (TIMESTAMP '2000-01-01 00:00:00'))
+    ONLINE
+    UPDATE INDEXES (
+        idx_reward_points_card_expiry LOCAL,
+        idx_reward_points_card_available LOCAL,
+        idx_reward_points_card_earning LOCAL,
+        idx_reward_points_earning_date LOCAL
+    );
+
+-- Expiry sweep: range scan over the unswept lots of the months it visits
+CREATE INDEX idx_reward_points_unswept ON reward_points(is_expired, expiry_key) LOCAL;
+
+COMMENT ON COLUMN reward_points.expiry_key IS 'Partition key: expiry_date, or 9999-01-01 for points that never expire';
@@ -0,0 +1,13 @@
+-- Bucket directory for hash-sharded deployments (app.sharding.*). Mobile numbers hash into a fixed
+-- number of buckets and each bucket lives on one shard; only the catalog shard's copy is read.
+-- Rows are created on first start with sharding enabled. While a bucket moves, target_shard names
+-- the destination and frozen = 1 rejects writes for its users until the move completes.
+CREATE TABLE shard_buckets (
+    bucket NUMBER(10) PRIMARY KEY,
+    shard_id NUMBER(5) NOT NULL,
+    target_shard NUMBER(5),
+    frozen NUMBER(1) DEFAULT 0 NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+COMMENT ON TABLE shard_buckets IS 'Shard of each mobile number hash bucket, read from the catalog shard';
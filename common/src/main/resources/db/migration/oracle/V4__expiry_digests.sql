@@ -0,0 +1,30 @@
+-- Nightly expiring-points digests (ExpiryDigestJob in reward-service). One row per user with
+-- available points expiring in the next 30 days, rewritten on every run; users with none have no
+-- row. Keyed by user id like reward_rollups, so the row lives on the user's shard.
+CREATE TABLE expiry_digests (
+    user_id NUMBER(19) PRIMARY KEY,
+    mobile_number VARCHAR2(15) NOT NULL,
+    points_7d NUMBER(19) DEFAULT 0 NOT NULL,
+    points_30d NUMBER(19) DEFAULT 0 NOT NULL,
+    lots_30d NUMBER(10) DEFAULT 0 NOT NULL,
+    next_expiry TIMESTAMP,
+    digest_date DATE NOT NULL,
+    computed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+-- Restart points of batch jobs: one row per job partition, a contiguous user id range
+-- (last_user_id, upper_user_id], planned once per run_date. Each shard keeps its own.
+CREATE TABLE batch_checkpoints (
+    job_name VARCHAR2(50) NOT NULL,
+    partition_no NUMBER(5) NOT NULL,
+    run_date DATE NOT NULL,
+    last_user_id NUMBER(19) NOT NULL,
+    upper_user_id NUMBER(19) NOT NULL,
+    users_done NUMBER(19) DEFAULT 0 NOT NULL,
+    completed NUMBER(1) DEFAULT 0 NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    CONSTRAINT pk_batch_checkpoints PRIMARY KEY (job_name, partition_no)
+);
+
+COMMENT ON TABLE expiry_digests IS 'Points expiring within 7 and 30 days per user, as of digest_date';
+COMMENT ON TABLE batch_checkpoints IS 'Progress of each partition of a nightly batch job, for restarts';
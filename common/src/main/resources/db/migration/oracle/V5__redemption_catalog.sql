@@ -0,0 +1,31 @@
+-- What points can be redeemed for. Only the catalog shard's copy is read; reward-service keeps it
+-- in memory and reloads when the row count or the latest updated_at changes, so every edit must
+-- set updated_at. vendor_code restricts an item to points earned on that vendor's cards (NULL: any
+-- card). value_amount is what one redemption is worth before bonus_multiplier is applied.
+CREATE TABLE redemption_catalog (
+    code VARCHAR2(50) PRIMARY KEY,
+    name VARCHAR2(200) NOT NULL,
+    category VARCHAR2(30) NOT NULL,
+    vendor_code VARCHAR2(10),
+    point_cost NUMBER(10) NOT NULL,
+    value_amount NUMBER(15,2) NOT NULL,
+    bonus_multiplier NUMBER(6,4) DEFAULT 1 NOT NULL,
+    is_active NUMBER(1) DEFAULT 1 NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    CONSTRAINT chk_catalog_point_cost CHECK (point_cost > 0),
+    CONSTRAINT chk_catalog_value CHECK (value_amount >= 0),
+    CONSTRAINT chk_catalog_bonus CHECK (bonus_multiplier > 0)
+);
+
+COMMENT ON TABLE redemption_catalog IS 'Redemption items, read from the catalog shard';
+
+INSERT INTO redemption_catalog (code, name, category, vendor_code, point_cost, value_amount, bonus_multiplier)
+VALUES ('AMZN-GV-500', 'Amazon Gift Voucher', 'VOUCHER', 'AMZN', 500, 125.00, 1.2);
+INSERT INTO redemption_catalog (code, name, category, vendor_code, point_cost, value_amount, bonus_multiplier)
+VALUES ('FLIP-SHOP-1000', 'Flipkart Shopping Voucher', 'VOUCHER', 'FLIP', 1000, 260.00, 1);
+INSERT INTO redemption_catalog (code, name, category, vendor_code, point_cost, value_amount, bonus_multiplier)
+VALUES ('HDFC-FLIGHT-2500', 'Flight Booking Credit', 'TRAVEL', 'HDFC', 2500, 650.00, 1);
+INSERT INTO redemption_catalog (code, name, category, vendor_code, point_cost, value_amount, bonus_multiplier)
+VALUES ('DINING-1000', 'Dining Voucher', 'VOUCHER', NULL, 1000, 240.00, 1);
+INSERT INTO redemption_catalog (code, name, category, vendor_code, point_cost, value_amount, bonus_multiplier)
+VALUES ('BANK-TRANSFER-100', 'Direct Bank Transfer', 'CASH', NULL, 100, 22.50, 1);
@@ -0,0 +1,28 @@
+-- Issuer transaction feeds (TransactionIngestionJob in reward-service).
+--
+-- A transaction earns at most one lot per card: (card_id, transaction_id) is unique, which is
+-- what makes replaying a feed after a restart safe. Lots written before feeds existed without a
+-- transaction id get a synthetic one first. The index is global, like the primary key, so the
+-- partition maintenance in reward-service keeps it valid with UPDATE GLOBAL INDEXES.
+UPDATE reward_points SET transaction_id = 'LOT' || id WHERE transaction_id IS NULL;
+
+ALTER TABLE reward_points MODIFY transaction_id NOT NULL;
+
+CREATE UNIQUE INDEX ux_reward_points_card_txn ON reward_points(card_id, transaction_id) ONLINE;
+
+-- One row per feed file: how many of its records are committed on every shard. A restart skips
+-- that many records and carries on. Feeds span users on every shard, so this lives on the
+-- catalog shard with the other shared tables.
+CREATE TABLE ingestion_files (
+    file_name VARCHAR2(255) PRIMARY KEY,
+    records_done NUMBER(19) DEFAULT 0 NOT NULL,
+    lots_created NUMBER(19) DEFAULT 0 NOT NULL,
+    duplicates NUMBER(19) DEFAULT 0 NOT NULL,
+    rejected NUMBER(19) DEFAULT 0 NOT NULL,
+    completed NUMBER(1) DEFAULT 0 NOT NULL,
+    started_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+COMMENT ON TABLE ingestion_files IS 'Progress of each issuer transaction feed file, for restarts';
+COMMENT ON COLUMN reward_points.transaction_id IS 'Issuer transaction the lot was earned on; unique per card';
@@ -0,0 +1,56 @@
+-- How many points a transaction earns (AccrualRules in reward-service). Only the catalog shard's
+-- copy is read; reward-service compiles the active rules in memory and recompiles when the row
+-- count or the latest updated_at changes, so every edit must set updated_at.
+--
+-- A rule applies to transactions matching all of its non-NULL vendor_code, source and category,
+-- of at least min_amount, made within [valid_from, valid_to). What rule_value means depends on
+-- rule_type:
+--   EARN      points per currency unit spent; the first matching rule by priority, then the most
+--             specific, applies
+--   MULTIPLY  multiplier on the earned points, e.g. a promotion; the largest matching one applies
+--   BONUS     points added once per transaction; every matching one applies
+--   CAP       most points a transaction can earn; the smallest matching one applies
+CREATE TABLE accrual_rules (
+    rule_id VARCHAR2(50) PRIMARY KEY,
+    rule_type VARCHAR2(10) NOT NULL,
+    vendor_code VARCHAR2(10),
+    source VARCHAR2(100),
+    category VARCHAR2(30),
+    min_amount NUMBER(15,2) DEFAULT 0 NOT NULL,
+    rule_value NUMBER(14,4) NOT NULL,
+    valid_from TIMESTAMP,
+    valid_to TIMESTAMP,
+    priority NUMBER(5) DEFAULT 0 NOT NULL,
+    is_active NUMBER(1) DEFAULT 1 NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    CONSTRAINT chk_accrual_rule_type CHECK (rule_type IN ('EARN', 'MULTIPLY', 'BONUS', 'CAP')),
+    CONSTRAINT chk_accrual_rule_value CHECK (rule_value >= 0),
+    CONSTRAINT chk_accrual_min_amount CHECK (min_amount >= 0),
+    CONSTRAINT chk_accrual_window CHECK (valid_to IS NULL OR valid_from IS NULL OR valid_to > valid_from)
+);
+
+COMMENT ON TABLE accrual_rules IS 'Points accrual rules, read from the catalog shard';
+
+-- The flat rate transaction feeds earned at before rules existed
+INSERT INTO accrual_rules (rule_id, rule_type, rule_value, priority)
+VALUES ('BASE-EARN', 'EARN', 1, 0);
+INSERT INTO accrual_rules (rule_id, rule_type, vendor_code, rule_value)
+VALUES ('HDFC-EARN', 'EARN', 'HDFC', 2);
+INSERT INTO accrual_rules (rule_id, rule_type, vendor_code, source, rule_value)
+VALUES ('AMZN-PURCHASE-EARN', 'EARN', 'AMZN', 'PURCHASE', 3);
+INSERT INTO accrual_rules (rule_id, rule_type, category, rule_value)
+VALUES ('DINING-EARN', 'EARN', 'DINING', 3);
+INSERT INTO accrual_rules (rule_id, rule_type, source, rule_value)
+VALUES ('PROMO-BONUS', 'BONUS', 'BONUS', 750);
+INSERT INTO accrual_rules (rule_id, rule_type, source, rule_value)
+VALUES ('REFERRAL-BONUS', 'BONUS', 'REFERRAL', 500);
+INSERT INTO accrual_rules (rule_id, rule_type, source, rule_value)
+VALUES ('BIRTHDAY-BONUS', 'BONUS', 'BIRTHDAY_BONUS', 1000);
+INSERT INTO accrual_rules (rule_id, rule_type, source, rule_value)
+VALUES ('ANNIVERSARY-BONUS', 'BONUS', 'ANNIVERSARY_BONUS', 2500);
+INSERT INTO accrual_rules (rule_id, rule_type, source, min_amount, rule_value)
+VALUES ('BIG-SPEND-BONUS', 'BONUS', 'PURCHASE', 25000, 500);
+INSERT INTO accrual_rules (rule_id, rule_type, vendor_code, rule_value, valid_from, valid_to)
+VALUES ('FLIP-FESTIVE-2X', 'MULTIPLY', 'FLIP', 2, TIMESTAMP '2026-10-01 00:00:00', TIMESTAMP '2026-11-16 00:00:00');
+INSERT INTO accrual_rules (rule_id, rule_type, rule_value)
+VALUES ('TRANSACTION-CAP', 'CAP', 25000);
@@ -0,0 +1,163 @@
+package com.genai.rewardbot.common.ratelimit;
+
+import com.genai.rewardbot.common.config.RateLimitProperties;
+import com.genai.rewardbot.common.security.TokenVerifier;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link RateLimitFilter} per request. {@code unlimitedRoute} passes a request through
+ * the filter on a path with no limit, so the difference to {@code limitedRoute} is what the
+ * bucket lookup, body key and headers add; {@code tryAcquire} is the limiter alone. Buckets are
+ * large enough that every request is admitted, and 100,000 callers are spread over 8 threads.
+ *
+ * <p>mvn -Pjmh -DskipTests -f common/pom.xml test -Djmh.args=RateLimitBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class RateLimitBenchmark {
+
+    private static final int CALLERS = 100_000;
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private RateLimitFilter filter;
+    private TokenBucketLimiter limiter;
+    private String[] keys;
+    private byte[][] bodies;
+
+    @State(Scope.Thread)
+    public static class Caller {
+        private int next;
+
+        @Setup
+        public void setUp() {
+            next = ThreadLocalRandom.current().nextInt(CALLERS);
+        }
+
+        int next() {
+            return Math.floorMod(next++, CALLERS);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setPattern("/api/genai/query");
+        route.setMethods(List.of("POST"));
+        route.setCapacity(Long.MAX_VALUE / Duration.ofDays(1).toNanos());
+        route.setRefillPeriod(Duration.ofDays(1));
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRoutes(List.of(route));
+        properties.setMaxKeys(CALLERS * 2);
+        filter = new RateLimitFilter(properties, new TokenVerifier(1000, Duration.ofMinutes(10)));
+        limiter = new TokenBucketLimiter(route.getCapacity(), route.getRefillPeriod(), CALLERS * 2);
+
+        keys = new String[CALLERS];
+        bodies = new byte[CALLERS][];
+        for (int i = 0; i < CALLERS; i++) {
+            String mobileNumber = Long.toString(9_000_000_000L + i);
+            keys[i] = "m:" + mobileNumber;
+            bodies[i] = ("{\"mobileNumber\":\"" + mobileNumber + "\",\"query\":\"How many points do I have?\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        filter.destroy();
+    }
+
+    @Benchmark
+    public TokenBucketLimiter.Decision tryAcquire(Caller caller) {
+        return limiter.tryAcquire(keys[caller.next()]);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse limitedRoute(Caller caller) throws Exception {
+        return filter(caller, "/api/genai/query");
+    }
+
+    @Benchmark
+    public MockHttpServletResponse unlimitedRoute(Caller caller) throws Exception {
+        return filter(caller, "/api/genai/health");
+    }
+
+    private MockHttpServletResponse filter(Caller caller, String path) throws Exception {
+        MockHttpServletRequest request = new BodyRequest(path, bodies[caller.next()]);
+        request.setContentType("application/json");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, NO_OP_CHAIN);
+        return response;
+    }
+
+    // The mock's own stream reads one byte per call, which would dominate; servlet containers read in bulk
+    private static class BodyRequest extends MockHttpServletRequest {
+
+        private final byte[] body;
+
+        BodyRequest(String path, byte[] body) {
+            super("POST", path);
+            this.body = body;
+            setContent(body);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.genai.rewardbot.common.ratelimit;
+
+import com.genai.rewardbot.common.config.RateLimitProperties;
+import com.genai.rewardbot.common.security.TokenVerifier;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private static final String KID = "test-key";
+
+    private KeyPair keyPair;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+        TokenVerifier verifier = new TokenVerifier(1000, Duration.ofMinutes(10));
+        verifier.updateKeys(Map.of(KID, keyPair.getPublic()));
+
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setPattern("/api/auth/validate");
+        route.setCapacity(2);
+        route.setRefillPeriod(Duration.ofMinutes(1));
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRoutes(List.of(route));
+        filter = new RateLimitFilter(properties, verifier);
+    }
+
+    @AfterEach
+    void tearDown() {
+        filter.destroy();
+    }
+
+    @Test
+    void validateIsLimitedPerTokenSubjectAcrossAddresses() throws Exception {
+        String token = token("9876543210");
+
+        assertThat(validate(token, "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(validate(token, "10.0.0.2").getStatus()).isEqualTo(200);
+        MockHttpServletResponse rejected = validate(token, "10.0.0.3");
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isNotNull();
+        assertThat(rejected.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN)).isEqualTo("*");
+        assertThat(rejected.getContentAsString()).contains("\"success\":false");
+    }
+
+    @Test
+    void subjectsBehindOneAddressHaveTheirOwnBuckets() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletResponse response = validate(token("98765432" + (10 + i)), "10.0.0.1");
+            assertThat(response.getStatus()).isEqualTo(200);
+            assertThat(response.getHeader("RateLimit-Remaining")).isEqualTo("1");
+        }
+    }
+
+    @Test
+    void invalidTokensAreLimitedByAddress() throws Exception {
+        assertThat(validate("not-a-token", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(validate("still-not-a-token", "10.0.0.1").getStatus()).isEqualTo(200);
+
+        assertThat(validate("another-bad-token", "10.0.0.1").getStatus()).isEqualTo(429);
+        assertThat(validate("another-bad-token", "10.0.0.2").getStatus()).isEqualTo(200);
+    }
+
+    private MockHttpServletResponse validate(String token, String address) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/validate");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        request.setRemoteAddr(address);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private String token(String mobileNumber) {
+        return Jwts.builder()
+                .header().keyId(KID).and()
+                .id(UUID.randomUUID().toString())
+                .subject(mobileNumber)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(keyPair.getPrivate(), Jwts.SIG.RS256)
+                .compact();
+    }
+}
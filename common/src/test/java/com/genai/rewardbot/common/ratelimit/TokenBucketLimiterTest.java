@@ -0,0 +1,133 @@
+package com.genai.rewardbot.common.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(1_000 * SECOND);
+
+    @Test
+    void allowsABurstOfCapacityThenDenies() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(5, Duration.ofSeconds(10), 1000, clock::get);
+
+        for (int i = 4; i >= 0; i--) {
+            TokenBucketLimiter.Decision decision = limiter.tryAcquire("caller");
+            assertThat(decision.allowed()).isTrue();
+            assertThat(decision.limit()).isEqualTo(5);
+            assertThat(decision.remaining()).isEqualTo(i);
+        }
+
+        TokenBucketLimiter.Decision denied = limiter.tryAcquire("caller");
+        assertThat(denied.allowed()).isFalse();
+        assertThat(denied.remaining()).isZero();
+        // One token every two seconds
+        assertThat(denied.retryAfterNanos()).isEqualTo(2 * SECOND);
+        assertThat(denied.resetNanos()).isEqualTo(10 * SECOND);
+    }
+
+    @Test
+    void refillsOneTokenPerEmissionInterval() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(5, Duration.ofSeconds(10), 1000, clock::get);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("caller");
+        }
+
+        clock.addAndGet(2 * SECOND - 1);
+        assertThat(limiter.tryAcquire("caller").allowed()).isFalse();
+        clock.addAndGet(1);
+        assertThat(limiter.tryAcquire("caller").allowed()).isTrue();
+        assertThat(limiter.tryAcquire("caller").allowed()).isFalse();
+
+        clock.addAndGet(10 * SECOND);
+        assertThat(limiter.tryAcquire("caller").remaining()).isEqualTo(4);
+    }
+
+    @Test
+    void callersHaveIndependentBuckets() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, Duration.ofMinutes(1), 1000, clock::get);
+
+        assertThat(limiter.tryAcquire("first").allowed()).isTrue();
+        assertThat(limiter.tryAcquire("first").allowed()).isFalse();
+        assertThat(limiter.tryAcquire("second").allowed()).isTrue();
+    }
+
+    @Test
+    void evictsOnlyFullBuckets() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, Duration.ofSeconds(10), 1000, clock::get);
+        limiter.tryAcquire("idle");
+        clock.addAndGet(5 * SECOND);
+        limiter.tryAcquire("busy");
+
+        limiter.evictIdle();
+
+        assertThat(limiter.size()).isEqualTo(1);
+        assertThat(limiter.tryAcquire("busy").remaining()).isZero();
+    }
+
+    @Test
+    void trackedKeysStayBounded() {
+        int maxKeys = 256;
+        TokenBucketLimiter limiter = new TokenBucketLimiter(10, Duration.ofHours(1), maxKeys, clock::get);
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(limiter.tryAcquire("caller-" + i).allowed()).isTrue();
+        }
+
+        // Each stripe holds at least one key, so the bound is the larger of the two
+        assertThat(limiter.size()).isLessThanOrEqualTo(Math.max(maxKeys, 64));
+    }
+
+    @Test
+    void concurrentCallersNeverExceedCapacity() throws Exception {
+        int capacity = 1000;
+        TokenBucketLimiter limiter = new TokenBucketLimiter(capacity, Duration.ofHours(1), 1000, clock::get);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int allowed = 0;
+                    for (int i = 0; i < capacity; i++) {
+                        if (limiter.tryAcquire("shared").allowed()) {
+                            allowed++;
+                        }
+                    }
+                    return allowed;
+                }));
+            }
+            start.countDown();
+            int allowed = 0;
+            for (Future<Integer> result : results) {
+                allowed += result.get(30, TimeUnit.SECONDS);
+            }
+
+            assertThat(allowed).isEqualTo(capacity);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectsZeroCapacity() {
+        assertThatThrownBy(() -> new TokenBucketLimiter(0, Duration.ofMinutes(1), 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,69 @@
+package com.genai.rewardbot.common.security;
+
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenVerifierTest {
+
+    private static final String KID = "test-key";
+
+    private KeyPair keyPair;
+    private TokenVerifier verifier;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+        verifier = new TokenVerifier(1000, Duration.ofMinutes(10));
+        verifier.updateKeys(Map.of(KID, keyPair.getPublic()));
+    }
+
+    @Test
+    void signedTokenWithExpiryIsVerified() {
+        String token = sign(builder().expiration(new Date(System.currentTimeMillis() + 60_000)));
+
+        assertThat(verifier.verify(token)).hasValueSatisfying(verified ->
+                assertThat(verified.mobileNumber()).isEqualTo("9876543210"));
+    }
+
+    @Test
+    void signedTokenWithoutExpiryIsRejected() {
+        String token = sign(builder());
+
+        assertThat(verifier.verify(token)).isEmpty();
+        assertThatThrownBy(() -> verifier.parseClaims(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        String token = sign(builder().expiration(new Date(System.currentTimeMillis() - 60_000)));
+
+        assertThat(verifier.verify(token)).isEmpty();
+    }
+
+    private static JwtBuilder builder() {
+        return Jwts.builder()
+                .header().keyId(KID).and()
+                .id(UUID.randomUUID().toString())
+                .subject("9876543210")
+                .issuedAt(new Date());
+    }
+
+    private String sign(JwtBuilder builder) {
+        return builder.signWith(keyPair.getPrivate(), Jwts.SIG.RS256).compact();
+    }
+}
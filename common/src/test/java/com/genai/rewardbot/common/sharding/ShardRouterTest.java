@@ -0,0 +1,100 @@
+package com.genai.rewardbot.common.sharding;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ShardRouterTest {
+
+    private static final int BUCKETS = 64;
+
+    private final ShardDirectory directory = mock(ShardDirectory.class);
+    private final ShardRouter sharded = ShardRouter.sharded(
+            List.of(mock(DataSource.class), mock(DataSource.class)), directory, BUCKETS);
+
+    @AfterEach
+    void tearDown() {
+        sharded.stop();
+    }
+
+    @Test
+    void bucketsAreStableAcrossReleases() {
+        // Rows are placed by these values; changing the hash strands every existing user
+        assertThat(sharded.bucketOf("9876543210")).isEqualTo(53);
+        assertThat(sharded.bucketOf("9000000001")).isEqualTo(42);
+        assertThat(sharded.bucketOf("+919876543210")).isEqualTo(30);
+        assertThat(ShardRouter.sharded(List.of(mock(DataSource.class)), directory, 1024).bucketOf("9876543210"))
+                .isEqualTo(181);
+    }
+
+    @Test
+    void bucketsSpreadEvenly() {
+        int users = 128_000;
+        int[] counts = new int[BUCKETS];
+        for (int i = 0; i < users; i++) {
+            int bucket = sharded.bucketOf(Long.toString(9_000_000_000L + i));
+            assertThat(bucket).isBetween(0, BUCKETS - 1);
+            counts[bucket]++;
+        }
+
+        int mean = users / BUCKETS;
+        for (int count : counts) {
+            assertThat(count).isBetween(mean * 9 / 10, mean * 11 / 10);
+        }
+    }
+
+    @Test
+    void unshardedRouterUsesTheCatalogForEveryone() {
+        ShardRouter single = ShardRouter.single(mock(DataSource.class));
+
+        assertThat(single.bucketOf("9876543210")).isZero();
+        assertThat(single.shardOf("9876543210")).isEqualTo(ShardRouter.CATALOG_SHARD);
+        assertThat(single.isWritableOn(0, "9876543210")).isTrue();
+        assertThat(single.on("9876543210")).isSameAs(ShardRouter.Scope.NONE);
+        assertThat(single.groupByShard(List.of("a", "b"), value -> value)).containsExactly(Map.entry(0, List.of("a", "b")));
+    }
+
+    @Test
+    void shardAndFreezeComeFromTheDirectory() {
+        int bucket = sharded.bucketOf("9876543210");
+        when(directory.bucket(anyInt())).thenReturn(new ShardDirectory.Bucket(0, 0, null, false));
+        when(directory.bucket(bucket)).thenReturn(new ShardDirectory.Bucket(bucket, 1, 0, true));
+
+        assertThat(sharded.shardOf("9876543210")).isEqualTo(1);
+        assertThat(sharded.isFrozen("9876543210")).isTrue();
+        assertThat(sharded.isWritableOn(1, "9876543210")).isFalse();
+        assertThat(sharded.isWritableOn(0, "9000000001")).isTrue();
+        assertThat(sharded.isWritableOn(1, "9000000001")).isFalse();
+        assertThat(sharded.groupByShard(List.of("9876543210", "9000000001", "9876543210"), value -> value))
+                .containsExactly(Map.entry(0, List.of("9000000001")), Map.entry(1, List.of("9876543210", "9876543210")));
+    }
+
+    @Test
+    void scopesNestAndRestoreTheOuterRoute() {
+        try (ShardRouter.Scope user = sharded.on("9876543210")) {
+            assertThat(ShardRouter.currentRoute()).isEqualTo(new ShardRouter.Route(53, null));
+            try (ShardRouter.Scope shard = sharded.onShard(1)) {
+                assertThat(ShardRouter.currentRoute()).isEqualTo(new ShardRouter.Route(null, 1));
+            }
+            assertThat(ShardRouter.currentRoute()).isEqualTo(new ShardRouter.Route(53, null));
+        }
+        assertThat(ShardRouter.currentRoute()).isNull();
+    }
+
+    @Test
+    void scatterRunsOncePerShardInShardOrder() {
+        List<Integer> shards = sharded.scatter(shard -> ShardRouter.currentRoute().shard());
+
+        assertThat(shards).containsExactly(0, 1);
+        assertThatThrownBy(() -> sharded.onShard(2)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
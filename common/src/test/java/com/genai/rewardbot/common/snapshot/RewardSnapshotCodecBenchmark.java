@@ -0,0 +1,128 @@
+package com.genai.rewardbot.common.snapshot;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.genai.rewardbot.common.dto.CardDto;
+import com.genai.rewardbot.common.dto.RewardPointDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization cost of the internal snapshot against the JSON it replaced on the
+ * genai-service hop. {@code binary*} is {@link RewardSnapshotCodec}; {@code jsonSnapshot*} is
+ * the same snapshot through Jackson; {@code jsonCards*} is the card list with nested lots that
+ * the public cards endpoint returns, which carries the same figures. Payload sizes are printed
+ * at setup.
+ *
+ * <p>mvn -Pjmh -DskipTests -f common/pom.xml test -Djmh.args="RewardSnapshotCodecBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RewardSnapshotCodecBenchmark {
+
+    private static final TypeReference<List<CardDto>> CARD_LIST = new TypeReference<>() {
+    };
+
+    @Param({"2", "5"})
+    public int cards;
+
+    @Param("40")
+    public int lotsPerCard;
+
+    private final ObjectMapper mapper = JsonMapper.builder().findAndAddModules().build();
+    private UserRewardSnapshot snapshot;
+    private List<CardDto> cardDtos;
+    private byte[] binary;
+    private byte[] jsonSnapshot;
+    private byte[] jsonCards;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        LocalDateTime now = LocalDateTime.of(2026, 10, 1, 12, 0);
+        List<CardSnapshot> cardSnapshots = new ArrayList<>();
+        cardDtos = new ArrayList<>();
+        for (int c = 0; c < cards; c++) {
+            List<RewardPointDto> lots = new ArrayList<>();
+            long points = 0;
+            for (int l = 0; l < lotsPerCard; l++) {
+                LocalDateTime earned = now.minusDays(l + 1);
+                lots.add(new RewardPointDto(c * 1000L + l, 100 + l, 10, 90 + l, earned, earned.plusMonths(12),
+                        "PURCHASE", "Purchase at merchant " + l, "TXN-" + c + "-" + l, 2500L));
+                points += 90 + l;
+            }
+            CardDto card = new CardDto(100L + c, "41111111111111" + (10 + c), "CREDIT", "Vendor " + c, "V" + c,
+                    1_234_567L, "INR", true, now.plusYears(3), new BigDecimal("1.50"));
+            card.setTotalRewardPoints((int) points);
+            card.setExpiringSoonPoints(120);
+            card.setNextExpiryDate(now.plusDays(12));
+            card.setRewardPoints(lots);
+            cardDtos.add(card);
+            cardSnapshots.add(new CardSnapshot(100L + c, "Vendor " + c, "V" + c, "CREDIT", "11" + (10 + c),
+                    1_234_567L, "INR", 150, points, 120, LocalDate.from(now.plusDays(12)).toEpochDay(),
+                    points * 25 / 100));
+        }
+        List<RedemptionSnapshot> redemptions = List.of(
+                new RedemptionSnapshot("AMZ-500", "Amazon voucher 500", "V0", 2, 4000, 100_000, 20_800),
+                new RedemptionSnapshot("FUEL-100", "Fuel voucher 100", "V1", 1, 800, 10_000, -1));
+        snapshot = new UserRewardSnapshot(1L, "9876543210", "Test", "User", 1_790_000_000_000L, cardSnapshots,
+                redemptions);
+
+        binary = RewardSnapshotCodec.encode(snapshot);
+        jsonSnapshot = mapper.writeValueAsBytes(snapshot);
+        jsonCards = mapper.writeValueAsBytes(cardDtos);
+        System.out.printf("payload bytes: binary %d, JSON snapshot %d, JSON cards %d%n",
+                binary.length, jsonSnapshot.length, jsonCards.length);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return RewardSnapshotCodec.encode(snapshot);
+    }
+
+    @Benchmark
+    public UserRewardSnapshot binaryDecode() {
+        return RewardSnapshotCodec.decode(binary);
+    }
+
+    @Benchmark
+    public byte[] jsonSnapshotEncode() throws Exception {
+        return mapper.writeValueAsBytes(snapshot);
+    }
+
+    @Benchmark
+    public UserRewardSnapshot jsonSnapshotDecode() throws Exception {
+        return mapper.readValue(jsonSnapshot, UserRewardSnapshot.class);
+    }
+
+    @Benchmark
+    public byte[] jsonCardsEncode() throws Exception {
+        return mapper.writeValueAsBytes(cardDtos);
+    }
+
+    @Benchmark
+    public List<CardDto> jsonCardsDecode() throws Exception {
+        return mapper.readValue(jsonCards, CARD_LIST);
+    }
+}
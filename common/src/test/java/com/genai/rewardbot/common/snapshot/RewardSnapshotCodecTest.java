@@ -0,0 +1,67 @@
+package com.genai.rewardbot.common.snapshot;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RewardSnapshotCodecTest {
+
+    // -1 as a ten-byte varint
+    private static final byte[] MINUS_ONE = {-1, -1, -1, -1, -1, -1, -1, -1, -1, 1};
+
+    @Test
+    void snapshotSurvivesARoundTrip() {
+        UserRewardSnapshot snapshot = new UserRewardSnapshot(1L, "9876543210", "Test", null, 1_790_000_000_000L,
+                List.of(new CardSnapshot(100L, "Vendor", "V0", "CREDIT", "1110", -1_234_567L, "INR", 150, 4000, 120,
+                        -1, 1000)),
+                List.of(new RedemptionSnapshot("AMZ-500", "Amazon voucher 500", "V0", 2, 4000, 100_000, 20_800)));
+
+        assertThat(RewardSnapshotCodec.decode(RewardSnapshotCodec.encode(snapshot))).isEqualTo(snapshot);
+    }
+
+    @Test
+    void negativeStringLengthIsMalformed() {
+        byte[] malformed = concat(header(), MINUS_ONE);
+
+        assertThatThrownBy(() -> RewardSnapshotCodec.decode(malformed))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Malformed string");
+    }
+
+    @Test
+    void negativeCardCountIsMalformed() {
+        // Null mobile number and names, then the generation time
+        byte[] malformed = concat(header(), new byte[]{0, 0, 0, 1}, MINUS_ONE);
+
+        assertThatThrownBy(() -> RewardSnapshotCodec.decode(malformed))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("card count");
+    }
+
+    @Test
+    void truncatedSnapshotIsMalformed() {
+        byte[] encoded = RewardSnapshotCodec.encode(new UserRewardSnapshot(1L, "9876543210", "Test", "User", 1L,
+                List.of(), List.of()));
+
+        assertThatThrownBy(() -> RewardSnapshotCodec.decode(Arrays.copyOf(encoded, encoded.length - 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Magic, version and a user id of 1
+    private static byte[] header() {
+        return new byte[]{'R', 'S', RewardSnapshotCodec.VERSION, 1};
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+}
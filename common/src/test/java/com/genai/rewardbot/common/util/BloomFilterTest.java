@@ -0,0 +1,125 @@
+package com.genai.rewardbot.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BloomFilterTest {
+
+    @Test
+    void isSizedForTheExpectedInsertionsAndRate() {
+        BloomFilter filter = BloomFilter.create(1000, 0.01);
+
+        // m = -n ln p / (ln 2)^2 = 9586 bits, rounded up to whole words; k = m/n ln 2 = 7
+        assertThat(filter.bitCount()).isEqualTo(9600);
+        assertThat(filter.hashCount()).isEqualTo(7);
+        assertThat(BloomFilter.create(0, 0.01).bitCount()).isEqualTo(64);
+    }
+
+    @Test
+    void neverForgetsAnAddedValue() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.001);
+        List<String> ids = ids(10_000);
+
+        int changed = 0;
+        for (String id : ids) {
+            if (filter.put(id)) {
+                changed++;
+            }
+        }
+
+        // A new value only leaves every bit as it was when it is already a false positive
+        assertThat(changed).isGreaterThan(ids.size() - 50);
+        assertThat(ids).allMatch(filter::mightContain);
+        assertThat(filter.put(ids.get(0))).isFalse();
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheTarget() {
+        double rate = 0.01;
+        BloomFilter filter = BloomFilter.create(100_000, rate);
+        ids(100_000).forEach(filter::put);
+
+        int probes = 100_000;
+        int falsePositives = 0;
+        for (String id : ids(probes)) {
+            if (filter.mightContain(id)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat((double) falsePositives / probes).isLessThan(rate * 1.5);
+    }
+
+    @Test
+    void roundTripsThroughItsWireForm() throws IOException {
+        BloomFilter filter = BloomFilter.create(1000, 0.01);
+        List<String> ids = ids(1000);
+        ids.forEach(filter::put);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        filter.writeTo(new DataOutputStream(bytes));
+        BloomFilter copy = BloomFilter.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertThat(copy.bitCount()).isEqualTo(filter.bitCount());
+        assertThat(copy.hashCount()).isEqualTo(filter.hashCount());
+        assertThat(ids).allMatch(copy::mightContain);
+        for (String id : ids(1000)) {
+            assertThat(copy.mightContain(id)).isEqualTo(filter.mightContain(id));
+        }
+    }
+
+    @Test
+    void rejectsACorruptHeader() {
+        byte[] header = {0, 0, 0, 0, 0, 0, 0, 1};
+
+        assertThatThrownBy(() -> BloomFilter.readFrom(new DataInputStream(new ByteArrayInputStream(header))))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void concurrentAddsAreAllKept() throws Exception {
+        BloomFilter filter = BloomFilter.create(40_000, 0.001);
+        int threads = 4;
+        List<List<String>> batches = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            batches.add(ids(10_000));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> fills = new ArrayList<>();
+            for (List<String> batch : batches) {
+                fills.add(executor.submit(() -> batch.forEach(filter::put)));
+            }
+            for (Future<?> fill : fills) {
+                fill.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(batches).allSatisfy(batch -> assertThat(batch).allMatch(filter::mightContain));
+    }
+
+    private static List<String> ids(int count) {
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(UUID.randomUUID().toString());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,86 @@
+package com.genai.rewardbot.common.valuation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FixedPointTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "25, 10, 2",
+            "35, 10, 4",
+            "26, 10, 3",
+            "24, 10, 2",
+            "-25, 10, -2",
+            "-35, 10, -4",
+            "-26, 10, -3",
+            "25, -10, -2",
+            "15, 10, 2",
+            "5, 10, 0",
+            "7, 7, 1"
+    })
+    void divideRoundsHalfToEven(long dividend, long divisor, long expected) {
+        assertThat(FixedPoint.divideHalfEven(dividend, divisor)).isEqualTo(expected);
+    }
+
+    @Test
+    void divideMatchesBigDecimalHalfEven() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long dividend = random.nextLong() >> random.nextInt(63);
+            long divisor = (random.nextLong() >> random.nextInt(63)) | 1;
+            long expected = BigDecimal.valueOf(dividend)
+                    .divide(BigDecimal.valueOf(divisor), 0, RoundingMode.HALF_EVEN)
+                    .longValueExact();
+            assertThat(FixedPoint.divideHalfEven(dividend, divisor))
+                    .as("%d / %d", dividend, divisor)
+                    .isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void rescaleUpIsExactAndChecked() {
+        assertThat(FixedPoint.rescale(123, 2, 4)).isEqualTo(12_300);
+        assertThat(FixedPoint.rescale(123, 2, 2)).isEqualTo(123);
+        assertThatThrownBy(() -> FixedPoint.rescale(Long.MAX_VALUE / 10, 2, 4))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void rescaleDownRoundsHalfToEven() {
+        assertThat(FixedPoint.rescale(12_350, 4, 2)).isEqualTo(124);
+        assertThat(FixedPoint.rescale(12_250, 4, 2)).isEqualTo(122);
+        assertThat(FixedPoint.rescale(12_251, 4, 2)).isEqualTo(123);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0, 2, 0.00",
+            "5, 2, 0.05",
+            "-5, 2, -0.05",
+            "123456, 2, 1234.56",
+            "-100, 2, -1.00",
+            "2500, 4, 0.2500",
+            "42, 0, 42"
+    })
+    void formatsWithAllFractionDigits(long units, int scale, String expected) {
+        assertThat(FixedPoint.format(units, scale)).isEqualTo(expected);
+        assertThat(FixedPoint.parse(expected, scale)).isEqualTo(units);
+        assertThat(FixedPoint.toBigDecimal(units, scale)).isEqualTo(new BigDecimal(expected));
+    }
+
+    @Test
+    void parseRoundsExtraDigitsHalfToEven() {
+        assertThat(FixedPoint.parse(" 1.005 ", 2)).isEqualTo(100);
+        assertThat(FixedPoint.parse("1.015", 2)).isEqualTo(102);
+        assertThatThrownBy(() -> FixedPoint.parse("1e30", 2)).isInstanceOf(ArithmeticException.class);
+    }
+}
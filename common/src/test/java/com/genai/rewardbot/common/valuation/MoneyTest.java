@@ -0,0 +1,71 @@
+package com.genai.rewardbot.common.valuation;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    @Test
+    void arithmeticIsOverflowChecked() {
+        assertThat(Money.add(150, 275)).isEqualTo(425);
+        assertThat(Money.subtract(150, 275)).isEqualTo(-125);
+        assertThatThrownBy(() -> Money.add(Long.MAX_VALUE, 1)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.subtract(Long.MIN_VALUE, 1)).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void rateIsAppliedInBasisPointsWithHalfEvenRounding() {
+        long rate = Money.rateToBasisPoints(new BigDecimal("2.50"));
+        assertThat(rate).isEqualTo(250);
+        // 2.5% of 1,234.56 = 30.864
+        assertThat(Money.applyRate(Money.parse("1234.56"), rate)).isEqualTo(3086);
+        // 1% of 0.50 = 0.005, rounds to the even 0.00; of 1.50 = 0.015, rounds to 0.02
+        assertThat(Money.applyRate(50, 100)).isZero();
+        assertThat(Money.applyRate(150, 100)).isEqualTo(2);
+    }
+
+    @Test
+    void convertsAtTheBoundaries() {
+        assertThat(Money.of(new BigDecimal("19.999"))).isEqualTo(2000);
+        assertThat(Money.toBigDecimal(2000)).isEqualTo(new BigDecimal("20.00"));
+        assertThat(Money.format(-7)).isEqualTo("-0.07");
+    }
+
+    @Test
+    void pointValuesConvertToMoneyAndBack() {
+        long quarterRupee = PointValue.parse("0.25");
+        assertThat(quarterRupee).isEqualTo(2500);
+        assertThat(PointValue.valueOf(3, quarterRupee)).isEqualTo(75);
+        // 1 point at 0.0125 is 1.25 paise, rounded once to 1
+        assertThat(PointValue.valueOf(1, PointValue.parse("0.0125"))).isEqualTo(1);
+        assertThat(PointValue.pointsFor(Money.parse("10.01"), quarterRupee)).isEqualTo(41);
+        assertThat(PointValue.pointsFor(Money.parse("10.00"), quarterRupee)).isEqualTo(40);
+        assertThatThrownBy(() -> PointValue.pointsFor(100, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void accumulatorRoundsOnlyTheTotal() {
+        long value = PointValue.parse("0.0125");
+        ValueAccumulator total = new ValueAccumulator();
+        long roundedPerLot = 0;
+        for (int i = 0; i < 1000; i++) {
+            total.add(1, value);
+            roundedPerLot += PointValue.valueOf(1, value);
+        }
+
+        assertThat(total.points()).isEqualTo(1000);
+        assertThat(total.lots()).isEqualTo(1000);
+        assertThat(total.value()).isEqualTo(1250);
+        assertThat(roundedPerLot).isEqualTo(1000);
+
+        ValueAccumulator other = new ValueAccumulator().add(2, PointValue.parse("0.50"));
+        assertThat(total.addAll(other).value()).isEqualTo(1350);
+        total.reset();
+        assertThat(total.value()).isZero();
+        assertThat(total.lots()).isZero();
+    }
+}
@@ -77,19 +77,22 @@ async function loadDashboardData() {
     
     try {
         // Load all data in parallel
-        const [cardsData, pointsData] = await Promise.all([
+        const [cardsData, analyticsData] = await Promise.all([
             loadUserCards(),
-            loadUserPoints()
+            loadUserAnalytics()
         ]);
         
         // Process and display data
         if (cardsData) {
             displayCards(cardsData);
-            updateMetrics(cardsData, pointsData);
+        }
+        if (analyticsData) {
+            updateMetrics(analyticsData);
+            displayCategories(analyticsData.earnedBySource);
         }
         
         // Initialize chart
-        initializeChart();
+        initializeChart(analyticsData ? analyticsData.monthly : null);
         
     } catch (error) {
         console.error('Error loading dashboard data:', error);
@@ -118,9 +121,10 @@ async function loadUserCards() {
     return null;
 }
 
-async function loadUserPoints() {
+// Pre-aggregated on the server: totals, monthly series and breakdowns in one small response
+async function loadUserAnalytics() {
     try {
-        const response = await fetch(`${API_CONFIG.REWARD_SERVICE_URL}/points/${currentUser.mobileNumber}`, {
+        const response = await fetch(`${API_CONFIG.REWARD_SERVICE_URL}/analytics/${currentUser.mobileNumber}`, {
             headers: {
                 'Authorization': `Bearer ${authToken}`
             }
@@ -128,10 +132,10 @@ async function loadUserPoints() {
         
         if (response.ok) {
             const data = await response.json();
-            return data.points || [];
+            return data.success ? data.analytics : null;
         }
     } catch (error) {
-        console.error('Error loading points:', error);
+        console.error('Error loading analytics:', error);
     }
     return null;
 }
@@ -371,36 +375,35 @@ function displayMockData() {
     initializeChart();
 }
 
-function updateMetrics(cardsData, pointsData) {
-    let totalEarned = 0;
-    let totalRedeemed = 0;
-    let thisMonth = 0;
-    let totalTransactions = 0;
-    
-    if (pointsData && pointsData.length > 0) {
-        pointsData.forEach(point => {
-            totalEarned += point.pointsEarned || 0;
-            totalRedeemed += point.pointsUsed || 0;
-            
-            // Check if this month (simple approximation)
-            const earningDate = new Date(point.earningDate);
-            const now = new Date();
-            if (earningDate.getMonth() === now.getMonth() && earningDate.getFullYear() === now.getFullYear()) {
-                thisMonth += point.pointsEarned || 0;
-            }
-        });
-        
-        totalTransactions = pointsData.length;
-    }
+function updateMetrics(analytics) {
+    document.getElementById('totalEarned').textContent = formatNumber(analytics.totalEarned || 0);
+    document.getElementById('totalRedeemed').textContent = formatNumber(analytics.totalRedeemed || 0);
+    document.getElementById('thisMonth').textContent = formatNumber(analytics.thisMonthEarned || 0);
+    document.getElementById('totalTransactions').textContent = formatNumber(analytics.transactions || 0);
+}
+
+function displayCategories(earnedBySource) {
+    const grid = document.querySelector('#categories .categories-grid');
+    if (!grid || !earnedBySource || Object.keys(earnedBySource).length === 0) return;
     
-    // Update UI
-    document.getElementById('totalEarned').textContent = formatNumber(totalEarned);
-    document.getElementById('totalRedeemed').textContent = formatNumber(totalRedeemed);
-    document.getElementById('thisMonth').textContent = formatNumber(thisMonth);
-    document.getElementById('totalTransactions').textContent = formatNumber(totalTransactions);
+    const total = Object.values(earnedBySource).reduce((sum, points) => sum + points, 0);
+    grid.innerHTML = Object.entries(earnedBySource)
+        .sort((a, b) => b[1] - a[1])
+        .map(([source, points]) => `
+            <div class="category-item">
+                <div class="category-icon">
+                    <i class="fas ${getSourceIcon(source)}"></i>
+                </div>
+                <div class="category-info">
+                    <h4>${formatSource(source)}</h4>
+                    <div class="category-points">${formatNumber(points)} points</div>
+                    <div class="category-percentage">${total > 0 ? Math.round(points / total * 100) : 0}%</div>
+                </div>
+            </div>
+        `).join('');
 }
 
-function initializeChart() {
+function initializeChart(monthly) {
     const ctx = document.getElementById('monthlyChart');
     if (!ctx) return;
     
@@ -409,13 +412,16 @@ function initializeChart() {
         monthlyChart.destroy();
     }
     
-    // Mock data for the chart (matching the image)
+    // Server series when available, otherwise mock data (matching the image)
+    const hasSeries = monthly && monthly.length > 0;
     const chartData = {
-        labels: ['Sep', 'Oct', 'Nov', 'Dec', 'Jan', 'Feb', 'Mar'],
+        labels: hasSeries
+            ? monthly.map(entry => new Date(`${entry.month}-01T00:00:00`).toLocaleString('en-US', { month: 'short' }))
+            : ['Sep', 'Oct', 'Nov', 'Dec', 'Jan', 'Feb', 'Mar'],
         datasets: [
             {
                 label: 'Earned',
-                data: [1150, 850, 1050, 1290, 1200, 1100, 950],
+                data: hasSeries ? monthly.map(entry => entry.earned) : [1150, 850, 1050, 1290, 1200, 1100, 950],
                 backgroundColor: '#3b82f6',
                 borderColor: '#3b82f6',
                 borderWidth: 0,
@@ -424,7 +430,7 @@ function initializeChart() {
             },
             {
                 label: 'Redeemed',
-                data: [450, 300, 200, 350, 400, 250, 150],
+                data: hasSeries ? monthly.map(entry => entry.redeemed) : [450, 300, 200, 350, 400, 250, 150],
                 backgroundColor: '#ef4444',
                 borderColor: '#ef4444',
                 borderWidth: 0,
@@ -508,6 +514,22 @@ function getCardLogo(vendorName) {
     return vendorName.charAt(0).toUpperCase();
 }
 
+function getSourceIcon(source) {
+    const icons = {
+        PURCHASE: 'fa-shopping-cart',
+        CASHBACK: 'fa-money-bill-wave',
+        BONUS: 'fa-gift',
+        REFERRAL: 'fa-user-friends',
+        BIRTHDAY_BONUS: 'fa-birthday-cake',
+        ANNIVERSARY_BONUS: 'fa-star'
+    };
+    return icons[source] || 'fa-coins';
+}
+
+function formatSource(source) {
+    return source.toLowerCase().split('_').map(word => word.charAt(0).toUpperCase() + word.slice(1)).join(' ');
+}
+
 function maskCardNumber(cardNumber) {
     if (!cardNumber) return '****';
     const lastFour = cardNumber.slice(-4);
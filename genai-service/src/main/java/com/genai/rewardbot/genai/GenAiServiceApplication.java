@@ -1,14 +1,21 @@
 package com.genai.rewardbot.genai;
 
+import com.genai.rewardbot.common.config.RateLimitConfig;
+import com.genai.rewardbot.common.config.TokenVerificationConfig;
+import com.genai.rewardbot.genai.config.GenAiRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication(
     scanBasePackages = "com.genai.rewardbot.genai",
     exclude = {DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class}
 )
+@Import({TokenVerificationConfig.class, RateLimitConfig.class})
+@ImportRuntimeHints(GenAiRuntimeHints.class)
 public class GenAiServiceApplication {
 
     public static void main(String[] args) {
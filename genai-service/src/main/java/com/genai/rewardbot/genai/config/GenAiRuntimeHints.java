@@ -0,0 +1,52 @@
+package com.genai.rewardbot.genai.config;
+
+import org.springframework.aot.hint.ExecutableMode;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Native-image hints for the OpenAI client, which calls the API through a Retrofit proxy and
+ * binds its request/response models with Jackson, and for the reflective virtual-thread
+ * executor lookup in {@link PipelineConfig}.
+ */
+public class GenAiRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final String OPENAI_API = "com.theokanning.openai.client.OpenAiApi";
+
+    private static final String[] OPENAI_MODELS = {
+            "com.theokanning.openai.completion.chat.ChatCompletionRequest",
+            "com.theokanning.openai.completion.chat.ChatCompletionResult",
+            "com.theokanning.openai.completion.chat.ChatCompletionChoice",
+            "com.theokanning.openai.completion.chat.ChatMessage",
+            "com.theokanning.openai.completion.chat.ChatFunctionCall",
+            "com.theokanning.openai.Usage",
+            "com.theokanning.openai.OpenAiError",
+            "com.theokanning.openai.OpenAiError$OpenAiErrorDetails",
+            "com.theokanning.openai.service.ChatCompletionRequestMixIn",
+            "com.theokanning.openai.service.ChatFunctionCallMixIn",
+            "com.theokanning.openai.service.ChatFunctionCallArgumentsSerializerAndDeserializer",
+            "com.theokanning.openai.service.ChatFunctionCallArgumentsSerializerAndDeserializer$ChatFunctionCallArgumentsSerializer",
+            "com.theokanning.openai.service.ChatFunctionCallArgumentsSerializerAndDeserializer$ChatFunctionCallArgumentsDeserializer",
+            "com.theokanning.openai.service.ChatFunctionParametersSerializer"
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.proxies().registerJdkProxy(TypeReference.of(OPENAI_API));
+        hints.reflection().registerType(TypeReference.of(OPENAI_API), MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        Stream.of(OPENAI_MODELS).map(TypeReference::of).forEach(type -> hints.reflection().registerType(type,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS,
+                MemberCategory.DECLARED_FIELDS));
+
+        // Java 21+ only; a missing method is simply not found at runtime, as on a JVM
+        hints.reflection().registerType(Executors.class, type -> type
+                .withMethod("newVirtualThreadPerTaskExecutor", List.of(), ExecutableMode.INVOKE));
+    }
+}
@@ -0,0 +1,54 @@
+package com.genai.rewardbot.genai.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor for the query pipeline's stages. Stages spend nearly all their time blocked on
+ * the model API, so on a runtime with virtual threads each stage gets its own; otherwise a
+ * bounded pool is used and work beyond it is rejected, which the pipeline treats as a failed
+ * stage and answers from the fallback.
+ */
+@Configuration
+@Slf4j
+public class PipelineConfig {
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService genAiStageExecutor(@Value("${app.genai.pipeline.virtual-threads:true}") boolean virtualThreads,
+                                              @Value("${app.genai.pipeline.max-threads:64}") int maxThreads,
+                                              @Value("${app.genai.pipeline.queue-capacity:256}") int queueCapacity) {
+        if (virtualThreads) {
+            try {
+                // Java 21+; looked up reflectively so the service still builds and runs on 17
+                ExecutorService executor = (ExecutorService) Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor")
+                        .invoke(null);
+                log.info("GenAI pipeline stages run on virtual threads");
+                return executor;
+            } catch (ReflectiveOperationException e) {
+                log.info("Virtual threads not available on this runtime; using a pool of {} threads", maxThreads);
+            }
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "genai-stage-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -1,52 +1,91 @@
 package com.genai.rewardbot.genai.controller;
 
 import com.genai.rewardbot.genai.service.GenAiProcessingService;
-import lombok.RequiredArgsConstructor;
+import com.genai.rewardbot.genai.service.ReactiveGenAiProcessingService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import jakarta.validation.Valid;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Endpoints return {@code Mono}/{@code Flux} and are served as async requests. With
+ * {@code app.genai.reactive.enabled} the pipeline is non-blocking end to end; otherwise the
+ * blocking pipeline runs on the request thread as before.
+ */
 @RestController
 @RequestMapping("/api/genai")
-@RequiredArgsConstructor
 @Slf4j
 @CrossOrigin(origins = "*")
 public class GenAiController {
 
     private final GenAiProcessingService genAiProcessingService;
+    private final ReactiveGenAiProcessingService reactiveProcessingService;
+
+    public GenAiController(GenAiProcessingService genAiProcessingService,
+                           ObjectProvider<ReactiveGenAiProcessingService> reactiveProcessingService) {
+        this.genAiProcessingService = genAiProcessingService;
+        this.reactiveProcessingService = reactiveProcessingService.getIfAvailable();
+    }
 
     @PostMapping("/query")
-    public ResponseEntity<Map<String, Object>> processQuery(@Valid @RequestBody QueryRequest request) {
+    public Mono<ResponseEntity<Map<String, Object>>> processQuery(@Valid @RequestBody QueryRequest request) {
         log.info("Processing GenAI query for user: {}", request.getMobileNumber());
-        
-        try {
-            String response = genAiProcessingService.processUserQuery(
-                request.getMobileNumber(), 
-                request.getQuery()
-            );
-            
-            Map<String, Object> responseMap = new HashMap<>();
-            responseMap.put("success", true);
-            responseMap.put("response", response);
-            responseMap.put("intent", genAiProcessingService.getLastDetectedIntent());
-            responseMap.put("timestamp", System.currentTimeMillis());
-            
-            return ResponseEntity.ok(responseMap);
-            
-        } catch (Exception e) {
-            log.error("Error processing GenAI query: {}", e.getMessage(), e);
-            
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("success", false);
-            errorResponse.put("error", "I apologize, but I'm experiencing some technical difficulties. Please try again later.");
-            errorResponse.put("timestamp", System.currentTimeMillis());
-            
-            return ResponseEntity.ok(errorResponse);
-        }
+
+        Mono<GenAiProcessingService.QueryResult> result = reactiveProcessingService != null
+                ? reactiveProcessingService.processUserQuery(request.getMobileNumber(), request.getQuery())
+                : Mono.fromCallable(() -> genAiProcessingService.processUserQuery(request.getMobileNumber(), request.getQuery()));
+        return result
+                .map(queryResult -> {
+                    Map<String, Object> responseMap = new HashMap<>();
+                    responseMap.put("success", true);
+                    responseMap.put("response", queryResult.response());
+                    responseMap.put("intent", queryResult.intent());
+                    responseMap.put("degraded", queryResult.degraded());
+                    responseMap.put("timestamp", System.currentTimeMillis());
+                    return ResponseEntity.ok(responseMap);
+                })
+                .onErrorResume(e -> {
+                    log.error("Error processing GenAI query: {}", e.getMessage(), e);
+
+                    Map<String, Object> errorResponse = new HashMap<>();
+                    errorResponse.put("success", false);
+                    errorResponse.put("error", "I apologize, but I'm experiencing some technical difficulties. Please try again later.");
+                    errorResponse.put("timestamp", System.currentTimeMillis());
+                    return Mono.just(ResponseEntity.ok(errorResponse));
+                });
+    }
+
+    /**
+     * The answer as server-sent events: {@code delta} events carrying the text as it is
+     * generated, then one {@code done} event. Tokens are read from the model only as fast as
+     * the client takes them. Needs reactive mode; otherwise the whole answer comes as a single
+     * delta.
+     */
+    @PostMapping(value = "/query/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamQuery(@Valid @RequestBody QueryRequest request) {
+        log.info("Streaming GenAI query for user: {}", request.getMobileNumber());
+
+        Flux<String> deltas = reactiveProcessingService != null
+                ? reactiveProcessingService.streamUserQuery(request.getMobileNumber(), request.getQuery())
+                : Mono.fromCallable(() -> genAiProcessingService.processUserQuery(request.getMobileNumber(), request.getQuery())
+                        .response()).flux();
+        return deltas
+                .map(delta -> ServerSentEvent.builder(delta).event("delta").build())
+                .onErrorResume(e -> {
+                    log.error("Error streaming GenAI query: {}", e.getMessage(), e);
+                    return Flux.just(ServerSentEvent.builder(
+                            "I apologize, but I'm experiencing some technical difficulties. Please try again later.")
+                            .event("delta").build());
+                })
+                .concatWith(Mono.fromSupplier(() -> ServerSentEvent.builder("").event("done").build()));
     }
 
     @GetMapping("/health")
@@ -59,28 +98,28 @@ public class GenAiController {
     }
 
     @PostMapping("/test")
-    public ResponseEntity<Map<String, Object>> testQuery(@RequestBody TestQueryRequest request) {
+    public Mono<ResponseEntity<Map<String, Object>>> testQuery(@RequestBody TestQueryRequest request) {
         log.info("Testing GenAI query: {}", request.getQuery());
-        
-        try {
-            String response = genAiProcessingService.processTestQuery(request.getQuery());
-            
-            Map<String, Object> responseMap = new HashMap<>();
-            responseMap.put("success", true);
-            responseMap.put("response", response);
-            responseMap.put("query", request.getQuery());
-            
-            return ResponseEntity.ok(responseMap);
-            
-        } catch (Exception e) {
-            log.error("Error processing test query: {}", e.getMessage());
-            
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("success", false);
-            errorResponse.put("error", e.getMessage());
-            
-            return ResponseEntity.ok(errorResponse);
-        }
+
+        Mono<GenAiProcessingService.QueryResult> result = reactiveProcessingService != null
+                ? reactiveProcessingService.processTestQuery(request.getQuery())
+                : Mono.fromCallable(() -> genAiProcessingService.processTestQuery(request.getQuery()));
+        return result
+                .map(queryResult -> {
+                    Map<String, Object> responseMap = new HashMap<>();
+                    responseMap.put("success", true);
+                    responseMap.put("response", queryResult.response());
+                    responseMap.put("query", request.getQuery());
+                    return ResponseEntity.ok(responseMap);
+                })
+                .onErrorResume(e -> {
+                    log.error("Error processing test query: {}", e.getMessage());
+
+                    Map<String, Object> errorResponse = new HashMap<>();
+                    errorResponse.put("success", false);
+                    errorResponse.put("error", e.getMessage());
+                    return Mono.just(ResponseEntity.ok(errorResponse));
+                });
     }
 
     // Request DTOs
@@ -0,0 +1,27 @@
+package com.genai.rewardbot.genai.journal;
+
+/**
+ * One journaled query. The response itself is not kept, only a hash to compare replays by;
+ * stage times are in microseconds, 0 for a stage that never finished.
+ */
+public record JournalEntry(long timestampMillis, String mobileNumber, String query, String intent,
+                           double confidence, boolean degraded, int contextMicros, int intentMicros,
+                           int completionMicros, int totalMicros, long responseHash) {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    // FNV-1a over the UTF-16 code units: cheap, stable across JVMs, and enough to spot a changed answer
+    public static long hash(String response) {
+        long hash = FNV_OFFSET;
+        if (response == null) {
+            return hash;
+        }
+        for (int i = 0; i < response.length(); i++) {
+            char c = response.charAt(i);
+            hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        return hash;
+    }
+}
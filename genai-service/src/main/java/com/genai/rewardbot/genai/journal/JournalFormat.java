@@ -0,0 +1,79 @@
+package com.genai.rewardbot.genai.journal;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Layout of a journal segment. A segment starts with a header (magic, version, creation time)
+ * followed by records of {@code [int length][int crc32][payload]}. Segments are preallocated and
+ * zero-filled, so a zero length marks the end; the length is written last, so a record cut off
+ * by a crash is never half visible.
+ */
+final class JournalFormat {
+
+    static final int MAGIC = 0x514A4E4C; // "QJNL"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_HEADER_BYTES = 8;
+    static final String FILE_PREFIX = "queries-";
+    static final String FILE_SUFFIX = ".qj";
+
+    // Longer queries are truncated; no legitimate chat message comes near this
+    static final int MAX_STRING_CHARS = 4000;
+    static final int MAX_PAYLOAD_BYTES = 64 + 3 * 3 * MAX_STRING_CHARS;
+
+    private JournalFormat() {
+    }
+
+    static String fileName(long createdMillis) {
+        return String.format("%s%015d%s", FILE_PREFIX, createdMillis, FILE_SUFFIX);
+    }
+
+    static boolean isSegment(String fileName) {
+        return fileName.startsWith(FILE_PREFIX) && fileName.endsWith(FILE_SUFFIX);
+    }
+
+    static long createdMillis(String fileName) {
+        return Long.parseLong(fileName.substring(FILE_PREFIX.length(), fileName.length() - FILE_SUFFIX.length()));
+    }
+
+    static void encode(JournalEntry entry, ByteBuffer out) {
+        out.putLong(entry.timestampMillis());
+        putString(out, entry.mobileNumber());
+        putString(out, entry.query());
+        putString(out, entry.intent());
+        out.putDouble(entry.confidence());
+        out.put((byte) (entry.degraded() ? 1 : 0));
+        out.putInt(entry.contextMicros());
+        out.putInt(entry.intentMicros());
+        out.putInt(entry.completionMicros());
+        out.putInt(entry.totalMicros());
+        out.putLong(entry.responseHash());
+    }
+
+    static JournalEntry decode(ByteBuffer in) {
+        return new JournalEntry(in.getLong(), getString(in), getString(in), getString(in), in.getDouble(),
+                in.get() != 0, in.getInt(), in.getInt(), in.getInt(), in.getInt(), in.getLong());
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        if (value == null) {
+            out.putInt(-1);
+            return;
+        }
+        String bounded = value.length() > MAX_STRING_CHARS ? value.substring(0, MAX_STRING_CHARS) : value;
+        byte[] bytes = bounded.getBytes(StandardCharsets.UTF_8);
+        out.putInt(bytes.length);
+        out.put(bytes);
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
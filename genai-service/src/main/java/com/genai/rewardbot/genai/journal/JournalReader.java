@@ -0,0 +1,89 @@
+package com.genai.rewardbot.genai.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Reads journal segments back in the order they were written. A segment still being written can
+ * be read too; it ends at whatever was appended so far. A record failing its checksum ends its
+ * segment, since nothing after it can be trusted.
+ */
+@Slf4j
+public final class JournalReader {
+
+    private JournalReader() {
+    }
+
+    /**
+     * @param path a journal directory, or a single segment
+     */
+    public static List<Path> segments(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return List.of(path);
+        }
+        try (Stream<Path> files = Files.list(path)) {
+            return files.filter(file -> JournalFormat.isSegment(file.getFileName().toString()))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * @return the number of entries read
+     */
+    public static long read(Path path, Consumer<JournalEntry> consumer) throws IOException {
+        long entries = 0;
+        for (Path segment : segments(path)) {
+            entries += readSegment(segment, consumer);
+        }
+        return entries;
+    }
+
+    private static long readSegment(Path segment, Consumer<JournalEntry> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < JournalFormat.HEADER_BYTES || buffer.getInt() != JournalFormat.MAGIC) {
+                log.warn("Skipping {}: not a query journal segment", segment);
+                return 0;
+            }
+            int version = buffer.getInt();
+            if (version != JournalFormat.VERSION) {
+                log.warn("Skipping {}: unsupported journal version {}", segment, version);
+                return 0;
+            }
+            buffer.getLong();
+
+            CRC32 crc = new CRC32();
+            long entries = 0;
+            while (buffer.remaining() >= JournalFormat.RECORD_HEADER_BYTES) {
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) {
+                    break;
+                }
+                ByteBuffer payload = buffer.slice(buffer.position(), length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    log.warn("Corrupt record in {} after {} entries; skipping the rest of the segment", segment, entries);
+                    break;
+                }
+                consumer.accept(JournalFormat.decode(payload));
+                buffer.position(buffer.position() + length);
+                entries++;
+            }
+            return entries;
+        }
+    }
+}
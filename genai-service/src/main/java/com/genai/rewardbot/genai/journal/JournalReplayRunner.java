@@ -0,0 +1,212 @@
+package com.genai.rewardbot.genai.journal;
+
+import com.genai.rewardbot.genai.service.GenAiProcessingService;
+import com.genai.rewardbot.genai.service.ReactiveGenAiProcessingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays a query journal through {@link GenAiProcessingService} for load and regression
+ * testing, then exits. Queries keep their recorded spacing divided by {@code speedup} (0 sends
+ * them as fast as the workers allow) and run against whatever reward-service and model this
+ * instance is configured for. The summary compares intents and response hashes with the
+ * recording; the exit status is 1 if any query failed outright.
+ *
+ * <p>With reactive mode on, queries go through {@link ReactiveGenAiProcessingService} instead:
+ * up to {@code concurrency} are subscribed at once and no worker threads are used. Either way
+ * the summary includes the peak number of queries in flight, the peak live thread count and
+ * the heap held per in-flight query (heap growth over the baseline divided by the queries in
+ * flight, sampled every {@value #SAMPLE_MILLIS} ms), so replaying one journal in each mode
+ * with a high {@code concurrency} compares their capacity per instance.
+ */
+@Component
+@ConditionalOnProperty(name = "app.genai.journal.replay.path")
+@Slf4j
+public class JournalReplayRunner implements ApplicationRunner {
+
+    private static final long SAMPLE_MILLIS = 100;
+
+    private final GenAiProcessingService genAiProcessingService;
+    private final ReactiveGenAiProcessingService reactiveProcessingService;
+    private final ConfigurableApplicationContext context;
+    private final Path path;
+    private final double speedup;
+    private final int concurrency;
+
+    public JournalReplayRunner(GenAiProcessingService genAiProcessingService,
+                               ObjectProvider<ReactiveGenAiProcessingService> reactiveProcessingService,
+                               ConfigurableApplicationContext context,
+                               @Value("${app.genai.journal.replay.path}") Path path,
+                               @Value("${app.genai.journal.replay.speedup:1}") double speedup,
+                               @Value("${app.genai.journal.replay.concurrency:64}") int concurrency) {
+        this.genAiProcessingService = genAiProcessingService;
+        this.reactiveProcessingService = reactiveProcessingService.getIfAvailable();
+        this.context = context;
+        this.path = path;
+        this.speedup = speedup;
+        this.concurrency = concurrency;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        List<JournalEntry> entries = new ArrayList<>();
+        JournalReader.read(path, entries::add);
+        boolean reactive = reactiveProcessingService != null;
+        log.info("Replaying {} journaled queries from {} at {}x, {} mode", entries.size(), path,
+                speedup > 0 ? speedup : "unpaced", reactive ? "reactive" : "blocking");
+
+        Results results = new Results();
+        ExecutorService workers = reactive ? null : Executors.newFixedThreadPool(concurrency);
+        Semaphore permits = new Semaphore(concurrency);
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        results.startSampling(sampler);
+        long startedNanos = System.nanoTime();
+        try {
+            long firstMillis = entries.isEmpty() ? 0 : entries.get(0).timestampMillis();
+            for (JournalEntry entry : entries) {
+                if (speedup > 0) {
+                    long dueNanos = startedNanos + (long) ((entry.timestampMillis() - firstMillis) * 1_000_000 / speedup);
+                    long lagNanos = System.nanoTime() - dueNanos;
+                    if (lagNanos < 0) {
+                        TimeUnit.NANOSECONDS.sleep(-lagNanos);
+                    } else {
+                        results.maxLagNanos.accumulateAndGet(lagNanos, Math::max);
+                    }
+                }
+                if (reactive) {
+                    permits.acquire();
+                    replayReactive(entry, results, permits);
+                } else {
+                    workers.execute(() -> replay(entry, results));
+                }
+            }
+        } finally {
+            if (reactive) {
+                permits.tryAcquire(concurrency, 1, TimeUnit.HOURS);
+            } else {
+                workers.shutdown();
+                workers.awaitTermination(1, TimeUnit.HOURS);
+            }
+            sampler.shutdownNow();
+        }
+        results.report(System.nanoTime() - startedNanos);
+
+        int exitCode = results.failed.get() > 0 ? 1 : 0;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+
+    private void replay(JournalEntry entry, Results results) {
+        long started = System.nanoTime();
+        results.started();
+        try {
+            results.answered(entry, genAiProcessingService.processUserQuery(entry.mobileNumber(), entry.query()), started);
+        } catch (RuntimeException e) {
+            results.failed(e);
+        } finally {
+            results.inFlight.decrementAndGet();
+        }
+    }
+
+    private void replayReactive(JournalEntry entry, Results results, Semaphore permits) {
+        long started = System.nanoTime();
+        results.started();
+        reactiveProcessingService.processUserQuery(entry.mobileNumber(), entry.query())
+                .doFinally(signal -> {
+                    results.inFlight.decrementAndGet();
+                    permits.release();
+                })
+                .subscribe(result -> results.answered(entry, result, started), results::failed);
+    }
+
+    private static final class Results {
+        private final List<Long> latenciesMicros = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger degraded = new AtomicInteger();
+        private final AtomicInteger intentChanged = new AtomicInteger();
+        private final AtomicInteger responseChanged = new AtomicInteger();
+        private final AtomicLong maxLagNanos = new AtomicLong();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger peakInFlight = new AtomicInteger();
+        private final AtomicLong peakHeapPerQuery = new AtomicLong();
+        private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private long baselineHeap;
+
+        void startSampling(ScheduledExecutorService sampler) {
+            System.gc();
+            baselineHeap = memory.getHeapMemoryUsage().getUsed();
+            threads.resetPeakThreadCount();
+            sampler.scheduleAtFixedRate(() -> {
+                int queries = inFlight.get();
+                if (queries > 0) {
+                    long grown = memory.getHeapMemoryUsage().getUsed() - baselineHeap;
+                    peakHeapPerQuery.accumulateAndGet(Math.max(0, grown) / queries, Math::max);
+                }
+            }, SAMPLE_MILLIS, SAMPLE_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        void started() {
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        }
+
+        void answered(JournalEntry entry, GenAiProcessingService.QueryResult result, long startedNanos) {
+            latenciesMicros.add(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startedNanos));
+            if (result.degraded()) {
+                degraded.incrementAndGet();
+            }
+            if (!result.intent().equals(entry.intent())) {
+                intentChanged.incrementAndGet();
+            }
+            if (JournalEntry.hash(result.response()) != entry.responseHash()) {
+                responseChanged.incrementAndGet();
+            }
+        }
+
+        void failed(Throwable e) {
+            failed.incrementAndGet();
+            log.warn("Replayed query failed: {}", e.getMessage());
+        }
+
+        void report(long elapsedNanos) {
+            List<Long> sorted = new ArrayList<>(latenciesMicros);
+            Collections.sort(sorted);
+            log.info("Replay finished in {} ms: {} answered, {} failed, {} degraded, {} intents and {} responses "
+                            + "differ from the recording; latency p50 {} ms, p95 {} ms, p99 {} ms; max send lag {} ms",
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), sorted.size(), failed.get(), degraded.get(),
+                    intentChanged.get(), responseChanged.get(), percentile(sorted, 50), percentile(sorted, 95),
+                    percentile(sorted, 99), TimeUnit.NANOSECONDS.toMillis(maxLagNanos.get()));
+            log.info("Peak {} queries in flight on {} live threads; heap per in-flight query up to {} KB",
+                    peakInFlight.get(), threads.getPeakThreadCount(), peakHeapPerQuery.get() / 1024);
+        }
+
+        private static long percentile(List<Long> sortedMicros, int percentile) {
+            if (sortedMicros.isEmpty()) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sortedMicros.size()) - 1;
+            return sortedMicros.get(Math.max(0, index)) / 1000;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.genai.rewardbot.genai.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The segment being written: a file of fixed size mapped into memory, appended to by the journal's
+ * writer thread only. Appends are plain memory writes; the OS flushes the pages in the background,
+ * and {@link #close()} forces them out.
+ */
+final class JournalSegment implements AutoCloseable {
+
+    private final Path path;
+    private final long createdMillis;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    private JournalSegment(Path path, long createdMillis, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.createdMillis = createdMillis;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static JournalSegment create(Path directory, long createdMillis, int size) throws IOException {
+        Path path = directory.resolve(JournalFormat.fileName(createdMillis));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(JournalFormat.MAGIC).putInt(JournalFormat.VERSION).putLong(createdMillis);
+            return new JournalSegment(path, createdMillis, channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    boolean fits(int payloadBytes) {
+        // Keeps room for the zero length that ends the segment
+        return buffer.remaining() >= JournalFormat.RECORD_HEADER_BYTES + payloadBytes + Integer.BYTES;
+    }
+
+    void append(ByteBuffer payload, int crc) {
+        int start = buffer.position();
+        int length = payload.remaining();
+        buffer.position(start + JournalFormat.RECORD_HEADER_BYTES);
+        buffer.put(payload);
+        buffer.putInt(start + Integer.BYTES, crc);
+        buffer.putInt(start, length);
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long createdMillis() {
+        return createdMillis;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            buffer.force();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.genai.rewardbot.genai.journal;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of answered queries, for tuning caches and classifiers against real
+ * traffic and for replaying it (see {@link JournalReplayRunner}). The request thread only
+ * hands the entry to a lock-free ring buffer; encoding, hashing and the writes into the
+ * memory-mapped segment happen on a single writer thread. When the ring is full the entry is
+ * dropped and counted rather than making the request wait.
+ *
+ * <p>Segments roll over by size and age, and old ones are deleted by age and total size.
+ */
+@Component
+@Slf4j
+public class QueryJournal implements InfoContributor {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final Duration rollInterval;
+    private final Duration retention;
+    private final long maxTotalSize;
+    private final RingBuffer<Pending> ring;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final ByteBuffer scratch = ByteBuffer.allocate(JournalFormat.MAX_PAYLOAD_BYTES);
+    private final CRC32 crc = new CRC32();
+    private volatile long written;
+    private volatile boolean running;
+    private Thread writer;
+    private JournalSegment segment;
+
+    public QueryJournal(@Value("${app.genai.journal.enabled:true}") boolean enabled,
+                        @Value("${app.genai.journal.directory:journal}") Path directory,
+                        @Value("${app.genai.journal.segment-size:64MB}") DataSize segmentSize,
+                        @Value("${app.genai.journal.roll-interval:PT1H}") Duration rollInterval,
+                        @Value("${app.genai.journal.retention:P7D}") Duration retention,
+                        @Value("${app.genai.journal.max-total-size:2GB}") DataSize maxTotalSize,
+                        @Value("${app.genai.journal.ring-capacity:16384}") int ringCapacity,
+                        @Value("${app.genai.journal.replay.path:}") String replayPath) {
+        if (segmentSize.toBytes() < DataSize.ofKilobytes(64).toBytes() || segmentSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("app.genai.journal.segment-size must be between 64KB and 2GB");
+        }
+        // A replay must not journal the traffic it replays
+        this.enabled = enabled && replayPath.isBlank();
+        this.directory = directory;
+        this.segmentSize = (int) segmentSize.toBytes();
+        this.rollInterval = rollInterval;
+        this.retention = retention;
+        this.maxTotalSize = maxTotalSize.toBytes();
+        this.ring = new RingBuffer<>(ringCapacity);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        running = true;
+        writer = new Thread(this::drain, "query-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Journaling queries to {}", directory.toAbsolutePath());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Journals an answered query. Never blocks.
+     */
+    public void record(String mobileNumber, String query, String intent, double confidence,
+                       boolean degraded, String response, StageTimings timings) {
+        if (!enabled) {
+            return;
+        }
+        Pending pending = new Pending(System.currentTimeMillis(), mobileNumber, query, intent, confidence, degraded,
+                response, timings.nanos(StageTimings.Stage.CONTEXT), timings.nanos(StageTimings.Stage.INTENT),
+                timings.nanos(StageTimings.Stage.COMPLETION), timings.elapsedNanos());
+        if (!ring.offer(pending)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void contribute(Info.Builder builder) {
+        builder.withDetail("queryJournal", Map.of(
+                "enabled", enabled,
+                "written", written,
+                "dropped", dropped.get(),
+                "queued", ring.size()));
+    }
+
+    private void drain() {
+        while (running || ring.size() > 0) {
+            Pending pending = ring.poll();
+            if (pending == null) {
+                rollIfDue();
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            try {
+                append(pending.toEntry());
+            } catch (IOException | RuntimeException e) {
+                // Losing journal entries is preferable to failing or stalling queries
+                dropped.incrementAndGet();
+                log.warn("Could not journal query: {}", e.getMessage());
+                closeSegment();
+            }
+        }
+        closeSegment();
+    }
+
+    private void append(JournalEntry entry) throws IOException {
+        scratch.clear();
+        JournalFormat.encode(entry, scratch);
+        scratch.flip();
+        crc.reset();
+        crc.update(scratch.duplicate());
+
+        rollIfDue();
+        if (segment != null && !segment.fits(scratch.remaining())) {
+            closeSegment();
+        }
+        if (segment == null) {
+            openSegment();
+        }
+        segment.append(scratch, (int) crc.getValue());
+        written++;
+    }
+
+    private void rollIfDue() {
+        if (segment != null && System.currentTimeMillis() - segment.createdMillis() >= rollInterval.toMillis()) {
+            closeSegment();
+        }
+    }
+
+    private void openSegment() throws IOException {
+        long created = System.currentTimeMillis();
+        while (Files.exists(directory.resolve(JournalFormat.fileName(created)))) {
+            created++;
+        }
+        segment = JournalSegment.create(directory, created, segmentSize);
+        applyRetention();
+    }
+
+    private void closeSegment() {
+        if (segment == null) {
+            return;
+        }
+        try {
+            segment.close();
+        } catch (IOException e) {
+            log.warn("Could not close journal segment {}: {}", segment.path(), e.getMessage());
+        }
+        segment = null;
+    }
+
+    // A segment holds queries up to the creation of the next one, so that is what ages it out
+    private void applyRetention() {
+        try {
+            List<Path> segments = JournalReader.segments(directory);
+            long cutoff = System.currentTimeMillis() - retention.toMillis();
+            long totalSize = 0;
+            for (Path path : segments) {
+                totalSize += Files.size(path);
+            }
+            for (int i = 0; i < segments.size() - 1; i++) {
+                Path path = segments.get(i);
+                long nextCreated = JournalFormat.createdMillis(segments.get(i + 1).getFileName().toString());
+                if (nextCreated >= cutoff && totalSize <= maxTotalSize) {
+                    break;
+                }
+                long size = Files.size(path);
+                Files.deleteIfExists(path);
+                totalSize -= size;
+                log.debug("Deleted journal segment {}", path);
+            }
+        } catch (IOException e) {
+            log.warn("Could not apply journal retention in {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private record Pending(long timestampMillis, String mobileNumber, String query, String intent, double confidence,
+                           boolean degraded, String response, long contextNanos, long intentNanos,
+                           long completionNanos, long totalNanos) {
+
+        JournalEntry toEntry() {
+            return new JournalEntry(timestampMillis, mobileNumber, query, intent, confidence, degraded,
+                    micros(contextNanos), micros(intentNanos), micros(completionNanos), micros(totalNanos),
+                    JournalEntry.hash(response));
+        }
+
+        private static int micros(long nanos) {
+            return (int) Math.min(Integer.MAX_VALUE, TimeUnit.NANOSECONDS.toMicros(nanos));
+        }
+    }
+}
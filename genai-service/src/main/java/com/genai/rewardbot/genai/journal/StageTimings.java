@@ -0,0 +1,55 @@
+package com.genai.rewardbot.genai.journal;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Wall time of each pipeline stage of one query. Stages run on other threads and may still be
+ * running when the request gives up on them, so an unfinished stage simply reads as 0.
+ */
+public final class StageTimings {
+
+    public enum Stage { CONTEXT, INTENT, COMPLETION }
+
+    private final long startedNanos = System.nanoTime();
+    private final AtomicLongArray nanos = new AtomicLongArray(Stage.values().length);
+
+    public <T> Callable<T> time(Stage stage, Callable<T> work) {
+        return () -> {
+            long started = System.nanoTime();
+            try {
+                return work.call();
+            } finally {
+                nanos.set(stage.ordinal(), System.nanoTime() - started);
+            }
+        };
+    }
+
+    /**
+     * Times a reactive stage from subscription until it completes or fails.
+     */
+    public <T> Mono<T> time(Stage stage, Mono<T> work) {
+        return Mono.defer(() -> {
+            long started = System.nanoTime();
+            return work.doOnTerminate(() -> nanos.set(stage.ordinal(), System.nanoTime() - started));
+        });
+    }
+
+    public <T> Flux<T> time(Stage stage, Flux<T> work) {
+        return Flux.defer(() -> {
+            long started = System.nanoTime();
+            return work.doOnTerminate(() -> nanos.set(stage.ordinal(), System.nanoTime() - started));
+        });
+    }
+
+    public long nanos(Stage stage) {
+        return nanos.get(stage.ordinal());
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startedNanos;
+    }
+}
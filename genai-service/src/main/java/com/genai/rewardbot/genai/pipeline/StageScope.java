@@ -0,0 +1,91 @@
+package com.genai.rewardbot.genai.pipeline;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs the stages of one request concurrently under a shared deadline, in the spirit of a
+ * shut-down-on-failure structured task scope: the first stage to fail, or the deadline
+ * passing, cancels (interrupts) every other stage, and closing the scope cancels anything
+ * still running so no stage outlives its request.
+ */
+public final class StageScope implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final long deadlineNanos;
+    private final List<Future<?>> running = new CopyOnWriteArrayList<>();
+    private final List<CompletableFuture<?>> stages = new CopyOnWriteArrayList<>();
+
+    public StageScope(ExecutorService executor, Duration timeout) {
+        this.executor = executor;
+        this.deadlineNanos = System.nanoTime() + timeout.toNanos();
+    }
+
+    /**
+     * Starts a stage. The returned future completes with the stage's result; a failure in it
+     * cancels its siblings.
+     */
+    public <T> CompletableFuture<T> fork(Callable<T> stage) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        stages.add(result);
+        try {
+            running.add(executor.submit(() -> {
+                try {
+                    result.complete(stage.call());
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                    cancelAll();
+                }
+            }));
+        } catch (RuntimeException rejected) {
+            result.completeExceptionally(rejected);
+            cancelAll();
+        }
+        return result;
+    }
+
+    /**
+     * Waits for every stage forked so far, up to the scope's deadline.
+     *
+     * @throws TimeoutException if the deadline passes first; remaining stages are cancelled
+     * @throws ExecutionException if a stage failed or was cancelled
+     */
+    public void join() throws InterruptedException, ExecutionException, TimeoutException {
+        CompletableFuture<Void> all = CompletableFuture.allOf(stages.toArray(CompletableFuture[]::new));
+        try {
+            all.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | InterruptedException e) {
+            cancelAll();
+            throw e;
+        } catch (CancellationException e) {
+            throw new ExecutionException("Stage cancelled", e);
+        }
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+    }
+
+    private void cancelAll() {
+        for (Future<?> future : running) {
+            future.cancel(true);
+        }
+        for (CompletableFuture<?> stage : stages) {
+            stage.cancel(false);
+        }
+    }
+
+    @Override
+    public void close() {
+        cancelAll();
+    }
+}
@@ -0,0 +1,114 @@
+package com.genai.rewardbot.genai.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.genai.rewardbot.common.outbox.ChangeEvent;
+import com.genai.rewardbot.common.security.InternalApiKey;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+/**
+ * Follows reward-service's change feed and invalidates cached user contexts as their data
+ * changes. Reconnects resume from the last position seen, so nothing is missed across a
+ * dropped connection; a {@code reset} from the feed clears the whole cache.
+ */
+@Service
+@ConditionalOnProperty("app.change-feed.uri")
+@Slf4j
+public class ChangeFeedSubscriber {
+
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_TYPE =
+            new ParameterizedTypeReference<>() { };
+
+    private final MockDataService mockDataService;
+    private final ObjectMapper objectMapper;
+    private final WebClient webClient;
+    private final String internalApiKey;
+    private final Duration maxBackoff;
+
+    private volatile String lastEventId;
+    private Disposable subscription;
+
+    public ChangeFeedSubscriber(MockDataService mockDataService,
+                                ObjectMapper objectMapper,
+                                WebClient.Builder webClientBuilder,
+                                @Value("${app.change-feed.uri}") String feedUri,
+                                @Value("${app.internal-api.key:}") String internalApiKey,
+                                @Value("${app.change-feed.max-backoff:PT30S}") Duration maxBackoff) {
+        this.mockDataService = mockDataService;
+        this.objectMapper = objectMapper;
+        this.webClient = webClientBuilder.baseUrl(feedUri).build();
+        this.internalApiKey = internalApiKey;
+        this.maxBackoff = maxBackoff;
+    }
+
+    @PostConstruct
+    public void start() {
+        subscription = Flux.defer(this::connect)
+                // The server ends streams on its emitter timeout; reconnect straight away
+                .repeatWhen(completed -> completed.delayElements(Duration.ofSeconds(1)))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(maxBackoff)
+                        .doBeforeRetry(signal -> log.warn("Change feed connection lost ({}); reconnecting",
+                                signal.failure().getMessage())))
+                .subscribe(this::handle);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    private Flux<ServerSentEvent<String>> connect() {
+        return webClient.get()
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .headers(headers -> {
+                    if (!internalApiKey.isEmpty()) {
+                        headers.set(InternalApiKey.HEADER, internalApiKey);
+                    }
+                    if (lastEventId != null) {
+                        headers.set("Last-Event-ID", lastEventId);
+                    }
+                })
+                .retrieve()
+                .bodyToFlux(SSE_TYPE);
+    }
+
+    private void handle(ServerSentEvent<String> event) {
+        if ("reset".equals(event.event())) {
+            log.info("Change feed requested a reset; clearing cached user contexts");
+            mockDataService.invalidateAll();
+            return;
+        }
+        if (!"changes".equals(event.event()) || event.data() == null) {
+            return;
+        }
+        try {
+            for (ChangeEvent change : objectMapper.readValue(event.data(), ChangeEvent[].class)) {
+                mockDataService.applyChange(change);
+            }
+        } catch (JsonProcessingException e) {
+            // Cannot tell which users changed, so assume all of them did
+            log.error("Unreadable change feed batch {}: {}", event.id(), e.getMessage());
+            mockDataService.invalidateAll();
+        }
+        if (event.id() != null) {
+            lastEventId = event.id();
+        }
+    }
+}
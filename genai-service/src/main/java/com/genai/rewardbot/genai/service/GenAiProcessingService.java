@@ -1,57 +1,111 @@
 package com.genai.rewardbot.genai.service;
 
-import lombok.RequiredArgsConstructor;
+import com.genai.rewardbot.genai.journal.QueryJournal;
+import com.genai.rewardbot.genai.journal.StageTimings;
+import com.genai.rewardbot.genai.pipeline.StageScope;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Answers a query as a small DAG of stages: the user's context and the query's intent are
+ * independent and run concurrently, and the completion starts once both are in. All stages
+ * share one per-request deadline; a failure or timeout cancels the remaining stages and the
+ * answer comes from the keyword fallback instead. User queries are journaled with their stage
+ * timings (see {@link QueryJournal}).
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class GenAiProcessingService {
 
+    static final String UNAVAILABLE_RESPONSE =
+            "I apologize, but I'm experiencing some technical difficulties. Please try again later.";
+
     private final OpenAiIntegrationService openAiService;
     private final MockDataService mockDataService;
-    
-    private String lastDetectedIntent = "GENERAL_INFO";
+    private final ExecutorService stageExecutor;
+    private final QueryJournal queryJournal;
+    private final Duration deadline;
+
+    public GenAiProcessingService(OpenAiIntegrationService openAiService,
+                                  MockDataService mockDataService,
+                                  @Qualifier("genAiStageExecutor") ExecutorService stageExecutor,
+                                  QueryJournal queryJournal,
+                                  @Value("${app.genai.pipeline.deadline:PT10S}") Duration deadline) {
+        this.openAiService = openAiService;
+        this.mockDataService = mockDataService;
+        this.stageExecutor = stageExecutor;
+        this.queryJournal = queryJournal;
+        this.deadline = deadline;
+    }
 
-    public String processUserQuery(String mobileNumber, String query) {
+    public QueryResult processUserQuery(String mobileNumber, String query) {
         log.info("Processing query for user {}: {}", mobileNumber, query);
-        
-        // Get user context with mock data
-        OpenAiIntegrationService.UserContext userContext = mockDataService.getUserContext(mobileNumber);
-        
-        // Analyze intent using OpenAI
-        OpenAiIntegrationService.QueryIntent intent = openAiService.analyzeUserIntent(query, userContext);
-        this.lastDetectedIntent = intent.getIntentType();
-        
-        log.info("Detected intent: {} (confidence: {})", intent.getIntentType(), intent.getConfidence());
-        
-        // Generate intelligent response
-        String response = openAiService.generateIntelligentResponse(query, intent, userContext);
-        
+        StageTimings timings = new StageTimings();
+        QueryResult result = run(query, () -> mockDataService.getUserContext(mobileNumber), timings);
+        queryJournal.record(mobileNumber, query, result.intent(), result.confidence(), result.degraded(),
+                result.response(), timings);
         log.info("Generated response for user {}", mobileNumber);
-        return response;
+        return result;
     }
 
-    public String processTestQuery(String query) {
+    public QueryResult processTestQuery(String query) {
         log.info("Processing test query: {}", query);
-        
-        // Use default test user context
-        OpenAiIntegrationService.UserContext testContext = mockDataService.getTestUserContext();
-        
-        // Analyze intent
-        OpenAiIntegrationService.QueryIntent intent = openAiService.analyzeUserIntent(query, testContext);
-        this.lastDetectedIntent = intent.getIntentType();
-        
-        // Generate response
-        return openAiService.generateIntelligentResponse(query, intent, testContext);
-    }
-
-    public String getLastDetectedIntent() {
-        return lastDetectedIntent;
+        return run(query, mockDataService::getTestUserContext, new StageTimings());
     }
 
     public boolean isOpenAiAvailable() {
         return openAiService != null;
     }
-} 
\ No newline at end of file
+
+    private QueryResult run(String query, Supplier<OpenAiIntegrationService.UserContext> contextLoader,
+                            StageTimings timings) {
+        CompletableFuture<OpenAiIntegrationService.UserContext> context = null;
+        try (StageScope scope = new StageScope(stageExecutor, deadline)) {
+            context = scope.fork(timings.time(StageTimings.Stage.CONTEXT, contextLoader::get));
+            CompletableFuture<OpenAiIntegrationService.QueryIntent> intent =
+                    scope.fork(timings.time(StageTimings.Stage.INTENT, () -> openAiService.analyzeUserIntent(query)));
+            scope.join();
+
+            OpenAiIntegrationService.UserContext userContext = context.join();
+            OpenAiIntegrationService.QueryIntent queryIntent = intent.join();
+            log.info("Detected intent: {} (confidence: {})", queryIntent.getIntentType(), queryIntent.getConfidence());
+
+            CompletableFuture<String> response =
+                    scope.fork(timings.time(StageTimings.Stage.COMPLETION,
+                            () -> openAiService.generateIntelligentResponse(query, queryIntent, userContext)));
+            scope.join();
+            return new QueryResult(response.join(), queryIntent.getIntentType(), queryIntent.getConfidence(), false);
+        } catch (TimeoutException e) {
+            log.warn("Query pipeline missed its {} deadline; answering from fallback", deadline);
+            return fallback(query, context);
+        } catch (ExecutionException e) {
+            log.warn("Query pipeline stage failed; answering from fallback: {}", e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            return fallback(query, context);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallback(query, context);
+        }
+    }
+
+    // Uses the user's context if that stage got as far as finishing; the model stages are skipped
+    private QueryResult fallback(String query, CompletableFuture<OpenAiIntegrationService.UserContext> context) {
+        OpenAiIntegrationService.QueryIntent intent = openAiService.fallbackIntent(query);
+        if (context == null || !context.isDone() || context.isCompletedExceptionally()) {
+            return new QueryResult(UNAVAILABLE_RESPONSE, intent.getIntentType(), intent.getConfidence(), true);
+        }
+        return new QueryResult(openAiService.fallbackResponse(query, intent, context.join()), intent.getIntentType(),
+                intent.getConfidence(), true);
+    }
+
+    public record QueryResult(String response, String intent, double confidence, boolean degraded) {
+    }
+}
@@ -1,28 +1,103 @@
 package com.genai.rewardbot.genai.service;
 
+import com.genai.rewardbot.common.outbox.ChangeEvent;
+import com.genai.rewardbot.common.snapshot.CardSnapshot;
+import com.genai.rewardbot.common.snapshot.RedemptionSnapshot;
+import com.genai.rewardbot.common.snapshot.UserRewardSnapshot;
+import com.genai.rewardbot.common.valuation.Money;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 @Slf4j
 public class MockDataService {
 
-    private final Map<String, OpenAiIntegrationService.UserContext> userContextCache = new HashMap<>();
+    private static final String TEST_MOBILE_NUMBER = "+1 5551234567";
+
+    // Kept fresh by reward-service's change feed, so entries can live for a long time
+    private final Cache<String, OpenAiIntegrationService.UserContext> userContextCache;
+    private final RewardSnapshotClient rewardSnapshotClient;
+    // Bumped before every invalidation, so a non-blocking load can tell it raced one
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public MockDataService(ObjectProvider<RewardSnapshotClient> rewardSnapshotClient,
+                           @Value("${app.genai.context-cache.max-size:100000}") long maxSize,
+                           @Value("${app.genai.context-cache.ttl:PT12H}") Duration ttl) {
+        this.rewardSnapshotClient = rewardSnapshotClient.getIfAvailable();
+        this.userContextCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
 
     public OpenAiIntegrationService.UserContext getUserContext(String mobileNumber) {
-        return userContextCache.computeIfAbsent(mobileNumber, this::createUserContext);
+        return userContextCache.get(mobileNumber, this::createUserContext);
     }
 
     public OpenAiIntegrationService.UserContext getTestUserContext() {
-        return getUserContext("+1 5551234567");
+        return getUserContext(TEST_MOBILE_NUMBER);
+    }
+
+    /**
+     * {@link #getUserContext} for the reactive pipeline: a cache miss fetches the snapshot
+     * without blocking. Unlike the cache's own loader this does not coalesce concurrent misses
+     * for one user, and a load that overlapped an invalidation is not kept, since it may have
+     * read the data from before the change.
+     */
+    public Mono<OpenAiIntegrationService.UserContext> loadUserContext(String mobileNumber) {
+        OpenAiIntegrationService.UserContext cached = userContextCache.getIfPresent(mobileNumber);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        if (rewardSnapshotClient == null) {
+            return Mono.fromSupplier(() -> getUserContext(mobileNumber));
+        }
+        return Mono.defer(() -> {
+            long generation = invalidations.get();
+            return rewardSnapshotClient.fetchAsync(mobileNumber)
+                    .map(snapshot -> snapshot.map(this::fromSnapshot).orElseGet(() -> {
+                        log.info("No reward data for {}; using demo context", mobileNumber);
+                        return demoContext();
+                    }))
+                    .doOnNext(context -> {
+                        userContextCache.put(mobileNumber, context);
+                        if (invalidations.get() != generation) {
+                            userContextCache.invalidate(mobileNumber);
+                        }
+                    });
+        });
     }
 
+    public Mono<OpenAiIntegrationService.UserContext> loadTestUserContext() {
+        return loadUserContext(TEST_MOBILE_NUMBER);
+    }
+
+    // A failed snapshot fetch propagates, so nothing is cached and the query pipeline falls back
     private OpenAiIntegrationService.UserContext createUserContext(String mobileNumber) {
         log.info("Creating user context for: {}", mobileNumber);
         
+        if (rewardSnapshotClient != null) {
+            Optional<UserRewardSnapshot> snapshot = rewardSnapshotClient.fetch(mobileNumber);
+            if (snapshot.isPresent()) {
+                return fromSnapshot(snapshot.get());
+            }
+            log.info("No reward data for {}; using demo context", mobileNumber);
+        }
+        return demoContext();
+    }
+
+    private OpenAiIntegrationService.UserContext demoContext() {
         // Create mock user context based on mobile number
         OpenAiIntegrationService.UserContext context = new OpenAiIntegrationService.UserContext(
             "Alex Johnson", // Default name
@@ -42,6 +117,97 @@ public class MockDataService {
         return context;
     }
 
+    private OpenAiIntegrationService.UserContext fromSnapshot(UserRewardSnapshot snapshot) {
+        String name = snapshot.firstName() != null ? snapshot.firstName() : "there";
+        OpenAiIntegrationService.UserContext context = new OpenAiIntegrationService.UserContext(
+            name,
+            Math.toIntExact(snapshot.totalPointsAvailable()),
+            snapshot.cards().size(),
+            Money.toBigDecimal(snapshot.totalBalanceMinor()).doubleValue()
+        );
+
+        long today = LocalDate.now().toEpochDay();
+        StringBuilder cards = new StringBuilder();
+        StringBuilder expiring = new StringBuilder();
+        StringBuilder cashback = new StringBuilder();
+        StringBuilder balances = new StringBuilder("💳 **Available Balances:**\n");
+        for (CardSnapshot card : snapshot.cards()) {
+            cards.append(String.format("• **%s %s Card**: %,d points%n", card.vendorName(),
+                    capitalize(card.cardType()), card.pointsAvailable()));
+            if (card.pointsExpiringSoon() > 0) {
+                expiring.append(String.format("• %s: %,d points (next expiry in %d days)%n", card.vendorName(),
+                        card.pointsExpiringSoon(), Math.max(0, card.nextExpiryEpochDay() - today)));
+            }
+            cashback.append(String.format("• **%s**: %s%%%n", card.vendorName(),
+                    BigDecimal.valueOf(card.cashbackRateBasisPoints(), Money.RATE_SCALE).toPlainString()));
+            balances.append(String.format("• **%s**: %s %s%n", card.vendorName(),
+                    card.currency() != null ? card.currency() : "", Money.format(card.balanceMinor())));
+        }
+
+        context.setCardsInfo(cards.toString());
+        context.setExpiryInfo(expiring.length() > 0
+                ? "⚠️ **Expiring Soon (within 30 days):**\n" + expiring
+                : "No points expiring in the next 30 days. 🎉");
+        context.setCashbackInfo(cashback.toString());
+        if (snapshot.redemptions() != null) {
+            context.setRedemptionOptions(formatRedemptions(snapshot), true);
+        } else {
+            // Sent by a reward-service without redemption plans
+            context.setRedemptionOptions(buildRedemptionOptions());
+        }
+        context.setBalanceInfo(balances.toString());
+        context.setDetailedInfo(String.format(
+            "User has %,d total reward points across %d active cards.%n" +
+            "Total available balance: %s%n" +
+            "Expiring points: %,d points expiring within 30 days%n%s",
+            snapshot.totalPointsAvailable(), snapshot.cards().size(), Money.format(snapshot.totalBalanceMinor()),
+            snapshot.totalPointsExpiringSoon(), cards));
+        return context;
+    }
+
+    // The plan reward-service computed; the wording is the only thing decided here
+    private static String formatRedemptions(UserRewardSnapshot snapshot) {
+        if (snapshot.redemptions().isEmpty()) {
+            return "None of your points can be redeemed for a catalog item yet. Keep earning! 💪";
+        }
+        StringBuilder options = new StringBuilder("🏆 **Best Value Plan:**\n");
+        int line = 1;
+        long pointsUsed = 0;
+        for (RedemptionSnapshot redemption : snapshot.redemptions()) {
+            options.append(String.format("%d. **%s** × %d: %,d %s points → %s value", line++, redemption.name(),
+                    redemption.quantity(), redemption.pointsUsed(), vendorName(snapshot, redemption.vendorCode()),
+                    Money.format(redemption.valueMinor())));
+            if (redemption.redeemByEpochDay() >= 0) {
+                options.append(" (redeem by ").append(LocalDate.ofEpochDay(redemption.redeemByEpochDay())).append(')');
+            }
+            options.append('\n');
+            pointsUsed += redemption.pointsUsed();
+        }
+        options.append(String.format("%n💰 **Total**: %s for %,d points", Money.format(snapshot.totalRedemptionValueMinor()),
+                pointsUsed));
+        long unused = snapshot.totalPointsAvailable() - pointsUsed;
+        if (unused > 0) {
+            options.append(String.format(" (%,d points left over)", unused));
+        }
+        return options.toString();
+    }
+
+    private static String vendorName(UserRewardSnapshot snapshot, String vendorCode) {
+        for (CardSnapshot card : snapshot.cards()) {
+            if (card.vendorCode() != null && card.vendorCode().equals(vendorCode)) {
+                return card.vendorName();
+            }
+        }
+        return vendorCode != null ? vendorCode : "";
+    }
+
+    private static String capitalize(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        return value.charAt(0) + value.substring(1).toLowerCase();
+    }
+
     private String buildCardsInfo() {
         return """
             • **HDFC Bank Credit Card**: 15,420 points
@@ -100,21 +266,17 @@ public class MockDataService {
             """;
     }
 
-    // Update user context for specific scenarios
-    public void updateUserContext(String mobileNumber, String contextType, Object data) {
-        OpenAiIntegrationService.UserContext context = userContextCache.get(mobileNumber);
-        if (context != null) {
-            switch (contextType) {
-                case "POINTS_UPDATE" -> {
-                    // Update points if needed
-                    log.info("Updated points context for user: {}", mobileNumber);
-                }
-                case "CARDS_UPDATE" -> {
-                    // Update cards if needed
-                    log.info("Updated cards context for user: {}", mobileNumber);
-                }
-                default -> log.warn("Unknown context type: {}", contextType);
-            }
-        }
+    /**
+     * Drops the cached context of the user a change event is about; the next query rebuilds it.
+     */
+    public void applyChange(ChangeEvent event) {
+        invalidations.incrementAndGet();
+        userContextCache.invalidate(event.mobileNumber());
+        log.debug("Invalidated context for {} after {}", event.mobileNumber(), event.type());
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        userContextCache.invalidateAll();
     }
-} 
\ No newline at end of file
+}
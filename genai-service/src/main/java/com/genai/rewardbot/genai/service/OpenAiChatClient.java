@@ -0,0 +1,122 @@
+package com.genai.rewardbot.genai.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking chat completions client for the reactive pipeline. Calls share a bounded
+ * connection pool: {@code max-connections} are in flight at once and up to
+ * {@code pending-acquire-max} more wait for a connection; beyond that a call fails straight
+ * away and the pipeline answers from the fallback, so overload turns into degraded answers
+ * rather than an unbounded queue. A streamed completion is read from the socket only as fast
+ * as its subscriber requests tokens.
+ */
+@Service
+@ConditionalOnProperty(name = "app.genai.reactive.enabled", havingValue = "true")
+@Slf4j
+public class OpenAiChatClient {
+
+    private static final String MODEL = "gpt-3.5-turbo";
+    private static final String STREAM_END = "[DONE]";
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_TYPE =
+            new ParameterizedTypeReference<>() { };
+
+    private final ObjectMapper objectMapper;
+    private final ConnectionProvider connectionProvider;
+    private final WebClient webClient;
+
+    public OpenAiChatClient(ObjectMapper objectMapper,
+                            WebClient.Builder webClientBuilder,
+                            @Value("${openai.api-key:}") String apiKey,
+                            @Value("${openai.base-uri:https://api.openai.com/v1}") String baseUri,
+                            @Value("${openai.timeout:30}") int timeoutSeconds,
+                            @Value("${app.genai.reactive.max-connections:500}") int maxConnections,
+                            @Value("${app.genai.reactive.pending-acquire-max:1000}") int pendingAcquireMax) {
+        this.objectMapper = objectMapper;
+        this.connectionProvider = ConnectionProvider.builder("openai")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMax)
+                .pendingAcquireTimeout(Duration.ofSeconds(timeoutSeconds))
+                .build();
+        this.webClient = webClientBuilder
+                .baseUrl(baseUri)
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)
+                        .responseTimeout(Duration.ofSeconds(timeoutSeconds))))
+                .build();
+        log.info("Reactive OpenAI client using up to {} connections", maxConnections);
+    }
+
+    @PreDestroy
+    public void stop() {
+        connectionProvider.dispose();
+    }
+
+    public Mono<String> complete(String systemPrompt, String userPrompt, int maxTokens, double temperature) {
+        return webClient.post()
+                .uri("/chat/completions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request(systemPrompt, userPrompt, maxTokens, temperature, false))
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .map(body -> body.path("choices").path(0).path("message").path("content").asText("").trim());
+    }
+
+    /**
+     * The completion's text as the model produces it, one delta per element.
+     */
+    public Flux<String> stream(String systemPrompt, String userPrompt, int maxTokens, double temperature) {
+        return webClient.post()
+                .uri("/chat/completions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .bodyValue(request(systemPrompt, userPrompt, maxTokens, temperature, true))
+                .retrieve()
+                .bodyToFlux(SSE_TYPE)
+                .mapNotNull(ServerSentEvent::data)
+                .takeWhile(data -> !STREAM_END.equals(data))
+                .handle((data, sink) -> {
+                    try {
+                        String delta = objectMapper.readTree(data).path("choices").path(0).path("delta")
+                                .path("content").asText("");
+                        if (!delta.isEmpty()) {
+                            sink.next(delta);
+                        }
+                    } catch (JsonProcessingException e) {
+                        sink.error(e);
+                    }
+                });
+    }
+
+    private static Map<String, Object> request(String systemPrompt, String userPrompt, int maxTokens,
+                                               double temperature, boolean stream) {
+        return Map.of(
+                "model", MODEL,
+                "messages", List.of(
+                        Map.of("role", "system", "content", systemPrompt),
+                        Map.of("role", "user", "content", userPrompt)),
+                "max_tokens", maxTokens,
+                "temperature", temperature,
+                "stream", stream);
+    }
+}
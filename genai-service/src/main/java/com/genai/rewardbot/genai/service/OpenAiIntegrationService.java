@@ -5,23 +5,35 @@ import com.theokanning.openai.completion.chat.ChatMessage;
 import com.theokanning.openai.completion.chat.ChatMessageRole;
 import com.theokanning.openai.service.OpenAiService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 @Slf4j
 public class OpenAiIntegrationService {
 
+    private static final int INTENT_MAX_TOKENS = 150;
+    private static final double INTENT_TEMPERATURE = 0.3;
+    private static final int RESPONSE_MAX_TOKENS = 300;
+    private static final double RESPONSE_TEMPERATURE = 0.7;
+
     private final OpenAiService openAiService;
+    private final OpenAiChatClient chatClient;
     private final boolean openAiEnabled;
 
     public OpenAiIntegrationService(@Value("${openai.api-key:}") String apiKey,
-                                   @Value("${openai.enabled:false}") boolean enabled) {
+                                   @Value("${openai.enabled:false}") boolean enabled,
+                                   ObjectProvider<OpenAiChatClient> chatClient) {
         this.openAiEnabled = enabled && apiKey != null && !apiKey.trim().isEmpty();
+        this.chatClient = chatClient.getIfAvailable();
         
         if (this.openAiEnabled) {
             this.openAiService = new OpenAiService(apiKey, Duration.ofSeconds(30));
@@ -32,13 +44,14 @@ public class OpenAiIntegrationService {
         }
     }
 
-    public QueryIntent analyzeUserIntent(String userQuery, UserContext userContext) {
+    // Classification needs only the query, so it can run while the user's context is loading
+    public QueryIntent analyzeUserIntent(String userQuery) {
         if (!openAiEnabled) {
             return analyzeIntentFallback(userQuery);
         }
 
         try {
-            String systemPrompt = buildSystemPrompt(userContext);
+            String systemPrompt = buildSystemPrompt();
             String analysisPrompt = buildAnalysisPrompt(userQuery);
 
             ChatCompletionRequest request = ChatCompletionRequest.builder()
@@ -47,8 +60,8 @@ public class OpenAiIntegrationService {
                             new ChatMessage(ChatMessageRole.SYSTEM.value(), systemPrompt),
                             new ChatMessage(ChatMessageRole.USER.value(), analysisPrompt)
                     ))
-                    .maxTokens(150)
-                    .temperature(0.3)
+                    .maxTokens(INTENT_MAX_TOKENS)
+                    .temperature(INTENT_TEMPERATURE)
                     .build();
 
             var response = openAiService.createChatCompletion(request);
@@ -63,7 +76,7 @@ public class OpenAiIntegrationService {
     }
 
     public String generateIntelligentResponse(String userQuery, QueryIntent intent, UserContext userContext) {
-        if (!openAiEnabled) {
+        if (!needsModel(intent, userContext)) {
             return generateResponseFallback(userQuery, intent, userContext);
         }
 
@@ -77,8 +90,8 @@ public class OpenAiIntegrationService {
                             new ChatMessage(ChatMessageRole.SYSTEM.value(), systemPrompt),
                             new ChatMessage(ChatMessageRole.USER.value(), responsePrompt)
                     ))
-                    .maxTokens(300)
-                    .temperature(0.7)
+                    .maxTokens(RESPONSE_MAX_TOKENS)
+                    .temperature(RESPONSE_TEMPERATURE)
                     .build();
 
             var response = openAiService.createChatCompletion(request);
@@ -92,16 +105,62 @@ public class OpenAiIntegrationService {
         }
     }
 
-    private String buildSystemPrompt(UserContext userContext) {
-        return String.format("""
+    // Reactive counterparts for the non-blocking pipeline; same prompts, same fallbacks
+
+    public Mono<QueryIntent> analyzeUserIntentReactive(String userQuery) {
+        if (!openAiEnabled || chatClient == null) {
+            return Mono.fromSupplier(() -> analyzeIntentFallback(userQuery));
+        }
+        return chatClient.complete(buildSystemPrompt(), buildAnalysisPrompt(userQuery), INTENT_MAX_TOKENS, INTENT_TEMPERATURE)
+                .map(aiResponse -> parseAiResponse(aiResponse, userQuery))
+                .onErrorResume(e -> {
+                    log.error("Error calling OpenAI API: {}", e.getMessage());
+                    return Mono.fromSupplier(() -> analyzeIntentFallback(userQuery));
+                });
+    }
+
+    public Mono<String> generateIntelligentResponseReactive(String userQuery, QueryIntent intent, UserContext userContext) {
+        if (!needsModel(intent, userContext) || chatClient == null) {
+            return Mono.fromSupplier(() -> generateResponseFallback(userQuery, intent, userContext));
+        }
+        return chatClient.complete(buildResponseSystemPrompt(userContext), buildResponsePrompt(userQuery, intent, userContext),
+                        RESPONSE_MAX_TOKENS, RESPONSE_TEMPERATURE)
+                .map(aiResponse -> formatResponse(aiResponse, intent, userContext))
+                .onErrorResume(e -> {
+                    log.error("Error generating OpenAI response: {}", e.getMessage());
+                    return Mono.fromSupplier(() -> generateResponseFallback(userQuery, intent, userContext));
+                });
+    }
+
+    /**
+     * The response as the model writes it. A failure before the first token answers from the
+     * fallback; a failure after it ends the stream where it broke off.
+     */
+    public Flux<String> streamIntelligentResponse(String userQuery, QueryIntent intent, UserContext userContext) {
+        if (!needsModel(intent, userContext) || chatClient == null) {
+            return Flux.just(generateResponseFallback(userQuery, intent, userContext));
+        }
+        AtomicBoolean started = new AtomicBoolean();
+        return chatClient.stream(buildResponseSystemPrompt(userContext), buildResponsePrompt(userQuery, intent, userContext),
+                        RESPONSE_MAX_TOKENS, RESPONSE_TEMPERATURE)
+                .doOnNext(delta -> started.set(true))
+                .concatWith(Mono.fromSupplier(() -> "\n\n" + getQuickActions(intent)))
+                .onErrorResume(e -> {
+                    log.error("Error streaming OpenAI response: {}", e.getMessage());
+                    return started.get() ? Flux.empty() : Flux.just(generateResponseFallback(userQuery, intent, userContext));
+                });
+    }
+
+    // A computed redemption plan is the answer; the model could only restate or second-guess it
+    private boolean needsModel(QueryIntent intent, UserContext userContext) {
+        return openAiEnabled && !("REDEMPTION_OPTIONS".equals(intent.getIntentType())
+                && userContext.hasComputedRedemptionOptions());
+    }
+
+    private String buildSystemPrompt() {
+        return """
             You are RewardBot, an AI assistant for reward points and credit card management.
             
-            User Context:
-            - Name: %s
-            - Total Reward Points: %d
-            - Active Cards: %d
-            - Total Balance: $%.2f
-            
             Your job is to analyze user queries and classify them into these intents:
             - POINTS_BALANCE: Questions about total points, points per card
             - POINTS_EXPIRY: Questions about when points expire, expiring points
@@ -111,11 +170,7 @@ public class OpenAiIntegrationService {
             - GENERAL_INFO: General questions about the service
             
             Respond with just the intent name and confidence (0-1).
-            """, 
-            userContext.getUserName(), 
-            userContext.getTotalPoints(), 
-            userContext.getActiveCards(),
-            userContext.getTotalBalance());
+            """;
     }
 
     private String buildAnalysisPrompt(String userQuery) {
@@ -164,6 +219,15 @@ public class OpenAiIntegrationService {
             userContext.getDetailedInfo());
     }
 
+    // Keyword intent and templated answer, for when the model calls cannot finish in time
+    public QueryIntent fallbackIntent(String userQuery) {
+        return analyzeIntentFallback(userQuery);
+    }
+
+    public String fallbackResponse(String userQuery, QueryIntent intent, UserContext userContext) {
+        return generateResponseFallback(userQuery, intent, userContext);
+    }
+
     private QueryIntent parseAiResponse(String aiResponse, String originalQuery) {
         try {
             String[] lines = aiResponse.split("\n");
@@ -232,7 +296,7 @@ public class OpenAiIntegrationService {
             case "REDEMPTION_OPTIONS" -> String.format(
                 "With your **%s points**, here are your best redemption options: 🎁\n\n" +
                 "%s\n\n" +
-                "🏆 **Best Value**: Amazon Gift Vouchers give you 20%% bonus!",
+                "💡 **Pro tip**: Redeem the earliest-expiring points first so none of them lapse!",
                 formatPoints(userContext.getTotalPoints()),
                 userContext.getRedemptionOptions()
             );
@@ -302,6 +366,7 @@ public class OpenAiIntegrationService {
         private String expiryInfo;
         private String cashbackInfo;
         private String redemptionOptions;
+        private boolean redemptionOptionsComputed;
         private String balanceInfo;
         private String detailedInfo;
 
@@ -322,6 +387,7 @@ public class OpenAiIntegrationService {
         public String getExpiryInfo() { return expiryInfo != null ? expiryInfo : "Expiry details loading..."; }
         public String getCashbackInfo() { return cashbackInfo != null ? cashbackInfo : "Cashback details loading..."; }
         public String getRedemptionOptions() { return redemptionOptions != null ? redemptionOptions : "Redemption options loading..."; }
+        public boolean hasComputedRedemptionOptions() { return redemptionOptionsComputed; }
         public String getBalanceInfo() { return balanceInfo != null ? balanceInfo : "Balance details loading..."; }
         public String getDetailedInfo() { return detailedInfo != null ? detailedInfo : "User details loading..."; }
 
@@ -329,7 +395,11 @@ public class OpenAiIntegrationService {
         public void setCardsInfo(String cardsInfo) { this.cardsInfo = cardsInfo; }
         public void setExpiryInfo(String expiryInfo) { this.expiryInfo = expiryInfo; }
         public void setCashbackInfo(String cashbackInfo) { this.cashbackInfo = cashbackInfo; }
-        public void setRedemptionOptions(String redemptionOptions) { this.redemptionOptions = redemptionOptions; }
+        public void setRedemptionOptions(String redemptionOptions) { setRedemptionOptions(redemptionOptions, false); }
+        public void setRedemptionOptions(String redemptionOptions, boolean computed) {
+            this.redemptionOptions = redemptionOptions;
+            this.redemptionOptionsComputed = computed;
+        }
         public void setBalanceInfo(String balanceInfo) { this.balanceInfo = balanceInfo; }
         public void setDetailedInfo(String detailedInfo) { this.detailedInfo = detailedInfo; }
     }
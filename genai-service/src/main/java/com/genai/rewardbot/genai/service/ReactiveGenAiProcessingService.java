@@ -0,0 +1,138 @@
+package com.genai.rewardbot.genai.service;
+
+import com.genai.rewardbot.genai.journal.QueryJournal;
+import com.genai.rewardbot.genai.journal.StageTimings;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The same stage DAG as {@link GenAiProcessingService}, composed from non-blocking stages so a
+ * query waiting on reward-service or the model holds no thread. Context and intent are zipped,
+ * the completion follows, and the per-request deadline and fallback behave as in the blocking
+ * pipeline. Active when {@code app.genai.reactive.enabled} is set.
+ */
+@Service
+@ConditionalOnProperty(name = "app.genai.reactive.enabled", havingValue = "true")
+@Slf4j
+public class ReactiveGenAiProcessingService {
+
+    private final OpenAiIntegrationService openAiService;
+    private final MockDataService mockDataService;
+    private final QueryJournal queryJournal;
+    private final Duration deadline;
+
+    public ReactiveGenAiProcessingService(OpenAiIntegrationService openAiService,
+                                          MockDataService mockDataService,
+                                          QueryJournal queryJournal,
+                                          @Value("${app.genai.pipeline.deadline:PT10S}") Duration deadline) {
+        this.openAiService = openAiService;
+        this.mockDataService = mockDataService;
+        this.queryJournal = queryJournal;
+        this.deadline = deadline;
+    }
+
+    public Mono<GenAiProcessingService.QueryResult> processUserQuery(String mobileNumber, String query) {
+        return Mono.defer(() -> {
+            log.info("Processing query for user {}: {}", mobileNumber, query);
+            StageTimings timings = new StageTimings();
+            return run(query, mockDataService.loadUserContext(mobileNumber), timings)
+                    .doOnNext(result -> {
+                        queryJournal.record(mobileNumber, query, result.intent(), result.confidence(), result.degraded(),
+                                result.response(), timings);
+                        log.info("Generated response for user {}", mobileNumber);
+                    });
+        });
+    }
+
+    public Mono<GenAiProcessingService.QueryResult> processTestQuery(String query) {
+        return Mono.defer(() -> {
+            log.info("Processing test query: {}", query);
+            return run(query, mockDataService.loadTestUserContext(), new StageTimings());
+        });
+    }
+
+    /**
+     * The response as it is generated. The deadline covers the stages up to the first token;
+     * once the answer is flowing it runs to the end of the completion.
+     */
+    public Flux<String> streamUserQuery(String mobileNumber, String query) {
+        return Flux.defer(() -> {
+            log.info("Streaming query for user {}: {}", mobileNumber, query);
+            StageTimings timings = new StageTimings();
+            AtomicReference<OpenAiIntegrationService.UserContext> context = new AtomicReference<>();
+            AtomicReference<OpenAiIntegrationService.QueryIntent> intent = new AtomicReference<>();
+            AtomicBoolean degraded = new AtomicBoolean();
+            StringBuilder response = new StringBuilder();
+
+            return stages(query, mockDataService.loadUserContext(mobileNumber), context, timings)
+                    .flatMapMany(stages -> {
+                        intent.set(stages.getT2());
+                        return timings.time(StageTimings.Stage.COMPLETION,
+                                openAiService.streamIntelligentResponse(query, stages.getT2(), stages.getT1()));
+                    })
+                    .timeout(Mono.delay(deadline), delta -> Mono.never())
+                    .onErrorResume(e -> {
+                        if (response.length() > 0) {
+                            return Flux.empty();
+                        }
+                        degraded.set(true);
+                        GenAiProcessingService.QueryResult fallback = fallback(query, context.get(), e);
+                        intent.set(new OpenAiIntegrationService.QueryIntent(fallback.intent(), fallback.confidence(), query));
+                        return Flux.just(fallback.response());
+                    })
+                    .doOnNext(response::append)
+                    .doOnComplete(() -> queryJournal.record(mobileNumber, query, intent.get().getIntentType(),
+                            intent.get().getConfidence(), degraded.get(), response.toString(), timings));
+        });
+    }
+
+    private Mono<GenAiProcessingService.QueryResult> run(String query,
+                                                         Mono<OpenAiIntegrationService.UserContext> contextLoader,
+                                                         StageTimings timings) {
+        AtomicReference<OpenAiIntegrationService.UserContext> context = new AtomicReference<>();
+        return stages(query, contextLoader, context, timings)
+                .flatMap(stages -> timings.time(StageTimings.Stage.COMPLETION,
+                                openAiService.generateIntelligentResponseReactive(query, stages.getT2(), stages.getT1()))
+                        .map(response -> new GenAiProcessingService.QueryResult(response, stages.getT2().getIntentType(),
+                                stages.getT2().getConfidence(), false)))
+                .timeout(deadline)
+                .onErrorResume(e -> Mono.fromSupplier(() -> fallback(query, context.get(), e)));
+    }
+
+    // Context and intent concurrently; the context is kept aside for the fallback once it arrives
+    private Mono<Tuple2<OpenAiIntegrationService.UserContext, OpenAiIntegrationService.QueryIntent>> stages(
+            String query, Mono<OpenAiIntegrationService.UserContext> contextLoader,
+            AtomicReference<OpenAiIntegrationService.UserContext> context, StageTimings timings) {
+        return Mono.zip(
+                        timings.time(StageTimings.Stage.CONTEXT, contextLoader).doOnNext(context::set),
+                        timings.time(StageTimings.Stage.INTENT, openAiService.analyzeUserIntentReactive(query)))
+                .doOnNext(stages -> log.info("Detected intent: {} (confidence: {})",
+                        stages.getT2().getIntentType(), stages.getT2().getConfidence()));
+    }
+
+    private GenAiProcessingService.QueryResult fallback(String query, OpenAiIntegrationService.UserContext context,
+                                                        Throwable failure) {
+        if (failure instanceof TimeoutException) {
+            log.warn("Query pipeline missed its {} deadline; answering from fallback", deadline);
+        } else {
+            log.warn("Query pipeline stage failed; answering from fallback: {}", failure.getMessage());
+        }
+        OpenAiIntegrationService.QueryIntent intent = openAiService.fallbackIntent(query);
+        if (context == null) {
+            return new GenAiProcessingService.QueryResult(GenAiProcessingService.UNAVAILABLE_RESPONSE,
+                    intent.getIntentType(), intent.getConfidence(), true);
+        }
+        return new GenAiProcessingService.QueryResult(openAiService.fallbackResponse(query, intent, context),
+                intent.getIntentType(), intent.getConfidence(), true);
+    }
+}
@@ -0,0 +1,95 @@
+package com.genai.rewardbot.genai.service;
+
+import com.genai.rewardbot.common.security.InternalApiKey;
+import com.genai.rewardbot.common.snapshot.RewardSnapshotCodec;
+import com.genai.rewardbot.common.snapshot.UserRewardSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Fetches reward snapshots from reward-service's internal API. One shared HTTP/2 client, so
+ * concurrent chat requests are multiplexed over a persistent connection (h2c upgrade on the
+ * first request when the base URI is plain http).
+ */
+@Service
+@ConditionalOnProperty("app.reward-snapshot.base-uri")
+@Slf4j
+public class RewardSnapshotClient {
+
+    private final HttpClient httpClient;
+    private final String baseUri;
+    private final Duration timeout;
+    private final String internalApiKey;
+
+    public RewardSnapshotClient(@Value("${app.reward-snapshot.base-uri}") String baseUri,
+                                @Value("${app.reward-snapshot.timeout:PT2S}") Duration timeout,
+                                @Value("${app.internal-api.key:}") String internalApiKey) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(timeout)
+                .build();
+        this.baseUri = baseUri.replaceAll("/+$", "");
+        this.timeout = timeout;
+        this.internalApiKey = internalApiKey;
+    }
+
+    /**
+     * @return the snapshot, or empty if reward-service does not know the user
+     * @throws IllegalStateException if reward-service could not be reached or answered badly
+     */
+    public Optional<UserRewardSnapshot> fetch(String mobileNumber) {
+        try {
+            return decode(httpClient.send(request(mobileNumber), HttpResponse.BodyHandlers.ofByteArray()));
+        } catch (IOException e) {
+            throw new IllegalStateException("Reward snapshot request failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reward snapshot request interrupted", e);
+        }
+    }
+
+    /**
+     * {@link #fetch} without holding a thread while reward-service answers; the request is
+     * sent when the result is subscribed to.
+     */
+    public Mono<Optional<UserRewardSnapshot>> fetchAsync(String mobileNumber) {
+        return Mono.fromFuture(() -> httpClient.sendAsync(request(mobileNumber), HttpResponse.BodyHandlers.ofByteArray()))
+                .onErrorMap(IOException.class, e -> new IllegalStateException("Reward snapshot request failed", e))
+                .map(this::decode);
+    }
+
+    private HttpRequest request(String mobileNumber) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(
+                        URI.create(baseUri + "/snapshot/" + URLEncoder.encode(mobileNumber, StandardCharsets.UTF_8)))
+                .timeout(timeout)
+                .header("Accept", RewardSnapshotCodec.MEDIA_TYPE)
+                .GET();
+        if (!internalApiKey.isEmpty()) {
+            request.header(InternalApiKey.HEADER, internalApiKey);
+        }
+        return request.build();
+    }
+
+    private Optional<UserRewardSnapshot> decode(HttpResponse<byte[]> response) {
+        if (response.statusCode() == 404) {
+            return Optional.empty();
+        }
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Reward snapshot request returned HTTP " + response.statusCode());
+        }
+        return Optional.of(RewardSnapshotCodec.decode(response.body()));
+    }
+}
@@ -0,0 +1,74 @@
+package com.genai.rewardbot.genai.controller;
+
+import com.genai.rewardbot.genai.service.GenAiProcessingService;
+import com.genai.rewardbot.genai.service.ReactiveGenAiProcessingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * With reactive mode off there is no {@link ReactiveGenAiProcessingService} bean and the
+ * endpoints run the blocking pipeline.
+ */
+class GenAiControllerTest {
+
+    private static final String MOBILE_NUMBER = "9876543210";
+    private static final String QUERY = "When do my points expire?";
+
+    private GenAiProcessingService blocking;
+    private GenAiController controller;
+
+    @BeforeEach
+    void setUp() {
+        blocking = mock(GenAiProcessingService.class);
+        when(blocking.processUserQuery(MOBILE_NUMBER, QUERY))
+                .thenReturn(new GenAiProcessingService.QueryResult("Your points expire soon.", "POINTS_EXPIRY", 0.8, false));
+        controller = new GenAiController(blocking,
+                new StaticListableBeanFactory().getBeanProvider(ReactiveGenAiProcessingService.class));
+    }
+
+    @Test
+    void queryRunsTheBlockingPipeline() {
+        ResponseEntity<Map<String, Object>> response = controller.processQuery(request()).block(Duration.ofSeconds(5));
+
+        assertThat(response.getBody()).containsEntry("success", true)
+                .containsEntry("response", "Your points expire soon.")
+                .containsEntry("intent", "POINTS_EXPIRY")
+                .containsEntry("degraded", false);
+    }
+
+    @Test
+    void streamSendsTheWholeAnswerAsOneDeltaThenDone() {
+        List<ServerSentEvent<String>> events = controller.streamQuery(request()).collectList().block(Duration.ofSeconds(5));
+
+        assertThat(events).extracting(ServerSentEvent::event).containsExactly("delta", "done");
+        assertThat(events.get(0).data()).isEqualTo("Your points expire soon.");
+    }
+
+    @Test
+    void failedStreamSendsTheApologyThenDone() {
+        when(blocking.processUserQuery(MOBILE_NUMBER, QUERY)).thenThrow(new IllegalStateException("context unavailable"));
+
+        List<ServerSentEvent<String>> events = controller.streamQuery(request()).collectList().block(Duration.ofSeconds(5));
+
+        assertThat(events).extracting(ServerSentEvent::event).containsExactly("delta", "done");
+        assertThat(events.get(0).data()).startsWith("I apologize");
+    }
+
+    private static GenAiController.QueryRequest request() {
+        GenAiController.QueryRequest request = new GenAiController.QueryRequest();
+        request.setMobileNumber(MOBILE_NUMBER);
+        request.setQuery(QUERY);
+        return request;
+    }
+}
@@ -0,0 +1,86 @@
+package com.genai.rewardbot.genai.journal;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What journaling adds to a request: {@link QueryJournal#record} with the journal enabled
+ * (a ring offer, the writer thread encoding into a memory-mapped segment behind it) against
+ * disabled (an early return). Eight benchmark threads are the concurrent requests, each
+ * burning {@code requestWork} Blackhole tokens per call as the rest of the request; at 0 the
+ * ring stays full and the score is that of a saturated journal. After each iteration the
+ * entries written and dropped are printed; drops mean the writer fell behind.
+ *
+ * <p>mvn -Pjmh -DskipTests -f genai-service/pom.xml test -Djmh.args=QueryJournalBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class QueryJournalBenchmark {
+
+    private static final String RESPONSE = "You have 300 points expiring this month on your HDFC card. "
+            + "Redeeming them for a gift voucher gets the most value before they lapse.";
+
+    @Param({"true", "false"})
+    public boolean enabled;
+
+    @Param({"0", "10000"})
+    public long requestWork;
+
+    private Path directory;
+    private QueryJournal journal;
+    private StageTimings timings;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("journal-bench");
+        journal = new QueryJournal(enabled, directory, DataSize.ofMegabytes(64), Duration.ofHours(1),
+                Duration.ofDays(7), DataSize.ofGigabytes(2), 16384, "");
+        journal.start();
+        timings = new StageTimings();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        journal.stop();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        Info.Builder info = new Info.Builder();
+        journal.contribute(info);
+        System.out.printf("journal: %s%n", info.build().get("queryJournal"));
+    }
+
+    @Benchmark
+    public void record() {
+        Blackhole.consumeCPU(requestWork);
+        journal.record("9876543210", "How many points expire this month?", "EXPIRY", 0.92, false, RESPONSE, timings);
+    }
+}
@@ -0,0 +1,104 @@
+package com.genai.rewardbot.genai.journal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RingBufferTest {
+
+    @Test
+    void capacityMustBeAPowerOfTwo() {
+        assertThatThrownBy(() -> new RingBuffer<>(1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RingBuffer<>(12)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(new RingBuffer<>(16).size()).isZero();
+    }
+
+    @Test
+    void rejectsOffersWhenFullAndAcceptsOnceDrained() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+
+        assertThat(buffer.offer(4)).isFalse();
+        assertThat(buffer.size()).isEqualTo(4);
+
+        assertThat(buffer.poll()).isZero();
+        assertThat(buffer.offer(4)).isTrue();
+        assertThat(buffer.offer(5)).isFalse();
+    }
+
+    @Test
+    void staysFirstInFirstOutAcrossManyLaps() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(8);
+        int next = 0;
+        for (int produced = 0; produced < 1000; produced += 3) {
+            buffer.offer(produced);
+            buffer.offer(produced + 1);
+            buffer.offer(produced + 2);
+            for (int i = 0; i < 3; i++) {
+                assertThat(buffer.poll()).isEqualTo(next++);
+            }
+        }
+
+        assertThat(buffer.poll()).isNull();
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void concurrentProducersLoseAndDuplicateNothing() throws Exception {
+        int producers = 4;
+        int perProducer = 100_000;
+        RingBuffer<long[]> buffer = new RingBuffer<>(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> offers = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                long producer = p;
+                offers.add(executor.submit(() -> {
+                    start.await();
+                    for (long i = 0; i < perProducer; i++) {
+                        while (!buffer.offer(new long[] {producer, i})) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+
+            long[] nextByProducer = new long[producers];
+            long received = 0;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (received < (long) producers * perProducer) {
+                long[] item = buffer.poll();
+                if (item == null) {
+                    assertThat(System.nanoTime()).as("consumer deadline").isLessThan(deadline);
+                    Thread.onSpinWait();
+                    continue;
+                }
+                // Each producer's items arrive in the order it offered them
+                assertThat(item[1]).isEqualTo(nextByProducer[(int) item[0]]++);
+                received++;
+            }
+            for (Future<?> offer : offers) {
+                offer.get(5, TimeUnit.SECONDS);
+            }
+
+            assertThat(nextByProducer).containsOnly(perProducer);
+            assertThat(buffer.poll()).isNull();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.genai.rewardbot.genai.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OpenAiChatClientTest {
+
+    private StubChatServer server;
+    private OpenAiChatClient client;
+
+    @BeforeEach
+    void setUp() {
+        server = new StubChatServer();
+        client = new OpenAiChatClient(new ObjectMapper(), WebClient.builder(), "test-key", server.baseUri(), 5, 4, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.stop();
+        server.close();
+    }
+
+    @Test
+    void completionReturnsTheMessageContent() {
+        server.completion = "  300 points expire on 1 May.  ";
+
+        assertThat(client.complete("system", "user", 50, 0.5).block(Duration.ofSeconds(5)))
+                .isEqualTo("300 points expire on 1 May.");
+    }
+
+    @Test
+    void streamEmitsEachDeltaAndEndsAtDone() {
+        List<String> deltas = client.stream("system", "user", 50, 0.5).collectList().block(Duration.ofSeconds(5));
+
+        assertThat(deltas).containsExactly("Your ", "points ", "expire ", "soon.");
+    }
+
+    @Test
+    void failedCallsSurfaceTheStatus() {
+        server.failWith = HttpResponseStatus.SERVICE_UNAVAILABLE;
+
+        assertThatThrownBy(() -> client.complete("system", "user", 50, 0.5).block(Duration.ofSeconds(5)))
+                .isInstanceOf(WebClientResponseException.ServiceUnavailable.class);
+    }
+
+    @Test
+    void streamIsReadOnlyAsFastAsItIsRequestedAndCancelClosesIt() throws Exception {
+        server.endless = true;
+        List<String> received = new CopyOnWriteArrayList<>();
+        BaseSubscriber<String> slowReader = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(1);
+            }
+
+            @Override
+            protected void hookOnNext(String delta) {
+                received.add(delta);
+            }
+        };
+
+        client.stream("system", "user", 50, 0.5).subscribe(slowReader);
+        awaitUntil(() -> received.size() == 1);
+        // Once the socket and prefetch buffers fill (a few MB on loopback) the server cannot write more
+        long sent = awaitSteady(server.eventsSent::get);
+
+        assertThat(received).hasSize(1);
+        slowReader.request(3);
+        awaitUntil(() -> received.size() == 4);
+        Thread.sleep(200);
+        assertThat(received).hasSize(4);
+        assertThat(sent).isLessThan(200_000);
+
+        slowReader.cancel();
+        awaitUntil(server.streamCancelled::get);
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition met in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static long awaitSteady(LongSupplier counter) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        long previous = -1;
+        while (true) {
+            Thread.sleep(300);
+            long current = counter.getAsLong();
+            if (current == previous) {
+                return current;
+            }
+            assertThat(System.currentTimeMillis()).as("server stopped writing in time").isLessThan(deadline);
+            previous = current;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.genai.rewardbot.genai.service;
+
+import com.genai.rewardbot.genai.config.PipelineConfig;
+import com.genai.rewardbot.genai.journal.QueryJournal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Mono;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Latency and thread usage of {@link GenAiProcessingService}'s staged pipeline against the
+ * sequential one it replaced (context, then intent, then completion on the request thread),
+ * and of {@link ReactiveGenAiProcessingService}. Each stage is a stub that blocks for its
+ * configured time, or for the reactive pipeline completes after it on a timer, standing in for
+ * the reward snapshot call and the two model calls; 32 benchmark threads are the concurrent
+ * requests (more with {@code -t}). After each iteration the peak number of live platform
+ * threads and the answers that fell back (the stage pool was full or the deadline passed) are
+ * printed; virtual threads are not counted, their carriers are.
+ *
+ * <p>mvn -Pjmh -DskipTests -f genai-service/pom.xml test -Djmh.args=QueryPipelineBenchmark
+ *
+ * <p>On Java 21+ the stages run on virtual threads unless {@code virtualThreads=false}; on 17
+ * they use the bounded pool either way.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(32)
+public class QueryPipelineBenchmark {
+
+    private static final String MOBILE_NUMBER = "9876543210";
+    private static final String QUERY = "How many points expire this month?";
+
+    @Param("20")
+    public long contextMillis;
+
+    @Param("30")
+    public long intentMillis;
+
+    @Param("50")
+    public long completionMillis;
+
+    @Param({"true", "false"})
+    public boolean virtualThreads;
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final AtomicLong degraded = new AtomicLong();
+    private OpenAiIntegrationService openAiService;
+    private MockDataService mockDataService;
+    private ExecutorService stageExecutor;
+    private GenAiProcessingService staged;
+    private ReactiveGenAiProcessingService reactive;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        OpenAiIntegrationService.UserContext context = new OpenAiIntegrationService.UserContext("Test User", 1200, 2, 0);
+        OpenAiIntegrationService.QueryIntent intent = new OpenAiIntegrationService.QueryIntent("EXPIRY", 0.9, QUERY);
+        openAiService = mock(OpenAiIntegrationService.class);
+        mockDataService = mock(MockDataService.class);
+        when(mockDataService.getUserContext(anyString())).thenAnswer(call -> after(contextMillis, context));
+        when(openAiService.analyzeUserIntent(anyString())).thenAnswer(call -> after(intentMillis, intent));
+        when(openAiService.generateIntelligentResponse(anyString(), any(), any()))
+                .thenAnswer(call -> after(completionMillis, "You have 300 points expiring this month."));
+
+        when(openAiService.fallbackIntent(anyString())).thenReturn(intent);
+        when(openAiService.fallbackResponse(anyString(), any(), any())).thenReturn("You have 300 points.");
+        when(mockDataService.loadUserContext(anyString()))
+                .thenAnswer(call -> Mono.delay(Duration.ofMillis(contextMillis)).thenReturn(context));
+        when(openAiService.analyzeUserIntentReactive(anyString()))
+                .thenAnswer(call -> Mono.delay(Duration.ofMillis(intentMillis)).thenReturn(intent));
+        when(openAiService.generateIntelligentResponseReactive(anyString(), any(), any()))
+                .thenAnswer(call -> Mono.delay(Duration.ofMillis(completionMillis))
+                        .thenReturn("You have 300 points expiring this month."));
+
+        stageExecutor = new PipelineConfig().genAiStageExecutor(virtualThreads, 64, 256);
+        staged = new GenAiProcessingService(openAiService, mockDataService, stageExecutor,
+                mock(QueryJournal.class), Duration.ofSeconds(10));
+        reactive = new ReactiveGenAiProcessingService(openAiService, mockDataService, mock(QueryJournal.class),
+                Duration.ofSeconds(10));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        stageExecutor.shutdownNow();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPeakThreads() {
+        threads.resetPeakThreadCount();
+        degraded.set(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportPeakThreads() {
+        System.out.printf("peak live threads: %d, degraded answers: %d%n", threads.getPeakThreadCount(), degraded.get());
+    }
+
+    @Benchmark
+    public String sequential() {
+        OpenAiIntegrationService.UserContext context = mockDataService.getUserContext(MOBILE_NUMBER);
+        OpenAiIntegrationService.QueryIntent intent = openAiService.analyzeUserIntent(QUERY);
+        return openAiService.generateIntelligentResponse(QUERY, intent, context);
+    }
+
+    @Benchmark
+    public GenAiProcessingService.QueryResult staged() {
+        return counted(staged.processUserQuery(MOBILE_NUMBER, QUERY));
+    }
+
+    @Benchmark
+    public GenAiProcessingService.QueryResult reactive() {
+        return counted(reactive.processUserQuery(MOBILE_NUMBER, QUERY).block());
+    }
+
+    private GenAiProcessingService.QueryResult counted(GenAiProcessingService.QueryResult result) {
+        if (result.degraded()) {
+            degraded.incrementAndGet();
+        }
+        return result;
+    }
+
+    private static <T> T after(long millis, T value) throws InterruptedException {
+        Thread.sleep(millis);
+        return value;
+    }
+}
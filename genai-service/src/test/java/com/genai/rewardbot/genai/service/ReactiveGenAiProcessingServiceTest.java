@@ -0,0 +1,107 @@
+package com.genai.rewardbot.genai.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.genai.rewardbot.genai.journal.QueryJournal;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * The reactive pipeline against a local chat completions endpoint (see {@link StubChatServer}),
+ * with the demo user context and a 3 second deadline.
+ */
+class ReactiveGenAiProcessingServiceTest {
+
+    private static final String MOBILE_NUMBER = "9876543210";
+    private static final String QUERY = "When do my points expire?";
+
+    private StubChatServer server;
+    private OpenAiChatClient chatClient;
+    private QueryJournal queryJournal;
+    private ReactiveGenAiProcessingService service;
+
+    @BeforeEach
+    void setUp() {
+        server = new StubChatServer();
+        chatClient = new OpenAiChatClient(new ObjectMapper(), WebClient.builder(), "test-key", server.baseUri(), 5, 4, 4);
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("openAiChatClient", chatClient);
+        OpenAiIntegrationService openAiService = new OpenAiIntegrationService("test-key", true,
+                beans.getBeanProvider(OpenAiChatClient.class));
+        MockDataService mockDataService = new MockDataService(beans.getBeanProvider(RewardSnapshotClient.class),
+                100, Duration.ofHours(1));
+        queryJournal = mock(QueryJournal.class);
+        service = new ReactiveGenAiProcessingService(openAiService, mockDataService, queryJournal, Duration.ofSeconds(3));
+    }
+
+    @AfterEach
+    void tearDown() {
+        chatClient.stop();
+        server.close();
+    }
+
+    @Test
+    void queryIsAnsweredByTheModelAndJournaled() {
+        GenAiProcessingService.QueryResult result = service.processUserQuery(MOBILE_NUMBER, QUERY)
+                .block(Duration.ofSeconds(10));
+
+        assertThat(result.intent()).isEqualTo("POINTS_EXPIRY");
+        assertThat(result.confidence()).isEqualTo(0.95);
+        assertThat(result.degraded()).isFalse();
+        assertThat(result.response()).startsWith("Your points expire soon.").contains("Quick Actions");
+        verify(queryJournal).record(eq(MOBILE_NUMBER), eq(QUERY), eq("POINTS_EXPIRY"), eq(0.95), eq(false),
+                eq(result.response()), any());
+    }
+
+    @Test
+    void streamedAnswerArrivesDeltaByDeltaAndIsJournaledWhole() {
+        List<String> deltas = service.streamUserQuery(MOBILE_NUMBER, QUERY).collectList().block(Duration.ofSeconds(10));
+
+        assertThat(deltas).hasSize(5);
+        assertThat(deltas.subList(0, 4)).containsExactly("Your ", "points ", "expire ", "soon.");
+        assertThat(deltas.get(4)).contains("Quick Actions");
+        verify(queryJournal).record(eq(MOBILE_NUMBER), eq(QUERY), eq("POINTS_EXPIRY"), eq(0.95), eq(false),
+                eq(String.join("", deltas)), any());
+    }
+
+    @Test
+    void failingModelIsAnsweredFromTheTemplates() {
+        server.failWith = HttpResponseStatus.INTERNAL_SERVER_ERROR;
+
+        GenAiProcessingService.QueryResult result = service.processUserQuery(MOBILE_NUMBER, QUERY)
+                .block(Duration.ofSeconds(10));
+
+        // Keyword intent and templated answer from the demo context
+        assertThat(result.intent()).isEqualTo("POINTS_EXPIRY");
+        assertThat(result.response()).startsWith("Here's your points expiry information");
+    }
+
+    @Test
+    void missedDeadlineIsAnsweredFromTheFallbackAndMarkedDegraded() {
+        server.completionDelay = Duration.ofSeconds(6);
+
+        long started = System.nanoTime();
+        GenAiProcessingService.QueryResult result = service.processUserQuery(MOBILE_NUMBER, QUERY)
+                .block(Duration.ofSeconds(10));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(5));
+        assertThat(result.degraded()).isTrue();
+        assertThat(result.response()).startsWith("Here's your points expiry information");
+        verify(queryJournal, timeout(1000)).record(eq(MOBILE_NUMBER), eq(QUERY), eq("POINTS_EXPIRY"), anyDouble(),
+                eq(true), eq(result.response()), any());
+    }
+}
@@ -0,0 +1,78 @@
+package com.genai.rewardbot.genai.service;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A chat completions endpoint on a local port. Intent requests (those carrying the analysis
+ * prompt) get {@link #intent}; other completions get {@link #completion} after
+ * {@link #completionDelay}; streamed ones get {@link #deltas} as server-sent events followed
+ * by {@code [DONE]}, or an endless stream when {@link #endless} is set. {@link #failWith}
+ * answers every request with that status instead.
+ */
+class StubChatServer implements AutoCloseable {
+
+    volatile String intent = "INTENT: POINTS_EXPIRY\nCONFIDENCE: 0.95";
+    volatile String completion = "Your points expire soon.";
+    volatile Duration completionDelay = Duration.ZERO;
+    volatile List<String> deltas = List.of("Your ", "points ", "expire ", "soon.");
+    volatile boolean endless;
+    volatile HttpResponseStatus failWith;
+
+    final AtomicLong eventsSent = new AtomicLong();
+    final AtomicBoolean streamCancelled = new AtomicBoolean();
+
+    private final DisposableServer server = HttpServer.create()
+            .host("localhost")
+            .port(0)
+            .route(routes -> routes.post("/chat/completions", (request, response) -> request.receive().aggregate()
+                    .asString()
+                    .flatMapMany(body -> {
+                        if (failWith != null) {
+                            return response.status(failWith).send();
+                        }
+                        if (body.contains("\"stream\":true")) {
+                            return response.header(HttpHeaderNames.CONTENT_TYPE, "text/event-stream")
+                                    .sendString(events());
+                        }
+                        String content = body.contains("Analyze this user query") ? intent : completion;
+                        Duration delay = body.contains("Analyze this user query") ? Duration.ZERO : completionDelay;
+                        return response.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                .sendString(Mono.delay(delay).thenReturn(
+                                        "{\"choices\":[{\"message\":{\"content\":" + json(content) + "}}]}"));
+                    })))
+            .bindNow();
+
+    String baseUri() {
+        return "http://localhost:" + server.port();
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    private Flux<String> events() {
+        Flux<String> data = endless
+                ? Flux.<String>generate(sink -> sink.next("tick "))
+                : Flux.fromIterable(deltas);
+        return data
+                .map(delta -> "data: {\"choices\":[{\"delta\":{\"content\":" + json(delta) + "}}]}\n\n")
+                .doOnNext(event -> eventsSent.incrementAndGet())
+                .concatWith(Mono.just("data: [DONE]\n\n"))
+                .doOnCancel(() -> streamCancelled.set(true));
+    }
+
+    private static String json(String text) {
+        return "\"" + text.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"";
+    }
+}
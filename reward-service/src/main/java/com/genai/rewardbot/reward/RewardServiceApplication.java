@@ -1,13 +1,18 @@
 package com.genai.rewardbot.reward;
 
+import com.genai.rewardbot.reward.service.RewardRollupRebuilder;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = "com.genai.rewardbot")
 @EntityScan(basePackages = "com.genai.rewardbot.common.entity")
 @EnableJpaRepositories(basePackages = "com.genai.rewardbot.reward.repository")
+@EnableScheduling
+@RegisterReflectionForBinding(RewardRollupRebuilder.RebuildReport.class)
 public class RewardServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,38 @@
+package com.genai.rewardbot.reward.controller;
+
+import com.genai.rewardbot.reward.service.ChangeFeedService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Change feed for other services' caches (points earned, redeemed or expired; cards added or
+ * deactivated). Subscribers are services rather than users, so instead of a user token they
+ * present the shared {@code app.internal-api.key}.
+ */
+@RestController
+@RequestMapping("/api/rewards/changes")
+@RequiredArgsConstructor
+@Slf4j
+public class ChangeFeedController {
+
+    private final ChangeFeedService changeFeedService;
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        Long position = null;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                position = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid Last-Event-ID");
+            }
+        }
+        log.info("Change feed subscriber connected (Last-Event-ID: {})", position);
+        return changeFeedService.subscribe(position);
+    }
+}
@@ -0,0 +1,208 @@
+package com.genai.rewardbot.reward.controller;
+
+import com.genai.rewardbot.common.snapshot.RewardSnapshotCodec;
+import com.genai.rewardbot.common.snapshot.UserRewardSnapshot;
+import com.genai.rewardbot.common.valuation.Money;
+import com.genai.rewardbot.reward.service.AccrualRuleSet;
+import com.genai.rewardbot.reward.service.AccrualRules;
+import com.genai.rewardbot.reward.service.ExpiryDigestJob;
+import com.genai.rewardbot.reward.service.RedemptionCatalog;
+import com.genai.rewardbot.reward.service.RewardRollupRebuilder;
+import com.genai.rewardbot.reward.service.RewardSnapshotService;
+import com.genai.rewardbot.reward.service.TransactionIngestionJob;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Service-to-service API. Same data as the public endpoints, but as one binary
+ * {@link RewardSnapshotCodec} message per user instead of several JSON documents; the
+ * JSON API under {@code /api/rewards} stays as it is for the frontends.
+ */
+@RestController
+@RequestMapping("/internal/rewards")
+@RequiredArgsConstructor
+@Slf4j
+public class InternalRewardController {
+
+    private static final MediaType SNAPSHOT = MediaType.parseMediaType(RewardSnapshotCodec.MEDIA_TYPE);
+
+    private final RewardSnapshotService rewardSnapshotService;
+    private final RewardRollupRebuilder rewardRollupRebuilder;
+    private final ExpiryDigestJob expiryDigestJob;
+    private final RedemptionCatalog redemptionCatalog;
+    private final TransactionIngestionJob transactionIngestionJob;
+    private final AccrualRules accrualRules;
+
+    @GetMapping(value = "/snapshot/{mobileNumber}", produces = RewardSnapshotCodec.MEDIA_TYPE)
+    public ResponseEntity<byte[]> snapshot(@PathVariable String mobileNumber) {
+        Optional<UserRewardSnapshot> snapshot = rewardSnapshotService.getSnapshot(mobileNumber);
+        if (snapshot.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(SNAPSHOT)
+                .body(RewardSnapshotCodec.encode(snapshot.get()));
+    }
+
+    /**
+     * Rebuilds the analytics rollups from the reward lots and answers when every partition
+     * has finished.
+     */
+    @PostMapping("/analytics/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildAnalytics() {
+        Map<String, Object> response = new HashMap<>();
+        Optional<RewardRollupRebuilder.RebuildReport> report = rewardRollupRebuilder.rebuild();
+        if (report.isEmpty()) {
+            response.put("success", false);
+            response.put("message", "A rebuild is already running");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        response.put("success", report.get().failedPartitions().isEmpty());
+        response.put("report", report.get());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Progress and throughput of the current or last expiring-points digest run.
+     */
+    @GetMapping("/expiry-digests")
+    public ResponseEntity<Map<String, Object>> expiryDigestStatus() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("run", expiryDigestJob.status());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Starts the digest run now instead of at the scheduled time, resuming today's run if one
+     * was interrupted.
+     */
+    @PostMapping("/expiry-digests/run")
+    public ResponseEntity<Map<String, Object>> runExpiryDigests() {
+        Map<String, Object> response = new HashMap<>();
+        if (!expiryDigestJob.start()) {
+            response.put("success", false);
+            response.put("message", "A digest run is already in progress");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        response.put("success", true);
+        response.put("run", expiryDigestJob.status());
+        return ResponseEntity.accepted().body(response);
+    }
+
+    /**
+     * The active redemption catalog as this instance has it loaded.
+     */
+    @GetMapping("/redemption-catalog")
+    public ResponseEntity<Map<String, Object>> redemptionCatalog() {
+        RedemptionCatalog.Index index = redemptionCatalog.index();
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("signature", index.signature());
+        response.put("items", index.items());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Checks the catalog for changes now rather than at the next refresh, e.g. right after
+     * editing it.
+     */
+    @PostMapping("/redemption-catalog/refresh")
+    public ResponseEntity<Map<String, Object>> refreshRedemptionCatalog() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("reloaded", redemptionCatalog.refresh());
+        response.put("signature", redemptionCatalog.index().signature());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Progress and throughput of the current or last transaction ingestion run.
+     */
+    @GetMapping("/ingestion")
+    public ResponseEntity<Map<String, Object>> ingestionStatus() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("run", transactionIngestionJob.status());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Ingests the inbox's unfinished files now instead of at the next poll, resuming any file
+     * that was interrupted.
+     */
+    @PostMapping("/ingestion/run")
+    public ResponseEntity<Map<String, Object>> runIngestion() {
+        Map<String, Object> response = new HashMap<>();
+        if (!transactionIngestionJob.start()) {
+            response.put("success", false);
+            response.put("message", "An ingestion run is already in progress");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        response.put("success", true);
+        response.put("run", transactionIngestionJob.status());
+        return ResponseEntity.accepted().body(response);
+    }
+
+    /**
+     * The accrual rules as this instance has them compiled.
+     */
+    @GetMapping("/accrual-rules")
+    public ResponseEntity<Map<String, Object>> accrualRules() {
+        AccrualRuleSet ruleSet = accrualRules.ruleSet();
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("signature", ruleSet.signature());
+        response.put("rules", ruleSet.rules());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * What a transaction would earn under the rules in force, e.g. to check an edit.
+     */
+    @GetMapping("/accrual-rules/points")
+    public ResponseEntity<Map<String, Object>> accrualPoints(
+            @RequestParam(required = false) String vendorCode,
+            @RequestParam(defaultValue = "PURCHASE") String source,
+            @RequestParam(required = false) String category,
+            @RequestParam String amount,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime time) {
+        Map<String, Object> response = new HashMap<>();
+        long amountMinor;
+        try {
+            amountMinor = Money.parse(amount);
+        } catch (NumberFormatException | ArithmeticException e) {
+            response.put("success", false);
+            response.put("message", "Invalid amount: " + amount);
+            return ResponseEntity.badRequest().body(response);
+        }
+        AccrualRuleSet ruleSet = accrualRules.ruleSet();
+        response.put("success", true);
+        response.put("signature", ruleSet.signature());
+        response.put("points", ruleSet.points(vendorCode, source, category, amountMinor,
+                time == null ? LocalDateTime.now() : time));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Checks the accrual rules for changes now rather than at the next refresh.
+     */
+    @PostMapping("/accrual-rules/refresh")
+    public ResponseEntity<Map<String, Object>> refreshAccrualRules() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("reloaded", accrualRules.refresh());
+        response.put("signature", accrualRules.ruleSet().signature());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,98 @@
+package com.genai.rewardbot.reward.controller;
+
+import com.genai.rewardbot.common.sharding.ShardDirectory;
+import com.genai.rewardbot.common.sharding.ShardRebalancer;
+import com.genai.rewardbot.common.sharding.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Operator API for a sharded deployment: bucket counts per shard, and online moves of single
+ * buckets or a whole rebalance. Moves run in the background on this instance; poll the status.
+ * Answers 404 when sharding is off.
+ */
+@RestController
+@RequestMapping("/internal/shards")
+@Slf4j
+public class InternalShardController {
+
+    private final ShardRouter shardRouter;
+    private final ShardRebalancer shardRebalancer;
+
+    public InternalShardController(ShardRouter shardRouter,
+                                   ObjectProvider<ShardRebalancer> shardRebalancer) {
+        this.shardRouter = shardRouter;
+        this.shardRebalancer = shardRebalancer.getIfAvailable();
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> status() {
+        if (shardRebalancer == null) {
+            return notSharded();
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("shards", shardRouter.shardCount());
+        response.put("bucketsPerShard", shardRouter.directory().bucketCounts());
+        response.put("moving", shardRouter.directory().moving());
+        response.put("rebalance", shardRebalancer.status().toMap());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Evens out bucket counts across the shards, e.g. after adding one.
+     */
+    @PostMapping("/rebalance")
+    public ResponseEntity<Map<String, Object>> rebalance() {
+        if (shardRebalancer == null) {
+            return notSharded();
+        }
+        return start(shardRebalancer.plan());
+    }
+
+    @PostMapping("/buckets/{bucket}/move")
+    public ResponseEntity<Map<String, Object>> moveBucket(
+            @PathVariable int bucket,
+            @RequestParam int to) {
+        if (shardRebalancer == null) {
+            return notSharded();
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        List<ShardDirectory.Bucket> buckets = shardRouter.directory().buckets();
+        if (bucket < 0 || bucket >= buckets.size() || to < 0 || to >= shardRouter.shardCount()) {
+            response.put("success", false);
+            response.put("message", "No such bucket or shard");
+            return ResponseEntity.badRequest().body(response);
+        }
+        return start(List.of(new ShardRebalancer.Move(bucket, buckets.get(bucket).shard(), to)));
+    }
+
+    private ResponseEntity<Map<String, Object>> start(List<ShardRebalancer.Move> moves) {
+        Map<String, Object> response = new HashMap<>();
+        if (!shardRebalancer.start(moves)) {
+            response.put("success", false);
+            response.put("message", "Moves are already running");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        log.info("Started {} shard bucket moves", moves.size());
+        response.put("success", true);
+        response.put("moves", moves);
+        return ResponseEntity.accepted().body(response);
+    }
+
+    private ResponseEntity<Map<String, Object>> notSharded() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", "Sharding is not enabled");
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    }
+}
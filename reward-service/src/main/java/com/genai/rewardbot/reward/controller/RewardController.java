@@ -0,0 +1,213 @@
+package com.genai.rewardbot.reward.controller;
+
+import com.genai.rewardbot.common.dto.CardDto;
+import com.genai.rewardbot.common.dto.RewardAnalyticsDto;
+import com.genai.rewardbot.common.dto.RewardPointDto;
+import com.genai.rewardbot.common.dto.RewardSummaryDto;
+import com.genai.rewardbot.reward.service.RedemptionAdvisor;
+import com.genai.rewardbot.reward.service.RewardAnalyticsService;
+import com.genai.rewardbot.reward.service.RewardHistoryService;
+import com.genai.rewardbot.reward.service.RewardService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/rewards")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.ETAG)
+public class RewardController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+    // Per-user data: browsers may keep it but must revalidate; shared caches must not store it
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private final RewardService rewardService;
+    private final RewardHistoryService rewardHistoryService;
+    private final RewardAnalyticsService rewardAnalyticsService;
+    private final RedemptionAdvisor redemptionAdvisor;
+
+    @GetMapping("/cards/{mobileNumber}")
+    public ResponseEntity<Map<String, Object>> getCards(@PathVariable String mobileNumber, WebRequest webRequest) {
+        log.info("Get cards request for mobile number: {}", mobileNumber);
+        
+        String etag = etag("cards", mobileNumber);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        
+        List<CardDto> cards = rewardService.getActiveCards(mobileNumber);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("cards", cards);
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(response);
+    }
+
+    @GetMapping("/points/{mobileNumber}")
+    public ResponseEntity<Map<String, Object>> getPoints(@PathVariable String mobileNumber, WebRequest webRequest) {
+        log.info("Get reward points request for mobile number: {}", mobileNumber);
+        
+        String etag = etag("points", mobileNumber);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        
+        List<RewardPointDto> points = rewardService.getRewardPoints(mobileNumber);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("points", points);
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(response);
+    }
+
+    @GetMapping("/summary/{mobileNumber}")
+    public ResponseEntity<Map<String, Object>> getSummary(@PathVariable String mobileNumber, WebRequest webRequest) {
+        log.info("Get reward summary request for mobile number: {}", mobileNumber);
+        
+        // "Expiring soon" moves with the calendar, so the summary's tag also changes daily
+        String etag = etag("summary-" + LocalDate.now().toEpochDay(), mobileNumber);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        
+        Optional<RewardSummaryDto> summary = rewardService.getRewardSummary(mobileNumber);
+        
+        Map<String, Object> response = new HashMap<>();
+        if (summary.isPresent()) {
+            response.put("success", true);
+            response.put("summary", summary.get());
+        } else {
+            response.put("success", false);
+            response.put("message", "User not found");
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(response);
+    }
+
+    @GetMapping("/analytics/{mobileNumber}")
+    public ResponseEntity<Map<String, Object>> getAnalytics(@PathVariable String mobileNumber, WebRequest webRequest) {
+        log.info("Get reward analytics request for mobile number: {}", mobileNumber);
+        
+        // "This month" and the monthly series roll over with the calendar month
+        String etag = etag("analytics-" + YearMonth.now(), mobileNumber);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        
+        Optional<RewardAnalyticsDto> analytics = rewardAnalyticsService.getAnalytics(mobileNumber);
+        
+        Map<String, Object> response = new HashMap<>();
+        if (analytics.isPresent()) {
+            response.put("success", true);
+            response.put("analytics", analytics.get());
+        } else {
+            response.put("success", false);
+            response.put("message", "User not found");
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(response);
+    }
+
+    @GetMapping("/redemptions/{mobileNumber}")
+    public ResponseEntity<Map<String, Object>> getRedemptions(@PathVariable String mobileNumber, WebRequest webRequest) {
+        log.info("Get redemption plan request for mobile number: {}", mobileNumber);
+        
+        // Redeem-by dates and catalog edits change the plan without a data version bump
+        String etag = etag("redemptions-" + LocalDate.now().toEpochDay() + "-" + redemptionAdvisor.catalogTag(),
+                mobileNumber);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        
+        Optional<RedemptionAdvisor.RedemptionPlan> plan = redemptionAdvisor.getPlan(mobileNumber);
+        
+        Map<String, Object> response = new HashMap<>();
+        if (plan.isPresent()) {
+            response.put("success", true);
+            response.put("plan", plan.get());
+        } else {
+            response.put("success", false);
+            response.put("message", "User not found");
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(response);
+    }
+
+    @GetMapping("/history/{mobileNumber}")
+    public ResponseEntity<Map<String, Object>> getHistory(@PathVariable String mobileNumber,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(required = false) Integer size) {
+        log.info("Get reward history request for mobile number: {}", mobileNumber);
+        
+        Map<String, Object> response = new HashMap<>();
+        try {
+            Optional<RewardHistoryService.HistoryPage> page = rewardHistoryService.getHistoryPage(mobileNumber, cursor, size);
+            if (page.isPresent()) {
+                response.put("success", true);
+                response.put("points", page.get().points());
+                response.put("nextCursor", page.get().nextCursor());
+                response.put("hasMore", page.get().hasMore());
+            } else {
+                response.put("success", false);
+                response.put("message", "User not found");
+            }
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    @GetMapping("/history/{mobileNumber}/export")
+    public ResponseEntity<StreamingResponseBody> exportHistory(@PathVariable String mobileNumber,
+                                                               @RequestParam(defaultValue = "ndjson") String format) {
+        log.info("Export reward history request for mobile number: {} ({})", mobileNumber, format);
+        
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        Optional<Long> userId = rewardHistoryService.resolveUserId(mobileNumber);
+        if (userId.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        StreamingResponseBody body = csv
+                ? out -> rewardHistoryService.exportCsv(mobileNumber, userId.get(), out)
+                : out -> rewardHistoryService.exportNdjson(mobileNumber, userId.get(), out);
+        
+        return ResponseEntity.ok()
+                .contentType(csv ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"reward-history." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
+
+    // Strong tag per representation and data version; checked before any card or point query runs
+    private String etag(String representation, String mobileNumber) {
+        return "\"" + representation + "-" + rewardService.getDataVersion(mobileNumber) + "\"";
+    }
+
+    @GetMapping("/health")
+    public ResponseEntity<Map<String, String>> health() {
+        Map<String, String> response = new HashMap<>();
+        response.put("status", "UP");
+        response.put("service", "reward-service");
+        return ResponseEntity.ok(response);
+    }
+}
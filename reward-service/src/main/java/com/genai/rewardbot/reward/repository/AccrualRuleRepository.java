@@ -0,0 +1,78 @@
+package com.genai.rewardbot.reward.repository;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.genai.rewardbot.common.valuation.MoneyJson;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Reads {@code accrual_rules}. Like the catalog, amounts are scaled in SQL (minimum amount to
+ * money minor units, the rule value to 1/10000ths) and read with {@code getLong}. Callers route
+ * to the catalog shard.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AccrualRuleRepository {
+
+    private static final String ACTIVE_RULES_SQL = """
+            SELECT rule_id, rule_type, vendor_code, source, category, ROUND(min_amount * 100),
+                   ROUND(rule_value * 10000), valid_from, valid_to, priority
+            FROM accrual_rules
+            WHERE is_active = ?
+            ORDER BY rule_id
+            """;
+
+    // Deleting, adding or editing any row changes one of the two
+    private static final String SIGNATURE_SQL = "SELECT COUNT(*), MAX(updated_at) FROM accrual_rules";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<AccrualRule> findActiveRules() {
+        return jdbcTemplate.query(ACTIVE_RULES_SQL,
+                (rs, rowNum) -> new AccrualRule(rs.getString(1), AccrualRule.Type.valueOf(rs.getString(2)),
+                        rs.getString(3), rs.getString(4), rs.getString(5), rs.getLong(6), rs.getLong(7),
+                        localDateTime(rs, 8), localDateTime(rs, 9), rs.getInt(10)),
+                true);
+    }
+
+    public String findSignature() {
+        return jdbcTemplate.queryForObject(SIGNATURE_SQL, (rs, rowNum) -> {
+            Timestamp latest = rs.getTimestamp(2);
+            return rs.getLong(1) + "@" + (latest == null ? "" : latest.toInstant());
+        });
+    }
+
+    private static LocalDateTime localDateTime(ResultSet rs, int column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    /**
+     * An active rule; null {@code vendorCode}, {@code source}, {@code category} and window ends
+     * match anything. {@code minAmount} is in money minor units and {@code value} in 1/10000ths
+     * of whatever the type counts.
+     */
+    public record AccrualRule(String ruleId, Type type, String vendorCode, String source, String category,
+                              @JsonSerialize(using = MoneyJson.MoneySerializer.class) long minAmount,
+                              @JsonSerialize(using = MoneyJson.PointValueSerializer.class) long value,
+                              LocalDateTime validFrom, LocalDateTime validTo, int priority) {
+
+        public enum Type {
+            /** Points per currency unit spent. */
+            EARN,
+            /** Multiplier on the earned points. */
+            MULTIPLY,
+            /** Points added per transaction. */
+            BONUS,
+            /** Most points per transaction. */
+            CAP
+        }
+    }
+}
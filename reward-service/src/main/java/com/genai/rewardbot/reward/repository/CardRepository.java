@@ -1,31 +1,70 @@
 package com.genai.rewardbot.reward.repository;
 
+import com.genai.rewardbot.common.config.CacheRegions;
+import com.genai.rewardbot.common.dto.CardDto;
 import com.genai.rewardbot.common.entity.Card;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Card queries keyed by {@code user_id} so they resolve through idx_cards_user_active
+ * without joining {@code users}.
+ */
 @Repository
 public interface CardRepository extends JpaRepository<Card, Long> {
     
-    List<Card> findByUserMobileNumber(String mobileNumber);
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.CARD_QUERIES)
+    })
+    @Query("SELECT c FROM Card c WHERE c.user.id = :userId")
+    List<Card> findByUserId(@Param("userId") Long userId);
     
-    List<Card> findByUserMobileNumberAndIsActive(String mobileNumber, Boolean isActive);
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.CARD_QUERIES)
+    })
+    @Query("SELECT c FROM Card c WHERE c.user.id = :userId AND c.isActive = :isActive")
+    List<Card> findByUserIdAndIsActive(@Param("userId") Long userId, @Param("isActive") Boolean isActive);
+    
+    // Read path for the API: one statement, no entity hydration
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.CARD_QUERIES)
+    })
+    @Query("SELECT new com.genai.rewardbot.common.dto.CardDto(c.id, c.cardNumber, c.cardType, c.vendorName, " +
+           "c.vendorCode, c.cardBalance, c.currency, c.isActive, c.expiryDate, c.cashbackRate) " +
+           "FROM Card c WHERE c.user.id = :userId AND c.isActive = true ORDER BY c.id")
+    List<CardDto> findActiveCardDtosByUserId(@Param("userId") Long userId);
     
     List<Card> findByVendorCode(String vendorCode);
     
     Optional<Card> findByCardNumber(String cardNumber);
     
-    @Query("SELECT c FROM Card c LEFT JOIN FETCH c.rewardPoints rp WHERE c.user.mobileNumber = :mobileNumber AND c.isActive = true")
-    List<Card> findByUserMobileNumberWithRewardPoints(@Param("mobileNumber") String mobileNumber);
+    @EntityGraph(value = Card.GRAPH_REWARD_POINTS)
+    @Query("SELECT c FROM Card c WHERE c.user.id = :userId AND c.isActive = true")
+    List<Card> findByUserIdWithRewardPoints(@Param("userId") Long userId);
     
-    @Query("SELECT COUNT(c) FROM Card c WHERE c.user.mobileNumber = :mobileNumber AND c.isActive = true")
-    long countActiveCardsByMobileNumber(@Param("mobileNumber") String mobileNumber);
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.CARD_QUERIES)
+    })
+    @Query("SELECT COUNT(c) FROM Card c WHERE c.user.id = :userId AND c.isActive = true")
+    long countActiveCardsByUserId(@Param("userId") Long userId);
     
-    @Query("SELECT DISTINCT c.vendorName FROM Card c WHERE c.user.mobileNumber = :mobileNumber AND c.isActive = true")
-    List<String> findDistinctVendorsByMobileNumber(@Param("mobileNumber") String mobileNumber);
-} 
\ No newline at end of file
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.CARD_QUERIES)
+    })
+    @Query("SELECT DISTINCT c.vendorName FROM Card c WHERE c.user.id = :userId AND c.isActive = true")
+    List<String> findDistinctVendorsByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,229 @@
+package com.genai.rewardbot.reward.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Storage for the nightly expiring-points digests ({@code expiry_digests}) and the checkpoints
+ * of the job writing them ({@code batch_checkpoints}). Users are read in keyset order by id, and
+ * a chunk's lots are summed in one statement bounded on {@code expiry_key}, so only the
+ * partitions of the next 30 days are read.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ExpiryDigestRepository {
+
+    private static final String USER_ID_RANGE_SQL = "SELECT NVL(MIN(id), 1), NVL(MAX(id), 0) FROM users";
+
+    private static final String USERS_AFTER_SQL = """
+            SELECT id, mobile_number
+            FROM users
+            WHERE id > ? AND id <= ?
+            ORDER BY id
+            FETCH FIRST ? ROWS ONLY
+            """;
+
+    private static final String EXPIRING_POINTS_SQL = """
+            SELECT c.user_id,
+                   SUM(CASE WHEN rp.expiry_key < ? THEN rp.points_available ELSE 0 END),
+                   SUM(rp.points_available),
+                   COUNT(*),
+                   MIN(rp.expiry_key)
+            FROM reward_points rp
+            JOIN cards c ON c.id = rp.card_id
+            WHERE c.user_id BETWEEN ? AND ?
+              AND rp.is_expired = ? AND rp.points_available > 0
+              AND rp.expiry_key >= ? AND rp.expiry_key < ?
+            GROUP BY c.user_id
+            """;
+
+    private static final String DELETE_DIGESTS_SQL = "DELETE FROM expiry_digests WHERE user_id BETWEEN ? AND ?";
+
+    private static final String INSERT_DIGEST_SQL = """
+            INSERT INTO expiry_digests (user_id, mobile_number, points_7d, points_30d, lots_30d, next_expiry, digest_date, computed_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, SYSTIMESTAMP)
+            """;
+
+    private static final String LOCK_CHECKPOINTS_SQL = """
+            SELECT partition_no, run_date, last_user_id, upper_user_id, users_done, completed
+            FROM batch_checkpoints
+            WHERE job_name = ?
+            ORDER BY partition_no
+            FOR UPDATE
+            """;
+
+    private static final String CHECKPOINT_SQL = """
+            SELECT partition_no, run_date, last_user_id, upper_user_id, users_done, completed
+            FROM batch_checkpoints
+            WHERE job_name = ? AND partition_no = ?
+            """;
+
+    private static final String DELETE_CHECKPOINTS_SQL = "DELETE FROM batch_checkpoints WHERE job_name = ?";
+
+    private static final String INSERT_CHECKPOINT_SQL = """
+            INSERT INTO batch_checkpoints (job_name, partition_no, run_date, last_user_id, upper_user_id)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    // Only moves on from where the caller started, so two instances never both commit the same chunk
+    private static final String ADVANCE_CHECKPOINT_SQL = """
+            UPDATE batch_checkpoints
+            SET last_user_id = ?, users_done = users_done + ?, completed = ?, updated_at = SYSTIMESTAMP
+            WHERE job_name = ? AND partition_no = ? AND run_date = ? AND last_user_id = ? AND completed = 0
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Lowest and highest user id; {@code [1, 0]} when there are no users.
+     */
+    public long[] findUserIdRange() {
+        return jdbcTemplate.queryForObject(USER_ID_RANGE_SQL, (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)});
+    }
+
+    /**
+     * Up to {@code limit} users with {@code afterId < id <= upperId}, in id order.
+     */
+    public List<DigestUser> findUsersAfter(long afterId, long upperId, int limit) {
+        return jdbcTemplate.query(USERS_AFTER_SQL,
+                (rs, rowNum) -> new DigestUser(rs.getLong(1), rs.getString(2)),
+                afterId, upperId, limit);
+    }
+
+    /**
+     * Available points on unswept lots expiring in {@code [from, to)} per user with
+     * {@code firstUserId <= id <= lastUserId}; users without any are absent.
+     */
+    public Map<Long, ExpiringPoints> sumExpiringPoints(long firstUserId, long lastUserId, LocalDateTime from,
+                                                       LocalDateTime soon, LocalDateTime to) {
+        Map<Long, ExpiringPoints> byUser = new HashMap<>();
+        jdbcTemplate.query(EXPIRING_POINTS_SQL, (RowCallbackHandler) rs -> {
+            Timestamp next = rs.getTimestamp(5);
+            byUser.put(rs.getLong(1), new ExpiringPoints(rs.getLong(2), rs.getLong(3), rs.getInt(4),
+                    next == null ? null : next.toLocalDateTime()));
+        }, Timestamp.valueOf(soon), firstUserId, lastUserId, false, Timestamp.valueOf(from), Timestamp.valueOf(to));
+        return byUser;
+    }
+
+    /**
+     * Deletes the digests of users with {@code firstUserId <= id <= lastUserId}, except those
+     * in {@code keep}. Must run in the transaction that writes their replacements.
+     */
+    public int deleteDigests(long firstUserId, long lastUserId, List<Long> keep) {
+        if (keep.isEmpty()) {
+            return jdbcTemplate.update(DELETE_DIGESTS_SQL, firstUserId, lastUserId);
+        }
+        List<Object> args = new ArrayList<>(keep.size() + 2);
+        args.add(firstUserId);
+        args.add(lastUserId);
+        args.addAll(keep);
+        return jdbcTemplate.update(DELETE_DIGESTS_SQL + " AND user_id NOT IN ("
+                + String.join(", ", Collections.nCopies(keep.size(), "?")) + ")", args.toArray());
+    }
+
+    public void insertDigests(List<Digest> digests, LocalDate digestDate) {
+        if (digests.isEmpty()) {
+            return;
+        }
+        Date date = Date.valueOf(digestDate);
+        jdbcTemplate.batchUpdate(INSERT_DIGEST_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Digest digest = digests.get(i);
+                ps.setLong(1, digest.userId());
+                ps.setString(2, digest.mobileNumber());
+                ps.setLong(3, digest.points().points7d());
+                ps.setLong(4, digest.points().points30d());
+                ps.setInt(5, digest.points().lots30d());
+                ps.setTimestamp(6, digest.points().nextExpiry() == null ? null : Timestamp.valueOf(digest.points().nextExpiry()));
+                ps.setDate(7, date);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return digests.size();
+            }
+        });
+    }
+
+    /**
+     * Locks and returns every checkpoint of the job. Must run in a transaction.
+     */
+    public List<Checkpoint> lockCheckpoints(String jobName) {
+        return jdbcTemplate.query(LOCK_CHECKPOINTS_SQL, (rs, rowNum) -> checkpoint(rs), jobName);
+    }
+
+    public Checkpoint findCheckpoint(String jobName, int partition) {
+        List<Checkpoint> checkpoints = jdbcTemplate.query(CHECKPOINT_SQL, (rs, rowNum) -> checkpoint(rs), jobName, partition);
+        return checkpoints.isEmpty() ? null : checkpoints.get(0);
+    }
+
+    /**
+     * Replaces the job's checkpoints with a fresh plan for {@code runDate}; {@code bounds[i]} holds
+     * partition i's {@code (last_user_id, upper_user_id]}. Must run in a transaction.
+     */
+    public void replaceCheckpoints(String jobName, LocalDate runDate, List<long[]> bounds) {
+        jdbcTemplate.update(DELETE_CHECKPOINTS_SQL, jobName);
+        Date date = Date.valueOf(runDate);
+        jdbcTemplate.batchUpdate(INSERT_CHECKPOINT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setString(1, jobName);
+                ps.setInt(2, i);
+                ps.setDate(3, date);
+                ps.setLong(4, bounds.get(i)[0]);
+                ps.setLong(5, bounds.get(i)[1]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return bounds.size();
+            }
+        });
+    }
+
+    /**
+     * Moves a checkpoint from {@code fromUserId} to {@code toUserId}.
+     *
+     * @return false if it is no longer at {@code fromUserId}, i.e. another instance got there first
+     */
+    public boolean advanceCheckpoint(String jobName, int partition, LocalDate runDate, long fromUserId,
+                                     long toUserId, int users, boolean completed) {
+        return jdbcTemplate.update(ADVANCE_CHECKPOINT_SQL, toUserId, users, completed, jobName, partition,
+                Date.valueOf(runDate), fromUserId) == 1;
+    }
+
+    private static Checkpoint checkpoint(ResultSet rs) throws SQLException {
+        return new Checkpoint(rs.getInt(1), rs.getDate(2).toLocalDate(), rs.getLong(3), rs.getLong(4),
+                rs.getLong(5), rs.getBoolean(6));
+    }
+
+    public record DigestUser(long userId, String mobileNumber) {
+    }
+
+    public record ExpiringPoints(long points7d, long points30d, int lots30d, LocalDateTime nextExpiry) {
+    }
+
+    public record Digest(long userId, String mobileNumber, ExpiringPoints points) {
+    }
+
+    public record Checkpoint(int partition, LocalDate runDate, long lastUserId, long upperUserId,
+                             long usersDone, boolean completed) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.genai.rewardbot.reward.repository;
+
+import com.genai.rewardbot.common.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Outbox reads for the relay and feed replay; both walk idx_outbox_events_published.
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query("SELECT e FROM OutboxEvent e WHERE e.publishedSeq IS NULL ORDER BY e.id")
+    List<OutboxEvent> findUnpublished(Pageable pageable);
+
+    @Query("SELECT e FROM OutboxEvent e WHERE e.publishedSeq > :seq ORDER BY e.publishedSeq")
+    List<OutboxEvent> findPublishedAfter(@Param("seq") long seq, Pageable pageable);
+
+    @Query("SELECT MAX(e.publishedSeq) FROM OutboxEvent e")
+    Long findMaxPublishedSeq();
+
+    @Query("SELECT MIN(e.publishedSeq) FROM OutboxEvent e")
+    Long findMinPublishedSeq();
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
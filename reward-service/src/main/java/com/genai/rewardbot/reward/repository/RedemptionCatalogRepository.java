@@ -0,0 +1,56 @@
+package com.genai.rewardbot.reward.repository;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.genai.rewardbot.common.valuation.MoneyJson;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Reads {@code redemption_catalog}. Amounts are scaled in SQL (value to money minor units,
+ * the bonus to basis points) and read with {@code getLong}, like the lot valuation queries.
+ * Callers route to the catalog shard.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RedemptionCatalogRepository {
+
+    private static final String ACTIVE_ITEMS_SQL = """
+            SELECT code, name, category, vendor_code, point_cost,
+                   ROUND(value_amount * 100), ROUND(bonus_multiplier * 10000)
+            FROM redemption_catalog
+            WHERE is_active = ?
+            ORDER BY code
+            """;
+
+    // Deleting, adding or editing any row changes one of the two
+    private static final String SIGNATURE_SQL = "SELECT COUNT(*), MAX(updated_at) FROM redemption_catalog";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<CatalogItem> findActiveItems() {
+        return jdbcTemplate.query(ACTIVE_ITEMS_SQL,
+                (rs, rowNum) -> new CatalogItem(rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                        rs.getLong(5), rs.getLong(6), rs.getLong(7)),
+                true);
+    }
+
+    public String findSignature() {
+        return jdbcTemplate.queryForObject(SIGNATURE_SQL, (rs, rowNum) -> {
+            Timestamp latest = rs.getTimestamp(2);
+            return rs.getLong(1) + "@" + (latest == null ? "" : latest.toInstant());
+        });
+    }
+
+    /**
+     * An active item; {@code vendorCode} is null for items any card's points can pay for.
+     * {@code value} is in money minor units, before the bonus.
+     */
+    public record CatalogItem(String code, String name, String category, String vendorCode, long pointCost,
+                              @JsonSerialize(using = MoneyJson.MoneySerializer.class) long value,
+                              long bonusBasisPoints) {
+    }
+}
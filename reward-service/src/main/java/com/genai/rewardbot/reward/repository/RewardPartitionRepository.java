@@ -0,0 +1,150 @@
+package com.genai.rewardbot.reward.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Expiry sweeps and partition maintenance for {@code reward_points}, which is interval
+ * partitioned by expiry month on {@code expiry_key} (see the V2 migration). Every lot statement
+ * here bounds {@code expiry_key} to a window, so only the partitions of those months are read.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RewardPartitionRepository {
+
+    private static final String USERS_WITH_EXPIRED_LOTS_SQL = """
+            SELECT DISTINCT c.user_id, u.mobile_number
+            FROM reward_points rp
+            JOIN cards c ON c.id = rp.card_id
+            JOIN users u ON u.id = c.user_id
+            WHERE rp.is_expired = ? AND rp.expiry_key >= ? AND rp.expiry_key < ?
+            ORDER BY c.user_id
+            """;
+
+    // One probe of idx_reward_points_unswept per partition below the bound
+    private static final String OLDEST_UNSWEPT_SQL = """
+            SELECT MIN(expiry_key) FROM reward_points WHERE is_expired = ? AND expiry_key < ?
+            """;
+
+    private static final String LOCK_EXPIRED_LOTS_SQL = """
+            SELECT rp.card_id, rp.points_available
+            FROM reward_points rp
+            WHERE rp.card_id IN (SELECT c.id FROM cards c WHERE c.user_id = ?)
+              AND rp.is_expired = ? AND rp.expiry_key >= ? AND rp.expiry_key < ?
+            FOR UPDATE
+            """;
+
+    // updated_at is left alone: rollup rebuilds bucket redeemed points by it
+    private static final String MARK_EXPIRED_SQL = """
+            UPDATE reward_points SET is_expired = ?
+            WHERE card_id IN (SELECT c.id FROM cards c WHERE c.user_id = ?)
+              AND is_expired = ? AND expiry_key >= ? AND expiry_key < ?
+            """;
+
+    // Only interval partitions: the range section (p_before_2000) cannot be dropped
+    private static final String INTERVAL_PARTITIONS_SQL = """
+            SELECT partition_name, high_value
+            FROM user_tab_partitions
+            WHERE table_name = 'REWARD_POINTS' AND interval = 'YES'
+            ORDER BY partition_position
+            """;
+
+    private static final Pattern HIGH_VALUE_DATE = Pattern.compile("(\\d{4})-(\\d{2})-(\\d{2})");
+    private static final Pattern PARTITION_NAME = Pattern.compile("[A-Z][A-Z0-9_$#]{0,127}");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Users owning unswept lots with {@code from <= expiry < to}, in user id order.
+     */
+    public List<ExpiredUser> findUsersWithExpiredLots(LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(USERS_WITH_EXPIRED_LOTS_SQL,
+                (rs, rowNum) -> new ExpiredUser(rs.getLong(1), rs.getString(2)),
+                false, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    /**
+     * Expiry of the oldest unswept lot that expires before {@code to}, if any.
+     */
+    public Optional<LocalDateTime> findOldestUnsweptExpiry(LocalDateTime to) {
+        Timestamp oldest = jdbcTemplate.queryForObject(OLDEST_UNSWEPT_SQL, Timestamp.class, false, Timestamp.valueOf(to));
+        return Optional.ofNullable(oldest).map(Timestamp::toLocalDateTime);
+    }
+
+    /**
+     * Locks the user's unswept lots in the window and marks them expired. Must run in a
+     * transaction; returns the available points that expired per card.
+     */
+    public Map<Long, Integer> expireUserLots(Long userId, LocalDateTime from, LocalDateTime to) {
+        Timestamp lower = Timestamp.valueOf(from);
+        Timestamp upper = Timestamp.valueOf(to);
+        Map<Long, Integer> pointsByCard = new TreeMap<>();
+        jdbcTemplate.query(LOCK_EXPIRED_LOTS_SQL,
+                (RowCallbackHandler) rs -> pointsByCard.merge(rs.getLong(1), rs.getInt(2), Integer::sum),
+                userId, false, lower, upper);
+        if (!pointsByCard.isEmpty()) {
+            jdbcTemplate.update(MARK_EXPIRED_SQL, true, userId, false, lower, upper);
+        }
+        return pointsByCard;
+    }
+
+    /**
+     * Monthly partitions in expiry order, each with the first month it no longer holds.
+     */
+    public List<ExpiryPartition> findExpiryPartitions() {
+        List<ExpiryPartition> partitions = new ArrayList<>();
+        // high_value is a LONG holding the bound as a literal, e.g. TIMESTAMP' 2024-02-01 00:00:00'
+        jdbcTemplate.query(INTERVAL_PARTITIONS_SQL, (RowCallbackHandler) rs -> {
+            String name = rs.getString(1);
+            Matcher bound = HIGH_VALUE_DATE.matcher(rs.getString(2));
+            if (PARTITION_NAME.matcher(name).matches() && bound.find()) {
+                LocalDate upper = LocalDate.of(Integer.parseInt(bound.group(1)),
+                        Integer.parseInt(bound.group(2)), Integer.parseInt(bound.group(3)));
+                partitions.add(new ExpiryPartition(name, YearMonth.from(upper)));
+            }
+        });
+        return partitions;
+    }
+
+    /**
+     * Swaps the partition's rows into a new table {@code archiveTable} (a dictionary operation,
+     * no rows are copied) and drops the then empty partition.
+     */
+    public void archivePartition(ExpiryPartition partition, String archiveTable) {
+        jdbcTemplate.execute("CREATE TABLE " + archiveTable + " FOR EXCHANGE WITH TABLE reward_points");
+        jdbcTemplate.execute("ALTER TABLE reward_points EXCHANGE PARTITION " + partition.name()
+                + " WITH TABLE " + archiveTable + " WITHOUT VALIDATION UPDATE GLOBAL INDEXES");
+        dropPartition(partition);
+    }
+
+    public void dropPartition(ExpiryPartition partition) {
+        jdbcTemplate.execute("ALTER TABLE reward_points DROP PARTITION " + partition.name() + " UPDATE GLOBAL INDEXES");
+    }
+
+    public record ExpiredUser(Long userId, String mobileNumber) {
+    }
+
+    /**
+     * @param upperBound first month past the partition, i.e. every lot in it expires before this month
+     */
+    public record ExpiryPartition(String name, YearMonth upperBound) {
+
+        public YearMonth month() {
+            return upperBound.minusMonths(1);
+        }
+    }
+}
@@ -1,36 +1,94 @@
 package com.genai.rewardbot.reward.repository;
 
+import com.genai.rewardbot.common.config.CacheRegions;
+import com.genai.rewardbot.common.dto.RewardPointDto;
 import com.genai.rewardbot.common.entity.RewardPoint;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
+/**
+ * Reward lot queries keyed by user id. {@code rp.card.user.id} resolves to {@code cards.user_id},
+ * so each query joins {@code cards} only and drives {@code reward_points} through its
+ * {@code card_id} composite indexes.
+ */
 @Repository
 public interface RewardPointRepository extends JpaRepository<RewardPoint, Long> {
     
-    List<RewardPoint> findByCardUserMobileNumber(String mobileNumber);
+    String EXPORT_FETCH_SIZE = "500";
     
-    List<RewardPoint> findByCardUserMobileNumberAndIsExpired(String mobileNumber, Boolean isExpired);
+    @Query("SELECT rp FROM RewardPoint rp WHERE rp.card.user.id = :userId")
+    List<RewardPoint> findByUserId(@Param("userId") Long userId);
     
-    @Query("SELECT rp FROM RewardPoint rp WHERE rp.card.user.mobileNumber = :mobileNumber AND rp.pointsAvailable > 0 ORDER BY rp.expiryDate ASC")
-    List<RewardPoint> findAvailablePointsByMobileNumber(@Param("mobileNumber") String mobileNumber);
+    // Read path for the API: one statement, no entity hydration
+    @Query("SELECT new com.genai.rewardbot.common.dto.RewardPointDto(rp.id, rp.pointsEarned, rp.pointsUsed, " +
+           "rp.pointsAvailable, rp.earningDate, rp.expiryDate, rp.source, rp.description, rp.transactionId, " +
+           "rp.pointValue) FROM RewardPoint rp WHERE rp.card.user.id = :userId ORDER BY rp.earningDate DESC, rp.id DESC")
+    List<RewardPointDto> findRewardPointDtosByUserId(@Param("userId") Long userId);
     
-    @Query("SELECT rp FROM RewardPoint rp WHERE rp.card.user.mobileNumber = :mobileNumber AND rp.expiryDate BETWEEN :startDate AND :endDate")
-    List<RewardPoint> findExpiringPointsByMobileNumber(@Param("mobileNumber") String mobileNumber, 
-                                                       @Param("startDate") LocalDateTime startDate, 
-                                                       @Param("endDate") LocalDateTime endDate);
+    // Reward history is ordered by (earning_date DESC, id DESC) and paged by seeking past the last row,
+    // so every page costs the same regardless of how deep the caller is in the history
+    @Query("SELECT new com.genai.rewardbot.common.dto.RewardPointDto(rp.id, rp.pointsEarned, rp.pointsUsed, " +
+           "rp.pointsAvailable, rp.earningDate, rp.expiryDate, rp.source, rp.description, rp.transactionId, " +
+           "rp.pointValue) FROM RewardPoint rp WHERE rp.card.user.id = :userId ORDER BY rp.earningDate DESC, rp.id DESC")
+    List<RewardPointDto> findHistoryFirstPage(@Param("userId") Long userId, Pageable pageable);
     
-    @Query("SELECT SUM(rp.pointsAvailable) FROM RewardPoint rp WHERE rp.card.user.mobileNumber = :mobileNumber AND rp.isExpired = false")
-    Integer getTotalAvailablePointsByMobileNumber(@Param("mobileNumber") String mobileNumber);
+    @Query("SELECT new com.genai.rewardbot.common.dto.RewardPointDto(rp.id, rp.pointsEarned, rp.pointsUsed, " +
+           "rp.pointsAvailable, rp.earningDate, rp.expiryDate, rp.source, rp.description, rp.transactionId, " +
+           "rp.pointValue) FROM RewardPoint rp WHERE rp.card.user.id = :userId " +
+           "AND (rp.earningDate < :earningDate OR (rp.earningDate = :earningDate AND rp.id < :id)) " +
+           "ORDER BY rp.earningDate DESC, rp.id DESC")
+    List<RewardPointDto> findHistoryPageAfter(@Param("userId") Long userId,
+                                              @Param("earningDate") LocalDateTime earningDate,
+                                              @Param("id") Long id,
+                                              Pageable pageable);
+    
+    // Forward-only cursor for exports; must be consumed inside a transaction and closed by the caller
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.genai.rewardbot.common.dto.RewardPointDto(rp.id, rp.pointsEarned, rp.pointsUsed, " +
+           "rp.pointsAvailable, rp.earningDate, rp.expiryDate, rp.source, rp.description, rp.transactionId, " +
+           "rp.pointValue) FROM RewardPoint rp WHERE rp.card.user.id = :userId ORDER BY rp.earningDate DESC, rp.id DESC")
+    Stream<RewardPointDto> streamHistoryByUserId(@Param("userId") Long userId);
+    
+    @Query("SELECT rp FROM RewardPoint rp WHERE rp.card.user.id = :userId AND rp.isExpired = :isExpired")
+    List<RewardPoint> findByUserIdAndIsExpired(@Param("userId") Long userId, @Param("isExpired") Boolean isExpired);
+    
+    @Query("SELECT rp FROM RewardPoint rp WHERE rp.card.user.id = :userId AND rp.pointsAvailable > 0 ORDER BY rp.expiryDate ASC")
+    List<RewardPoint> findAvailablePointsByUserId(@Param("userId") Long userId);
+    
+    // On expiryKey (the partition key) so only the window's months are read
+    @Query("SELECT rp FROM RewardPoint rp WHERE rp.card.user.id = :userId AND rp.isExpired = false AND rp.expiryKey BETWEEN :startDate AND :endDate")
+    List<RewardPoint> findExpiringPointsByUserId(@Param("userId") Long userId, 
+                                                 @Param("startDate") LocalDateTime startDate, 
+                                                 @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT SUM(rp.pointsAvailable) FROM RewardPoint rp WHERE rp.card.user.id = :userId AND rp.isExpired = false")
+    Integer getTotalAvailablePointsByUserId(@Param("userId") Long userId);
     
     @Query("SELECT SUM(rp.pointsAvailable) FROM RewardPoint rp WHERE rp.card.id = :cardId AND rp.isExpired = false")
     Integer getTotalAvailablePointsByCard(@Param("cardId") Long cardId);
     
-    @Query("SELECT rp FROM RewardPoint rp WHERE rp.card.vendorCode = :vendorCode AND rp.card.user.mobileNumber = :mobileNumber AND rp.pointsAvailable > 0")
-    List<RewardPoint> findAvailablePointsByVendorAndMobileNumber(@Param("vendorCode") String vendorCode, 
-                                                                 @Param("mobileNumber") String mobileNumber);
-} 
\ No newline at end of file
+    // Per-card totals in one round trip; cached results are dropped whenever reward_points is written
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.REWARD_TOTAL_QUERIES)
+    })
+    @Query("SELECT rp.card.id, SUM(rp.pointsAvailable) FROM RewardPoint rp WHERE rp.card.user.id = :userId AND rp.isExpired = false GROUP BY rp.card.id")
+    List<Object[]> getTotalAvailablePointsPerCardByUserId(@Param("userId") Long userId);
+    
+    @Query("SELECT rp FROM RewardPoint rp WHERE rp.card.user.id = :userId AND rp.card.vendorCode = :vendorCode AND rp.pointsAvailable > 0")
+    List<RewardPoint> findAvailablePointsByVendorAndUserId(@Param("vendorCode") String vendorCode, 
+                                                           @Param("userId") Long userId);
+}
@@ -0,0 +1,132 @@
+package com.genai.rewardbot.reward.repository;
+
+import com.genai.rewardbot.common.entity.RewardRollup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Set-based access to {@code reward_rollups}. Incremental updates add deltas with a batched
+ * MERGE; rebuilds replace one user partition ({@code MOD(user_id, partitions)}) with a single
+ * aggregate INSERT ... SELECT over its lots.
+ *
+ * <p>Redemptions carry no date of their own, so a rebuild buckets a lot's used points by the
+ * month of its last update, which is the month the incremental path recorded them in.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RewardRollupRepository {
+
+    // The binds are cast to the columns' types, as a database may not infer a type for a bare bind in a select list
+    private static final String MERGE_DELTA_SQL = """
+            MERGE INTO reward_rollups r
+            USING (SELECT CAST(? AS NUMBER(19)) AS user_id, CAST(? AS NUMBER(6)) AS bucket_month,
+                          CAST(? AS VARCHAR2(100)) AS source, CAST(? AS VARCHAR2(10)) AS vendor_code,
+                          CAST(? AS NUMBER(19)) AS points_earned, CAST(? AS NUMBER(19)) AS points_redeemed,
+                          CAST(? AS NUMBER(10)) AS lots_earned FROM dual) d
+            ON (r.user_id = d.user_id AND r.bucket_month = d.bucket_month
+                AND r.source = d.source AND r.vendor_code = d.vendor_code)
+            WHEN MATCHED THEN UPDATE SET
+                r.points_earned = r.points_earned + d.points_earned,
+                r.points_redeemed = r.points_redeemed + d.points_redeemed,
+                r.lots_earned = r.lots_earned + d.lots_earned
+            WHEN NOT MATCHED THEN
+                INSERT (user_id, bucket_month, source, vendor_code, points_earned, points_redeemed, lots_earned)
+                VALUES (d.user_id, d.bucket_month, d.source, d.vendor_code, d.points_earned, d.points_redeemed, d.lots_earned)
+            """;
+
+    private static final String USER_ROLLUPS_SQL = """
+            SELECT bucket_month, source, vendor_code, points_earned, points_redeemed, lots_earned
+            FROM reward_rollups
+            WHERE user_id = ?
+            """;
+
+    // Holds off incremental writers for the partition: they lock their version row before touching rollups
+    private static final String LOCK_PARTITION_SQL = """
+            SELECT v.data_version
+            FROM user_data_versions v
+            JOIN users u ON u.mobile_number = v.mobile_number
+            WHERE MOD(u.id, ?) = ?
+            FOR UPDATE OF v.data_version
+            """;
+
+    private static final String DELETE_PARTITION_SQL = "DELETE FROM reward_rollups WHERE MOD(user_id, ?) = ?";
+
+    private static final String REBUILD_PARTITION_SQL = """
+            INSERT INTO reward_rollups (user_id, bucket_month, source, vendor_code, points_earned, points_redeemed, lots_earned)
+            SELECT user_id, bucket_month, source, vendor_code, SUM(earned), SUM(redeemed), SUM(lots)
+            FROM (
+                SELECT c.user_id, TO_NUMBER(TO_CHAR(rp.earning_date, 'YYYYMM')) AS bucket_month,
+                       NVL(rp.source, 'UNKNOWN') AS source, NVL(c.vendor_code, 'UNKNOWN') AS vendor_code,
+                       rp.points_earned AS earned, 0 AS redeemed, 1 AS lots
+                FROM reward_points rp
+                JOIN cards c ON c.id = rp.card_id
+                WHERE MOD(c.user_id, ?) = ?
+                UNION ALL
+                SELECT c.user_id, TO_NUMBER(TO_CHAR(NVL(rp.updated_at, rp.earning_date), 'YYYYMM')),
+                       NVL(rp.source, 'UNKNOWN'), NVL(c.vendor_code, 'UNKNOWN'),
+                       0, rp.points_used, 0
+                FROM reward_points rp
+                JOIN cards c ON c.id = rp.card_id
+                WHERE MOD(c.user_id, ?) = ? AND rp.points_used > 0
+            )
+            GROUP BY user_id, bucket_month, source, vendor_code
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds each delta to its bucket, creating missing buckets, in one JDBC batch.
+     */
+    public void mergeDeltas(List<RollupDelta> deltas) {
+        jdbcTemplate.batchUpdate(MERGE_DELTA_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                RollupDelta delta = deltas.get(i);
+                ps.setLong(1, delta.key().getUserId());
+                ps.setInt(2, delta.key().getBucketMonth());
+                ps.setString(3, delta.key().getSource());
+                ps.setString(4, delta.key().getVendorCode());
+                ps.setLong(5, delta.pointsEarned());
+                ps.setLong(6, delta.pointsRedeemed());
+                ps.setInt(7, delta.lotsEarned());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return deltas.size();
+            }
+        });
+    }
+
+    public void forEachUserRollup(Long userId, RollupConsumer consumer) {
+        jdbcTemplate.query(USER_ROLLUPS_SQL,
+                (RowCallbackHandler) rs -> consumer.accept(rs.getInt(1), rs.getString(2), rs.getString(3),
+                        rs.getLong(4), rs.getLong(5), rs.getInt(6)),
+                userId);
+    }
+
+    /**
+     * Replaces the rollups of every user with {@code MOD(user_id, partitions) = partition}.
+     * Must run in a transaction; returns the number of buckets written.
+     */
+    public int rebuildPartition(int partitions, int partition) {
+        jdbcTemplate.query(LOCK_PARTITION_SQL, (RowCallbackHandler) rs -> { }, partitions, partition);
+        jdbcTemplate.update(DELETE_PARTITION_SQL, partitions, partition);
+        return jdbcTemplate.update(REBUILD_PARTITION_SQL, partitions, partition, partitions, partition);
+    }
+
+    public record RollupDelta(RewardRollup.Key key, long pointsEarned, long pointsRedeemed, int lotsEarned) {
+    }
+
+    @FunctionalInterface
+    public interface RollupConsumer {
+        void accept(int bucketMonth, String source, String vendorCode, long pointsEarned, long pointsRedeemed, int lotsEarned);
+    }
+}
@@ -0,0 +1,67 @@
+package com.genai.rewardbot.reward.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Row-at-a-time access to available reward lots for valuation. Point values are scaled to
+ * {@code PointValue} units in SQL and read with {@code getLong}, so no BigDecimal, boxed number
+ * or entity is created per lot.
+ *
+ * <p>Lots are bounded by {@code expiry_key >= now}: months that have fully expired are pruned,
+ * and lots past expiry are left out even before the expiry sweep marks them. A lot only counts
+ * as expiring soon if its expiry is between now and the cut-off, whatever the partition key says.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RewardValuationRepository {
+
+    private static final String AVAILABLE_LOTS_SQL = """
+            SELECT rp.card_id, rp.points_available, ROUND(rp.point_value * 10000),
+                   CASE WHEN rp.expiry_date >= ? AND rp.expiry_date < ? THEN 1 ELSE 0 END
+            FROM reward_points rp
+            JOIN cards c ON c.id = rp.card_id
+            WHERE c.user_id = ? AND c.is_active = ? AND rp.is_expired = ? AND rp.points_available > 0
+              AND rp.expiry_key >= ?
+            """;
+
+    // Expiry as an epoch day (-1 for none) so it is read with getLong like everything else
+    private static final String AVAILABLE_LOTS_WITH_EXPIRY_SQL = """
+            SELECT rp.card_id, rp.points_available, ROUND(rp.point_value * 10000),
+                   NVL(TRUNC(rp.expiry_date) - DATE '1970-01-01', -1)
+            FROM reward_points rp
+            JOIN cards c ON c.id = rp.card_id
+            WHERE c.user_id = ? AND c.is_active = ? AND rp.is_expired = ? AND rp.points_available > 0
+              AND rp.expiry_key >= ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void forEachAvailableLot(Long userId, LocalDateTime expiringBefore, LotConsumer consumer) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.query(AVAILABLE_LOTS_SQL,
+                (RowCallbackHandler) rs -> consumer.accept(rs.getLong(1), rs.getInt(2), rs.getLong(3), rs.getInt(4) == 1),
+                now, Timestamp.valueOf(expiringBefore), userId, true, false, now);
+    }
+
+    public void forEachAvailableLotWithExpiry(Long userId, DatedLotConsumer consumer) {
+        jdbcTemplate.query(AVAILABLE_LOTS_WITH_EXPIRY_SQL,
+                (RowCallbackHandler) rs -> consumer.accept(rs.getLong(1), rs.getInt(2), rs.getLong(3), rs.getLong(4)),
+                userId, true, false, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    @FunctionalInterface
+    public interface DatedLotConsumer {
+        void accept(long cardId, int pointsAvailable, long pointValueUnits, long expiryEpochDay);
+    }
+
+    @FunctionalInterface
+    public interface LotConsumer {
+        void accept(long cardId, int pointsAvailable, long pointValueUnits, boolean expiringSoon);
+    }
+}
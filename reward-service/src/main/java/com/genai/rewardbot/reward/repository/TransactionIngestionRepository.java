@@ -0,0 +1,191 @@
+package com.genai.rewardbot.reward.repository;
+
+import com.genai.rewardbot.common.valuation.PointValue;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Storage side of the transaction feed ingestion: the active cards for the in-memory card
+ * index, transaction ids already turned into lots, batched lot inserts, and the per-file
+ * checkpoints in {@code ingestion_files}. Card, lot and key queries run on whichever shard the
+ * caller routed to; checkpoints belong on the catalog shard.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionIngestionRepository {
+
+    private static final String ACTIVE_CARDS_SQL = """
+            SELECT c.card_number, c.id, c.vendor_code, c.vendor_name, c.user_id, u.mobile_number
+            FROM cards c
+            JOIN users u ON u.id = c.user_id
+            WHERE c.is_active = ?
+            """;
+
+    private static final String CARD_SQL = ACTIVE_CARDS_SQL + " AND c.card_number = ?";
+
+    // Earning dates carry the transaction time, so the window prunes on the earning_date index
+    private static final String RECENT_KEYS_SQL = """
+            SELECT card_id, transaction_id
+            FROM reward_points
+            WHERE earning_date >= ?
+            """;
+
+    private static final String INSERT_LOT_SQL = """
+            INSERT INTO reward_points (id, points_earned, points_used, points_available, earning_date, expiry_date,
+                                       source, description, transaction_id, is_expired, point_value, created_at,
+                                       updated_at, card_id)
+            VALUES (reward_sequence.NEXTVAL, ?, 0, ?, ?, ?, ?, ?, ?, 0, ?, SYSTIMESTAMP, SYSTIMESTAMP, ?)
+            """;
+
+    private static final String FILE_SQL = """
+            SELECT records_done, lots_created, duplicates, rejected, completed
+            FROM ingestion_files
+            WHERE file_name = ?
+            """;
+
+    private static final String INSERT_FILE_SQL = "INSERT INTO ingestion_files (file_name) VALUES (?)";
+
+    // Only moves on from where the caller started, so two instances never both advance past the same records
+    private static final String ADVANCE_FILE_SQL = """
+            UPDATE ingestion_files
+            SET records_done = ?, lots_created = lots_created + ?, duplicates = duplicates + ?,
+                rejected = rejected + ?, completed = ?, updated_at = SYSTIMESTAMP
+            WHERE file_name = ? AND records_done = ? AND completed = 0
+            """;
+
+    private static final String COMPLETED_FILES_SQL = "SELECT file_name FROM ingestion_files WHERE completed = 1";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Streams every active card with its number.
+     */
+    public void forEachActiveCard(BiConsumer<String, CardRef> action) {
+        jdbcTemplate.query(ACTIVE_CARDS_SQL, (RowCallbackHandler) rs -> action.accept(rs.getString(1), cardRef(rs)), true);
+    }
+
+    public CardRef findActiveCard(String cardNumber) {
+        List<CardRef> cards = jdbcTemplate.query(CARD_SQL, (rs, rowNum) -> cardRef(rs), true, cardNumber);
+        return cards.isEmpty() ? null : cards.get(0);
+    }
+
+    /**
+     * Streams the {@code (card_id, transaction_id)} of lots earned since {@code since}.
+     */
+    public void forEachRecentKey(LocalDateTime since, BiConsumer<Long, String> action) {
+        jdbcTemplate.query(RECENT_KEYS_SQL, (RowCallbackHandler) rs -> action.accept(rs.getLong(1), rs.getString(2)),
+                Timestamp.valueOf(since));
+    }
+
+    /**
+     * The keys among {@code keys} that already have a lot, as {@code cardId + ":" + transactionId}.
+     * At most 1000 keys per call.
+     */
+    public Set<String> findExistingKeys(Collection<LotKey> keys) {
+        Set<String> existing = new HashSet<>();
+        if (keys.isEmpty()) {
+            return existing;
+        }
+        List<Object> args = new ArrayList<>(keys.size() * 2);
+        StringBuilder sql = new StringBuilder("SELECT card_id, transaction_id FROM reward_points WHERE (card_id, transaction_id) IN (");
+        for (LotKey key : keys) {
+            sql.append(args.isEmpty() ? "(?, ?)" : ", (?, ?)");
+            args.add(key.cardId());
+            args.add(key.transactionId());
+        }
+        sql.append(')');
+        jdbcTemplate.query(sql.toString(), (RowCallbackHandler) rs -> existing.add(rs.getLong(1) + ":" + rs.getString(2)),
+                args.toArray());
+        return existing;
+    }
+
+    public void insertLots(List<NewLot> lots) {
+        if (lots.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_LOT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                NewLot lot = lots.get(i);
+                ps.setInt(1, lot.points());
+                ps.setInt(2, lot.points());
+                ps.setTimestamp(3, Timestamp.valueOf(lot.earningDate()));
+                ps.setTimestamp(4, lot.expiryDate() == null ? null : Timestamp.valueOf(lot.expiryDate()));
+                ps.setString(5, lot.source());
+                ps.setString(6, lot.description());
+                ps.setString(7, lot.key().transactionId());
+                ps.setBigDecimal(8, PointValue.toBigDecimal(lot.pointValueUnits()));
+                ps.setLong(9, lot.key().cardId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return lots.size();
+            }
+        });
+    }
+
+    public FileProgress findFile(String fileName) {
+        List<FileProgress> files = jdbcTemplate.query(FILE_SQL,
+                (rs, rowNum) -> new FileProgress(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4),
+                        rs.getBoolean(5)),
+                fileName);
+        return files.isEmpty() ? null : files.get(0);
+    }
+
+    public void insertFile(String fileName) {
+        jdbcTemplate.update(INSERT_FILE_SQL, fileName);
+    }
+
+    /**
+     * Moves the file's checkpoint from {@code fromRecords} to {@code toRecords}.
+     *
+     * @return false if it is no longer at {@code fromRecords}, i.e. another instance got there first
+     */
+    public boolean advanceFile(String fileName, long fromRecords, long toRecords, long lots, long duplicates,
+                               long rejected, boolean completed) {
+        return jdbcTemplate.update(ADVANCE_FILE_SQL, toRecords, lots, duplicates, rejected, completed, fileName,
+                fromRecords) == 1;
+    }
+
+    public Set<String> findCompletedFiles() {
+        return new HashSet<>(jdbcTemplate.queryForList(COMPLETED_FILES_SQL, String.class));
+    }
+
+    private static CardRef cardRef(ResultSet rs) throws SQLException {
+        return new CardRef(rs.getLong(2), rs.getString(3), rs.getString(4), rs.getLong(5), rs.getString(6));
+    }
+
+    public record CardRef(long cardId, String vendorCode, String vendorName, long userId, String mobileNumber) {
+    }
+
+    public record LotKey(long cardId, String transactionId) {
+
+        @Override
+        public String toString() {
+            return cardId + ":" + transactionId;
+        }
+    }
+
+    public record NewLot(LotKey key, int points, LocalDateTime earningDate, LocalDateTime expiryDate, String source,
+                         String description, long pointValueUnits) {
+    }
+
+    public record FileProgress(long recordsDone, long lotsCreated, long duplicates, long rejected, boolean completed) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.genai.rewardbot.reward.repository;
+
+import com.genai.rewardbot.common.entity.UserDataVersion;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Reads go through {@code findById} and the second-level cache; bumps lock the row so
+ * concurrent writers for one user serialise instead of losing an increment.
+ */
+@Repository
+public interface UserDataVersionRepository extends JpaRepository<UserDataVersion, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM UserDataVersion v WHERE v.mobileNumber = :mobileNumber")
+    Optional<UserDataVersion> findForUpdate(@Param("mobileNumber") String mobileNumber);
+}
@@ -0,0 +1,38 @@
+package com.genai.rewardbot.reward.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Creates {@code user_data_versions} rows in plain SQL, so a writer can lock its user's row
+ * with {@link UserDataVersionRepository#findForUpdate} whether or not it is the first.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserDataVersionWriteRepository {
+
+    // The bind is cast to the column's type, as a database may not infer a type for a bare bind in a select list
+    private static final String INSERT_IF_ABSENT_SQL = """
+            MERGE INTO user_data_versions v
+            USING (SELECT CAST(? AS VARCHAR2(15)) AS mobile_number FROM dual) d
+            ON (v.mobile_number = d.mobile_number)
+            WHEN NOT MATCHED THEN INSERT (mobile_number, data_version) VALUES (d.mobile_number, 0)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the user's row at version 0 unless it exists. A concurrent first writer inserting
+     * the same row between the MERGE's match and its insert makes this wait for that writer to
+     * commit and then fail on the key; the row exists either way, so that failure is swallowed.
+     */
+    public void insertIfAbsent(String mobileNumber) {
+        try {
+            jdbcTemplate.update(INSERT_IF_ABSENT_SQL, mobileNumber);
+        } catch (DuplicateKeyException e) {
+            // Inserted by the concurrent writer
+        }
+    }
+}
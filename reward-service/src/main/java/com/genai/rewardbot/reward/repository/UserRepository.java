@@ -0,0 +1,25 @@
+package com.genai.rewardbot.reward.repository;
+
+import com.genai.rewardbot.common.config.CacheRegions;
+import com.genai.rewardbot.common.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UserRepository extends JpaRepository<User, Long> {
+    
+    // Resolved once per request; all card and reward queries are then keyed by user id
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.USER_QUERIES)
+    })
+    @Query("SELECT u.id FROM User u WHERE u.mobileNumber = :mobileNumber")
+    Optional<Long> findIdByMobileNumber(@Param("mobileNumber") String mobileNumber);
+}
@@ -0,0 +1,247 @@
+package com.genai.rewardbot.reward.service;
+
+import com.genai.rewardbot.common.valuation.PointValue;
+import com.genai.rewardbot.reward.repository.AccrualRuleRepository.AccrualRule;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Accrual rules compiled for evaluation. Every vendor code and source that some rule names gets
+ * a bucket of the rules that can apply to it, the wildcard ones included; vendors and sources no
+ * rule names share the buckets of the wildcard rules. Within a bucket each rule type is a column
+ * of primitive arrays, in the order the type is resolved in, so {@link #points} is two map
+ * lookups and a scan of the few rules left, and allocates nothing.
+ *
+ * <p>Points are worked out in 1/10000ths: the amount spent times the first matching EARN rule's
+ * rate per currency unit, times the largest matching MULTIPLY (1 if none), plus every matching
+ * BONUS, rounded down to whole points and limited by the smallest matching CAP. Instances are
+ * immutable; {@link AccrualRules} swaps in a new one on reload.
+ */
+public final class AccrualRuleSet {
+
+    private static final long ONE = PointValue.of(BigDecimal.ONE);
+    private static final long MINOR_PER_UNIT = 100;
+
+    // EARN rules are tried in this order; the others are all looked at
+    private static final Comparator<AccrualRule> PRECEDENCE = Comparator
+            .comparingInt(AccrualRule::priority).reversed()
+            .thenComparing(Comparator.comparingInt(AccrualRuleSet::specificity).reversed())
+            .thenComparing(AccrualRule::ruleId);
+
+    static final AccrualRuleSet EMPTY = compile("", List.of());
+
+    private final String signature;
+    private final List<AccrualRule> rules;
+    private final Map<String, VendorRules> byVendor;
+    private final VendorRules otherVendors;
+
+    private AccrualRuleSet(String signature, List<AccrualRule> rules, Map<String, VendorRules> byVendor,
+                           VendorRules otherVendors) {
+        this.signature = signature;
+        this.rules = rules;
+        this.byVendor = byVendor;
+        this.otherVendors = otherVendors;
+    }
+
+    public String signature() {
+        return signature;
+    }
+
+    public List<AccrualRule> rules() {
+        return rules;
+    }
+
+    /**
+     * Whole points a transaction earns; 0 for refunds. Saturates at {@link Long#MAX_VALUE}
+     * rather than overflowing.
+     *
+     * @param category   merchant category, or null if the transaction has none
+     * @param amountMinor amount spent, in money minor units
+     */
+    public long points(String vendorCode, String source, String category, long amountMinor, LocalDateTime time) {
+        if (amountMinor < 0) {
+            return 0;
+        }
+        VendorRules vendor = vendorCode == null ? otherVendors : byVendor.getOrDefault(vendorCode, otherVendors);
+        return vendor.bucket(source).points(category, amountMinor, time.toEpochSecond(ZoneOffset.UTC));
+    }
+
+    static AccrualRuleSet compile(String signature, List<AccrualRule> rules) {
+        Set<String> ids = new HashSet<>();
+        for (AccrualRule rule : rules) {
+            if (!ids.add(rule.ruleId())) {
+                throw new IllegalArgumentException("Duplicate accrual rule " + rule.ruleId());
+            }
+            if (rule.value() < 0 || rule.minAmount() < 0) {
+                throw new IllegalArgumentException("Accrual rule " + rule.ruleId() + " has a negative amount");
+            }
+            if (rule.validFrom() != null && rule.validTo() != null && !rule.validTo().isAfter(rule.validFrom())) {
+                throw new IllegalArgumentException("Accrual rule " + rule.ruleId() + " has an empty window");
+            }
+        }
+        Set<String> sources = named(rules, AccrualRule::source);
+        Map<String, VendorRules> byVendor = new HashMap<>();
+        for (String vendor : named(rules, AccrualRule::vendorCode)) {
+            byVendor.put(vendor, VendorRules.of(rules, vendor, sources));
+        }
+        return new AccrualRuleSet(signature, List.copyOf(rules), byVendor, VendorRules.of(rules, null, sources));
+    }
+
+    private static Set<String> named(List<AccrualRule> rules, Function<AccrualRule, String> dimension) {
+        Set<String> names = new HashSet<>();
+        for (AccrualRule rule : rules) {
+            String name = dimension.apply(rule);
+            if (name != null) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    private static int specificity(AccrualRule rule) {
+        return (rule.vendorCode() != null ? 1 : 0) + (rule.source() != null ? 1 : 0) + (rule.category() != null ? 1 : 0);
+    }
+
+    // a * b / divisor for non-negative a and b, saturating instead of overflowing
+    private static long scale(long a, long b, long divisor) {
+        long product = a * b;
+        if (Math.multiplyHigh(a, b) != 0 || product < 0) {
+            return Long.MAX_VALUE;
+        }
+        return product / divisor;
+    }
+
+    private record VendorRules(Map<String, Bucket> bySource, Bucket otherSources) {
+
+        // A null vendor or source stands for one that no rule names, which only wildcard rules match
+        static VendorRules of(List<AccrualRule> rules, String vendor, Set<String> sources) {
+            Map<String, Bucket> bySource = new HashMap<>();
+            for (String source : sources) {
+                bySource.put(source, Bucket.of(rules, vendor, source));
+            }
+            return new VendorRules(bySource, Bucket.of(rules, vendor, null));
+        }
+
+        Bucket bucket(String source) {
+            Bucket bucket = source == null ? null : bySource.get(source);
+            return bucket == null ? otherSources : bucket;
+        }
+    }
+
+    private record Bucket(Column earn, Column multiply, Column bonus, Column cap) {
+
+        static Bucket of(List<AccrualRule> rules, String vendor, String source) {
+            List<AccrualRule> matching = rules.stream()
+                    .filter(rule -> rule.vendorCode() == null || rule.vendorCode().equals(vendor))
+                    .filter(rule -> rule.source() == null || rule.source().equals(source))
+                    .sorted(PRECEDENCE)
+                    .toList();
+            return new Bucket(Column.of(matching, AccrualRule.Type.EARN), Column.of(matching, AccrualRule.Type.MULTIPLY),
+                    Column.of(matching, AccrualRule.Type.BONUS), Column.of(matching, AccrualRule.Type.CAP));
+        }
+
+        long points(String category, long amountMinor, long second) {
+            long units = 0;
+            int rate = earn.first(category, amountMinor, second);
+            if (rate >= 0) {
+                units = scale(amountMinor, earn.values[rate], MINOR_PER_UNIT);
+            }
+            int multiplier = multiply.largest(category, amountMinor, second);
+            if (multiplier >= 0) {
+                units = scale(units, multiply.values[multiplier], ONE);
+            }
+            long added = bonus.sum(category, amountMinor, second);
+            units = units > Long.MAX_VALUE - added ? Long.MAX_VALUE : units + added;
+            int limit = cap.smallest(category, amountMinor, second);
+            long points = units / ONE;
+            return limit >= 0 ? Math.min(points, cap.values[limit] / ONE) : points;
+        }
+    }
+
+    /**
+     * One rule type's rules in a bucket, a rule per index.
+     */
+    private static final class Column {
+
+        private final String[] categories;
+        private final long[] minAmounts;
+        private final long[] from;
+        private final long[] to;
+        private final long[] values;
+
+        private Column(int size) {
+            categories = new String[size];
+            minAmounts = new long[size];
+            from = new long[size];
+            to = new long[size];
+            values = new long[size];
+        }
+
+        static Column of(List<AccrualRule> rules, AccrualRule.Type type) {
+            List<AccrualRule> typed = rules.stream().filter(rule -> rule.type() == type).toList();
+            Column column = new Column(typed.size());
+            for (int i = 0; i < typed.size(); i++) {
+                AccrualRule rule = typed.get(i);
+                column.categories[i] = rule.category();
+                column.minAmounts[i] = rule.minAmount();
+                column.from[i] = rule.validFrom() == null ? Long.MIN_VALUE : rule.validFrom().toEpochSecond(ZoneOffset.UTC);
+                column.to[i] = rule.validTo() == null ? Long.MAX_VALUE : rule.validTo().toEpochSecond(ZoneOffset.UTC);
+                column.values[i] = rule.value();
+            }
+            return column;
+        }
+
+        private boolean matches(int i, String category, long amountMinor, long second) {
+            return amountMinor >= minAmounts[i] && second >= from[i] && second < to[i]
+                    && (categories[i] == null || categories[i].equals(category));
+        }
+
+        int first(String category, long amountMinor, long second) {
+            for (int i = 0; i < values.length; i++) {
+                if (matches(i, category, amountMinor, second)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        int largest(String category, long amountMinor, long second) {
+            int found = -1;
+            for (int i = 0; i < values.length; i++) {
+                if (matches(i, category, amountMinor, second) && (found < 0 || values[i] > values[found])) {
+                    found = i;
+                }
+            }
+            return found;
+        }
+
+        int smallest(String category, long amountMinor, long second) {
+            int found = -1;
+            for (int i = 0; i < values.length; i++) {
+                if (matches(i, category, amountMinor, second) && (found < 0 || values[i] < values[found])) {
+                    found = i;
+                }
+            }
+            return found;
+        }
+
+        long sum(String category, long amountMinor, long second) {
+            long sum = 0;
+            for (int i = 0; i < values.length; i++) {
+                if (matches(i, category, amountMinor, second)) {
+                    sum = values[i] > Long.MAX_VALUE - sum ? Long.MAX_VALUE : sum + values[i];
+                }
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.genai.rewardbot.reward.service;
+
+import com.genai.rewardbot.common.sharding.ShardRouter;
+import com.genai.rewardbot.common.valuation.Money;
+import com.genai.rewardbot.common.valuation.PointValue;
+import com.genai.rewardbot.reward.repository.AccrualRuleRepository;
+import com.genai.rewardbot.reward.repository.AccrualRuleRepository.AccrualRule;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The points accrual rules, compiled into an {@link AccrualRuleSet}. Rules come from
+ * {@code accrual_rules} on the catalog shard or, if {@code app.accrual.rules-file} is set, from
+ * that CSV file instead, with the table's columns in order:
+ * <pre>
+ * rule_id,rule_type,vendor_code,source,category,min_amount,rule_value,valid_from,valid_to,priority
+ * </pre>
+ * Blank fields are NULL (0 for {@code min_amount} and {@code priority}); lines starting with
+ * {@code #} and a header row are skipped.
+ *
+ * <p>Every {@code refresh-interval} the source's signature (the table's row count and latest
+ * {@code updated_at}, or the file's size and modification time) is compared with the loaded
+ * rules', and only a change recompiles them. The new set is compiled in full before it replaces
+ * the old one in a single write, so an evaluation sees one set or the other; a set that fails to
+ * load or compile leaves the old one in place.
+ */
+@Service
+@Slf4j
+public class AccrualRules {
+
+    private static final int FIELDS = 10;
+
+    private final AccrualRuleRepository accrualRuleRepository;
+    private final ShardRouter shardRouter;
+    private final Path rulesFile;
+
+    private volatile AccrualRuleSet ruleSet = AccrualRuleSet.EMPTY;
+
+    public AccrualRules(AccrualRuleRepository accrualRuleRepository,
+                        ShardRouter shardRouter,
+                        @Value("${app.accrual.rules-file:}") String rulesFile) {
+        this.accrualRuleRepository = accrualRuleRepository;
+        this.shardRouter = shardRouter;
+        this.rulesFile = rulesFile.isBlank() ? null : Path.of(rulesFile);
+    }
+
+    @PostConstruct
+    public void start() {
+        refresh();
+    }
+
+    /**
+     * The rules currently in force. Callers that evaluate many transactions should hold on to
+     * one set for the lot, so a reload never splits them.
+     */
+    public AccrualRuleSet ruleSet() {
+        return ruleSet;
+    }
+
+    /**
+     * False until a first set of rules has loaded; until then every transaction would earn nothing.
+     */
+    public boolean isLoaded() {
+        return ruleSet != AccrualRuleSet.EMPTY;
+    }
+
+    @Scheduled(fixedDelayString = "${app.accrual.refresh-interval:PT30S}",
+            initialDelayString = "${app.accrual.refresh-interval:PT30S}")
+    public void poll() {
+        refresh();
+    }
+
+    /**
+     * Recompiles the rules if their source changed since the last load.
+     *
+     * @return true if a new set was loaded
+     */
+    public synchronized boolean refresh() {
+        try {
+            AccrualRuleSet loaded = rulesFile == null ? loadTable() : loadFile();
+            if (loaded == null) {
+                return false;
+            }
+            ruleSet = loaded;
+            log.info("Loaded accrual rules {} ({} active rules)", loaded.signature(), loaded.rules().size());
+            return true;
+        } catch (DataAccessException | IOException | UncheckedIOException | IllegalArgumentException
+                 | ArithmeticException | DateTimeParseException e) {
+            // Keep evaluating with the rules already loaded
+            log.warn("Could not refresh accrual rules: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private AccrualRuleSet loadTable() {
+        try (ShardRouter.Scope ignored = shardRouter.onShard(ShardRouter.CATALOG_SHARD)) {
+            String current = accrualRuleRepository.findSignature();
+            if (current.equals(ruleSet.signature())) {
+                return null;
+            }
+            return AccrualRuleSet.compile(current, accrualRuleRepository.findActiveRules());
+        }
+    }
+
+    private AccrualRuleSet loadFile() throws IOException {
+        String current = rulesFile.getFileName() + "@" + Files.getLastModifiedTime(rulesFile).toInstant()
+                + "/" + Files.size(rulesFile);
+        if (current.equals(ruleSet.signature())) {
+            return null;
+        }
+        List<AccrualRule> rules = new ArrayList<>();
+        for (String line : Files.readAllLines(rulesFile, StandardCharsets.UTF_8)) {
+            if (!line.isBlank() && !line.startsWith("#") && !line.startsWith("rule_id")) {
+                rules.add(parse(line));
+            }
+        }
+        return AccrualRuleSet.compile(current, rules);
+    }
+
+    static AccrualRule parse(String line) {
+        String[] fields = line.split(",", -1);
+        if (fields.length != FIELDS) {
+            throw new IllegalArgumentException("Expected " + FIELDS + " fields in accrual rule: " + line);
+        }
+        return new AccrualRule(fields[0].trim(), AccrualRule.Type.valueOf(fields[1].trim()), optional(fields[2]),
+                optional(fields[3]), optional(fields[4]), fields[5].isBlank() ? 0 : Money.parse(fields[5]),
+                PointValue.parse(fields[6]), time(fields[7]), time(fields[8]),
+                fields[9].isBlank() ? 0 : Integer.parseInt(fields[9].trim()));
+    }
+
+    private static String optional(String field) {
+        return field.isBlank() ? null : field.trim();
+    }
+
+    private static LocalDateTime time(String field) {
+        return field.isBlank() ? null : LocalDateTime.parse(field.trim());
+    }
+}
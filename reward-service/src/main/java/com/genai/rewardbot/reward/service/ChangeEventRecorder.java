@@ -0,0 +1,42 @@
+package com.genai.rewardbot.reward.service;
+
+import com.genai.rewardbot.common.entity.OutboxEvent;
+import com.genai.rewardbot.common.entity.UserDataVersion;
+import com.genai.rewardbot.common.outbox.ChangeEventType;
+import com.genai.rewardbot.reward.repository.OutboxEventRepository;
+import com.genai.rewardbot.reward.repository.UserDataVersionRepository;
+import com.genai.rewardbot.reward.repository.UserDataVersionWriteRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes change events to the outbox and bumps the user's data version. Must be called
+ * inside the transaction making the change, so both commit or roll back with it.
+ */
+@Service
+@RequiredArgsConstructor
+public class ChangeEventRecorder {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final UserDataVersionRepository userDataVersionRepository;
+    private final UserDataVersionWriteRepository userDataVersionWriteRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(ChangeEventType type, String mobileNumber, Long userId, Long cardId, Integer pointsDelta) {
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(type);
+        event.setMobileNumber(mobileNumber);
+        event.setUserId(userId);
+        event.setCardId(cardId);
+        event.setPointsDelta(pointsDelta);
+        outboxEventRepository.save(event);
+
+        // Created up front rather than saved when missing: two first writers would both insert it
+        userDataVersionWriteRepository.insertIfAbsent(mobileNumber);
+        UserDataVersion version = userDataVersionRepository.findForUpdate(mobileNumber).orElseThrow();
+        version.setDataVersion(version.getDataVersion() + 1);
+        userDataVersionRepository.save(version);
+    }
+}
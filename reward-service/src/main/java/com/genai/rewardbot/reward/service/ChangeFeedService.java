@@ -0,0 +1,260 @@
+package com.genai.rewardbot.reward.service;
+
+import com.genai.rewardbot.common.entity.OutboxEvent;
+import com.genai.rewardbot.common.outbox.ChangeEvent;
+import com.genai.rewardbot.common.sharding.ShardRouter;
+import com.genai.rewardbot.reward.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server-sent change feed. Each SSE message carries one relay batch as a JSON array under
+ * the {@code changes} event, with the batch's last position as its id, so a subscriber that
+ * reconnects with {@code Last-Event-ID} is replayed exactly what it missed. If that position
+ * has already been purged it gets a {@code reset} event and should drop everything it caches.
+ * Changes that affect every user at once, such as a new redemption catalog, are broadcast as a
+ * {@code reset} too.
+ * With sharding, the replay is merged from every shard's outbox in position order.
+ */
+@Service
+@Slf4j
+public class ChangeFeedService {
+
+    static final String CHANGES_EVENT = "changes";
+    static final String RESET_EVENT = "reset";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ShardRouter shardRouter;
+    // Replay must see everything already broadcast, so it reads from the primary
+    private final TransactionTemplate primaryRead;
+    private final Duration emitterTimeout;
+    private final int maxReplay;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    public ChangeFeedService(OutboxEventRepository outboxEventRepository,
+                             PlatformTransactionManager transactionManager,
+                             ShardRouter shardRouter,
+                             @Value("${app.outbox.feed.emitter-timeout:PT30M}") Duration emitterTimeout,
+                             @Value("${app.outbox.feed.max-replay:10000}") int maxReplay) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.shardRouter = shardRouter;
+        this.primaryRead = new TransactionTemplate(transactionManager);
+        this.emitterTimeout = emitterTimeout;
+        this.maxReplay = maxReplay;
+    }
+
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, lastEventId != null ? lastEventId : Long.MIN_VALUE);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        // Registered before the replay query, so anything broadcast meanwhile is buffered, not lost
+        subscribers.add(subscriber);
+        if (lastEventId == null) {
+            subscriber.goLive(List.of(), false);
+            return emitter;
+        }
+
+        List<ChangeEvent> missed = replay(lastEventId);
+        if (missed == null) {
+            log.info("Change feed subscriber at {} is behind retention; sending reset", lastEventId);
+            subscriber.goLive(List.of(), true);
+        } else {
+            subscriber.goLive(missed, false);
+        }
+        return emitter;
+    }
+
+    // Null when the position is behind retention or more than maxReplay events behind
+    private List<ChangeEvent> replay(long lastEventId) {
+        List<ShardReplay> shards = shardRouter.scatter(shard -> primaryRead.execute(status -> {
+            List<ChangeEvent> events = new ArrayList<>();
+            for (OutboxEvent event : outboxEventRepository.findPublishedAfter(lastEventId, PageRequest.of(0, maxReplay + 1))) {
+                events.add(toChangeEvent(event));
+            }
+            return new ShardReplay(outboxEventRepository.findMinPublishedSeq(), events);
+        }));
+        // Positions interleave across shards, so retention is judged on the oldest of all of them
+        Long oldest = null;
+        List<ChangeEvent> events = new ArrayList<>();
+        for (ShardReplay shard : shards) {
+            if (shard.oldest() != null && (oldest == null || shard.oldest() < oldest)) {
+                oldest = shard.oldest();
+            }
+            events.addAll(shard.events());
+        }
+        if (oldest != null && oldest > lastEventId + 1) {
+            return null;
+        }
+        if (events.size() > maxReplay) {
+            return null;
+        }
+        events.sort(Comparator.comparingLong(ChangeEvent::seq));
+        return events;
+    }
+
+    private record ShardReplay(Long oldest, List<ChangeEvent> events) {
+    }
+
+    void broadcast(List<ChangeEvent> batch) {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.offer(batch)) {
+                subscribers.remove(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Tells every subscriber to drop everything it caches, without moving its feed position.
+     */
+    public void broadcastReset() {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.reset()) {
+                subscribers.remove(subscriber);
+            }
+        }
+    }
+
+    // Keeps idle connections from being cut by proxies and notices dead subscribers
+    @Scheduled(fixedDelayString = "${app.outbox.feed.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.heartbeat()) {
+                subscribers.remove(subscriber);
+            }
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    static ChangeEvent toChangeEvent(OutboxEvent event) {
+        return new ChangeEvent(
+                event.getPublishedSeq(),
+                event.getEventType(),
+                event.getMobileNumber(),
+                event.getUserId(),
+                event.getCardId(),
+                event.getPointsDelta(),
+                event.getCreatedAt() != null ? event.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant() : null);
+    }
+
+    /**
+     * One connection. Batches arriving while its replay is being read are held back and
+     * sent afterwards; anything at or below the last position sent is skipped.
+     */
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final List<ChangeEvent> pending = new ArrayList<>();
+        private long lastSent;
+        private boolean live;
+        private boolean closed;
+
+        Subscriber(SseEmitter emitter, long lastSent) {
+            this.emitter = emitter;
+            this.lastSent = lastSent;
+        }
+
+        synchronized void goLive(List<ChangeEvent> replay, boolean reset) {
+            try {
+                if (reset) {
+                    emitter.send(SseEmitter.event().name(RESET_EVENT).data("{}", MediaType.APPLICATION_JSON));
+                    // Resume from whatever is broadcast next
+                    lastSent = Long.MIN_VALUE;
+                }
+                send(replay);
+                send(pending);
+                pending.clear();
+                live = true;
+            } catch (IOException | IllegalStateException e) {
+                close(e);
+            }
+        }
+
+        synchronized boolean offer(List<ChangeEvent> batch) {
+            if (closed) {
+                return false;
+            }
+            if (!live) {
+                pending.addAll(batch);
+                return true;
+            }
+            try {
+                send(batch);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                close(e);
+                return false;
+            }
+        }
+
+        synchronized boolean reset() {
+            if (closed) {
+                return false;
+            }
+            try {
+                emitter.send(SseEmitter.event().name(RESET_EVENT).data("{}", MediaType.APPLICATION_JSON));
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                close(e);
+                return false;
+            }
+        }
+
+        synchronized boolean heartbeat() {
+            if (closed) {
+                return false;
+            }
+            try {
+                emitter.send(SseEmitter.event().comment("keep-alive"));
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                close(e);
+                return false;
+            }
+        }
+
+        private void send(List<ChangeEvent> batch) throws IOException {
+            List<ChangeEvent> unsent = new ArrayList<>(batch.size());
+            for (ChangeEvent event : batch) {
+                if (event.seq() > lastSent) {
+                    unsent.add(event);
+                }
+            }
+            if (unsent.isEmpty()) {
+                return;
+            }
+            long last = unsent.get(unsent.size() - 1).seq();
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(last))
+                    .name(CHANGES_EVENT)
+                    .data(unsent, MediaType.APPLICATION_JSON));
+            lastSent = last;
+        }
+
+        private void close(Exception cause) {
+            closed = true;
+            emitter.completeWithError(cause);
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.genai.rewardbot.reward.service;
+
+import com.genai.rewardbot.common.sharding.ShardRouter;
+import com.genai.rewardbot.reward.repository.ExpiryDigestRepository;
+import com.genai.rewardbot.reward.repository.ExpiryDigestRepository.Checkpoint;
+import com.genai.rewardbot.reward.repository.ExpiryDigestRepository.Digest;
+import com.genai.rewardbot.reward.repository.ExpiryDigestRepository.DigestUser;
+import com.genai.rewardbot.reward.repository.ExpiryDigestRepository.ExpiringPoints;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Nightly digest of the points each user has expiring in the next 7 and 30 days, the same
+ * unswept lots {@code findExpiringPointsByUserId} returns, written to {@code expiry_digests}
+ * so users can be told before they lose points rather than only when they ask.
+ *
+ * <p>The user ids are split into {@code partitions} contiguous ranges, planned once per run date
+ * and recorded in {@code batch_checkpoints}. {@code threads} workers take a partition each and
+ * walk it in keyset order, {@code chunk-size} users per transaction: sum their lots, replace
+ * their digests and advance the partition's checkpoint together. A restart on the same day, on
+ * this or another instance, resumes after the last committed chunk; a chunk another instance
+ * committed first is skipped. Each worker holds at most one connection, so {@code threads}
+ * bounds what the job takes from the pool during online traffic.
+ *
+ * <p>With sharding every shard is digested and checkpointed separately, skipping users whose
+ * bucket is mid-move.
+ */
+@Service
+@Slf4j
+public class ExpiryDigestJob {
+
+    static final String JOB_NAME = "expiry-digest";
+
+    private final ExpiryDigestRepository expiryDigestRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int partitions;
+    private final int chunkSize;
+    private final int maxAttempts;
+    private final ExecutorService coordinator;
+    private final ExecutorService workers;
+
+    private volatile Run current;
+
+    public ExpiryDigestJob(ExpiryDigestRepository expiryDigestRepository,
+                           ShardRouter shardRouter,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.expiry-digest.enabled:true}") boolean enabled,
+                           @Value("${app.expiry-digest.partitions:32}") int partitions,
+                           @Value("${app.expiry-digest.threads:4}") int threads,
+                           @Value("${app.expiry-digest.chunk-size:500}") int chunkSize,
+                           @Value("${app.expiry-digest.max-attempts:3}") int maxAttempts) {
+        if (chunkSize < 1 || chunkSize > 1000) {
+            // A chunk's skipped users go into one IN list, which Oracle caps at 1000
+            throw new IllegalArgumentException("app.expiry-digest.chunk-size must be between 1 and 1000");
+        }
+        this.expiryDigestRepository = expiryDigestRepository;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.partitions = partitions;
+        this.chunkSize = chunkSize;
+        this.maxAttempts = maxAttempts;
+        this.coordinator = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "expiry-digest"));
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> new Thread(runnable, "expiry-digest-worker"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    @Scheduled(cron = "${app.expiry-digest.cron:0 0 1 * * *}")
+    public void scheduledRun() {
+        if (enabled && !start()) {
+            log.info("Expiry digest run still in progress; skipping the scheduled start");
+        }
+    }
+
+    /**
+     * Starts a run in the background, or resumes today's; false if one is already running here.
+     */
+    public synchronized boolean start() {
+        if (current != null && current.finishedAt == null) {
+            return false;
+        }
+        Run run = new Run(LocalDate.now(), LocalDateTime.now());
+        current = run;
+        coordinator.execute(() -> execute(run));
+        return true;
+    }
+
+    public Map<String, Object> status() {
+        Run run = current;
+        return run == null ? Map.of("running", false) : run.toMap();
+    }
+
+    private void execute(Run run) {
+        try {
+            List<CompletableFuture<Void>> tasks = new ArrayList<>();
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                int s = shard;
+                List<Checkpoint> checkpoints;
+                try (ShardRouter.Scope ignored = shardRouter.onShard(s)) {
+                    checkpoints = plan(run.runDate);
+                }
+                for (Checkpoint checkpoint : checkpoints) {
+                    if (checkpoint.completed()) {
+                        continue;
+                    }
+                    tasks.add(CompletableFuture.runAsync(() -> {
+                        try (ShardRouter.Scope ignored = shardRouter.onShard(s)) {
+                            digestPartition(run, s, checkpoint);
+                        } catch (RuntimeException e) {
+                            log.error("Expiry digest of shard {} partition {} failed; resumed on the next run",
+                                    s, checkpoint.partition(), e);
+                            run.failedPartitions.incrementAndGet();
+                        }
+                    }, workers));
+                }
+            }
+            CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+        } catch (RuntimeException e) {
+            log.error("Expiry digest run for {} failed", run.runDate, e);
+            run.failedPartitions.incrementAndGet();
+        } finally {
+            run.finish();
+            log.info("Expiry digest run for {} finished: {}", run.runDate, run.toMap());
+        }
+    }
+
+    // Reuses today's plan if there is one; instances planning at once serialize on the checkpoint rows
+    private List<Checkpoint> plan(LocalDate runDate) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    List<Checkpoint> checkpoints = expiryDigestRepository.lockCheckpoints(JOB_NAME);
+                    if (checkpoints.size() == partitions
+                            && checkpoints.stream().allMatch(checkpoint -> checkpoint.runDate().equals(runDate))) {
+                        return checkpoints;
+                    }
+                    long[] range = expiryDigestRepository.findUserIdRange();
+                    long width = Math.max(1, (range[1] - range[0] + partitions) / partitions);
+                    List<long[]> bounds = new ArrayList<>(partitions);
+                    for (int partition = 0; partition < partitions; partition++) {
+                        long after = range[0] - 1 + partition * width;
+                        // Users registered after planning fall into the last partition
+                        long upper = partition == partitions - 1 ? Long.MAX_VALUE : after + width;
+                        bounds.add(new long[]{after, upper});
+                    }
+                    expiryDigestRepository.replaceCheckpoints(JOB_NAME, runDate, bounds);
+                    return expiryDigestRepository.lockCheckpoints(JOB_NAME);
+                });
+            } catch (DuplicateKeyException e) {
+                // Another instance inserted the first plan concurrently; use its
+                if (attempt >= 2) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private void digestPartition(Run run, int shard, Checkpoint checkpoint) {
+        long after = checkpoint.lastUserId();
+        int attempt = 1;
+        while (true) {
+            long from = after;
+            Chunk chunk;
+            try {
+                chunk = transactionTemplate.execute(status -> digestChunk(run, shard, checkpoint, from));
+            } catch (CheckpointMovedException e) {
+                Checkpoint moved = expiryDigestRepository.findCheckpoint(JOB_NAME, checkpoint.partition());
+                if (moved == null || moved.completed() || !moved.runDate().equals(run.runDate)) {
+                    return;
+                }
+                after = moved.lastUserId();
+                continue;
+            } catch (DataAccessException e) {
+                if (attempt++ >= maxAttempts) {
+                    throw e;
+                }
+                log.debug("Expiry digest chunk after user {} failed ({}); retrying", from, e.getMessage());
+                continue;
+            }
+            attempt = 1;
+            run.record(chunk);
+            if (chunk.completed()) {
+                log.debug("Expiry digest of shard {} partition {} done", shard, checkpoint.partition());
+                return;
+            }
+            after = chunk.lastUserId();
+        }
+    }
+
+    private Chunk digestChunk(Run run, int shard, Checkpoint checkpoint, long after) {
+        List<DigestUser> users = expiryDigestRepository.findUsersAfter(after, checkpoint.upperUserId(), chunkSize);
+        boolean completed = users.size() < chunkSize;
+        if (users.isEmpty()) {
+            advance(run, checkpoint, after, after, 0, true);
+            return new Chunk(after, 0, 0, 0, true);
+        }
+
+        long first = users.get(0).userId();
+        long last = users.get(users.size() - 1).userId();
+        Map<Long, ExpiringPoints> expiring = expiryDigestRepository.sumExpiringPoints(first, last,
+                run.windowStart, run.windowStart.plusDays(7), run.windowStart.plusDays(30));
+        List<Digest> digests = new ArrayList<>();
+        List<Long> deferred = new ArrayList<>();
+        for (DigestUser user : users) {
+            if (!shardRouter.isWritableOn(shard, user.mobileNumber())) {
+                // Digested on the next run, by whichever shard then owns the user
+                deferred.add(user.userId());
+                continue;
+            }
+            ExpiringPoints points = expiring.get(user.userId());
+            if (points != null) {
+                digests.add(new Digest(user.userId(), user.mobileNumber(), points));
+            }
+        }
+        expiryDigestRepository.deleteDigests(first, last, deferred);
+        expiryDigestRepository.insertDigests(digests, run.runDate);
+        advance(run, checkpoint, after, last, users.size(), completed);
+        return new Chunk(last, users.size(), digests.size(), deferred.size(), completed);
+    }
+
+    private void advance(Run run, Checkpoint checkpoint, long from, long to, int users, boolean completed) {
+        if (!expiryDigestRepository.advanceCheckpoint(JOB_NAME, checkpoint.partition(), run.runDate, from, to,
+                users, completed)) {
+            throw new CheckpointMovedException();
+        }
+    }
+
+    private record Chunk(long lastUserId, int users, int digests, int deferred, boolean completed) {
+    }
+
+    // Rolls back a chunk another instance already committed
+    private static class CheckpointMovedException extends RuntimeException {
+        CheckpointMovedException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final class Run {
+        private final LocalDate runDate;
+        private final LocalDateTime windowStart;
+        private final Instant startedAt = Instant.now();
+        private final long startedNanos = System.nanoTime();
+        private final AtomicLong users = new AtomicLong();
+        private final AtomicLong digests = new AtomicLong();
+        private final AtomicLong deferred = new AtomicLong();
+        private final AtomicLong chunks = new AtomicLong();
+        private final AtomicInteger failedPartitions = new AtomicInteger();
+        private volatile Instant finishedAt;
+        private volatile long finishedNanos;
+
+        private Run(LocalDate runDate, LocalDateTime windowStart) {
+            this.runDate = runDate;
+            this.windowStart = windowStart;
+        }
+
+        void record(Chunk chunk) {
+            users.addAndGet(chunk.users());
+            digests.addAndGet(chunk.digests());
+            deferred.addAndGet(chunk.deferred());
+            chunks.incrementAndGet();
+        }
+
+        void finish() {
+            finishedNanos = System.nanoTime();
+            finishedAt = Instant.now();
+        }
+
+        Map<String, Object> toMap() {
+            long endNanos = finishedAt == null ? System.nanoTime() : finishedNanos;
+            long elapsedMs = Math.max(1, (endNanos - startedNanos) / 1_000_000);
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("running", finishedAt == null);
+            map.put("runDate", runDate.toString());
+            map.put("startedAt", startedAt.toString());
+            map.put("finishedAt", finishedAt == null ? null : finishedAt.toString());
+            map.put("users", users.get());
+            map.put("digests", digests.get());
+            map.put("deferred", deferred.get());
+            map.put("chunks", chunks.get());
+            map.put("elapsedMs", elapsedMs);
+            map.put("failedPartitions", failedPartitions.get());
+            map.put("usersPerSecond", users.get() * 1000 / elapsedMs);
+            return map;
+        }
+    }
+}
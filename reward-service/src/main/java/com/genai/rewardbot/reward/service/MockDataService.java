@@ -1,8 +1,12 @@
 package com.genai.rewardbot.reward.service;
 
+import com.genai.rewardbot.common.datasource.ReplicaLagGuard;
 import com.genai.rewardbot.common.entity.User;
 import com.genai.rewardbot.common.entity.Card;
 import com.genai.rewardbot.common.entity.RewardPoint;
+import com.genai.rewardbot.common.outbox.ChangeEventType;
+import com.genai.rewardbot.common.sharding.ShardRouter;
+import com.genai.rewardbot.common.valuation.Money;
 import com.genai.rewardbot.reward.repository.CardRepository;
 import com.genai.rewardbot.reward.repository.RewardPointRepository;
 import lombok.RequiredArgsConstructor;
@@ -19,27 +23,44 @@ import java.util.Random;
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional
+@Transactional(readOnly = true)
 public class MockDataService {
 
     private final CardRepository cardRepository;
     private final RewardPointRepository rewardPointRepository;
+    private final ReplicaLagGuard replicaLagGuard;
+    private final ChangeEventRecorder changeEventRecorder;
+    private final RewardRollupRecorder rewardRollupRecorder;
+    private final ShardRouter shardRouter;
+    private final AccrualRules accrualRules;
     private final Random random = new Random();
 
+    @Transactional
     public void generateMockDataForUser(User user) {
         log.info("Generating mock data for user: {}", user.getMobileNumber());
         
         // Create mock cards from different vendors
         List<Card> mockCards = createMockCards(user);
         
-        // Save cards
-        List<Card> savedCards = cardRepository.saveAll(mockCards);
+        // Save cards; the first statement opens the transaction's connection on the user's shard
+        List<Card> savedCards;
+        try (ShardRouter.Scope ignored = shardRouter.on(user.getMobileNumber())) {
+            savedCards = cardRepository.saveAll(mockCards);
+        }
         
         // Create mock reward points for each card
+        List<RewardPoint> allRewardPoints = new ArrayList<>();
         for (Card card : savedCards) {
             List<RewardPoint> mockRewardPoints = createMockRewardPoints(card);
             rewardPointRepository.saveAll(mockRewardPoints);
+            allRewardPoints.addAll(mockRewardPoints);
+            
+            int pointsAvailable = mockRewardPoints.stream().mapToInt(RewardPoint::getPointsAvailable).sum();
+            changeEventRecorder.record(ChangeEventType.CARD_ADDED, user.getMobileNumber(), user.getId(), card.getId(), null);
+            changeEventRecorder.record(ChangeEventType.POINTS_EARNED, user.getMobileNumber(), user.getId(), card.getId(), pointsAvailable);
         }
+        rewardRollupRecorder.recordLots(user.getId(), allRewardPoints);
+        replicaLagGuard.recordWrite(user.getMobileNumber());
         
         log.info("Generated mock data: {} cards with reward points for user {}", 
                 savedCards.size(), user.getMobileNumber());
@@ -54,7 +75,7 @@ public class MockDataService {
         hdfcCard.setCardType("CREDIT");
         hdfcCard.setVendorName("HDFC Bank");
         hdfcCard.setVendorCode("HDFC");
-        hdfcCard.setCardBalance(new BigDecimal("25000.50"));
+        hdfcCard.setCardBalance(Money.parse("25000.50"));
         hdfcCard.setCurrency("INR");
         hdfcCard.setCashbackRate(new BigDecimal("2.5"));
         hdfcCard.setExpiryDate(LocalDateTime.now().plusYears(3));
@@ -67,7 +88,7 @@ public class MockDataService {
         amazonCard.setCardType("LOYALTY");
         amazonCard.setVendorName("Amazon Pay");
         amazonCard.setVendorCode("AMZN");
-        amazonCard.setCardBalance(new BigDecimal("1250.75"));
+        amazonCard.setCardBalance(Money.parse("1250.75"));
         amazonCard.setCurrency("INR");
         amazonCard.setCashbackRate(new BigDecimal("5.0"));
         amazonCard.setExpiryDate(LocalDateTime.now().plusYears(2));
@@ -80,7 +101,7 @@ public class MockDataService {
         flipkartCard.setCardType("CREDIT");
         flipkartCard.setVendorName("Flipkart Axis Bank");
         flipkartCard.setVendorCode("FLIP");
-        flipkartCard.setCardBalance(new BigDecimal("8750.25"));
+        flipkartCard.setCardBalance(Money.parse("8750.25"));
         flipkartCard.setCurrency("INR");
         flipkartCard.setCashbackRate(new BigDecimal("4.0"));
         flipkartCard.setExpiryDate(LocalDateTime.now().plusYears(4));
@@ -93,7 +114,7 @@ public class MockDataService {
         sbiCard.setCardType("DEBIT");
         sbiCard.setVendorName("State Bank of India");
         sbiCard.setVendorCode("SBI");
-        sbiCard.setCardBalance(new BigDecimal("15430.80"));
+        sbiCard.setCardBalance(Money.parse("15430.80"));
         sbiCard.setCurrency("INR");
         sbiCard.setCashbackRate(new BigDecimal("1.0"));
         sbiCard.setExpiryDate(LocalDateTime.now().plusYears(5));
@@ -105,6 +126,7 @@ public class MockDataService {
 
     private List<RewardPoint> createMockRewardPoints(Card card) {
         List<RewardPoint> rewardPoints = new ArrayList<>();
+        AccrualRuleSet rules = accrualRules.ruleSet();
         
         // Create 3-5 reward point entries per card
         int numberOfEntries = 3 + random.nextInt(3);
@@ -112,21 +134,30 @@ public class MockDataService {
         for (int i = 0; i < numberOfEntries; i++) {
             RewardPoint rewardPoint = new RewardPoint();
             
-            int pointsEarned = 500 + random.nextInt(9500); // 500-10000 points
-            rewardPoint.setPointsEarned(pointsEarned);
-            rewardPoint.setPointsUsed(random.nextInt(pointsEarned / 4)); // Use up to 25% of points
-            rewardPoint.setPointsAvailable(pointsEarned - rewardPoint.getPointsUsed());
-            
             // Earning date between 1-12 months ago
             rewardPoint.setEarningDate(LocalDateTime.now().minusMonths(1 + random.nextInt(12)));
+            rewardPoint.setSource(getRandomSource());
+            
+            // Spend of 500-40000 INR on purchases; bonus sources earn from their rules alone
+            boolean spend = "PURCHASE".equals(rewardPoint.getSource()) || "CASHBACK".equals(rewardPoint.getSource());
+            long amount = spend ? Money.of(BigDecimal.valueOf(500 + random.nextInt(39500))) : 0;
+            String category = spend ? getRandomCategory() : null;
+            long points = rules.points(card.getVendorCode(), rewardPoint.getSource(), category, amount,
+                    rewardPoint.getEarningDate());
+            if (points <= 0) {
+                continue; // Nothing in the rules for it
+            }
+            int pointsEarned = (int) Math.min(points, Integer.MAX_VALUE);
+            rewardPoint.setPointsEarned(pointsEarned);
+            rewardPoint.setPointsUsed(random.nextInt(pointsEarned / 4 + 1)); // Use up to 25% of points
+            rewardPoint.setPointsAvailable(pointsEarned - rewardPoint.getPointsUsed());
             
             // Expiry date between 3-24 months from now
             rewardPoint.setExpiryDate(LocalDateTime.now().plusMonths(3 + random.nextInt(21)));
             
-            rewardPoint.setSource(getRandomSource());
             rewardPoint.setDescription(generateDescription(card.getVendorName(), rewardPoint.getSource()));
             rewardPoint.setTransactionId("TXN" + System.currentTimeMillis() + i);
-            rewardPoint.setPointValue(0.25 + (random.nextDouble() * 0.75)); // Value between 0.25-1.0 INR per point
+            rewardPoint.setPointValue(2500L + random.nextInt(7501)); // Value between 0.25-1.0 INR per point
             rewardPoint.setCard(card);
             
             rewardPoints.add(rewardPoint);
@@ -148,6 +179,11 @@ public class MockDataService {
         return sources[random.nextInt(sources.length)];
     }
 
+    private String getRandomCategory() {
+        String[] categories = {null, "DINING", "TRAVEL", "GROCERY", "FUEL"};
+        return categories[random.nextInt(categories.length)];
+    }
+
     private String generateDescription(String vendorName, String source) {
         switch (source) {
             case "PURCHASE":
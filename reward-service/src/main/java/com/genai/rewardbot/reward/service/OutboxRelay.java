@@ -0,0 +1,126 @@
+package com.genai.rewardbot.reward.service;
+
+import com.genai.rewardbot.common.entity.OutboxEvent;
+import com.genai.rewardbot.common.outbox.ChangeEvent;
+import com.genai.rewardbot.common.sharding.ShardRouter;
+import com.genai.rewardbot.reward.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Moves committed outbox rows onto the change feed in batches. Each row is given the next
+ * feed position as it is published, so positions follow publication order even when rows
+ * from concurrent transactions commit out of id order.
+ *
+ * <p>Positions are assigned from this process's counter: run the relay on one instance
+ * per database ({@code app.outbox.relay.enabled}), or per deployment when sharded, as one
+ * counter then numbers every shard's outbox. The flag is read at runtime rather than as
+ * a bean condition, which AOT builds would fix at build time, so scaled-out instances of one
+ * image can run without it.
+ */
+@Service
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ChangeFeedService changeFeedService;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retention;
+    private final boolean enabled;
+
+    private long lastSeq = -1;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       ChangeFeedService changeFeedService,
+                       PlatformTransactionManager transactionManager,
+                       ShardRouter shardRouter,
+                       @Value("${app.outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${app.outbox.retention:P7D}") Duration retention,
+                       @Value("${app.outbox.relay.enabled:true}") boolean enabled) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.changeFeedService = changeFeedService;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.enabled = enabled;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay.poll-interval:PT0.5S}")
+    public synchronized void relay() {
+        if (!enabled) {
+            return;
+        }
+        if (lastSeq < 0) {
+            lastSeq = shardRouter.scatter(shard -> outboxEventRepository.findMaxPublishedSeq()).stream()
+                    .filter(Objects::nonNull)
+                    .mapToLong(Long::longValue)
+                    .max()
+                    .orElse(0);
+        }
+        shardRouter.forEachShard(shard -> {
+            List<ChangeEvent> batch;
+            do {
+                batch = transactionTemplate.execute(status -> publishBatch());
+                // Only after commit: subscribers must never see a position that could still roll back
+                if (!batch.isEmpty()) {
+                    changeFeedService.broadcast(batch);
+                }
+            } while (batch.size() == batchSize);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.purge-interval:PT1H}")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        shardRouter.forEachShard(shard -> {
+            Integer purged = transactionTemplate.execute(status -> outboxEventRepository.deletePublishedBefore(cutoff));
+            if (purged != null && purged > 0) {
+                log.info("Purged {} published outbox events older than {}", purged, retention);
+            }
+        });
+    }
+
+    private List<ChangeEvent> publishBatch() {
+        List<OutboxEvent> pending = outboxEventRepository.findUnpublished(PageRequest.of(0, batchSize));
+        if (pending.isEmpty()) {
+            return List.of();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        long seq = lastSeq;
+        List<ChangeEvent> published = new ArrayList<>(pending.size());
+        for (OutboxEvent event : pending) {
+            event.setPublishedSeq(++seq);
+            event.setPublishedAt(now);
+            published.add(ChangeFeedService.toChangeEvent(event));
+        }
+        // Dirty checking flushes the updates on commit; advance only once that is certain
+        long batchLastSeq = seq;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastSeq = batchLastSeq;
+            }
+        });
+        return published;
+    }
+}
@@ -0,0 +1,188 @@
+package com.genai.rewardbot.reward.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.genai.rewardbot.common.datasource.ReplicaLagGuard;
+import com.genai.rewardbot.common.dto.CardDto;
+import com.genai.rewardbot.common.entity.UserDataVersion;
+import com.genai.rewardbot.common.sharding.ShardRouter;
+import com.genai.rewardbot.common.snapshot.RedemptionSnapshot;
+import com.genai.rewardbot.common.valuation.MoneyJson;
+import com.genai.rewardbot.reward.repository.CardRepository;
+import com.genai.rewardbot.reward.repository.RewardValuationRepository;
+import com.genai.rewardbot.reward.repository.UserDataVersionRepository;
+import com.genai.rewardbot.reward.repository.UserRepository;
+import com.genai.rewardbot.reward.service.RedemptionOptimizer.Lot;
+import com.genai.rewardbot.reward.service.RedemptionOptimizer.Redemption;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Each user's best-value redemption plan from the {@link RedemptionCatalog}. Points redeem
+ * within the vendor whose cards earned them, so every vendor's lots form a pool that
+ * {@link RedemptionOptimizer} fills with that vendor's offers.
+ *
+ * <p>Plans are cached per user and stay valid while the user's data version, the catalog
+ * signature and the day are unchanged, so a repeat request costs one primary-key lookup.
+ */
+@Service
+@Transactional(readOnly = true)
+public class RedemptionAdvisor {
+
+    private final UserRepository userRepository;
+    private final CardRepository cardRepository;
+    private final RewardValuationRepository rewardValuationRepository;
+    private final UserDataVersionRepository userDataVersionRepository;
+    private final ReplicaLagGuard replicaLagGuard;
+    private final RedemptionCatalog redemptionCatalog;
+    private final ShardRouter shardRouter;
+    private final Cache<String, RedemptionPlan> plans;
+
+    public RedemptionAdvisor(UserRepository userRepository,
+                             CardRepository cardRepository,
+                             RewardValuationRepository rewardValuationRepository,
+                             UserDataVersionRepository userDataVersionRepository,
+                             ReplicaLagGuard replicaLagGuard,
+                             RedemptionCatalog redemptionCatalog,
+                             ShardRouter shardRouter,
+                             @Value("${app.redemption.plan-cache.max-size:100000}") long maxSize,
+                             @Value("${app.redemption.plan-cache.ttl:PT6H}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cardRepository = cardRepository;
+        this.rewardValuationRepository = rewardValuationRepository;
+        this.userDataVersionRepository = userDataVersionRepository;
+        this.replicaLagGuard = replicaLagGuard;
+        this.redemptionCatalog = redemptionCatalog;
+        this.shardRouter = shardRouter;
+        this.plans = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(ttl)
+                .build();
+    }
+
+    public Optional<RedemptionPlan> getPlan(String mobileNumber) {
+        try (ShardRouter.Scope ignored = shardRouter.on(mobileNumber)) {
+            return replicaLagGuard.findWithPrimaryFallback(() -> userRepository.findIdByMobileNumber(mobileNumber))
+                    .map(userId -> getPlan(userId, mobileNumber));
+        }
+    }
+
+    /**
+     * The plan of a user already resolved by the caller, on the user's shard.
+     */
+    public RedemptionPlan getPlan(Long userId, String mobileNumber) {
+        long dataVersion = userDataVersionRepository.findById(mobileNumber)
+                .map(UserDataVersion::getDataVersion)
+                .orElse(0L);
+        RedemptionCatalog.Index catalog = redemptionCatalog.index();
+        long today = LocalDate.now().toEpochDay();
+
+        RedemptionPlan cached = plans.getIfPresent(mobileNumber);
+        if (cached != null && cached.isFor(dataVersion, catalog.signature(), today)) {
+            return cached;
+        }
+        // The version is read before the lots, so a change committed in between makes the next read miss
+        RedemptionPlan plan = compute(userId, dataVersion, catalog, today);
+        plans.put(mobileNumber, plan);
+        return plan;
+    }
+
+    /**
+     * Catalog component of HTTP validators for plans; the same on every instance that has
+     * loaded the same catalog.
+     */
+    public String catalogTag() {
+        return Integer.toHexString(redemptionCatalog.index().signature().hashCode());
+    }
+
+    private RedemptionPlan compute(Long userId, long dataVersion, RedemptionCatalog.Index catalog, long today) {
+        Map<Long, String> vendorByCard = new HashMap<>();
+        for (CardDto card : cardRepository.findActiveCardDtosByUserId(userId)) {
+            vendorByCard.put(card.getId(), card.getVendorCode());
+        }
+        Map<String, List<Lot>> lotsByVendor = new LinkedHashMap<>();
+        long[] available = new long[1];
+        rewardValuationRepository.forEachAvailableLotWithExpiry(userId,
+                (cardId, points, pointValueUnits, expiryEpochDay) -> {
+                    if (vendorByCard.containsKey(cardId)) {
+                        lotsByVendor.computeIfAbsent(vendorByCard.get(cardId), vendor -> new ArrayList<>())
+                                .add(new Lot(points, expiryEpochDay));
+                        available[0] += points;
+                    }
+                });
+
+        List<Line> lines = new ArrayList<>();
+        long used = 0;
+        long value = 0;
+        for (Map.Entry<String, List<Lot>> pool : lotsByVendor.entrySet()) {
+            for (Redemption redemption : RedemptionOptimizer.optimize(catalog.offersFor(pool.getKey()), pool.getValue())) {
+                lines.add(Line.of(pool.getKey(), redemption));
+                used += redemption.pointsUsed();
+                value += redemption.valueMinor();
+            }
+        }
+        lines.sort((a, b) -> Long.compare(b.value(), a.value()));
+        return new RedemptionPlan(dataVersion, catalog.signature(), today, available[0], available[0] - used, value,
+                List.copyOf(lines));
+    }
+
+    /**
+     * Redemptions in descending value; {@code pointsUnused} is what no offer could use.
+     */
+    public record RedemptionPlan(long dataVersion,
+                                 @JsonIgnore String catalogSignature,
+                                 @JsonIgnore long epochDay,
+                                 long pointsAvailable,
+                                 long pointsUnused,
+                                 @JsonSerialize(using = MoneyJson.MoneySerializer.class) long totalValue,
+                                 List<Line> redemptions) {
+
+        boolean isFor(long dataVersion, String catalogSignature, long epochDay) {
+            return this.dataVersion == dataVersion && this.epochDay == epochDay
+                    && this.catalogSignature.equals(catalogSignature);
+        }
+
+        public List<RedemptionSnapshot> toSnapshots() {
+            List<RedemptionSnapshot> snapshots = new ArrayList<>(redemptions.size());
+            for (Line line : redemptions) {
+                snapshots.add(new RedemptionSnapshot(line.code(), line.name(), line.vendorCode(), line.quantity(),
+                        line.pointsUsed(), line.value(), line.redeemBy() != null ? line.redeemBy().toEpochDay() : -1));
+            }
+            return snapshots;
+        }
+    }
+
+    /**
+     * Redeem {@code quantity} of an item for {@code pointsUsed} points of the pool's vendor,
+     * before {@code redeemBy} when some of those points expire.
+     */
+    public record Line(String code,
+                       String name,
+                       String category,
+                       String vendorCode,
+                       long quantity,
+                       long pointCost,
+                       long pointsUsed,
+                       @JsonSerialize(using = MoneyJson.MoneySerializer.class) long value,
+                       LocalDate redeemBy) {
+
+        static Line of(String vendorCode, Redemption redemption) {
+            var item = redemption.offer().item();
+            return new Line(item.code(), item.name(), item.category(), vendorCode, redemption.quantity(),
+                    item.pointCost(), redemption.pointsUsed(), redemption.valueMinor(),
+                    redemption.redeemByEpochDay() >= 0 ? LocalDate.ofEpochDay(redemption.redeemByEpochDay()) : null);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.genai.rewardbot.reward.service;
+
+import com.genai.rewardbot.common.sharding.ShardRouter;
+import com.genai.rewardbot.common.valuation.Money;
+import com.genai.rewardbot.reward.repository.RedemptionCatalogRepository;
+import com.genai.rewardbot.reward.repository.RedemptionCatalogRepository.CatalogItem;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory index of the active {@code redemption_catalog} items, read from the catalog shard.
+ * Every {@code refresh-interval} the table's row count and latest {@code updated_at} are
+ * compared with the loaded index, and only a change reloads it. A reload swaps in a new
+ * immutable {@link Index} whose {@link Index#signature()} is that pair, which is what
+ * invalidates cached plans, and tells change feed subscribers to drop what they derived from
+ * the old one. Instances loading the same table agree on the signature.
+ *
+ * <p>Offers are grouped per vendor: each vendor's own items plus the unrestricted ones, with
+ * offers that another is at least as good as on both cost and value left out.
+ */
+@Service
+@Slf4j
+public class RedemptionCatalog {
+
+    private final RedemptionCatalogRepository redemptionCatalogRepository;
+    private final ChangeFeedService changeFeedService;
+    private final ShardRouter shardRouter;
+    private final boolean enabled;
+
+    private volatile Index index = Index.EMPTY;
+
+    public RedemptionCatalog(RedemptionCatalogRepository redemptionCatalogRepository,
+                             ChangeFeedService changeFeedService,
+                             ShardRouter shardRouter,
+                             @Value("${app.redemption.enabled:true}") boolean enabled) {
+        this.redemptionCatalogRepository = redemptionCatalogRepository;
+        this.changeFeedService = changeFeedService;
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    public void start() {
+        refresh();
+    }
+
+    public Index index() {
+        return index;
+    }
+
+    @Scheduled(fixedDelayString = "${app.redemption.catalog.refresh-interval:PT30S}",
+            initialDelayString = "${app.redemption.catalog.refresh-interval:PT30S}")
+    public void poll() {
+        refresh();
+    }
+
+    /**
+     * Reloads the index if the table changed since the last load.
+     *
+     * @return true if a new index was loaded
+     */
+    public synchronized boolean refresh() {
+        if (!enabled) {
+            return false;
+        }
+        try (ShardRouter.Scope ignored = shardRouter.onShard(ShardRouter.CATALOG_SHARD)) {
+            String current = redemptionCatalogRepository.findSignature();
+            if (current.equals(index.signature())) {
+                return false;
+            }
+            Index previous = index;
+            index = Index.of(current, redemptionCatalogRepository.findActiveItems());
+            log.info("Loaded redemption catalog {} ({} active items)", current, index.items().size());
+            if (previous != Index.EMPTY) {
+                changeFeedService.broadcastReset();
+            }
+            return true;
+        } catch (DataAccessException e) {
+            // Keep answering from the index already loaded
+            log.warn("Could not refresh redemption catalog: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * An item with its bonus applied: what redeeming it once is worth, in money minor units.
+     */
+    public record Offer(CatalogItem item, long valueMinor) {
+
+        static Offer of(CatalogItem item) {
+            return new Offer(item, Money.applyRate(item.value(), item.bonusBasisPoints()));
+        }
+
+        public long pointCost() {
+            return item.pointCost();
+        }
+
+        boolean isDominatedBy(Offer other) {
+            return other.pointCost() <= pointCost() && other.valueMinor() >= valueMinor()
+                    && (other.pointCost() < pointCost() || other.valueMinor() > valueMinor()
+                    || other.item().code().compareTo(item.code()) < 0);
+        }
+    }
+
+    public record Index(String signature, List<CatalogItem> items, Map<String, List<Offer>> byVendor,
+                        List<Offer> unrestricted) {
+
+        static final Index EMPTY = new Index("", List.of(), Map.of(), List.of());
+
+        /**
+         * Offers payable with points earned on the vendor's cards.
+         */
+        public List<Offer> offersFor(String vendorCode) {
+            return vendorCode == null ? unrestricted : byVendor.getOrDefault(vendorCode, unrestricted);
+        }
+
+        static Index of(String signature, List<CatalogItem> items) {
+            List<Offer> unrestricted = new ArrayList<>();
+            Map<String, List<Offer>> restricted = new HashMap<>();
+            for (CatalogItem item : items) {
+                Offer offer = Offer.of(item);
+                if (item.vendorCode() == null) {
+                    unrestricted.add(offer);
+                } else {
+                    restricted.computeIfAbsent(item.vendorCode(), vendor -> new ArrayList<>()).add(offer);
+                }
+            }
+            Map<String, List<Offer>> byVendor = new HashMap<>();
+            for (Map.Entry<String, List<Offer>> vendor : restricted.entrySet()) {
+                List<Offer> offers = new ArrayList<>(vendor.getValue());
+                offers.addAll(unrestricted);
+                byVendor.put(vendor.getKey(), undominated(offers));
+            }
+            return new Index(signature, List.copyOf(items), Map.copyOf(byVendor), undominated(unrestricted));
+        }
+
+        private static List<Offer> undominated(List<Offer> offers) {
+            List<Offer> kept = new ArrayList<>(offers.size());
+            for (Offer offer : offers) {
+                if (offer.valueMinor() > 0
+                        && offers.stream().noneMatch(other -> other != offer && offer.isDominatedBy(other))) {
+                    kept.add(offer);
+                }
+            }
+            kept.sort(Comparator.comparingLong(Offer::pointCost));
+            return List.copyOf(kept);
+        }
+    }
+}
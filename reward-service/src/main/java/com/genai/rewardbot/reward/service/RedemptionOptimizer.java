@@ -0,0 +1,162 @@
+package com.genai.rewardbot.reward.service;
+
+import com.genai.rewardbot.reward.service.RedemptionCatalog.Offer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Best-value redemptions for one pool of points (one vendor's cards). Choosing how many of
+ * each offer to redeem is an unbounded knapsack over the pool's points. Some optimal plan
+ * spends less than {@code maxCost * bestCost} points on anything but the offer with the best
+ * value per point, so a large pool takes that offer up front and only the remainder goes
+ * through the table, in steps of the offers' greatest common point cost. Should the remainder
+ * still need more than {@link #MAX_STEPS} steps, the steps coarsen and costs round up, so the
+ * plan may leave points unspent but never overspends.
+ *
+ * <p>The chosen redemptions then take the pool's lots earliest expiry first, best value per
+ * point first, which gives each redemption the date its points start to lapse.
+ */
+final class RedemptionOptimizer {
+
+    // Bounds the table to a few hundred KB and a few million steps per pool
+    static final int MAX_STEPS = 50_000;
+
+    private RedemptionOptimizer() {
+    }
+
+    /**
+     * @param lots the pool's available lots; {@code expiryEpochDay} is -1 when a lot never expires
+     */
+    static List<Redemption> optimize(List<Offer> offers, List<Lot> lots) {
+        long points = 0;
+        for (Lot lot : lots) {
+            points += lot.points();
+        }
+        long step = 0;
+        long maxCost = 0;
+        int bestRatio = -1;
+        for (int i = 0; i < offers.size(); i++) {
+            Offer offer = offers.get(i);
+            if (offer.pointCost() > points) {
+                continue;
+            }
+            step = gcd(step, offer.pointCost());
+            maxCost = Math.max(maxCost, offer.pointCost());
+            if (bestRatio < 0 || valuePerPoint(offer) > valuePerPoint(offers.get(bestRatio))) {
+                bestRatio = i;
+            }
+        }
+        if (step == 0) {
+            return List.of();
+        }
+
+        long[] quantities = new long[offers.size()];
+        long bestCost = offers.get(bestRatio).pointCost();
+        long reserve = maxCost > points / bestCost ? points : maxCost * bestCost;
+        quantities[bestRatio] = (points - reserve) / bestCost;
+        long remainder = points - quantities[bestRatio] * bestCost;
+
+        step *= Math.max(1, ceilDiv(remainder / step, MAX_STEPS));
+        int capacity = (int) (remainder / step);
+
+        int[] weights = new int[offers.size()];
+        for (int i = 0; i < offers.size(); i++) {
+            weights[i] = (int) Math.min(Integer.MAX_VALUE, ceilDiv(offers.get(i).pointCost(), step));
+        }
+
+        // best[c]: most value redeemable within c steps; choice[c]: the offer taken last, -1 for none.
+        // Ties keep the smaller amount, so equal-value plans spend fewer points.
+        long[] best = new long[capacity + 1];
+        int[] choice = new int[capacity + 1];
+        choice[0] = -1;
+        for (int c = 1; c <= capacity; c++) {
+            best[c] = best[c - 1];
+            choice[c] = -1;
+            for (int i = 0; i < weights.length; i++) {
+                if (weights[i] <= c && best[c - weights[i]] + offers.get(i).valueMinor() > best[c]) {
+                    best[c] = best[c - weights[i]] + offers.get(i).valueMinor();
+                    choice[c] = i;
+                }
+            }
+        }
+
+        for (int c = capacity; c > 0; ) {
+            if (choice[c] < 0) {
+                c--;
+            } else {
+                quantities[choice[c]]++;
+                c -= weights[choice[c]];
+            }
+        }
+
+        List<Integer> chosen = new ArrayList<>();
+        for (int i = 0; i < quantities.length; i++) {
+            if (quantities[i] > 0) {
+                chosen.add(i);
+            }
+        }
+        chosen.sort(Comparator.comparingDouble(i -> -valuePerPoint(offers.get(i))));
+        return allocate(offers, quantities, chosen, lots);
+    }
+
+    private static List<Redemption> allocate(List<Offer> offers, long[] quantities, List<Integer> chosen, List<Lot> lots) {
+        List<Lot> byExpiry = new ArrayList<>(lots);
+        byExpiry.sort(Comparator.comparingLong(lot -> lot.expiryEpochDay() < 0 ? Long.MAX_VALUE : lot.expiryEpochDay()));
+
+        List<Redemption> redemptions = new ArrayList<>(chosen.size());
+        int lot = 0;
+        long leftInLot = byExpiry.isEmpty() ? 0 : byExpiry.get(0).points();
+        for (int i : chosen) {
+            Offer offer = offers.get(i);
+            long needed = quantities[i] * offer.pointCost();
+            long redeemBy = -1;
+            boolean first = true;
+            while (needed > 0 && lot < byExpiry.size()) {
+                if (leftInLot == 0) {
+                    lot++;
+                    leftInLot = lot < byExpiry.size() ? byExpiry.get(lot).points() : 0;
+                    continue;
+                }
+                if (first) {
+                    redeemBy = byExpiry.get(lot).expiryEpochDay();
+                    first = false;
+                }
+                long taken = Math.min(needed, leftInLot);
+                needed -= taken;
+                leftInLot -= taken;
+            }
+            redemptions.add(new Redemption(offer, quantities[i], quantities[i] * offer.pointCost(),
+                    quantities[i] * offer.valueMinor(), redeemBy));
+        }
+        return redemptions;
+    }
+
+    private static double valuePerPoint(Offer offer) {
+        return (double) offer.valueMinor() / offer.pointCost();
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return (a + b - 1) / b;
+    }
+
+    record Lot(long points, long expiryEpochDay) {
+    }
+
+    /**
+     * Redeem {@code quantity} of the offer for {@code pointsUsed} points before
+     * {@code redeemByEpochDay} (-1 when none of its points expire).
+     */
+    record Redemption(Offer offer, long quantity, long pointsUsed, long valueMinor, long redeemByEpochDay) {
+    }
+}
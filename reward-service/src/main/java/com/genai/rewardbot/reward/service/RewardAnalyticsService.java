@@ -0,0 +1,92 @@
+package com.genai.rewardbot.reward.service;
+
+import com.genai.rewardbot.common.datasource.ReplicaLagGuard;
+import com.genai.rewardbot.common.dto.RewardAnalyticsDto;
+import com.genai.rewardbot.common.entity.RewardRollup;
+import com.genai.rewardbot.common.sharding.ShardRouter;
+import com.genai.rewardbot.reward.repository.RewardRollupRepository;
+import com.genai.rewardbot.reward.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Dashboard analytics answered from {@code reward_rollups} alone: one indexed range read of the
+ * user's buckets, folded in memory. No lot is read, however long the user's history.
+ */
+@Service
+@Transactional(readOnly = true)
+public class RewardAnalyticsService {
+
+    private final RewardRollupRepository rewardRollupRepository;
+    private final UserRepository userRepository;
+    private final ReplicaLagGuard replicaLagGuard;
+    private final ShardRouter shardRouter;
+    private final int seriesMonths;
+
+    public RewardAnalyticsService(RewardRollupRepository rewardRollupRepository,
+                                  UserRepository userRepository,
+                                  ReplicaLagGuard replicaLagGuard,
+                                  ShardRouter shardRouter,
+                                  @Value("${app.analytics.series-months:12}") int seriesMonths) {
+        this.rewardRollupRepository = rewardRollupRepository;
+        this.userRepository = userRepository;
+        this.replicaLagGuard = replicaLagGuard;
+        this.shardRouter = shardRouter;
+        this.seriesMonths = seriesMonths;
+    }
+
+    public Optional<RewardAnalyticsDto> getAnalytics(String mobileNumber) {
+        try (ShardRouter.Scope ignored = shardRouter.on(mobileNumber)) {
+            return replicaLagGuard.findWithPrimaryFallback(() -> userRepository.findIdByMobileNumber(mobileNumber))
+                    .map(this::getAnalytics);
+        }
+    }
+
+    private RewardAnalyticsDto getAnalytics(Long userId) {
+        YearMonth currentMonth = YearMonth.now();
+        int current = RewardRollup.bucketMonth(currentMonth);
+        int firstInSeries = RewardRollup.bucketMonth(currentMonth.minusMonths(seriesMonths - 1L));
+
+        long[] totals = new long[5]; // earned, redeemed, this month earned, this month redeemed, lots
+        Map<Integer, long[]> byMonth = new TreeMap<>();
+        Map<String, Long> bySource = new HashMap<>();
+        Map<String, Long> byVendor = new HashMap<>();
+
+        rewardRollupRepository.forEachUserRollup(userId, (bucketMonth, source, vendorCode, earned, redeemed, lots) -> {
+            totals[0] += earned;
+            totals[1] += redeemed;
+            totals[4] += lots;
+            if (bucketMonth == current) {
+                totals[2] += earned;
+                totals[3] += redeemed;
+            }
+            if (bucketMonth >= firstInSeries && bucketMonth <= current) {
+                long[] month = byMonth.computeIfAbsent(bucketMonth, key -> new long[2]);
+                month[0] += earned;
+                month[1] += redeemed;
+            }
+            if (earned > 0) {
+                bySource.merge(source, earned, Long::sum);
+                byVendor.merge(vendorCode, earned, Long::sum);
+            }
+        });
+
+        List<RewardAnalyticsDto.MonthlyPoints> monthly = new ArrayList<>(seriesMonths);
+        for (YearMonth month = currentMonth.minusMonths(seriesMonths - 1L); !month.isAfter(currentMonth); month = month.plusMonths(1)) {
+            long[] points = byMonth.getOrDefault(RewardRollup.bucketMonth(month), new long[2]);
+            monthly.add(new RewardAnalyticsDto.MonthlyPoints(month.toString(), points[0], points[1]));
+        }
+
+        return new RewardAnalyticsDto(totals[0], totals[1], totals[2], totals[3], totals[4],
+                monthly, bySource, byVendor);
+    }
+}
@@ -0,0 +1,233 @@
+package com.genai.rewardbot.reward.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.genai.rewardbot.common.datasource.ReplicaLagGuard;
+import com.genai.rewardbot.common.dto.RewardPointDto;
+import com.genai.rewardbot.common.sharding.ShardRouter;
+import com.genai.rewardbot.common.valuation.PointValue;
+import com.genai.rewardbot.reward.repository.RewardPointRepository;
+import com.genai.rewardbot.reward.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Reward history access for users with long lot histories: keyset-paginated pages and
+ * streaming exports that never hold more than one JDBC fetch of rows in memory.
+ */
+@Service
+@Slf4j
+public class RewardHistoryService {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    // Flush often enough that the client sees the first rows while the cursor is still open
+    private static final int FLUSH_INTERVAL_ROWS = 1000;
+    private static final String CSV_HEADER =
+            "id,pointsEarned,pointsUsed,pointsAvailable,earningDate,expiryDate,source,description,transactionId,pointValue";
+    private static final DateTimeFormatter CSV_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final UserRepository userRepository;
+    private final RewardPointRepository rewardPointRepository;
+    private final ObjectWriter ndjsonWriter;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReplicaLagGuard replicaLagGuard;
+    private final ShardRouter shardRouter;
+
+    public RewardHistoryService(UserRepository userRepository,
+                                RewardPointRepository rewardPointRepository,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                ReplicaLagGuard replicaLagGuard,
+                                ShardRouter shardRouter) {
+        this.userRepository = userRepository;
+        this.rewardPointRepository = rewardPointRepository;
+        this.replicaLagGuard = replicaLagGuard;
+        this.shardRouter = shardRouter;
+        this.ndjsonWriter = objectMapper.writerFor(RewardPointDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<HistoryPage> getHistoryPage(String mobileNumber, String cursor, Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        try (ShardRouter.Scope ignored = shardRouter.on(mobileNumber)) {
+            return resolveUserId(mobileNumber).map(userId -> {
+                List<RewardPointDto> rows;
+                if (cursor == null || cursor.isBlank()) {
+                    rows = rewardPointRepository.findHistoryFirstPage(userId, limit);
+                } else {
+                    HistoryCursor position = HistoryCursor.decode(cursor);
+                    rows = rewardPointRepository.findHistoryPageAfter(userId, position.earningDate(), position.id(), limit);
+                }
+
+                boolean hasMore = rows.size() > pageSize;
+                List<RewardPointDto> items = hasMore ? rows.subList(0, pageSize) : rows;
+                String nextCursor = null;
+                if (hasMore) {
+                    RewardPointDto last = items.get(items.size() - 1);
+                    nextCursor = new HistoryCursor(last.getEarningDate(), last.getId()).encode();
+                }
+                return new HistoryPage(items, nextCursor, hasMore);
+            });
+        }
+    }
+
+    public Optional<Long> resolveUserId(String mobileNumber) {
+        try (ShardRouter.Scope ignored = shardRouter.on(mobileNumber)) {
+            return replicaLagGuard.findWithPrimaryFallback(() -> userRepository.findIdByMobileNumber(mobileNumber));
+        }
+    }
+
+    /**
+     * Writes the full history as newline-delimited JSON. Runs its own read-only transaction
+     * because streaming response bodies are written on an async thread; the mobile number routes
+     * it to the user's shard.
+     */
+    public void exportNdjson(String mobileNumber, Long userId, OutputStream out) {
+        streamHistory(mobileNumber, userId, out, rows -> {
+            try (SequenceWriter sequence = ndjsonWriter.writeValues(out)) {
+                int count = 0;
+                for (RewardPointDto row : (Iterable<RewardPointDto>) rows::iterator) {
+                    sequence.write(row);
+                    if (++count % FLUSH_INTERVAL_ROWS == 1) {
+                        sequence.flush();
+                    }
+                }
+                // The generator buffers the last rows; they must reach the stream before the newline
+                sequence.flush();
+                if (count > 0) {
+                    out.write('\n');
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Writes the full history as CSV with a header row.
+     */
+    public void exportCsv(String mobileNumber, Long userId, OutputStream out) {
+        streamHistory(mobileNumber, userId, out, rows -> {
+            try {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+                int count = 0;
+                for (RewardPointDto row : (Iterable<RewardPointDto>) rows::iterator) {
+                    writeCsvRow(writer, row);
+                    if (++count % FLUSH_INTERVAL_ROWS == 1) {
+                        writer.flush();
+                    }
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void streamHistory(String mobileNumber, Long userId, OutputStream out, Consumer<Stream<RewardPointDto>> sink) {
+        long start = System.currentTimeMillis();
+        try (ShardRouter.Scope ignored = shardRouter.on(mobileNumber)) {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<RewardPointDto> rows = rewardPointRepository.streamHistoryByUserId(userId)) {
+                    sink.accept(rows);
+                }
+            });
+        }
+        log.info("Exported reward history for user {} in {} ms", userId, System.currentTimeMillis() - start);
+    }
+
+    private void writeCsvRow(Writer writer, RewardPointDto row) throws IOException {
+        writer.write(String.valueOf(row.getId()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getPointsEarned()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getPointsUsed()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getPointsAvailable()));
+        writer.write(',');
+        writer.write(formatDate(row.getEarningDate()));
+        writer.write(',');
+        writer.write(formatDate(row.getExpiryDate()));
+        writer.write(',');
+        writer.write(csvField(row.getSource()));
+        writer.write(',');
+        writer.write(csvField(row.getDescription()));
+        writer.write(',');
+        writer.write(csvField(row.getTransactionId()));
+        writer.write(',');
+        writer.write(row.getPointValue() != null ? PointValue.format(row.getPointValue()) : "");
+        writer.write('\n');
+    }
+
+    private String formatDate(LocalDateTime value) {
+        return value != null ? CSV_DATE_FORMAT.format(value) : "";
+    }
+
+    private String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    public record HistoryPage(List<RewardPointDto> points, String nextCursor, boolean hasMore) {
+    }
+
+    /**
+     * Opaque seek position: the (earningDate, id) of the last row on the previous page.
+     */
+    record HistoryCursor(LocalDateTime earningDate, Long id) {
+
+        String encode() {
+            String raw = earningDate + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static HistoryCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                return new HistoryCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.valueOf(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid history cursor", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.genai.rewardbot.reward.service;
+
+import com.genai.rewardbot.common.config.CacheRegions;
+import com.genai.rewardbot.common.outbox.ChangeEventType;
+import com.genai.rewardbot.common.sharding.ShardRouter;
+import com.genai.rewardbot.reward.repository.RewardPartitionRepository;
+import com.genai.rewardbot.reward.repository.RewardPartitionRepository.ExpiredUser;
+import com.genai.rewardbot.reward.repository.RewardPartitionRepository.ExpiryPartition;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps {@code reward_points} in step with its expiry-month partitions.
+ *
+ * <p>The sweep marks lots expired once their expiry passes, visiting the partitions from the
+ * month of the oldest unswept lot to the current one, so lots missed while the sweep was off or
+ * failing are still expired however long ago they passed. Each user's lots are locked and
+ * marked in one transaction that also records a {@code POINTS_EXPIRED} event per card, so
+ * ETags and change feed subscribers see the drop in available points.
+ *
+ * <p>Retirement removes whole months once they are {@code retain-expired} past expiry: ARCHIVE
+ * exchanges the partition into a {@code reward_points_arch_yyyyMM} table, DROP discards it.
+ * Either way the lots leave reward history, exports and rollup rebuilds; the incrementally
+ * maintained rollups keep their totals until the next rebuild.
+ *
+ * <p>With sharding both run on each shard in turn, skipping users whose bucket is mid-move.
+ */
+@Service
+@Slf4j
+public class RewardPartitionMaintenance {
+
+    private static final DateTimeFormatter ARCHIVE_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final RewardPartitionRepository rewardPartitionRepository;
+    private final ChangeEventRecorder changeEventRecorder;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final RetireAction retireAction;
+    private final Period retainExpired;
+
+    public RewardPartitionMaintenance(RewardPartitionRepository rewardPartitionRepository,
+                                      ChangeEventRecorder changeEventRecorder,
+                                      EntityManagerFactory entityManagerFactory,
+                                      ShardRouter shardRouter,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${app.reward-partitions.enabled:true}") boolean enabled,
+                                      @Value("${app.reward-partitions.retire-action:NONE}") RetireAction retireAction,
+                                      @Value("${app.reward-partitions.retain-expired:P12M}") Period retainExpired) {
+        this.rewardPartitionRepository = rewardPartitionRepository;
+        this.changeEventRecorder = changeEventRecorder;
+        this.entityManagerFactory = entityManagerFactory;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.retireAction = retireAction;
+        this.retainExpired = retainExpired;
+    }
+
+    @Scheduled(fixedDelayString = "${app.reward-partitions.sweep-interval:PT1H}")
+    public synchronized void sweepExpired() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        shardRouter.forEachShard(shard -> rewardPartitionRepository.findOldestUnsweptExpiry(now)
+                .ifPresent(oldest -> sweep(shard, YearMonth.from(oldest).atDay(1).atStartOfDay(), now)));
+    }
+
+    @Scheduled(cron = "${app.reward-partitions.retire-cron:0 30 3 * * *}")
+    public synchronized void retireExpiredPartitions() {
+        if (!enabled || retireAction == RetireAction.NONE) {
+            return;
+        }
+        YearMonth cutoff = YearMonth.now().minus(retainExpired);
+        shardRouter.forEachShard(shard -> retire(shard, cutoff));
+    }
+
+    private void retire(int shard, YearMonth cutoff) {
+        for (ExpiryPartition partition : rewardPartitionRepository.findExpiryPartitions()) {
+            if (partition.upperBound().isAfter(cutoff)) {
+                break;
+            }
+            // Lots that were never swept, e.g. loaded before the sweep ran, still get their expiry events
+            sweep(shard, partition.month().atDay(1).atStartOfDay(), partition.upperBound().atDay(1).atStartOfDay());
+            try {
+                if (retireAction == RetireAction.ARCHIVE) {
+                    String archiveTable = "reward_points_arch_" + partition.month().format(ARCHIVE_SUFFIX);
+                    rewardPartitionRepository.archivePartition(partition, archiveTable);
+                    log.info("Archived reward_points partition {} ({}) to {}", partition.name(), partition.month(), archiveTable);
+                } else {
+                    rewardPartitionRepository.dropPartition(partition);
+                    log.info("Dropped reward_points partition {} ({})", partition.name(), partition.month());
+                }
+            } catch (DataAccessException e) {
+                // Another instance may have retired it first; otherwise it is retried on the next run
+                log.warn("Could not {} reward_points partition {} ({})", retireAction, partition.name(), partition.month(), e);
+                return;
+            }
+        }
+    }
+
+    private void sweep(int shard, LocalDateTime from, LocalDateTime to) {
+        List<ExpiredUser> users = rewardPartitionRepository.findUsersWithExpiredLots(from, to);
+        if (users.isEmpty()) {
+            return;
+        }
+        long points = 0;
+        int failed = 0;
+        for (ExpiredUser user : users) {
+            if (!shardRouter.isWritableOn(shard, user.mobileNumber())) {
+                // Swept on the next run, by whichever shard then owns the user
+                failed++;
+                continue;
+            }
+            try {
+                Long expired = transactionTemplate.execute(status -> expireUser(user, from, to));
+                points += expired == null ? 0 : expired;
+            } catch (DataAccessException e) {
+                log.warn("Expiry sweep failed for user {}; retried next run", user.userId(), e);
+                failed++;
+            }
+        }
+        // The lots were updated outside Hibernate, so cached per-card totals would still count them
+        entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class)
+                .evictQueryRegion(CacheRegions.REWARD_TOTAL_QUERIES);
+        log.info("Expiry sweep [{}, {}) on shard {}: {} users, {} points expired, {} failed or deferred",
+                from, to, shard, users.size(), points, failed);
+    }
+
+    private long expireUser(ExpiredUser user, LocalDateTime from, LocalDateTime to) {
+        Map<Long, Integer> pointsByCard = rewardPartitionRepository.expireUserLots(user.userId(), from, to);
+        long points = 0;
+        for (Map.Entry<Long, Integer> card : pointsByCard.entrySet()) {
+            changeEventRecorder.record(ChangeEventType.POINTS_EXPIRED, user.mobileNumber(), user.userId(),
+                    card.getKey(), -card.getValue());
+            points += card.getValue();
+        }
+        return points;
+    }
+
+    public enum RetireAction {
+        NONE,
+        ARCHIVE,
+        DROP
+    }
+}
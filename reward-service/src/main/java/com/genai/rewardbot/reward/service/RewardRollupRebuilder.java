@@ -0,0 +1,124 @@
+package com.genai.rewardbot.reward.service;
+
+import com.genai.rewardbot.common.sharding.ShardRouter;
+import com.genai.rewardbot.reward.repository.RewardRollupRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Rebuilds {@code reward_rollups} from {@code reward_points}, e.g. after a backfill or to
+ * seed the table for existing data. Users are split into {@code MOD(user_id, partitions)}
+ * partitions rebuilt concurrently, each in its own transaction as one DELETE and one aggregate
+ * INSERT ... SELECT, so the database does the grouping and no lot crosses the wire.
+ *
+ * <p>A partition first locks its users' version rows, which incremental writers also lock
+ * before adding deltas. Writers for those users wait until the partition commits, and the
+ * INSERT ... SELECT sees every lot they committed beforehand. A writer that races with a
+ * rebuild on a user with no version row yet surfaces as a duplicate bucket; the partition is
+ * then retried. With sharding, each worker rebuilds its partition on every shard in turn.
+ */
+@Service
+@Slf4j
+public class RewardRollupRebuilder {
+
+    private final RewardRollupRepository rewardRollupRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final int partitions;
+    private final int maxAttempts;
+    private final ExecutorService workers;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public RewardRollupRebuilder(RewardRollupRepository rewardRollupRepository,
+                                 ShardRouter shardRouter,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.analytics.rebuild.partitions:16}") int partitions,
+                                 @Value("${app.analytics.rebuild.threads:4}") int threads,
+                                 @Value("${app.analytics.rebuild.max-attempts:3}") int maxAttempts) {
+        this.rewardRollupRepository = rewardRollupRepository;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.partitions = partitions;
+        this.maxAttempts = maxAttempts;
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> new Thread(runnable, "rollup-rebuild"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Rebuilds every partition and waits for them; empty if a rebuild is already running.
+     */
+    public Optional<RebuildReport> rebuild() {
+        if (!running.compareAndSet(false, true)) {
+            return Optional.empty();
+        }
+        long started = System.nanoTime();
+        try {
+            List<Future<Integer>> results = new ArrayList<>(partitions);
+            for (int partition = 0; partition < partitions; partition++) {
+                int p = partition;
+                results.add(workers.submit(() -> rebuildPartitionOnEveryShard(p)));
+            }
+
+            long buckets = 0;
+            List<Integer> failed = new ArrayList<>();
+            for (int partition = 0; partition < partitions; partition++) {
+                try {
+                    buckets += results.get(partition).get();
+                } catch (ExecutionException e) {
+                    log.error("Rollup rebuild of partition {}/{} failed", partition, partitions, e.getCause());
+                    failed.add(partition);
+                }
+            }
+
+            RebuildReport report = new RebuildReport(partitions, buckets, failed, (System.nanoTime() - started) / 1_000_000);
+            log.info("Rollup rebuild finished: {}", report);
+            return Optional.of(report);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Rollup rebuild interrupted", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int rebuildPartitionOnEveryShard(int partition) {
+        int[] buckets = new int[1];
+        shardRouter.forEachShard(shard -> buckets[0] += rebuildPartition(partition));
+        return buckets[0];
+    }
+
+    private int rebuildPartition(int partition) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> rewardRollupRepository.rebuildPartition(partitions, partition));
+            } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.debug("Rollup partition {} raced a writer ({}); retrying", partition, e.getMessage());
+            }
+        }
+    }
+
+    public record RebuildReport(int partitions, long buckets, List<Integer> failedPartitions, long elapsedMs) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.genai.rewardbot.reward.service;
+
+import com.genai.rewardbot.common.entity.RewardPoint;
+import com.genai.rewardbot.common.entity.RewardRollup;
+import com.genai.rewardbot.reward.repository.RewardRollupRepository;
+import com.genai.rewardbot.reward.repository.RewardRollupRepository.RollupDelta;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps {@code reward_rollups} in step with lot writes. Must be called inside the transaction
+ * making the change, after {@link ChangeEventRecorder#record} has created and locked the
+ * user's version row. That lock serialises writers for a user, so two of them never race to
+ * create the same bucket. A partition rebuild locks the version rows that exist when it starts,
+ * so only a user's very first writer can overlap it; the rebuild then fails on a bucket key and
+ * is retried. Deltas are applied in key order.
+ */
+@Service
+@RequiredArgsConstructor
+public class RewardRollupRecorder {
+
+    private static final Comparator<RewardRollup.Key> KEY_ORDER = Comparator
+            .comparing(RewardRollup.Key::getUserId)
+            .thenComparing(RewardRollup.Key::getBucketMonth)
+            .thenComparing(RewardRollup.Key::getSource)
+            .thenComparing(RewardRollup.Key::getVendorCode);
+
+    private final RewardRollupRepository rewardRollupRepository;
+
+    /**
+     * Adds newly written lots: earned points in the month they were earned, points already
+     * used on them in the current month.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordLots(Long userId, Collection<RewardPoint> lots) {
+        int currentMonth = RewardRollup.bucketMonth(YearMonth.now());
+        Map<RewardRollup.Key, long[]> deltas = new TreeMap<>(KEY_ORDER);
+        for (RewardPoint lot : lots) {
+            String source = orUnknown(lot.getSource());
+            String vendorCode = orUnknown(lot.getCard().getVendorCode());
+
+            int earnedMonth = RewardRollup.bucketMonth(YearMonth.from(lot.getEarningDate()));
+            long[] earned = deltas.computeIfAbsent(new RewardRollup.Key(userId, earnedMonth, source, vendorCode),
+                    key -> new long[3]);
+            earned[0] += lot.getPointsEarned();
+            earned[2]++;
+
+            int used = lot.getPointsUsed() != null ? lot.getPointsUsed() : 0;
+            if (used > 0) {
+                deltas.computeIfAbsent(new RewardRollup.Key(userId, currentMonth, source, vendorCode),
+                        key -> new long[3])[1] += used;
+            }
+        }
+        merge(deltas);
+    }
+
+    private void merge(Map<RewardRollup.Key, long[]> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<RollupDelta> batch = deltas.entrySet().stream()
+                .map(entry -> new RollupDelta(entry.getKey(), entry.getValue()[0], entry.getValue()[1],
+                        (int) entry.getValue()[2]))
+                .toList();
+        rewardRollupRepository.mergeDeltas(batch);
+    }
+
+    private static String orUnknown(String value) {
+        return value != null && !value.isBlank() ? value : RewardRollup.UNKNOWN;
+    }
+}
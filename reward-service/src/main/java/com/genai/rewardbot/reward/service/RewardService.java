@@ -0,0 +1,145 @@
+package com.genai.rewardbot.reward.service;
+
+import com.genai.rewardbot.common.datasource.ReplicaLagGuard;
+import com.genai.rewardbot.common.dto.CardDto;
+import com.genai.rewardbot.common.dto.RewardPointDto;
+import com.genai.rewardbot.common.dto.RewardSummaryDto;
+import com.genai.rewardbot.common.entity.UserDataVersion;
+import com.genai.rewardbot.common.sharding.ShardRouter;
+import com.genai.rewardbot.common.valuation.GroupedValueAccumulator;
+import com.genai.rewardbot.reward.repository.CardRepository;
+import com.genai.rewardbot.reward.repository.RewardPointRepository;
+import com.genai.rewardbot.reward.repository.RewardValuationRepository;
+import com.genai.rewardbot.reward.repository.UserDataVersionRepository;
+import com.genai.rewardbot.reward.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class RewardService {
+
+    private final UserRepository userRepository;
+    private final CardRepository cardRepository;
+    private final RewardPointRepository rewardPointRepository;
+    private final RewardValuationRepository rewardValuationRepository;
+    private final ReplicaLagGuard replicaLagGuard;
+    private final UserDataVersionRepository userDataVersionRepository;
+    private final ShardRouter shardRouter;
+
+    /**
+     * Version of everything the read endpoints return for a user; 0 until the first recorded
+     * change. A single primary-key lookup, normally served from the second-level cache.
+     */
+    public long getDataVersion(String mobileNumber) {
+        try (ShardRouter.Scope ignored = shardRouter.on(mobileNumber)) {
+            return userDataVersionRepository.findById(mobileNumber)
+                    .map(UserDataVersion::getDataVersion)
+                    .orElse(0L);
+        }
+    }
+
+    public List<CardDto> getActiveCards(String mobileNumber) {
+        try (ShardRouter.Scope ignored = shardRouter.on(mobileNumber)) {
+            return resolveUserId(mobileNumber)
+                    .map(this::getActiveCards)
+                    .orElse(List.of());
+        }
+    }
+
+    // Users are created by auth-service, so a fresh registration may not have reached the replica yet
+    private Optional<Long> resolveUserId(String mobileNumber) {
+        return replicaLagGuard.findWithPrimaryFallback(() -> userRepository.findIdByMobileNumber(mobileNumber));
+    }
+
+    public List<CardDto> getActiveCards(Long userId) {
+        // Both lookups are served from the query cache on repeat loads
+        List<CardDto> cards = cardRepository.findActiveCardDtosByUserId(userId);
+        Map<Long, Integer> pointsByCard = new HashMap<>();
+        for (Object[] row : rewardPointRepository.getTotalAvailablePointsPerCardByUserId(userId)) {
+            pointsByCard.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+
+        for (CardDto card : cards) {
+            card.setTotalRewardPoints(pointsByCard.getOrDefault(card.getId(), 0));
+        }
+        return cards;
+    }
+
+    public List<RewardPointDto> getRewardPoints(String mobileNumber) {
+        try (ShardRouter.Scope ignored = shardRouter.on(mobileNumber)) {
+            return resolveUserId(mobileNumber)
+                    .map(this::getRewardPoints)
+                    .orElse(List.of());
+        }
+    }
+
+    public List<RewardPointDto> getRewardPoints(Long userId) {
+        return rewardPointRepository.findRewardPointDtosByUserId(userId);
+    }
+
+    public Optional<RewardSummaryDto> getRewardSummary(String mobileNumber) {
+        try (ShardRouter.Scope ignored = shardRouter.on(mobileNumber)) {
+            return resolveUserId(mobileNumber).map(this::getRewardSummary);
+        }
+    }
+
+    public RewardSummaryDto getRewardSummary(Long userId) {
+        List<CardDto> cards = cardRepository.findActiveCardDtosByUserId(userId);
+
+        // Dense vendor slots so each lot is folded into primitive accumulators without lookups that allocate
+        long[] cardIds = new long[cards.size()];
+        int[] vendorSlotByCard = new int[cards.size()];
+        List<String> vendors = new ArrayList<>();
+        for (int i = 0; i < cards.size(); i++) {
+            String vendor = cards.get(i).getVendorName();
+            int slot = vendors.indexOf(vendor);
+            if (slot < 0) {
+                slot = vendors.size();
+                vendors.add(vendor);
+            }
+            cardIds[i] = cards.get(i).getId();
+            vendorSlotByCard[i] = slot;
+        }
+
+        GroupedValueAccumulator byVendor = new GroupedValueAccumulator(vendors.size());
+        long[] expiringSoon = new long[1];
+        rewardValuationRepository.forEachAvailableLot(userId, LocalDateTime.now().plusDays(30),
+                (cardId, points, pointValueUnits, expiring) -> {
+                    for (int i = 0; i < cardIds.length; i++) {
+                        if (cardIds[i] == cardId) {
+                            byVendor.add(vendorSlotByCard[i], points, pointValueUnits);
+                            if (expiring) {
+                                expiringSoon[0] += points;
+                            }
+                            return;
+                        }
+                    }
+                });
+
+        Map<String, Integer> pointsByVendor = new LinkedHashMap<>();
+        Map<String, Long> valueByVendor = new LinkedHashMap<>();
+        for (int slot = 0; slot < vendors.size(); slot++) {
+            pointsByVendor.put(vendors.get(slot), Math.toIntExact(byVendor.points(slot)));
+            valueByVendor.put(vendors.get(slot), byVendor.value(slot));
+        }
+
+        RewardSummaryDto summary = new RewardSummaryDto(Math.toIntExact(byVendor.totalPoints()),
+                Math.toIntExact(expiringSoon[0]), byVendor.totalValue(), cards.size());
+        summary.setPointsByVendor(pointsByVendor);
+        summary.setValueByVendor(valueByVendor);
+        return summary;
+    }
+}
@@ -0,0 +1,105 @@
+package com.genai.rewardbot.reward.service;
+
+import com.genai.rewardbot.common.datasource.ReplicaLagGuard;
+import com.genai.rewardbot.common.dto.CardDto;
+import com.genai.rewardbot.common.entity.User;
+import com.genai.rewardbot.common.sharding.ShardRouter;
+import com.genai.rewardbot.common.snapshot.CardSnapshot;
+import com.genai.rewardbot.common.snapshot.UserRewardSnapshot;
+import com.genai.rewardbot.common.valuation.GroupedValueAccumulator;
+import com.genai.rewardbot.common.valuation.Money;
+import com.genai.rewardbot.reward.repository.CardRepository;
+import com.genai.rewardbot.reward.repository.RewardValuationRepository;
+import com.genai.rewardbot.reward.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Builds the per-user reward snapshot served to genai-service: active cards with their
+ * available, expiring and valued points, from two queries and one pass over the lots, and the
+ * user's redemption plan, normally from {@link RedemptionAdvisor}'s cache.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class RewardSnapshotService {
+
+    private static final int EXPIRING_SOON_DAYS = 30;
+
+    private final UserRepository userRepository;
+    private final CardRepository cardRepository;
+    private final RewardValuationRepository rewardValuationRepository;
+    private final ReplicaLagGuard replicaLagGuard;
+    private final RedemptionAdvisor redemptionAdvisor;
+    private final ShardRouter shardRouter;
+
+    public Optional<UserRewardSnapshot> getSnapshot(String mobileNumber) {
+        try (ShardRouter.Scope ignored = shardRouter.on(mobileNumber)) {
+            return replicaLagGuard.findWithPrimaryFallback(() -> userRepository.findIdByMobileNumber(mobileNumber))
+                    .flatMap(userRepository::findById)
+                    .map(this::buildSnapshot);
+        }
+    }
+
+    private UserRewardSnapshot buildSnapshot(User user) {
+        List<CardDto> cards = cardRepository.findActiveCardDtosByUserId(user.getId());
+        long[] cardIds = new long[cards.size()];
+        for (int i = 0; i < cards.size(); i++) {
+            cardIds[i] = cards.get(i).getId();
+        }
+
+        GroupedValueAccumulator available = new GroupedValueAccumulator(cards.size());
+        long[] expiringSoon = new long[cards.size()];
+        long[] nextExpiry = new long[cards.size()];
+        Arrays.fill(nextExpiry, -1);
+        long expiringBefore = LocalDate.now().plusDays(EXPIRING_SOON_DAYS).toEpochDay();
+
+        rewardValuationRepository.forEachAvailableLotWithExpiry(user.getId(),
+                (cardId, points, pointValueUnits, expiryEpochDay) -> {
+                    for (int i = 0; i < cardIds.length; i++) {
+                        if (cardIds[i] == cardId) {
+                            available.add(i, points, pointValueUnits);
+                            if (expiryEpochDay >= 0) {
+                                if (expiryEpochDay < expiringBefore) {
+                                    expiringSoon[i] += points;
+                                }
+                                if (nextExpiry[i] < 0 || expiryEpochDay < nextExpiry[i]) {
+                                    nextExpiry[i] = expiryEpochDay;
+                                }
+                            }
+                            return;
+                        }
+                    }
+                });
+
+        List<CardSnapshot> cardSnapshots = new ArrayList<>(cards.size());
+        for (int i = 0; i < cards.size(); i++) {
+            CardDto card = cards.get(i);
+            String number = card.getCardNumber();
+            cardSnapshots.add(new CardSnapshot(
+                    card.getId(),
+                    card.getVendorName(),
+                    card.getVendorCode(),
+                    card.getCardType(),
+                    number != null && number.length() >= 4 ? number.substring(number.length() - 4) : null,
+                    card.getCardBalance() != null ? card.getCardBalance() : 0,
+                    card.getCurrency(),
+                    card.getCashbackRate() != null ? Money.rateToBasisPoints(card.getCashbackRate()) : 0,
+                    available.points(i),
+                    expiringSoon[i],
+                    nextExpiry[i],
+                    available.value(i)));
+        }
+
+        return new UserRewardSnapshot(user.getId(), user.getMobileNumber(), user.getFirstName(), user.getLastName(),
+                System.currentTimeMillis(), cardSnapshots,
+                redemptionAdvisor.getPlan(user.getId(), user.getMobileNumber()).toSnapshots());
+    }
+}
@@ -0,0 +1,146 @@
+package com.genai.rewardbot.reward.service;
+
+import com.genai.rewardbot.common.valuation.Money;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads an issuer transaction file line by line, so a file of any size takes one buffer of
+ * memory. Files are CSV, optionally gzipped ({@code .gz}), with an optional header row:
+ * <pre>
+ * transaction_id,card_number,amount,transaction_time[,source[,category[,description]]]
+ * </pre>
+ * {@code amount} is in currency units ({@code 1499.00}), {@code transaction_time} is ISO local
+ * date-time, {@code source} defaults to PURCHASE, {@code category} is the merchant category the
+ * accrual rules can match on, and the description runs to the end of the line, commas included.
+ * Every non-blank line after the header is one record, readable or not, so record counts are
+ * stable across restarts.
+ */
+final class TransactionFeed implements Closeable {
+
+    static final String DEFAULT_SOURCE = "PURCHASE";
+
+    private final BufferedReader reader;
+    private long position;
+    private boolean headerChecked;
+
+    private TransactionFeed(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    static TransactionFeed open(Path file) throws IOException {
+        InputStream in = Files.newInputStream(file);
+        try {
+            if (file.getFileName().toString().endsWith(".gz")) {
+                in = new GZIPInputStream(in, 1 << 16);
+            }
+            return new TransactionFeed(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16));
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Skips {@code records} records, e.g. the ones a checkpoint says are already committed.
+     */
+    void skip(long records) {
+        while (position < records && nextLine() != null) {
+            position++;
+        }
+    }
+
+    /**
+     * Up to {@code max} records; fewer only at the end of the file.
+     */
+    List<Transaction> read(int max) {
+        List<Transaction> records = new ArrayList<>(max);
+        String line;
+        while (records.size() < max && (line = nextLine()) != null) {
+            records.add(parse(line, ++position));
+        }
+        return records;
+    }
+
+    long position() {
+        return position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String nextLine() {
+        try {
+            String line;
+            do {
+                line = reader.readLine();
+            } while (line != null && line.isBlank());
+            if (line != null && !headerChecked) {
+                headerChecked = true;
+                if (line.startsWith("transaction_id")) {
+                    return nextLine();
+                }
+            }
+            return line;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Transaction parse(String line, long record) {
+        String[] fields = line.split(",", 7);
+        if (fields.length < 4) {
+            return Transaction.rejected(record, "expected at least 4 fields");
+        }
+        String transactionId = fields[0].trim();
+        String cardNumber = fields[1].trim();
+        if (transactionId.isEmpty() || transactionId.length() > 50) {
+            return Transaction.rejected(record, "transaction id missing or longer than 50");
+        }
+        if (cardNumber.isEmpty() || cardNumber.length() > 20) {
+            return Transaction.rejected(record, "card number missing or longer than 20");
+        }
+        long amount;
+        LocalDateTime time;
+        try {
+            amount = Money.parse(fields[2].trim());
+            time = LocalDateTime.parse(fields[3].trim());
+        } catch (NumberFormatException | ArithmeticException | DateTimeParseException e) {
+            return Transaction.rejected(record, e.getMessage());
+        }
+        String source = fields.length > 4 && !fields[4].isBlank() ? fields[4].trim() : DEFAULT_SOURCE;
+        String category = fields.length > 5 && !fields[5].isBlank() ? fields[5].trim() : null;
+        String description = fields.length > 6 && !fields[6].isBlank() ? fields[6].trim() : null;
+        if (source.length() > 100 || (category != null && category.length() > 30)
+                || (description != null && description.length() > 255)) {
+            return Transaction.rejected(record, "source, category or description too long");
+        }
+        return new Transaction(record, transactionId, cardNumber, amount, time, source, category, description, null);
+    }
+
+    /**
+     * One record; {@code error} is set, and the other fields may be null, if it could not be read.
+     */
+    record Transaction(long record, String transactionId, String cardNumber, long amountMinor, LocalDateTime time,
+                       String source, String category, String description, String error) {
+
+        static Transaction rejected(long record, String error) {
+            return new Transaction(record, null, null, 0, null, null, null, null, error);
+        }
+    }
+}
@@ -0,0 +1,623 @@
+package com.genai.rewardbot.reward.service;
+
+import com.genai.rewardbot.common.config.CacheRegions;
+import com.genai.rewardbot.common.entity.Card;
+import com.genai.rewardbot.common.entity.RewardPoint;
+import com.genai.rewardbot.common.outbox.ChangeEventType;
+import com.genai.rewardbot.common.sharding.ShardFrozenException;
+import com.genai.rewardbot.common.sharding.ShardRouter;
+import com.genai.rewardbot.common.util.BloomFilter;
+import com.genai.rewardbot.common.valuation.PointValue;
+import com.genai.rewardbot.reward.repository.TransactionIngestionRepository;
+import com.genai.rewardbot.reward.repository.TransactionIngestionRepository.CardRef;
+import com.genai.rewardbot.reward.repository.TransactionIngestionRepository.FileProgress;
+import com.genai.rewardbot.reward.repository.TransactionIngestionRepository.LotKey;
+import com.genai.rewardbot.reward.repository.TransactionIngestionRepository.NewLot;
+import com.genai.rewardbot.reward.service.TransactionFeed.Transaction;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Turns issuer transaction files dropped into {@code app.ingestion.inbox} into reward lots.
+ *
+ * <p>A file is streamed in chunks of {@code chunk-size} records. The reader resolves each
+ * record's card through an in-memory index of the active cards and checks its
+ * {@code (card, transaction id)} against a Bloom filter of the keys seen in the last
+ * {@code dedupe-window} and earlier in this run. The chunk is then split into {@code partitions}
+ * by user and written by {@code threads} workers in JDBC batches of {@code batch-size}, while the
+ * reader prepares the next chunk. Only keys the filter may have seen are looked up before the
+ * insert; the unique index on {@code (card_id, transaction_id)} catches the rest, and a batch
+ * that hits it is redone with every key looked up. Each batch commits its lots together with the
+ * users' change events and rollups.
+ *
+ * <p>Once all of a chunk's batches have committed, the file's checkpoint in
+ * {@code ingestion_files} moves past it. A restart, on this or another instance, skips the
+ * committed records and replays at most the chunk in flight, whose lots the unique index keeps
+ * from being created twice. Partitioning by user rather than card keeps each user's version row
+ * and rollups in a single worker.
+ *
+ * <p>Points are what the {@link AccrualRules} in force when a chunk is read award for the
+ * card's vendor and the record's source, category, amount and time, valid for
+ * {@code points-validity}; no run starts before the rules have loaded. Records that earn nothing (refunds, unknown or inactive cards,
+ * unreadable lines) are counted as rejected. With sharding, a batch is written per shard. Users
+ * whose bucket is frozen for a move are held back until the move completes, without using up an
+ * attempt; a freeze lasting more than {@value #FROZEN_WAIT_REFRESHES} directory refreshes fails
+ * the run.
+ */
+@Service
+@Slf4j
+public class TransactionIngestionJob {
+
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final Duration RETRY_BACKOFF = Duration.ofSeconds(2);
+    // A move keeps its bucket frozen for two refreshes plus the final copy, and this instance
+    // sees the switch up to one refresh later; the rest is slack for the copy
+    private static final int FROZEN_WAIT_REFRESHES = 6;
+
+    private final TransactionIngestionRepository ingestionRepository;
+    private final ChangeEventRecorder changeEventRecorder;
+    private final RewardRollupRecorder rewardRollupRecorder;
+    private final AccrualRules accrualRules;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final boolean enabled;
+    private final Path inbox;
+    private final int partitions;
+    private final int chunkSize;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration frozenWait;
+    private final Duration frozenPoll;
+    private final Period dedupeWindow;
+    private final long expectedKeys;
+    private final double falsePositiveRate;
+    private final long pointValueUnits;
+    private final Period pointsValidity;
+    private final ExecutorService coordinator;
+    private final ExecutorService workers;
+
+    private volatile Run current;
+
+    public TransactionIngestionJob(TransactionIngestionRepository ingestionRepository,
+                                   ChangeEventRecorder changeEventRecorder,
+                                   RewardRollupRecorder rewardRollupRecorder,
+                                   AccrualRules accrualRules,
+                                   ShardRouter shardRouter,
+                                   PlatformTransactionManager transactionManager,
+                                   EntityManagerFactory entityManagerFactory,
+                                   @Value("${app.ingestion.enabled:true}") boolean enabled,
+                                   @Value("${app.ingestion.inbox:inbox}") Path inbox,
+                                   @Value("${app.ingestion.partitions:16}") int partitions,
+                                   @Value("${app.ingestion.threads:4}") int threads,
+                                   @Value("${app.ingestion.chunk-size:20000}") int chunkSize,
+                                   @Value("${app.ingestion.batch-size:500}") int batchSize,
+                                   @Value("${app.ingestion.max-attempts:5}") int maxAttempts,
+                                   @Value("${app.ingestion.dedupe-window:P35D}") Period dedupeWindow,
+                                   @Value("${app.ingestion.dedupe-expected-keys:10000000}") long expectedKeys,
+                                   @Value("${app.ingestion.dedupe-false-positive-rate:0.01}") double falsePositiveRate,
+                                   @Value("${app.ingestion.point-value:0.25}") String pointValue,
+                                   @Value("${app.ingestion.points-validity:P24M}") Period pointsValidity,
+                                   @Value("${app.sharding.directory-refresh:PT10S}") Duration directoryRefresh) {
+        if (batchSize < 1 || batchSize > MAX_BATCH_SIZE) {
+            // A batch's keys are looked up in one IN list, which Oracle caps at 1000
+            throw new IllegalArgumentException("app.ingestion.batch-size must be between 1 and " + MAX_BATCH_SIZE);
+        }
+        this.ingestionRepository = ingestionRepository;
+        this.changeEventRecorder = changeEventRecorder;
+        this.rewardRollupRecorder = rewardRollupRecorder;
+        this.accrualRules = accrualRules;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.enabled = enabled;
+        this.inbox = inbox;
+        this.partitions = partitions;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.frozenWait = directoryRefresh.multipliedBy(FROZEN_WAIT_REFRESHES);
+        this.frozenPoll = directoryRefresh.dividedBy(2);
+        this.dedupeWindow = dedupeWindow;
+        this.expectedKeys = expectedKeys;
+        this.falsePositiveRate = falsePositiveRate;
+        this.pointValueUnits = PointValue.parse(pointValue);
+        this.pointsValidity = pointsValidity;
+        this.coordinator = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "ingestion"));
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> new Thread(runnable, "ingestion-worker"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${app.ingestion.poll-interval:PT5M}")
+    public void poll() {
+        if (enabled) {
+            start();
+        }
+    }
+
+    /**
+     * Starts ingesting the inbox's unfinished files in the background; false if a run is
+     * already going on here.
+     */
+    public synchronized boolean start() {
+        if (current != null && current.finishedAt == null) {
+            return false;
+        }
+        Run run = new Run();
+        current = run;
+        coordinator.execute(() -> execute(run));
+        return true;
+    }
+
+    public Map<String, Object> status() {
+        Run run = current;
+        return run == null ? Map.of("running", false) : run.toMap();
+    }
+
+    private void execute(Run run) {
+        try {
+            List<Path> files = pendingFiles();
+            if (files.isEmpty()) {
+                return;
+            }
+            if (!accrualRules.isLoaded()) {
+                // Everything would be rejected as earning nothing, and the checkpoints would move past it
+                log.warn("Accrual rules not loaded yet; leaving {} transaction files for the next run", files.size());
+                return;
+            }
+            log.info("Ingesting {} transaction files from {}", files.size(), inbox);
+            CardIndex cards = loadCards();
+            BloomFilter seen = loadRecentKeys();
+            for (Path file : files) {
+                run.currentFile = file.getFileName().toString();
+                try {
+                    ingestFile(run, file, cards, seen);
+                    run.files.incrementAndGet();
+                } catch (RuntimeException | IOException e) {
+                    log.error("Ingestion of {} failed; resumed from its checkpoint on the next run", file, e);
+                    run.failedFiles.incrementAndGet();
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Ingestion run failed", e);
+            run.failedFiles.incrementAndGet();
+        } finally {
+            run.finish();
+            if (run.files.get() + run.failedFiles.get() > 0) {
+                log.info("Ingestion run finished: {}", run.toMap());
+            }
+        }
+    }
+
+    private List<Path> pendingFiles() {
+        if (!Files.isDirectory(inbox)) {
+            return List.of();
+        }
+        Set<String> completed;
+        try (ShardRouter.Scope ignored = shardRouter.onShard(ShardRouter.CATALOG_SHARD)) {
+            completed = ingestionRepository.findCompletedFiles();
+        }
+        try (Stream<Path> listing = Files.list(inbox)) {
+            return listing
+                    .filter(Files::isRegularFile)
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return (name.endsWith(".csv") || name.endsWith(".csv.gz")) && !completed.contains(name);
+                    })
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list " + inbox, e);
+        }
+    }
+
+    private CardIndex loadCards() {
+        CardIndex cards = new CardIndex();
+        shardRouter.forEachShard(shard -> ingestionRepository.forEachActiveCard(cards.byNumber::put));
+        log.info("Card index holds {} active cards", cards.byNumber.size());
+        return cards;
+    }
+
+    private BloomFilter loadRecentKeys() {
+        BloomFilter seen = BloomFilter.create(expectedKeys, falsePositiveRate);
+        LocalDateTime since = LocalDateTime.now().minus(dedupeWindow);
+        AtomicLong keys = new AtomicLong();
+        shardRouter.forEachShard(shard -> ingestionRepository.forEachRecentKey(since, (cardId, transactionId) -> {
+            seen.put(cardId + ":" + transactionId);
+            keys.incrementAndGet();
+        }));
+        log.info("Dedupe filter seeded with {} transaction keys earned since {}", keys.get(), since.toLocalDate());
+        return seen;
+    }
+
+    private void ingestFile(Run run, Path file, CardIndex cards, BloomFilter seen) throws IOException {
+        String name = file.getFileName().toString();
+        FileProgress progress = claim(name);
+        if (progress.completed()) {
+            return;
+        }
+        long position = progress.recordsDone();
+        if (position > 0) {
+            log.info("Resuming {} after record {}", name, position);
+        }
+
+        CompletableFuture<Chunk> writing = null;
+        try (TransactionFeed feed = TransactionFeed.open(file)) {
+            feed.skip(position);
+            while (true) {
+                // Read and resolve the next chunk while the workers write the previous one
+                List<Transaction> records = feed.read(chunkSize);
+                Chunk next = prepare(records, cards, seen);
+                if (writing != null) {
+                    Chunk written = join(writing);
+                    evictRewardTotals();
+                    if (!advance(name, position, written, false)) {
+                        return;
+                    }
+                    run.record(written);
+                    position += written.records;
+                }
+                if (records.isEmpty()) {
+                    advance(name, position, new Chunk(0), true);
+                    log.info("Ingested {}: {} records", name, position);
+                    return;
+                }
+                writing = write(next);
+            }
+        } finally {
+            // Don't let a failed file's last chunk overlap the next file
+            if (writing != null && !writing.isDone()) {
+                writing.exceptionally(failure -> null).join();
+            }
+        }
+    }
+
+    // Creates the file's checkpoint on first sight; instances racing to do so both end up with the one row
+    private FileProgress claim(String name) {
+        try (ShardRouter.Scope ignored = shardRouter.onShard(ShardRouter.CATALOG_SHARD)) {
+            FileProgress progress = ingestionRepository.findFile(name);
+            if (progress == null) {
+                try {
+                    ingestionRepository.insertFile(name);
+                } catch (DuplicateKeyException e) {
+                    log.debug("{} was claimed concurrently", name);
+                }
+                progress = ingestionRepository.findFile(name);
+            }
+            return progress;
+        }
+    }
+
+    private boolean advance(String name, long position, Chunk chunk, boolean completed) {
+        boolean advanced;
+        try (ShardRouter.Scope ignored = shardRouter.onShard(ShardRouter.CATALOG_SHARD)) {
+            advanced = ingestionRepository.advanceFile(name, position, position + chunk.records, chunk.lots.get(),
+                    chunk.duplicates.get(), chunk.rejected, completed);
+        }
+        if (!advanced) {
+            // Its lots are in; whoever moved the checkpoint carries on with the file
+            log.info("Checkpoint of {} moved past record {} elsewhere; leaving the file to that instance", name, position);
+        }
+        return advanced;
+    }
+
+    private Chunk prepare(List<Transaction> records, CardIndex cards, BloomFilter seen) {
+        Chunk chunk = new Chunk(records.size());
+        AccrualRuleSet rules = accrualRules.ruleSet();
+        for (Transaction transaction : records) {
+            if (transaction.error() != null) {
+                chunk.reject(transaction, transaction.error());
+                continue;
+            }
+            CardRef card = cards.resolve(transaction.cardNumber());
+            if (card == null) {
+                chunk.reject(transaction, "no active card");
+                continue;
+            }
+            NewLot lot = accrue(rules, transaction, card);
+            if (lot == null) {
+                chunk.reject(transaction, "earns no points");
+                continue;
+            }
+            // put() reports whether the key was definitely new
+            boolean maybeSeen = !seen.put(lot.key().toString());
+            chunk.partitions.computeIfAbsent(Math.floorMod(card.userId(), partitions), partition -> new ArrayList<>())
+                    .add(new Entry(card, lot, maybeSeen));
+        }
+        return chunk;
+    }
+
+    private NewLot accrue(AccrualRuleSet rules, Transaction transaction, CardRef card) {
+        long points = rules.points(card.vendorCode(), transaction.source(), transaction.category(),
+                transaction.amountMinor(), transaction.time());
+        if (points <= 0 || points > Integer.MAX_VALUE) {
+            return null;
+        }
+        String description = transaction.description() != null ? transaction.description()
+                : "Points earned from " + card.vendorName() + " transaction";
+        return new NewLot(new LotKey(card.cardId(), transaction.transactionId()), (int) points, transaction.time(),
+                transaction.time().plus(pointsValidity), transaction.source(), description, pointValueUnits);
+    }
+
+    private CompletableFuture<Chunk> write(Chunk chunk) {
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(chunk.partitions.size());
+        for (List<Entry> entries : chunk.partitions.values()) {
+            tasks.add(CompletableFuture.runAsync(() -> writePartition(chunk, entries), workers));
+        }
+        return CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).thenApply(done -> chunk);
+    }
+
+    private void writePartition(Chunk chunk, List<Entry> entries) {
+        entries.sort(Comparator.comparingLong(entry -> entry.card.userId()));
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            writeBatch(chunk, entries.subList(from, Math.min(entries.size(), from + batchSize)), false, 1);
+        }
+    }
+
+    // One transaction per shard the batch's users live on; what fails transiently is regrouped and retried
+    private void writeBatch(Chunk chunk, List<Entry> batch, boolean lookUpAll, int attempt) {
+        List<Entry> retry = new ArrayList<>();
+        List<Entry> frozen = new ArrayList<>();
+        boolean duplicateHit = false;
+        for (Map.Entry<Integer, List<Entry>> shard : shardRouter.groupByShard(batch, entry -> entry.card.mobileNumber()).entrySet()) {
+            List<Entry> writable = new ArrayList<>(shard.getValue().size());
+            for (Entry entry : shard.getValue()) {
+                (shardRouter.isWritableOn(shard.getKey(), entry.card.mobileNumber()) ? writable : frozen).add(entry);
+            }
+            if (writable.isEmpty()) {
+                continue;
+            }
+            try (ShardRouter.Scope ignored = shardRouter.onShard(shard.getKey())) {
+                long[] written = transactionTemplate.execute(status -> writeShardBatch(shard.getKey(), writable, lookUpAll));
+                chunk.lots.addAndGet(written[0]);
+                chunk.duplicates.addAndGet(written[1]);
+            } catch (ShardFrozenException e) {
+                // Frozen since the check above
+                frozen.addAll(writable);
+            } catch (DuplicateKeyException e) {
+                // The filter missed a key that already has a lot
+                duplicateHit = true;
+                retry.addAll(writable);
+            } catch (TransientDataAccessException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.debug("Ingestion batch on shard {} failed ({}); retrying", shard.getKey(), e.getMessage());
+                retry.addAll(writable);
+            }
+        }
+        if (!frozen.isEmpty()) {
+            // Waiting out a move is not a failure, so it does not use up an attempt
+            awaitUnfrozen(frozen);
+            writeBatch(chunk, frozen, true, attempt);
+        }
+        if (retry.isEmpty()) {
+            return;
+        }
+        if (attempt >= maxAttempts) {
+            throw new IllegalStateException("Ingestion batch still failing after " + maxAttempts + " attempts");
+        }
+        if (!duplicateHit) {
+            sleep(RETRY_BACKOFF.multipliedBy(attempt));
+        }
+        writeBatch(chunk, retry, true, attempt + 1);
+    }
+
+    private void awaitUnfrozen(List<Entry> entries) {
+        long deadline = System.nanoTime() + frozenWait.toNanos();
+        log.debug("{} ingestion records wait for a shard move", entries.size());
+        while (entries.stream().anyMatch(entry -> shardRouter.isFrozen(entry.card.mobileNumber()))) {
+            if (System.nanoTime() - deadline > 0) {
+                throw new IllegalStateException("Bucket still frozen for a shard move after " + frozenWait);
+            }
+            sleep(frozenPoll);
+        }
+    }
+
+    private long[] writeShardBatch(int shard, List<Entry> entries, boolean lookUpAll) {
+        Map<String, Entry> unique = new LinkedHashMap<>();
+        List<LotKey> lookups = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (!shardRouter.isWritableOn(shard, entry.card.mobileNumber())) {
+                throw new ShardFrozenException(shardRouter.bucketOf(entry.card.mobileNumber()));
+            }
+            if (unique.putIfAbsent(entry.lot.key().toString(), entry) == null && (lookUpAll || entry.maybeSeen)) {
+                lookups.add(entry.lot.key());
+            }
+        }
+        long duplicates = entries.size() - unique.size();
+        Set<String> existing = ingestionRepository.findExistingKeys(lookups);
+        unique.keySet().removeAll(existing);
+        duplicates += existing.size();
+        if (unique.isEmpty()) {
+            return new long[]{0, duplicates};
+        }
+
+        // Users in id order, so concurrent writers lock version rows in the same order
+        Map<Long, List<Entry>> byUser = new TreeMap<>();
+        List<NewLot> lots = new ArrayList<>(unique.size());
+        for (Entry entry : unique.values()) {
+            byUser.computeIfAbsent(entry.card.userId(), user -> new ArrayList<>()).add(entry);
+            lots.add(entry.lot);
+        }
+        for (List<Entry> userEntries : byUser.values()) {
+            CardRef card = userEntries.get(0).card;
+            long points = 0;
+            boolean oneCard = true;
+            for (Entry entry : userEntries) {
+                points += entry.lot.points();
+                oneCard &= entry.card.cardId() == card.cardId();
+            }
+            changeEventRecorder.record(ChangeEventType.POINTS_EARNED, card.mobileNumber(), card.userId(),
+                    oneCard ? card.cardId() : null, (int) Math.min(Integer.MAX_VALUE, points));
+        }
+        ingestionRepository.insertLots(lots);
+        for (Map.Entry<Long, List<Entry>> user : byUser.entrySet()) {
+            rewardRollupRecorder.recordLots(user.getKey(), user.getValue().stream().map(TransactionIngestionJob::rewardPoint).toList());
+        }
+        return new long[]{lots.size(), duplicates};
+    }
+
+    // What the rollups need of a lot: points, earning month, source and vendor
+    private static RewardPoint rewardPoint(Entry entry) {
+        Card card = new Card();
+        card.setId(entry.card.cardId());
+        card.setVendorCode(entry.card.vendorCode());
+        return new RewardPoint(entry.lot.points(), entry.lot.earningDate(), entry.lot.expiryDate(), entry.lot.source(),
+                entry.lot.description(), card);
+    }
+
+    // The lots were written outside Hibernate, so cached per-card totals would miss them
+    private void evictRewardTotals() {
+        entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class)
+                .evictQueryRegion(CacheRegions.REWARD_TOTAL_QUERIES);
+    }
+
+    private static Chunk join(CompletableFuture<Chunk> writing) {
+        try {
+            return writing.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying an ingestion batch", e);
+        }
+    }
+
+    /**
+     * Active cards by number, loaded once per run. A card added since is looked up on every
+     * shard the first time it appears; numbers found nowhere are remembered as unknown.
+     */
+    private final class CardIndex {
+
+        private static final CardRef UNKNOWN = new CardRef(-1, null, null, -1, null);
+
+        private final Map<String, CardRef> byNumber = new HashMap<>();
+
+        CardRef resolve(String cardNumber) {
+            CardRef card = byNumber.get(cardNumber);
+            if (card == null) {
+                card = shardRouter.scatter(shard -> ingestionRepository.findActiveCard(cardNumber)).stream()
+                        .filter(Objects::nonNull)
+                        .findFirst()
+                        .orElse(UNKNOWN);
+                byNumber.put(cardNumber, card);
+            }
+            return card == UNKNOWN ? null : card;
+        }
+    }
+
+    private record Entry(CardRef card, NewLot lot, boolean maybeSeen) {
+    }
+
+    private static final class Chunk {
+        private final int records;
+        private final Map<Integer, List<Entry>> partitions = new HashMap<>();
+        private final AtomicLong lots = new AtomicLong();
+        private final AtomicLong duplicates = new AtomicLong();
+        private int rejected;
+
+        private Chunk(int records) {
+            this.records = records;
+        }
+
+        void reject(Transaction transaction, String reason) {
+            if (rejected++ < 10) {
+                log.warn("Rejected record {}: {}", transaction.record(), reason);
+            }
+        }
+    }
+
+    private static final class Run {
+        private final Instant startedAt = Instant.now();
+        private final long startedNanos = System.nanoTime();
+        private final AtomicInteger files = new AtomicInteger();
+        private final AtomicInteger failedFiles = new AtomicInteger();
+        private final AtomicLong records = new AtomicLong();
+        private final AtomicLong lots = new AtomicLong();
+        private final AtomicLong duplicates = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private volatile String currentFile;
+        private volatile Instant finishedAt;
+        private volatile long finishedNanos;
+
+        void record(Chunk chunk) {
+            records.addAndGet(chunk.records);
+            lots.addAndGet(chunk.lots.get());
+            duplicates.addAndGet(chunk.duplicates.get());
+            rejected.addAndGet(chunk.rejected);
+        }
+
+        void finish() {
+            finishedNanos = System.nanoTime();
+            finishedAt = Instant.now();
+        }
+
+        Map<String, Object> toMap() {
+            long endNanos = finishedAt == null ? System.nanoTime() : finishedNanos;
+            long elapsedMs = Math.max(1, (endNanos - startedNanos) / 1_000_000);
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("running", finishedAt == null);
+            map.put("startedAt", startedAt.toString());
+            map.put("finishedAt", finishedAt == null ? null : finishedAt.toString());
+            map.put("currentFile", currentFile);
+            map.put("files", files.get());
+            map.put("failedFiles", failedFiles.get());
+            map.put("records", records.get());
+            map.put("lots", lots.get());
+            map.put("duplicates", duplicates.get());
+            map.put("rejected", rejected.get());
+            map.put("elapsedMs", elapsedMs);
+            map.put("recordsPerSecond", records.get() * 1000 / elapsedMs);
+            return map;
+        }
+    }
+}
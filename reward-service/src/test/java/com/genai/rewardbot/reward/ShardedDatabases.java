@@ -0,0 +1,51 @@
+package com.genai.rewardbot.reward;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * The shard databases of the {@code sharded} test profile: in-memory H2 in Oracle mode, which
+ * outlive their connections, so {@link #create()} must run before the application context opens
+ * its pools, i.e. from {@code @BeforeAll}. Each gets {@code db/sharded/schema.sql}, then its id
+ * sequences are interleaved the way {@code ShardSequences} does it on Oracle at startup, which
+ * H2 cannot run ({@code LOCK TABLE}).
+ */
+public final class ShardedDatabases {
+
+    public static final int SHARDS = 3;
+
+    // app.sharding.id-stride
+    private static final int ID_STRIDE = 64;
+    private static final List<String> SEQUENCES =
+            List.of("user_sequence", "card_sequence", "reward_sequence", "outbox_sequence");
+
+    private static boolean created;
+
+    private ShardedDatabases() {
+    }
+
+    public static synchronized void create() throws SQLException {
+        if (created) {
+            return;
+        }
+        for (int shard = 0; shard < SHARDS; shard++) {
+            // Same urls as application-sharded.properties
+            try (Connection connection = DriverManager.getConnection(
+                    "jdbc:h2:mem:shard" + shard + ";MODE=Oracle;DB_CLOSE_DELAY=-1", "sa", "");
+                 Statement statement = connection.createStatement()) {
+                ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/sharded/schema.sql"));
+                for (String sequence : SEQUENCES) {
+                    statement.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY " + ID_STRIDE);
+                    statement.execute("ALTER SEQUENCE " + sequence + " RESTART START WITH " + (ID_STRIDE + shard));
+                }
+            }
+        }
+        created = true;
+    }
+}
@@ -0,0 +1,282 @@
+package com.genai.rewardbot.reward.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.genai.rewardbot.common.entity.Card;
+import com.genai.rewardbot.common.entity.RewardPoint;
+import com.genai.rewardbot.common.entity.User;
+import com.genai.rewardbot.common.security.InternalApiKey;
+import com.genai.rewardbot.common.sharding.ShardDirectory;
+import com.genai.rewardbot.common.sharding.ShardFrozenException;
+import com.genai.rewardbot.common.sharding.ShardRouter;
+import com.genai.rewardbot.reward.ShardedDatabases;
+import com.genai.rewardbot.reward.repository.CardRepository;
+import com.genai.rewardbot.reward.repository.RewardPointRepository;
+import com.genai.rewardbot.reward.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sharded persistence and online bucket moves against three separate databases (see
+ * {@link ShardedDatabases}): where users' rows land, reads routed to them, a single move and a
+ * rebalance through this controller, and writes refused while a bucket is frozen.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "sharded"})
+class InternalShardControllerTest {
+
+    private static final List<String> USERS = IntStream.range(0, 24).mapToObj(i -> "70000000" + (10 + i)).toList();
+    private static final int CARDS = 2;
+    private static final int LOTS_PER_CARD = 3;
+    private static final String KEY = "test-internal-key";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private RewardPointRepository rewardPointRepository;
+
+    @BeforeAll
+    static void createDatabases() throws Exception {
+        ShardedDatabases.create();
+    }
+
+    @BeforeEach
+    void setUp() {
+        for (String mobileNumber : USERS) {
+            if (countOn(shardRouter.shardOf(mobileNumber), "users", mobileNumber) == 0) {
+                createUser(mobileNumber);
+            }
+        }
+    }
+
+    @Test
+    void everyRowOfAUserLivesOnTheShardOwningItsBucket() {
+        assertThat(shardRouter.directory().moving()).isEmpty();
+        assertUsersOnTheirShards();
+        assertThat(USERS.stream().map(shardRouter::shardOf).distinct()).hasSize(ShardedDatabases.SHARDS);
+    }
+
+    @Test
+    void idsAreUniqueAcrossShards() {
+        for (String table : List.of("users", "cards", "reward_points")) {
+            List<Long> ids = new ArrayList<>();
+            for (int shard = 0; shard < ShardedDatabases.SHARDS; shard++) {
+                ids.addAll(new JdbcTemplate(shardRouter.dataSource(shard)).queryForList("SELECT id FROM " + table,
+                        Long.class));
+            }
+            assertThat(ids).as(table).doesNotHaveDuplicates();
+        }
+    }
+
+    @Test
+    void readsAreRoutedToEachUsersShard() throws Exception {
+        for (String mobileNumber : USERS) {
+            mockMvc.perform(get("/api/rewards/points/{mobileNumber}", mobileNumber))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.points", hasSize(CARDS * LOTS_PER_CARD)));
+        }
+    }
+
+    @Test
+    void movedBucketIsCopiedRoutedToItsNewShardAndPurgedFromTheOld() throws Exception {
+        String mobileNumber = USERS.get(0);
+        int bucket = shardRouter.bucketOf(mobileNumber);
+        int from = shardRouter.shardOf(mobileNumber);
+        int to = (from + 1) % ShardedDatabases.SHARDS;
+        List<Long> lotIds = lotIdsOn(from, mobileNumber);
+
+        mockMvc.perform(post("/internal/shards/buckets/{bucket}/move", bucket).param("to", String.valueOf(to))
+                        .header(InternalApiKey.HEADER, KEY))
+                .andExpect(status().isAccepted());
+        JsonNode rebalance = awaitMoves();
+
+        assertThat(rebalance.get("error").isNull()).isTrue();
+        assertThat(rebalance.get("completed").asInt()).isEqualTo(1);
+        assertThat(shardRouter.shardOf(mobileNumber)).isEqualTo(to);
+        assertThat(countOn(from, "users", mobileNumber)).isZero();
+        assertThat(lotIdsOn(from, mobileNumber)).isEmpty();
+        assertThat(lotIdsOn(to, mobileNumber)).containsExactlyInAnyOrderElementsOf(lotIds);
+        mockMvc.perform(get("/api/rewards/points/{mobileNumber}", mobileNumber))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.points", hasSize(CARDS * LOTS_PER_CARD)));
+        assertUsersOnTheirShards();
+    }
+
+    @Test
+    void frozenBucketServesReadsButRefusesWrites() throws Exception {
+        String mobileNumber = USERS.get(1);
+        int bucket = shardRouter.bucketOf(mobileNumber);
+        ShardDirectory directory = shardRouter.directory();
+        assertThat(directory.beginMove(bucket, (shardRouter.shardOf(mobileNumber) + 1) % ShardedDatabases.SHARDS))
+                .isTrue();
+        try {
+            directory.freeze(bucket);
+
+            mockMvc.perform(get("/api/rewards/points/{mobileNumber}", mobileNumber))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.points", hasSize(CARDS * LOTS_PER_CARD)));
+            assertThatThrownBy(() -> addLot(mobileNumber, "TXN-FROZEN"))
+                    .isInstanceOf(ShardFrozenException.class);
+        } finally {
+            directory.abortMove(bucket);
+        }
+
+        addLot(mobileNumber, "TXN-THAWED");
+        assertThat(lotIdsOn(shardRouter.shardOf(mobileNumber), mobileNumber)).hasSize(CARDS * LOTS_PER_CARD + 1);
+    }
+
+    @Test
+    void rebalanceEvensOutBucketCounts() throws Exception {
+        // Move a bucket from the emptiest shard to the fullest, leaving them at least three apart
+        int[] counts = shardRouter.directory().bucketCounts();
+        int fullest = 0;
+        int emptiest = 0;
+        for (int shard = 1; shard < counts.length; shard++) {
+            fullest = counts[shard] > counts[fullest] ? shard : fullest;
+            emptiest = counts[shard] < counts[emptiest] ? shard : emptiest;
+        }
+        int from = emptiest;
+        ShardDirectory.Bucket moved = shardRouter.directory().buckets().stream()
+                .filter(bucket -> bucket.shard() == from)
+                .findFirst()
+                .orElseThrow();
+        mockMvc.perform(post("/internal/shards/buckets/{bucket}/move", moved.bucket())
+                        .param("to", String.valueOf(fullest))
+                        .header(InternalApiKey.HEADER, KEY))
+                .andExpect(status().isAccepted());
+        awaitMoves();
+
+        mockMvc.perform(post("/internal/shards/rebalance").header(InternalApiKey.HEADER, KEY))
+                .andExpect(status().isAccepted());
+        JsonNode rebalance = awaitMoves();
+
+        assertThat(rebalance.get("error").isNull()).isTrue();
+        assertThat(rebalance.get("completed").asInt()).isPositive();
+        int[] balanced = shardRouter.directory().bucketCounts();
+        assertThat(Arrays.stream(balanced).max().orElseThrow() - Arrays.stream(balanced).min().orElseThrow())
+                .isLessThanOrEqualTo(1);
+        assertUsersOnTheirShards();
+    }
+
+    private JsonNode awaitMoves() throws Exception {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (true) {
+            String body = mockMvc.perform(get("/internal/shards").header(InternalApiKey.HEADER, KEY))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode rebalance = objectMapper.readTree(body).get("rebalance");
+            if (!rebalance.get("running").asBoolean()) {
+                return rebalance;
+            }
+            assertThat(System.currentTimeMillis()).as("moves finished in time").isLessThan(deadline);
+            Thread.sleep(100);
+        }
+    }
+
+    // Each user's rows are on exactly its shard
+    private void assertUsersOnTheirShards() {
+        for (String mobileNumber : USERS) {
+            int owner = shardRouter.shardOf(mobileNumber);
+            for (int shard = 0; shard < ShardedDatabases.SHARDS; shard++) {
+                assertThat(countOn(shard, "users", mobileNumber)).as("users of %s on shard %d", mobileNumber, shard)
+                        .isEqualTo(shard == owner ? 1 : 0);
+                assertThat(countOn(shard, "cards", mobileNumber)).as("cards of %s on shard %d", mobileNumber, shard)
+                        .isEqualTo(shard == owner ? CARDS : 0);
+                assertThat(lotIdsOn(shard, mobileNumber)).as("lots of %s on shard %d", mobileNumber, shard)
+                        .hasSizeGreaterThanOrEqualTo(shard == owner ? CARDS * LOTS_PER_CARD : 0)
+                        .hasSizeLessThanOrEqualTo(shard == owner ? Integer.MAX_VALUE : 0);
+            }
+        }
+    }
+
+    private int countOn(int shard, String table, String mobileNumber) {
+        JdbcTemplate jdbc = new JdbcTemplate(shardRouter.dataSource(shard));
+        String sql = table.equals("users")
+                ? "SELECT COUNT(*) FROM users WHERE mobile_number = ?"
+                : "SELECT COUNT(*) FROM cards c JOIN users u ON u.id = c.user_id WHERE u.mobile_number = ?";
+        return jdbc.queryForObject(sql, Integer.class, mobileNumber);
+    }
+
+    private List<Long> lotIdsOn(int shard, String mobileNumber) {
+        return new JdbcTemplate(shardRouter.dataSource(shard)).queryForList("""
+                SELECT rp.id FROM reward_points rp
+                JOIN cards c ON c.id = rp.card_id
+                JOIN users u ON u.id = c.user_id
+                WHERE u.mobile_number = ?
+                """, Long.class, mobileNumber);
+    }
+
+    private void createUser(String mobileNumber) {
+        try (ShardRouter.Scope ignored = shardRouter.on(mobileNumber)) {
+            transactionTemplate.executeWithoutResult(status -> {
+                User user = userRepository.save(new User(mobileNumber, "Test", "User", mobileNumber + "@example.com"));
+                for (int c = 0; c < CARDS; c++) {
+                    Card card = cardRepository.save(new Card(mobileNumber + "-" + c, "CREDIT", "Vendor " + c,
+                            "V" + c, 0L, user));
+                    List<RewardPoint> lots = new ArrayList<>();
+                    for (int l = 0; l < LOTS_PER_CARD; l++) {
+                        lots.add(lot(card, "TXN-" + c + "-" + l));
+                    }
+                    rewardPointRepository.saveAll(lots);
+                }
+            });
+        }
+    }
+
+    private void addLot(String mobileNumber, String transactionId) {
+        try (ShardRouter.Scope ignored = shardRouter.on(mobileNumber)) {
+            transactionTemplate.executeWithoutResult(status -> {
+                Long userId = userRepository.findIdByMobileNumber(mobileNumber).orElseThrow();
+                Card card = cardRepository.findByUserIdWithRewardPoints(userId).get(0);
+                rewardPointRepository.save(lot(card, transactionId));
+            });
+        }
+    }
+
+    private static RewardPoint lot(Card card, String transactionId) {
+        LocalDateTime earned = LocalDateTime.now().minusDays(1);
+        RewardPoint lot = new RewardPoint(100, earned, earned.plusMonths(12), "PURCHASE", "Lot " + transactionId, card);
+        lot.setTransactionId(transactionId);
+        lot.setPointValue(2500L);
+        return lot;
+    }
+}
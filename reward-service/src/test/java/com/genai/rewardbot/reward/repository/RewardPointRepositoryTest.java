@@ -0,0 +1,62 @@
+package com.genai.rewardbot.reward.repository;
+
+import com.genai.rewardbot.common.entity.Card;
+import com.genai.rewardbot.common.entity.RewardPoint;
+import com.genai.rewardbot.common.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RewardPointRepositoryTest {
+
+    private static final String MOBILE_NUMBER = "9000000201";
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private RewardPointRepository rewardPointRepository;
+
+    @Test
+    void expiringPointsSkipSweptLots() {
+        LocalDateTime now = LocalDateTime.now();
+        Long userId = transactionTemplate.execute(status -> {
+            User user = userRepository.save(new User(MOBILE_NUMBER, "Test", "User", MOBILE_NUMBER + "@example.com"));
+            Card card = cardRepository.save(new Card(MOBILE_NUMBER + "-0", "CREDIT", "Vendor", "V0", 0L, user));
+            rewardPointRepository.save(lot(100, now.plusDays(5), false, card));
+            // Already expired by the sweep, though its date is inside the window
+            rewardPointRepository.save(lot(200, now.plusDays(10), true, card));
+            rewardPointRepository.save(lot(400, now.plusDays(90), false, card));
+            return user.getId();
+        });
+
+        List<RewardPoint> expiring = transactionTemplate.execute(status ->
+                rewardPointRepository.findExpiringPointsByUserId(userId, now, now.plusDays(30)));
+
+        assertThat(expiring).extracting(RewardPoint::getPointsEarned).containsExactly(100);
+    }
+
+    private static RewardPoint lot(int points, LocalDateTime expiry, boolean swept, Card card) {
+        LocalDateTime earned = LocalDateTime.now().minusMonths(1);
+        RewardPoint lot = new RewardPoint(points, earned, expiry, "PURCHASE", "Lot", card);
+        lot.setTransactionId("TXN-" + points);
+        lot.setPointValue(2500L);
+        lot.setIsExpired(swept);
+        return lot;
+    }
+}
@@ -0,0 +1,159 @@
+package com.genai.rewardbot.reward.repository;
+
+import com.genai.rewardbot.common.entity.Card;
+import com.genai.rewardbot.common.entity.RewardPoint;
+import com.genai.rewardbot.common.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statements Hibernate prepares per read endpoint, counted with its {@link Statistics}. Every
+ * endpoint must cost the same for a user with one card and one lot as for one with many of
+ * each, so an N+1 or a per-row lookup fails here; the budgets catch extra joins or lookups.
+ * Caches are emptied first, so these are the cold-path counts.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RewardQueryStatementCountTest {
+
+    private static final String SMALL_USER = "9000000001";
+    private static final String LARGE_USER = "9000000002";
+    private static final int LARGE_CARDS = 5;
+    private static final int LARGE_LOTS_PER_CARD = 40;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private RewardPointRepository rewardPointRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (userRepository.findIdByMobileNumber(SMALL_USER).isEmpty()) {
+            createUser(SMALL_USER, 1, 1);
+            createUser(LARGE_USER, LARGE_CARDS, LARGE_LOTS_PER_CARD);
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "/api/rewards/cards/{mobileNumber}, 4",
+            "/api/rewards/points/{mobileNumber}, 3",
+            "/api/rewards/summary/{mobileNumber}, 3",
+            "/api/rewards/history/{mobileNumber}, 2"
+    })
+    void endpointStatementsDoNotGrowWithCardsOrLots(String endpoint, long budget) throws Exception {
+        long small = coldStatements(endpoint, SMALL_USER);
+        long large = coldStatements(endpoint, LARGE_USER);
+
+        assertThat(large).as("statements for %s with %d cards", endpoint, LARGE_CARDS).isEqualTo(small);
+        assertThat(large).as("statements for %s", endpoint).isLessThanOrEqualTo(budget);
+    }
+
+    @Test
+    void repeatedCardsRequestIsServedFromTheQueryCache() throws Exception {
+        coldStatements("/api/rewards/cards/{mobileNumber}", LARGE_USER);
+
+        statistics.clear();
+        mockMvc.perform(get("/api/rewards/cards/{mobileNumber}", LARGE_USER)).andExpect(status().isOk());
+
+        // Only the data version lookup behind the ETag reaches the database
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void cardsWithRewardPointsLoadInOneStatement() {
+        Long userId = userRepository.findIdByMobileNumber(LARGE_USER).orElseThrow();
+        evictCaches();
+        statistics.clear();
+
+        int lots = transactionTemplate.execute(status -> cardRepository.findByUserIdWithRewardPoints(userId).stream()
+                .mapToInt(card -> card.getRewardPoints().size())
+                .sum());
+
+        assertThat(lots).isEqualTo(LARGE_CARDS * LARGE_LOTS_PER_CARD);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void rewardPointQueriesDoNotJoinUsers() {
+        Long userId = userRepository.findIdByMobileNumber(LARGE_USER).orElseThrow();
+        evictCaches();
+        statistics.clear();
+
+        rewardPointRepository.findRewardPointDtosByUserId(userId);
+        rewardPointRepository.getTotalAvailablePointsPerCardByUserId(userId);
+        cardRepository.findActiveCardDtosByUserId(userId);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(statistics.getQueries())
+                .allSatisfy(query -> assertThat(query).doesNotContain("mobileNumber").doesNotContain("User u"));
+    }
+
+    private long coldStatements(String endpoint, String mobileNumber) throws Exception {
+        evictCaches();
+        statistics.clear();
+        mockMvc.perform(get(endpoint, mobileNumber)).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void evictCaches() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+    }
+
+    private void createUser(String mobileNumber, int cards, int lotsPerCard) {
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.save(new User(mobileNumber, "Test", "User", mobileNumber + "@example.com"));
+            for (int c = 0; c < cards; c++) {
+                Card card = cardRepository.save(new Card(mobileNumber + "-" + c, "CREDIT", "Vendor " + c,
+                        "V" + c, 0L, user));
+                List<RewardPoint> lots = new ArrayList<>();
+                for (int l = 0; l < lotsPerCard; l++) {
+                    LocalDateTime earned = LocalDateTime.now().minusDays(l + 1);
+                    RewardPoint lot = new RewardPoint(100 + l, earned, earned.plusMonths(6 + l % 24), "PURCHASE",
+                            "Lot " + l, card);
+                    lot.setTransactionId("TXN-" + c + "-" + l);
+                    lot.setPointValue(2500L);
+                    lots.add(lot);
+                }
+                rewardPointRepository.saveAll(lots);
+            }
+        });
+    }
+}
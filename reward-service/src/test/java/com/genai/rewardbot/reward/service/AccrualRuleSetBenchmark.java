@@ -0,0 +1,107 @@
+package com.genai.rewardbot.reward.service;
+
+import com.genai.rewardbot.reward.repository.AccrualRuleRepository.AccrualRule;
+import com.genai.rewardbot.reward.repository.AccrualRuleRepository.AccrualRule.Type;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accrual rule evaluations per second over a rule set shaped like a production one: per vendor a
+ * base rate, category rates, a seasonal promotion, a spend multiplier and a cap, plus global
+ * bonuses. Transactions are drawn up front across vendors (some without rules of their own),
+ * sources and categories, so each call takes a different path. Run with {@code -prof gc} to
+ * confirm evaluation allocates nothing.
+ *
+ * <p>mvn -Pjmh -DskipTests -f reward-service/pom.xml test -Djmh.args="AccrualRuleSetBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccrualRuleSetBenchmark {
+
+    private static final String[] SOURCES = {"PURCHASE", "CASHBACK", "REFERRAL", "BIRTHDAY_BONUS"};
+    private static final String[] CATEGORIES = {"DINING", "FUEL", "TRAVEL", "GROCERY", "ELECTRONICS", "APPAREL",
+            "UTILITIES", "ENTERTAINMENT"};
+    private static final int TRANSACTIONS = 4096;
+
+    @Param({"20", "200"})
+    public int vendors;
+
+    private AccrualRuleSet ruleSet;
+    private String[] vendorCodes;
+    private String[] sources;
+    private String[] categories;
+    private long[] amounts;
+    private LocalDateTime[] times;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 0, 0);
+        List<AccrualRule> rules = new ArrayList<>();
+        rules.add(new AccrualRule("BASE", Type.EARN, null, "PURCHASE", null, 0, 10_000, null, null, 0));
+        rules.add(new AccrualRule("BIRTHDAY", Type.BONUS, null, "BIRTHDAY_BONUS", null, 0, 5_000_000, null, null, 0));
+        rules.add(new AccrualRule("REFERRAL", Type.BONUS, null, "REFERRAL", null, 0, 2_500_000, null, null, 0));
+        rules.add(new AccrualRule("CAP", Type.CAP, null, null, null, 0, 100_000_000, null, null, 0));
+        for (int v = 0; v < vendors; v++) {
+            String vendor = "V" + v;
+            rules.add(new AccrualRule(vendor + "-BASE", Type.EARN, vendor, "PURCHASE", null, 0, 20_000 + v % 5 * 5_000,
+                    null, null, 0));
+            for (int c = 0; c < 3; c++) {
+                String category = CATEGORIES[(v + c) % CATEGORIES.length];
+                rules.add(new AccrualRule(vendor + "-" + category, Type.EARN, vendor, "PURCHASE", category, 0,
+                        50_000 + c * 10_000, null, null, 0));
+            }
+            LocalDateTime promoStart = start.plusDays(v % 300);
+            rules.add(new AccrualRule(vendor + "-PROMO", Type.EARN, vendor, "PURCHASE", null, 0, 100_000,
+                    promoStart, promoStart.plusDays(30), 10));
+            rules.add(new AccrualRule(vendor + "-SPEND", Type.MULTIPLY, vendor, null, null, 500_000, 15_000,
+                    null, null, 0));
+            rules.add(new AccrualRule(vendor + "-CASHBACK", Type.EARN, vendor, "CASHBACK", null, 0, 5_000,
+                    null, null, 0));
+            rules.add(new AccrualRule(vendor + "-CAP", Type.CAP, vendor, null, null, 0, 50_000_000 + v * 10_000L,
+                    null, null, 0));
+        }
+        ruleSet = AccrualRuleSet.compile("benchmark", rules);
+
+        SplittableRandom random = new SplittableRandom(42);
+        vendorCodes = new String[TRANSACTIONS];
+        sources = new String[TRANSACTIONS];
+        categories = new String[TRANSACTIONS];
+        amounts = new long[TRANSACTIONS];
+        times = new LocalDateTime[TRANSACTIONS];
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            // One in ten vendors has no rules of its own and falls through to the wildcard ones
+            vendorCodes[i] = "V" + random.nextInt(vendors + vendors / 10);
+            sources[i] = random.nextInt(10) < 8 ? SOURCES[0] : SOURCES[1 + random.nextInt(SOURCES.length - 1)];
+            categories[i] = random.nextInt(4) == 0 ? null : CATEGORIES[random.nextInt(CATEGORIES.length)];
+            amounts[i] = random.nextInt(10) == 0 ? -random.nextLong(1_000_000) : random.nextLong(2_000_000);
+            times[i] = start.plusSeconds(random.nextLong(365L * 24 * 3600));
+        }
+    }
+
+    @Benchmark
+    public long points() {
+        int i = next++ & (TRANSACTIONS - 1);
+        return ruleSet.points(vendorCodes[i], sources[i], categories[i], amounts[i], times[i]);
+    }
+}
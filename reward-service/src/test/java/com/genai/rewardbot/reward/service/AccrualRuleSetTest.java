@@ -0,0 +1,134 @@
+package com.genai.rewardbot.reward.service;
+
+import com.genai.rewardbot.reward.repository.AccrualRuleRepository.AccrualRule;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AccrualRuleSetTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 15, 12, 0);
+
+    // rule_id,rule_type,vendor_code,source,category,min_amount,rule_value,valid_from,valid_to,priority
+    private static final AccrualRuleSet RULES = compile(
+            "BASE,EARN,,PURCHASE,,,1,,,0",
+            "HDFC,EARN,HDFC,PURCHASE,,,2,,,0",
+            "HDFC-DINING,EARN,HDFC,PURCHASE,DINING,,5,,,0",
+            "FESTIVE,EARN,,PURCHASE,,,3,2026-10-01T00:00,2026-11-01T00:00,10",
+            "DOUBLE,MULTIPLY,HDFC,,,1000.00,2,,,0",
+            "TRIPLE-DINING,MULTIPLY,,,DINING,1000.00,3,,,0",
+            "BIRTHDAY,BONUS,,BIRTHDAY_BONUS,,,500,,,0",
+            "SIGNUP,BONUS,HDFC,BIRTHDAY_BONUS,,,100,,,0",
+            "CAP,CAP,,,,,5000,,,0",
+            "HDFC-CAP,CAP,HDFC,,,,4000,,,0");
+
+    private static final LocalDateTime BEFORE_FESTIVE = LocalDateTime.of(2026, 9, 30, 23, 59, 59);
+
+    @Test
+    void firstEarnRuleByPriorityThenSpecificity() {
+        // The festive rule outranks everything while it runs
+        assertThat(RULES.points("ICICI", "PURCHASE", null, 10_000, NOW)).isEqualTo(300);
+        assertThat(RULES.points("HDFC", "PURCHASE", "DINING", 10_000, NOW)).isEqualTo(300);
+
+        // Outside it, the most specific rule wins
+        assertThat(RULES.points("ICICI", "PURCHASE", null, 10_000, BEFORE_FESTIVE)).isEqualTo(100);
+        assertThat(RULES.points("HDFC", "PURCHASE", null, 10_000, BEFORE_FESTIVE)).isEqualTo(200);
+        assertThat(RULES.points("HDFC", "PURCHASE", "DINING", 10_000, BEFORE_FESTIVE)).isEqualTo(500);
+    }
+
+    @Test
+    void validToIsExclusive() {
+        LocalDateTime festiveEnd = LocalDateTime.of(2026, 11, 1, 0, 0);
+
+        assertThat(RULES.points("ICICI", "PURCHASE", null, 10_000, festiveEnd.minusSeconds(1))).isEqualTo(300);
+        assertThat(RULES.points("ICICI", "PURCHASE", null, 10_000, festiveEnd)).isEqualTo(100);
+    }
+
+    @Test
+    void largestMultiplierAboveItsMinimumAmountApplies() {
+        // 1,000.00 at 2 points per unit is 2,000, doubled for HDFC
+        assertThat(RULES.points("HDFC", "PURCHASE", null, 100_000, BEFORE_FESTIVE)).isEqualTo(4000);
+        assertThat(RULES.points("HDFC", "PURCHASE", null, 99_999, BEFORE_FESTIVE)).isEqualTo(1999);
+        // Dining's triple beats HDFC's double: 1,000.00 at 5 is 5,000, tripled, then capped at 4,000
+        assertThat(RULES.points("HDFC", "PURCHASE", "DINING", 100_000, BEFORE_FESTIVE)).isEqualTo(4000);
+        assertThat(RULES.points("ICICI", "PURCHASE", "DINING", 100_000, BEFORE_FESTIVE)).isEqualTo(3000);
+    }
+
+    @Test
+    void bonusesAddUpAndTheSmallestCapLimits() {
+        assertThat(RULES.points("ICICI", "BIRTHDAY_BONUS", null, 0, NOW)).isEqualTo(500);
+        assertThat(RULES.points("HDFC", "BIRTHDAY_BONUS", null, 0, NOW)).isEqualTo(600);
+        assertThat(RULES.points("ICICI", "PURCHASE", null, 1_000_000, BEFORE_FESTIVE)).isEqualTo(5000);
+        assertThat(RULES.points("HDFC", "PURCHASE", null, 1_000_000, BEFORE_FESTIVE)).isEqualTo(4000);
+    }
+
+    @Test
+    void unnamedVendorsAndSourcesGetOnlyWildcardRules() {
+        assertThat(RULES.points("NEW-VENDOR", "PURCHASE", null, 10_000, BEFORE_FESTIVE)).isEqualTo(100);
+        assertThat(RULES.points(null, "PURCHASE", null, 10_000, BEFORE_FESTIVE)).isEqualTo(100);
+        assertThat(RULES.points("HDFC", "REFERRAL", null, 10_000, BEFORE_FESTIVE)).isZero();
+        assertThat(RULES.points("HDFC", null, null, 10_000, BEFORE_FESTIVE)).isZero();
+    }
+
+    @Test
+    void refundsEarnNothingAndHugeAmountsSaturate() {
+        AccrualRuleSet uncapped = compile("BASE,EARN,,,,,1000,,,0", "BOOST,MULTIPLY,,,,,1000,,,0");
+
+        assertThat(RULES.points("HDFC", "PURCHASE", null, -10_000, NOW)).isZero();
+        assertThat(uncapped.points("HDFC", "PURCHASE", null, Long.MAX_VALUE / 2, NOW))
+                .isEqualTo(Long.MAX_VALUE / 10_000);
+        assertThat(AccrualRuleSet.EMPTY.points("HDFC", "PURCHASE", null, 10_000, NOW)).isZero();
+    }
+
+    @Test
+    void rejectsInconsistentRules() {
+        assertThatThrownBy(() -> compile("A,EARN,,,,,1,,,0", "A,BONUS,,,,,1,,,0"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Duplicate");
+        assertThatThrownBy(() -> compile("A,EARN,,,,,-1,,,0"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("negative");
+        assertThatThrownBy(() -> compile("A,EARN,,,,,1,2026-10-01T00:00,2026-10-01T00:00,0"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("empty window");
+        assertThatThrownBy(() -> AccrualRules.parse("A,EARN,,,,,1,,"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void evaluationAllocatesNothing() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        String[] vendors = {"HDFC", "ICICI", "NEW-VENDOR"};
+        String[] sources = {"PURCHASE", "BIRTHDAY_BONUS", "REFERRAL"};
+        String[] categories = {null, "DINING", "FUEL"};
+        long threadId = Thread.currentThread().getId();
+        long sum = 0;
+        long fewest = Long.MAX_VALUE;
+        // The interpreter and on-stack replacement allocate a few hundred bytes until the loop is
+        // compiled, which takes longer on a busy JVM; once it is, a round must allocate nothing
+        for (int round = 0; round < 20 && fewest > 0; round++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            sum += evaluateAll(vendors, sources, categories);
+            fewest = Math.min(fewest, threads.getThreadAllocatedBytes(threadId) - before);
+        }
+
+        assertThat(sum).isPositive();
+        assertThat(fewest).isZero();
+    }
+
+    private static long evaluateAll(String[] vendors, String[] sources, String[] categories) {
+        long sum = 0;
+        for (int i = 0; i < 10_000; i++) {
+            sum += RULES.points(vendors[i % 3], sources[i / 3 % 3], categories[i / 9 % 3], i * 100L, NOW);
+        }
+        return sum;
+    }
+
+    private static AccrualRuleSet compile(String... lines) {
+        List<AccrualRule> rules = Arrays.stream(lines).map(AccrualRules::parse).toList();
+        return AccrualRuleSet.compile("test", rules);
+    }
+}
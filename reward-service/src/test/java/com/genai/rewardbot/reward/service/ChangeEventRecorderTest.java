@@ -0,0 +1,67 @@
+package com.genai.rewardbot.reward.service;
+
+import com.genai.rewardbot.common.outbox.ChangeEventType;
+import com.genai.rewardbot.reward.repository.UserDataVersionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ChangeEventRecorderTest {
+
+    private static final String MOBILE_NUMBER = "9000000301";
+
+    @Autowired
+    private ChangeEventRecorder changeEventRecorder;
+
+    @Autowired
+    private UserDataVersionRepository userDataVersionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void concurrentFirstWritersBothBumpTheVersion() throws Exception {
+        CountDownLatch firstRecorded = new CountDownLatch(1);
+        CountDownLatch commitFirst = new CountDownLatch(1);
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            record();
+            firstRecorded.countDown();
+            await(commitFirst);
+        }));
+        assertThat(firstRecorded.await(10, TimeUnit.SECONDS)).isTrue();
+        // Finds no committed row either, and waits on the first writer's uncommitted one
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() ->
+                transactionTemplate.executeWithoutResult(status -> record()));
+        Thread.sleep(300);
+        commitFirst.countDown();
+
+        first.get(10, TimeUnit.SECONDS);
+        second.get(10, TimeUnit.SECONDS);
+        assertThat(userDataVersionRepository.findById(MOBILE_NUMBER)).hasValueSatisfying(version ->
+                assertThat(version.getDataVersion()).isEqualTo(2L));
+    }
+
+    private void record() {
+        changeEventRecorder.record(ChangeEventType.POINTS_EARNED, MOBILE_NUMBER, 1L, null, 100);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
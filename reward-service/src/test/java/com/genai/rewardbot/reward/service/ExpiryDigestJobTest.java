@@ -0,0 +1,257 @@
+package com.genai.rewardbot.reward.service;
+
+import com.genai.rewardbot.common.entity.Card;
+import com.genai.rewardbot.common.entity.RewardPoint;
+import com.genai.rewardbot.common.entity.User;
+import com.genai.rewardbot.common.sharding.ShardDirectory;
+import com.genai.rewardbot.common.sharding.ShardRouter;
+import com.genai.rewardbot.reward.ShardedDatabases;
+import com.genai.rewardbot.reward.repository.CardRepository;
+import com.genai.rewardbot.reward.repository.RewardPointRepository;
+import com.genai.rewardbot.reward.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The nightly expiry digest run over three separate databases (see {@link ShardedDatabases}),
+ * four partitions of two-user chunks per shard: which lots count, digests written on each
+ * user's own shard, a same-day restart resuming from the checkpoints, and users of a frozen
+ * bucket deferred with their previous digest kept.
+ */
+@SpringBootTest
+@ActiveProfiles({"test", "sharded"})
+class ExpiryDigestJobTest {
+
+    private static final List<String> USERS = IntStream.range(0, 30).mapToObj(i -> "71000000" + (10 + i)).toList();
+    // Never touched by the other tests, so its digest can change
+    private static final String FROZEN_USER = "7100000099";
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @Autowired
+    private ExpiryDigestJob expiryDigestJob;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private RewardPointRepository rewardPointRepository;
+
+    @BeforeAll
+    static void createDatabases() throws Exception {
+        ShardedDatabases.create();
+    }
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < USERS.size(); i++) {
+            if (!exists(USERS.get(i))) {
+                createUser(USERS.get(i), hasExpiringPoints(i));
+            }
+        }
+        if (!exists(FROZEN_USER)) {
+            createUser(FROZEN_USER, true);
+        }
+        clearCheckpoints();
+    }
+
+    @Test
+    void digestsCountOnlyUnsweptLotsWithPointsExpiringWithin30Days() throws Exception {
+        Map<String, Object> run = runJob();
+
+        assertThat(run.get("failedPartitions")).isEqualTo(0);
+        assertThat(run.get("deferred")).isEqualTo(0L);
+        for (int i = 0; i < USERS.size(); i++) {
+            String mobileNumber = USERS.get(i);
+            int owner = shardRouter.shardOf(mobileNumber);
+            for (int shard = 0; shard < ShardedDatabases.SHARDS; shard++) {
+                List<Map<String, Object>> digests = digestsOn(shard, mobileNumber);
+                if (shard != owner || !hasExpiringPoints(i)) {
+                    assertThat(digests).as("digests of %s on shard %d", mobileNumber, shard).isEmpty();
+                    continue;
+                }
+                assertThat(digests).as("digests of %s on shard %d", mobileNumber, shard).hasSize(1);
+                Map<String, Object> digest = digests.get(0);
+                assertThat(((Number) digest.get("POINTS_7D")).longValue()).isEqualTo(100);
+                assertThat(((Number) digest.get("POINTS_30D")).longValue()).isEqualTo(300);
+                assertThat(((Number) digest.get("LOTS_30D")).intValue()).isEqualTo(2);
+                assertThat(((Timestamp) digest.get("NEXT_EXPIRY")).toLocalDateTime()).isEqualTo(NOW.plusDays(3));
+            }
+        }
+    }
+
+    @Test
+    void everyShardIsPlannedAndCheckpointedSeparately() throws Exception {
+        Map<String, Object> run = runJob();
+
+        long users = 0;
+        for (int shard = 0; shard < ShardedDatabases.SHARDS; shard++) {
+            List<Checkpoint> checkpoints = jdbc(shard).query(
+                    "SELECT run_date, users_done, completed FROM batch_checkpoints WHERE job_name = ?",
+                    (rs, rowNum) -> new Checkpoint(rs.getDate(1).toLocalDate(), rs.getLong(2), rs.getBoolean(3)),
+                    ExpiryDigestJob.JOB_NAME);
+            assertThat(checkpoints).as("checkpoints on shard %d", shard).hasSize(4)
+                    .allMatch(checkpoint -> checkpoint.runDate().equals(LocalDate.now()) && checkpoint.completed());
+            long done = checkpoints.stream().mapToLong(Checkpoint::usersDone).sum();
+            // Each shard digests only its own users
+            assertThat(done).as("users digested on shard %d", shard).isEqualTo(jdbc(shard).queryForObject("SELECT COUNT(*) FROM users", Long.class));
+            users += done;
+        }
+        assertThat(run.get("users")).isEqualTo(users);
+        // Two-user chunks, so partitions take several each
+        assertThat((Long) run.get("chunks")).isGreaterThan(ShardedDatabases.SHARDS * 4L);
+    }
+
+    @Test
+    void sameDayRestartResumesFromTheCheckpoints() throws Exception {
+        runJob();
+
+        Map<String, Object> restart = runJob();
+
+        assertThat(restart.get("failedPartitions")).isEqualTo(0);
+        assertThat(restart.get("users")).isEqualTo(0L);
+        assertThat(restart.get("chunks")).isEqualTo(0L);
+    }
+
+    @Test
+    void usersOfAFrozenBucketAreDeferredAndKeepTheirDigest() throws Exception {
+        runJob();
+        int shard = shardRouter.shardOf(FROZEN_USER);
+        long before = points7d(shard, FROZEN_USER);
+        addLot(FROZEN_USER, NOW.plusDays(2), "TXN-2");
+
+        int bucket = shardRouter.bucketOf(FROZEN_USER);
+        ShardDirectory directory = shardRouter.directory();
+        assertThat(directory.beginMove(bucket, (shard + 1) % ShardedDatabases.SHARDS)).isTrue();
+        try {
+            directory.freeze(bucket);
+            clearCheckpoints();
+
+            Map<String, Object> run = runJob();
+
+            assertThat(run.get("failedPartitions")).isEqualTo(0);
+            assertThat((Long) run.get("deferred")).isPositive();
+            assertThat(points7d(shard, FROZEN_USER)).isEqualTo(before);
+        } finally {
+            directory.abortMove(bucket);
+        }
+        clearCheckpoints();
+
+        runJob();
+
+        assertThat(points7d(shard, FROZEN_USER)).isEqualTo(before + 100);
+    }
+
+    private Map<String, Object> runJob() throws Exception {
+        assertThat(expiryDigestJob.start()).isTrue();
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (true) {
+            Map<String, Object> run = expiryDigestJob.status();
+            if (!(Boolean) run.get("running")) {
+                return run;
+            }
+            assertThat(System.currentTimeMillis()).as("digest run finished in time").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    // Each run starts a fresh plan rather than resuming the previous one's
+    private void clearCheckpoints() {
+        for (int shard = 0; shard < ShardedDatabases.SHARDS; shard++) {
+            jdbc(shard).update("DELETE FROM batch_checkpoints WHERE job_name = ?", ExpiryDigestJob.JOB_NAME);
+        }
+    }
+
+    // Every fifth user has nothing expiring within 30 days
+    private static boolean hasExpiringPoints(int user) {
+        return user % 5 != 4;
+    }
+
+    private boolean exists(String mobileNumber) {
+        return jdbc(shardRouter.shardOf(mobileNumber)).queryForObject(
+                "SELECT COUNT(*) FROM users WHERE mobile_number = ?", Integer.class, mobileNumber) > 0;
+    }
+
+    private JdbcTemplate jdbc(int shard) {
+        return new JdbcTemplate(shardRouter.dataSource(shard));
+    }
+
+    private List<Map<String, Object>> digestsOn(int shard, String mobileNumber) {
+        return jdbc(shard).queryForList(
+                "SELECT points_7d, points_30d, lots_30d, next_expiry FROM expiry_digests WHERE mobile_number = ?",
+                mobileNumber);
+    }
+
+    private long points7d(int shard, String mobileNumber) {
+        return jdbc(shard).queryForObject("SELECT points_7d FROM expiry_digests WHERE mobile_number = ?", Long.class,
+                mobileNumber);
+    }
+
+    private void createUser(String mobileNumber, boolean expiring) {
+        try (ShardRouter.Scope ignored = shardRouter.on(mobileNumber)) {
+            transactionTemplate.executeWithoutResult(status -> {
+                User user = userRepository.save(new User(mobileNumber, "Test", "User", mobileNumber + "@example.com"));
+                Card card = cardRepository.save(new Card(mobileNumber + "-0", "CREDIT", "Vendor 0", "V0", 0L, user));
+                List<RewardPoint> lots = new ArrayList<>();
+                lots.add(lot(card, 400, NOW.plusDays(60), "TXN-60"));
+                if (expiring) {
+                    lots.add(lot(card, 100, NOW.plusDays(3), "TXN-3"));
+                    lots.add(lot(card, 200, NOW.plusDays(20), "TXN-20"));
+                    RewardPoint swept = lot(card, 800, NOW.plusDays(5), "TXN-SWEPT");
+                    swept.setIsExpired(true);
+                    lots.add(swept);
+                    RewardPoint redeemed = lot(card, 50, NOW.plusDays(10), "TXN-REDEEMED");
+                    redeemed.setPointsAvailable(0);
+                    lots.add(redeemed);
+                }
+                rewardPointRepository.saveAll(lots);
+            });
+        }
+    }
+
+    private void addLot(String mobileNumber, LocalDateTime expiry, String transactionId) {
+        try (ShardRouter.Scope ignored = shardRouter.on(mobileNumber)) {
+            transactionTemplate.executeWithoutResult(status -> {
+                Long userId = userRepository.findIdByMobileNumber(mobileNumber).orElseThrow();
+                Card card = cardRepository.findByUserIdWithRewardPoints(userId).get(0);
+                rewardPointRepository.save(lot(card, 100, expiry, transactionId));
+            });
+        }
+    }
+
+    private static RewardPoint lot(Card card, int points, LocalDateTime expiry, String transactionId) {
+        RewardPoint lot = new RewardPoint(points, expiry.minusMonths(12), expiry, "PURCHASE", "Lot " + transactionId,
+                card);
+        lot.setTransactionId(transactionId);
+        lot.setPointValue(2500L);
+        return lot;
+    }
+
+    private record Checkpoint(LocalDate runDate, long usersDone, boolean completed) {
+    }
+}
@@ -0,0 +1,118 @@
+package com.genai.rewardbot.reward.service;
+
+import com.genai.rewardbot.reward.repository.RedemptionCatalogRepository.CatalogItem;
+import com.genai.rewardbot.reward.service.RedemptionCatalog.Offer;
+import com.genai.rewardbot.reward.service.RedemptionOptimizer.Lot;
+import com.genai.rewardbot.reward.service.RedemptionOptimizer.Redemption;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RedemptionOptimizerTest {
+
+    @Test
+    void nothingAffordableMeansNoPlan() {
+        List<Redemption> plan = RedemptionOptimizer.optimize(List.of(offer("BIG", 5000, 10_000)),
+                List.of(new Lot(4999, -1)));
+
+        assertThat(plan).isEmpty();
+    }
+
+    @Test
+    void matchesExhaustiveSearchOnSmallPools() {
+        Random random = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            List<Offer> offers = new ArrayList<>();
+            int offerCount = 1 + random.nextInt(5);
+            for (int i = 0; i < offerCount; i++) {
+                offers.add(offer("O" + i, 50 + random.nextInt(1950), 100 + random.nextInt(20_000)));
+            }
+            int points = random.nextInt(8000);
+
+            List<Redemption> plan = RedemptionOptimizer.optimize(offers, List.of(new Lot(points, -1)));
+
+            assertThat(pointsUsed(plan)).isLessThanOrEqualTo(points);
+            assertThat(value(plan)).as("round %d, %d points", round, points).isEqualTo(bestValue(offers, points));
+        }
+    }
+
+    @Test
+    void largePoolsNeverOverspendAndStayNearOptimal() {
+        // Coprime costs force the coarse table for the remainder
+        List<Offer> offers = List.of(offer("A", 997, 25_000), offer("B", 1009, 25_100), offer("C", 3, 60));
+        long points = 123_456_789;
+
+        List<Redemption> plan = RedemptionOptimizer.optimize(offers, List.of(new Lot(points, -1)));
+
+        assertThat(pointsUsed(plan)).isLessThanOrEqualTo(points);
+        // Best value per point is A's, so no plan is worth more than points * 25000 / 997
+        long bound = points * 25_000 / 997;
+        assertThat(value(plan)).isGreaterThan(bound - bound / 10_000);
+    }
+
+    @Test
+    void equalValuePlansSpendFewerPoints() {
+        List<Redemption> plan = RedemptionOptimizer.optimize(
+                List.of(offer("CHEAP", 100, 1000), offer("DEAR", 150, 1000)), List.of(new Lot(150, -1)));
+
+        assertThat(plan).singleElement().satisfies(redemption -> {
+            assertThat(redemption.offer().item().code()).isEqualTo("CHEAP");
+            assertThat(redemption.pointsUsed()).isEqualTo(100);
+        });
+    }
+
+    @Test
+    void bestValueRedemptionsTakeTheEarliestExpiringPoints() {
+        List<Offer> offers = List.of(offer("GOOD", 100, 2000), offer("FAIR", 70, 1000));
+        List<Lot> lots = List.of(new Lot(40, -1), new Lot(100, 20_100), new Lot(30, 20_000));
+
+        List<Redemption> plan = RedemptionOptimizer.optimize(offers, lots);
+
+        // 170 points: one GOOD (100) and one FAIR (70), in value-per-point order
+        assertThat(plan).extracting(redemption -> redemption.offer().item().code()).containsExactly("GOOD", "FAIR");
+        assertThat(plan.get(0).redeemByEpochDay()).isEqualTo(20_000);
+        assertThat(plan.get(1).redeemByEpochDay()).isEqualTo(20_100);
+        assertThat(value(plan)).isEqualTo(3000);
+    }
+
+    @Test
+    void neverExpiringPointsHaveNoRedeemByDate() {
+        List<Redemption> plan = RedemptionOptimizer.optimize(List.of(offer("ONLY", 100, 500)),
+                List.of(new Lot(250, -1)));
+
+        assertThat(plan).singleElement().satisfies(redemption -> {
+            assertThat(redemption.quantity()).isEqualTo(2);
+            assertThat(redemption.redeemByEpochDay()).isEqualTo(-1);
+        });
+    }
+
+    private static Offer offer(String code, long pointCost, long valueMinor) {
+        return new Offer(new CatalogItem(code, code, "VOUCHER", "V0", pointCost, valueMinor, 10_000), valueMinor);
+    }
+
+    private static long pointsUsed(List<Redemption> plan) {
+        return plan.stream().mapToLong(Redemption::pointsUsed).sum();
+    }
+
+    private static long value(List<Redemption> plan) {
+        return plan.stream().mapToLong(Redemption::valueMinor).sum();
+    }
+
+    // Plain unbounded knapsack over every point
+    private static long bestValue(List<Offer> offers, int points) {
+        long[] best = new long[points + 1];
+        for (int p = 1; p <= points; p++) {
+            best[p] = best[p - 1];
+            for (Offer offer : offers) {
+                if (offer.pointCost() <= p) {
+                    best[p] = Math.max(best[p], best[p - (int) offer.pointCost()] + offer.valueMinor());
+                }
+            }
+        }
+        return best[points];
+    }
+}
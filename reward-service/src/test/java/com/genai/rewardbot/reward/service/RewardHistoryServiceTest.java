@@ -0,0 +1,84 @@
+package com.genai.rewardbot.reward.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.genai.rewardbot.common.datasource.ReplicaLagGuard;
+import com.genai.rewardbot.common.dto.RewardPointDto;
+import com.genai.rewardbot.common.sharding.ShardRouter;
+import com.genai.rewardbot.reward.repository.RewardPointRepository;
+import com.genai.rewardbot.reward.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RewardHistoryServiceTest {
+
+    private static final ObjectMapper MAPPER = JsonMapper.builder().findAndAddModules().build();
+    private static final LocalDateTime EARNED = LocalDateTime.of(2026, 1, 15, 10, 30);
+
+    private final RewardPointRepository rewardPointRepository = mock(RewardPointRepository.class);
+    private RewardHistoryService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new RewardHistoryService(mock(UserRepository.class), rewardPointRepository, MAPPER,
+                mock(PlatformTransactionManager.class), mock(ReplicaLagGuard.class), mock(ShardRouter.class));
+    }
+
+    @Test
+    void ndjsonIsOneRowPerLineEndingInNewline() throws Exception {
+        // More rows than one flush interval, so some are still buffered in the generator at the end
+        List<RewardPointDto> rows = LongStream.rangeClosed(1, 2500).mapToObj(id -> row(id, "Purchase")).toList();
+        when(rewardPointRepository.streamHistoryByUserId(1L)).thenReturn(rows.stream());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.exportNdjson("9876543210", 1L, out);
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertThat(body).endsWith("}\n");
+        String[] lines = body.split("\n", -1);
+        assertThat(lines).hasSize(rows.size() + 1);
+        for (int i = 0; i < rows.size(); i++) {
+            assertThat(MAPPER.readTree(lines[i]).get("id").asLong()).isEqualTo(i + 1);
+        }
+    }
+
+    @Test
+    void ndjsonWithoutRowsIsEmpty() {
+        when(rewardPointRepository.streamHistoryByUserId(1L)).thenReturn(Stream.empty());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.exportNdjson("9876543210", 1L, out);
+
+        assertThat(out.size()).isZero();
+    }
+
+    @Test
+    void csvQuotesFieldsWithSeparatorsQuotesAndLineBreaks() {
+        when(rewardPointRepository.streamHistoryByUserId(1L)).thenReturn(Stream.of(
+                row(1, "plain"), row(2, "a,b"), row(3, "say \"hi\""), row(4, "line\nbreak"), row(5, "carriage\rreturn")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.exportCsv("9876543210", 1L, out);
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertThat(body).contains(",plain,", ",\"a,b\",", ",\"say \"\"hi\"\"\",", ",\"line\nbreak\",",
+                ",\"carriage\rreturn\",");
+    }
+
+    private static RewardPointDto row(long id, String description) {
+        return new RewardPointDto(id, 100, 10, 90, EARNED, EARNED.plusYears(1), "PURCHASE", description,
+                "TXN-" + id, 2500L);
+    }
+}
@@ -0,0 +1,90 @@
+package com.genai.rewardbot.reward.service;
+
+import com.genai.rewardbot.common.entity.Card;
+import com.genai.rewardbot.common.entity.RewardPoint;
+import com.genai.rewardbot.common.entity.User;
+import com.genai.rewardbot.common.sharding.ShardRouter;
+import com.genai.rewardbot.reward.repository.CardRepository;
+import com.genai.rewardbot.reward.repository.RewardPartitionRepository;
+import com.genai.rewardbot.reward.repository.RewardPointRepository;
+import com.genai.rewardbot.reward.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RewardPartitionMaintenanceTest {
+
+    private static final String MOBILE_NUMBER = "9000000401";
+
+    @Autowired
+    private RewardPartitionRepository rewardPartitionRepository;
+
+    @Autowired
+    private ChangeEventRecorder changeEventRecorder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private RewardPointRepository rewardPointRepository;
+
+    @Test
+    void sweepExpiresLotsThatPassedLongBeforeTheCurrentMonth() {
+        LocalDateTime now = LocalDateTime.now();
+        Long userId = transactionTemplate.execute(status -> {
+            User user = userRepository.save(new User(MOBILE_NUMBER, "Test", "User", MOBILE_NUMBER + "@example.com"));
+            Card card = cardRepository.save(new Card(MOBILE_NUMBER + "-0", "CREDIT", "Vendor", "V0", 0L, user));
+            // Missed while the sweep was not running
+            rewardPointRepository.save(lot(100, now.minusMonths(14), card));
+            rewardPointRepository.save(lot(200, now.minusDays(2), card));
+            rewardPointRepository.save(lot(400, now.plusDays(30), card));
+            return user.getId();
+        });
+
+        // Enabled here only, so the scheduled sweep stays off for the other tests
+        new RewardPartitionMaintenance(rewardPartitionRepository, changeEventRecorder, entityManagerFactory,
+                shardRouter, transactionManager, true, RewardPartitionMaintenance.RetireAction.NONE, Period.ofMonths(12))
+                .sweepExpired();
+
+        List<RewardPoint> lots = transactionTemplate.execute(status -> rewardPointRepository.findAll().stream()
+                .filter(lot -> lot.getCard().getUser().getId().equals(userId))
+                .toList());
+        assertThat(lots).extracting(RewardPoint::getPointsEarned, RewardPoint::getIsExpired)
+                .containsExactlyInAnyOrder(tuple(100, true), tuple(200, true), tuple(400, false));
+    }
+
+    private static RewardPoint lot(int points, LocalDateTime expiry, Card card) {
+        RewardPoint lot = new RewardPoint(points, expiry.minusMonths(12), expiry, "PURCHASE", "Lot", card);
+        lot.setTransactionId("TXN-" + points);
+        lot.setPointValue(2500L);
+        return lot;
+    }
+}
@@ -0,0 +1,67 @@
+package com.genai.rewardbot.reward.service;
+
+import com.genai.rewardbot.common.dto.RewardSummaryDto;
+import com.genai.rewardbot.common.entity.Card;
+import com.genai.rewardbot.common.entity.RewardPoint;
+import com.genai.rewardbot.common.entity.User;
+import com.genai.rewardbot.reward.repository.CardRepository;
+import com.genai.rewardbot.reward.repository.RewardPointRepository;
+import com.genai.rewardbot.reward.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RewardSummaryTest {
+
+    private static final String MOBILE_NUMBER = "9000000101";
+
+    @Autowired
+    private RewardService rewardService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private RewardPointRepository rewardPointRepository;
+
+    @Test
+    void onlyLotsExpiringBetweenNowAndTheCutOffAreExpiringSoon() {
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.save(new User(MOBILE_NUMBER, "Test", "User", MOBILE_NUMBER + "@example.com"));
+            Card card = cardRepository.save(new Card(MOBILE_NUMBER + "-0", "CREDIT", "Vendor", "V0", 0L, user));
+            // Past expiry but not yet swept
+            rewardPointRepository.save(lot(100, now.minusDays(1), card));
+            rewardPointRepository.save(lot(200, now.plusDays(10), card));
+            rewardPointRepository.save(lot(400, now.plusDays(90), card));
+            rewardPointRepository.save(lot(800, null, card));
+        });
+
+        RewardSummaryDto summary = rewardService.getRewardSummary(MOBILE_NUMBER).orElseThrow();
+
+        assertThat(summary.getPointsExpiringSoon()).isEqualTo(200);
+        assertThat(summary.getTotalPointsAvailable()).isEqualTo(1400);
+    }
+
+    private static RewardPoint lot(int points, LocalDateTime expiry, Card card) {
+        LocalDateTime earned = LocalDateTime.now().minusMonths(1);
+        RewardPoint lot = new RewardPoint(points, earned, expiry, "PURCHASE", "Lot", card);
+        lot.setTransactionId("TXN-" + points);
+        lot.setPointValue(2500L);
+        return lot;
+    }
+}
@@ -0,0 +1,122 @@
+package com.genai.rewardbot.reward.service;
+
+import com.genai.rewardbot.reward.service.TransactionFeed.Transaction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionFeedTest {
+
+    private static final String CSV = """
+            transaction_id,card_number,amount,transaction_time,source,category,description
+            TXN-1,4111111111111111,1499.00,2026-10-01T10:15:30,PURCHASE,GROCERY,Weekly shop
+
+            TXN-2,4111111111111111,not-a-number,2026-10-01T11:00:00
+            TXN-3,5500000000000004,250.50,2026-10-02T09:00:00
+            """;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void parsesEveryField() {
+        Transaction transaction = TransactionFeed.parse(
+                " TXN-1 , 4111111111111111 , 1499.00 , 2026-10-01T10:15:30 , BIRTHDAY_BONUS , DINING , Dinner, drinks", 7);
+
+        assertThat(transaction.error()).isNull();
+        assertThat(transaction.record()).isEqualTo(7);
+        assertThat(transaction.transactionId()).isEqualTo("TXN-1");
+        assertThat(transaction.cardNumber()).isEqualTo("4111111111111111");
+        assertThat(transaction.amountMinor()).isEqualTo(149_900);
+        assertThat(transaction.time()).isEqualTo(LocalDateTime.of(2026, 10, 1, 10, 15, 30));
+        assertThat(transaction.source()).isEqualTo("BIRTHDAY_BONUS");
+        assertThat(transaction.category()).isEqualTo("DINING");
+        // The description keeps its commas
+        assertThat(transaction.description()).isEqualTo("Dinner, drinks");
+    }
+
+    @Test
+    void optionalFieldsDefault() {
+        Transaction transaction = TransactionFeed.parse("TXN-1,4111111111111111,10.005,2026-10-01T10:15:30,,", 1);
+
+        assertThat(transaction.error()).isNull();
+        assertThat(transaction.amountMinor()).isEqualTo(1000);
+        assertThat(transaction.source()).isEqualTo(TransactionFeed.DEFAULT_SOURCE);
+        assertThat(transaction.category()).isNull();
+        assertThat(transaction.description()).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "TXN-1,4111111111111111,10.00",
+            ",4111111111111111,10.00,2026-10-01T10:15:30",
+            "TXN-1,,10.00,2026-10-01T10:15:30",
+            "TXN-1,411111111111111111111,10.00,2026-10-01T10:15:30",
+            "TXN-1,4111111111111111,ten,2026-10-01T10:15:30",
+            "TXN-1,4111111111111111,1e400,2026-10-01T10:15:30",
+            "TXN-1,4111111111111111,10.00,2026-10-01",
+            "TXN-1,4111111111111111,10.00,2026-10-01T10:15:30,PURCHASE,A-CATEGORY-NAME-LONGER-THAN-THIRTY"
+    })
+    void malformedRecordsAreRejectedNotThrown(String line) {
+        Transaction transaction = TransactionFeed.parse(line, 3);
+
+        assertThat(transaction.record()).isEqualTo(3);
+        assertThat(transaction.error()).isNotBlank();
+        assertThat(transaction.transactionId()).isNull();
+    }
+
+    @Test
+    void readsRecordsAfterTheHeaderSkippingBlankLines() throws IOException {
+        try (TransactionFeed feed = TransactionFeed.open(write("feed.csv", CSV))) {
+            List<Transaction> records = feed.read(10);
+
+            assertThat(records).extracting(Transaction::record).containsExactly(1L, 2L, 3L);
+            assertThat(records.get(0).transactionId()).isEqualTo("TXN-1");
+            assertThat(records.get(1).error()).isNotNull();
+            assertThat(records.get(2).amountMinor()).isEqualTo(25_050);
+            assertThat(feed.position()).isEqualTo(3);
+            assertThat(feed.read(10)).isEmpty();
+        }
+    }
+
+    @Test
+    void resumesAfterSkippedRecords() throws IOException {
+        try (TransactionFeed feed = TransactionFeed.open(write("feed.csv", CSV))) {
+            feed.skip(2);
+
+            assertThat(feed.read(10)).singleElement().satisfies(record -> {
+                assertThat(record.record()).isEqualTo(3);
+                assertThat(record.transactionId()).isEqualTo("TXN-3");
+            });
+        }
+    }
+
+    @Test
+    void readsGzippedFiles() throws IOException {
+        Path file = directory.resolve("feed.csv.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(CSV.getBytes(StandardCharsets.UTF_8));
+        }
+
+        try (TransactionFeed feed = TransactionFeed.open(file)) {
+            assertThat(feed.read(2)).extracting(Transaction::transactionId).containsExactly("TXN-1", null);
+            assertThat(feed.read(2)).extracting(Transaction::transactionId).containsExactly("TXN-3");
+        }
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(directory.resolve(name), content);
+    }
+}
@@ -0,0 +1,259 @@
+package com.genai.rewardbot.reward.service;
+
+import com.genai.rewardbot.common.entity.Card;
+import com.genai.rewardbot.common.entity.User;
+import com.genai.rewardbot.common.sharding.ShardDirectory;
+import com.genai.rewardbot.common.sharding.ShardRouter;
+import com.genai.rewardbot.reward.ShardedDatabases;
+import com.genai.rewardbot.reward.repository.CardRepository;
+import com.genai.rewardbot.reward.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Transaction files ingested into three separate databases (see {@link ShardedDatabases}), in
+ * chunks of five records and batches of two: lots written on each card holder's shard at the
+ * card's rate, replayed records counted as duplicates rather than written twice, unreadable and
+ * non-earning records rejected, and the records of a frozen bucket held back until the move ends.
+ */
+@SpringBootTest
+@ActiveProfiles({"test", "sharded"})
+class TransactionIngestionJobTest {
+
+    // app.ingestion.inbox in application-sharded.properties
+    private static final Path INBOX = Path.of("target", "ingestion-inbox");
+    private static final List<String> USERS = IntStream.range(0, 24).mapToObj(i -> "72000000" + (10 + i)).toList();
+    private static final LocalDateTime SPENT = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.SECONDS);
+
+    @Autowired
+    private TransactionIngestionJob transactionIngestionJob;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @BeforeAll
+    static void createDatabases() throws Exception {
+        ShardedDatabases.create();
+        // Files left by an earlier JVM would be ingested into these fresh databases
+        FileSystemUtils.deleteRecursively(INBOX);
+        Files.createDirectories(INBOX);
+    }
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < USERS.size(); i++) {
+            String mobileNumber = USERS.get(i);
+            if (jdbc(shardRouter.shardOf(mobileNumber)).queryForObject(
+                    "SELECT COUNT(*) FROM users WHERE mobile_number = ?", Integer.class, mobileNumber) == 0) {
+                createUser(mobileNumber, isHdfc(i));
+            }
+        }
+    }
+
+    @Test
+    void lotsAreWrittenOnEachCardHoldersShardAtTheCardsRate() throws Exception {
+        List<String> lines = new ArrayList<>();
+        lines.add("transaction_id,card_number,amount,transaction_time,source,category,description");
+        for (String mobileNumber : USERS) {
+            lines.add(String.join(",", "ACC", card(mobileNumber), "150.00", SPENT.toString(), "PURCHASE", "GROCERY",
+                    "Lunch, for two"));
+        }
+        drop("accrual.csv", lines);
+
+        Map<String, Object> run = runJob();
+
+        assertThat(run.get("failedFiles")).isEqualTo(0);
+        assertThat(run.get("files")).isEqualTo(1);
+        assertThat(run.get("records")).isEqualTo((long) USERS.size());
+        assertThat(run.get("lots")).isEqualTo((long) USERS.size());
+        assertThat(run.get("rejected")).isEqualTo(0L);
+        for (int i = 0; i < USERS.size(); i++) {
+            String mobileNumber = USERS.get(i);
+            int owner = shardRouter.shardOf(mobileNumber);
+            for (int shard = 0; shard < ShardedDatabases.SHARDS; shard++) {
+                List<Map<String, Object>> lots = lotsOn(shard, mobileNumber, "ACC");
+                if (shard != owner) {
+                    assertThat(lots).as("lots of %s on shard %d", mobileNumber, shard).isEmpty();
+                    continue;
+                }
+                assertThat(lots).as("lots of %s on shard %d", mobileNumber, shard).hasSize(1);
+                assertThat(((Number) lots.get(0).get("POINTS_EARNED")).intValue()).isEqualTo(isHdfc(i) ? 300 : 150);
+                assertThat(lots.get(0).get("DESCRIPTION")).isEqualTo("Lunch, for two");
+            }
+        }
+        assertThat(file("accrual.csv")).containsEntry("RECORDS_DONE", 24L).containsEntry("LOTS_CREATED", 24L)
+                .containsEntry("COMPLETED", true);
+    }
+
+    @Test
+    void replayedRecordsAreCountedAsDuplicatesAndNotWrittenTwice() throws Exception {
+        List<String> first = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            first.add(record("REPLAY-" + i, card(USERS.get(i)), "40.00"));
+        }
+        drop("replay-1.csv", first);
+        runJob();
+
+        List<String> second = new ArrayList<>(first);
+        second.add(record("REPLAY-6", card(USERS.get(6)), "40.00"));
+        second.add(record("REPLAY-6", card(USERS.get(6)), "40.00"));
+        drop("replay-2.csv", second);
+        Map<String, Object> run = runJob();
+
+        assertThat(run.get("failedFiles")).isEqualTo(0);
+        assertThat(run.get("lots")).isEqualTo(1L);
+        assertThat(run.get("duplicates")).isEqualTo(7L);
+        for (int i = 0; i < 7; i++) {
+            String mobileNumber = USERS.get(i);
+            assertThat(lotsOn(shardRouter.shardOf(mobileNumber), mobileNumber, "REPLAY-" + i)).hasSize(1);
+        }
+
+        // Completed files are not read again
+        Map<String, Object> rerun = runJob();
+        assertThat(rerun.get("files")).isEqualTo(0);
+        assertThat(rerun.get("records")).isEqualTo(0L);
+    }
+
+    @Test
+    void unreadableAndNonEarningRecordsAreRejected() throws Exception {
+        drop("rejects.csv", List.of(
+                record("REJECT-0", card(USERS.get(0)), "25.00"),
+                record("REJECT-1", "0000-UNKNOWN", "25.00"),
+                record("REJECT-2", card(USERS.get(1)), "-25.00"),
+                String.join(",", "REJECT-3", card(USERS.get(2)), "25.00", "yesterday"),
+                String.join(",", "REJECT-4", card(USERS.get(3))),
+                record("REJECT-5", card(USERS.get(4)), "25.00")));
+
+        Map<String, Object> run = runJob();
+
+        assertThat(run.get("failedFiles")).isEqualTo(0);
+        assertThat(run.get("records")).isEqualTo(6L);
+        assertThat(run.get("lots")).isEqualTo(2L);
+        assertThat(run.get("rejected")).isEqualTo(4L);
+        assertThat(file("rejects.csv")).containsEntry("REJECTED", 4L).containsEntry("COMPLETED", true);
+        assertThat(lotsOn(shardRouter.shardOf(USERS.get(1)), USERS.get(1), "REJECT-2")).isEmpty();
+    }
+
+    @Test
+    void recordsOfAFrozenBucketWaitForTheMoveToEnd() throws Exception {
+        String mobileNumber = USERS.get(5);
+        int shard = shardRouter.shardOf(mobileNumber);
+        int bucket = shardRouter.bucketOf(mobileNumber);
+        ShardDirectory directory = shardRouter.directory();
+        assertThat(directory.beginMove(bucket, (shard + 1) % ShardedDatabases.SHARDS)).isTrue();
+        Map<String, Object> run;
+        try {
+            directory.freeze(bucket);
+            drop("frozen.csv", List.of(record("FROZEN-0", card(mobileNumber), "60.00")));
+
+            assertThat(transactionIngestionJob.start()).isTrue();
+            // Well inside the six directory refreshes the job waits before giving up
+            Thread.sleep(400);
+
+            assertThat(transactionIngestionJob.status()).containsEntry("running", true);
+            assertThat(lotsOn(shard, mobileNumber, "FROZEN-0")).isEmpty();
+        } finally {
+            directory.abortMove(bucket);
+        }
+        run = awaitRun();
+
+        assertThat(run.get("failedFiles")).isEqualTo(0);
+        assertThat(run.get("lots")).isEqualTo(1L);
+        assertThat(lotsOn(shard, mobileNumber, "FROZEN-0")).hasSize(1);
+    }
+
+    private Map<String, Object> runJob() throws Exception {
+        assertThat(transactionIngestionJob.start()).isTrue();
+        return awaitRun();
+    }
+
+    private Map<String, Object> awaitRun() throws Exception {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (true) {
+            Map<String, Object> run = transactionIngestionJob.status();
+            if (!(Boolean) run.get("running")) {
+                return run;
+            }
+            assertThat(System.currentTimeMillis()).as("ingestion run finished in time").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    // Every fourth user holds an HDFC card, earning 2 points per unit rather than the base 1
+    private static boolean isHdfc(int user) {
+        return user % 4 == 0;
+    }
+
+    private static String card(String mobileNumber) {
+        return mobileNumber + "-0";
+    }
+
+    private static String record(String transactionId, String cardNumber, String amount) {
+        return String.join(",", transactionId, cardNumber, amount, SPENT.toString());
+    }
+
+    private static void drop(String fileName, List<String> lines) throws Exception {
+        // Written aside and moved in, so a run never sees half a file
+        Path partial = Files.write(INBOX.resolve(fileName + ".part"), lines);
+        Files.move(partial, INBOX.resolve(fileName));
+    }
+
+    private JdbcTemplate jdbc(int shard) {
+        return new JdbcTemplate(shardRouter.dataSource(shard));
+    }
+
+    private List<Map<String, Object>> lotsOn(int shard, String mobileNumber, String transactionId) {
+        return jdbc(shard).queryForList("""
+                SELECT rp.points_earned, rp.description FROM reward_points rp
+                JOIN cards c ON c.id = rp.card_id
+                JOIN users u ON u.id = c.user_id
+                WHERE u.mobile_number = ? AND rp.transaction_id = ?
+                """, mobileNumber, transactionId);
+    }
+
+    private Map<String, Object> file(String fileName) {
+        return jdbc(ShardRouter.CATALOG_SHARD).queryForObject(
+                "SELECT records_done, lots_created, rejected, completed FROM ingestion_files WHERE file_name = ?",
+                (rs, rowNum) -> Map.of("RECORDS_DONE", rs.getLong(1), "LOTS_CREATED", rs.getLong(2),
+                        "REJECTED", rs.getLong(3), "COMPLETED", rs.getBoolean(4)),
+                fileName);
+    }
+
+    private void createUser(String mobileNumber, boolean hdfc) {
+        try (ShardRouter.Scope ignored = shardRouter.on(mobileNumber)) {
+            transactionTemplate.executeWithoutResult(status -> {
+                User user = userRepository.save(new User(mobileNumber, "Test", "User", mobileNumber + "@example.com"));
+                cardRepository.save(hdfc
+                        ? new Card(card(mobileNumber), "CREDIT", "HDFC Bank", "HDFC", 0L, user)
+                        : new Card(card(mobileNumber), "CREDIT", "Vendor 0", "V0", 0L, user));
+            });
+        }
+    }
+}
@@ -0,0 +1,180 @@
+-- The schema of db/migration/oracle (V1 to V7) for H2 in Oracle mode, created on every shard by
+-- ShardedDatabases. Partitioning, comments and ONLINE clauses are left out; keep the columns in
+-- step with the migrations.
+
+CREATE SEQUENCE user_sequence START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE card_sequence START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE reward_sequence START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE outbox_sequence START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE users (
+    id NUMBER(19) PRIMARY KEY,
+    mobile_number VARCHAR2(15) NOT NULL UNIQUE,
+    first_name VARCHAR2(50),
+    last_name VARCHAR2(50),
+    email VARCHAR2(100),
+    is_active NUMBER(1) DEFAULT 1,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE cards (
+    id NUMBER(19) PRIMARY KEY,
+    card_number VARCHAR2(20) NOT NULL UNIQUE,
+    card_type VARCHAR2(50),
+    vendor_name VARCHAR2(100) NOT NULL,
+    vendor_code VARCHAR2(10),
+    card_balance NUMBER(15,2) DEFAULT 0,
+    currency VARCHAR2(3) DEFAULT 'INR',
+    is_active NUMBER(1) DEFAULT 1,
+    expiry_date TIMESTAMP,
+    cashback_rate NUMBER(5,2),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    user_id NUMBER(19) NOT NULL,
+    CONSTRAINT fk_cards_user FOREIGN KEY (user_id) REFERENCES users(id)
+);
+
+CREATE TABLE reward_points (
+    id NUMBER(19) PRIMARY KEY,
+    points_earned NUMBER(10) NOT NULL,
+    points_used NUMBER(10) DEFAULT 0,
+    points_available NUMBER(10) NOT NULL,
+    earning_date TIMESTAMP NOT NULL,
+    expiry_date TIMESTAMP,
+    source VARCHAR2(100),
+    description VARCHAR2(255),
+    transaction_id VARCHAR2(50) NOT NULL,
+    is_expired NUMBER(1) DEFAULT 0,
+    point_value NUMBER(10,4),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    card_id NUMBER(19) NOT NULL,
+    expiry_key TIMESTAMP GENERATED ALWAYS AS (NVL(expiry_date, TIMESTAMP '9999-01-01 00:00:00')),
+    CONSTRAINT fk_reward_points_card FOREIGN KEY (card_id) REFERENCES cards(id)
+);
+
+CREATE TABLE revoked_tokens (
+    token_id VARCHAR2(36) PRIMARY KEY,
+    mobile_number VARCHAR2(15),
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    reason VARCHAR2(50)
+);
+
+CREATE TABLE outbox_events (
+    id NUMBER(19) PRIMARY KEY,
+    event_type VARCHAR2(30) NOT NULL,
+    mobile_number VARCHAR2(15) NOT NULL,
+    user_id NUMBER(19),
+    card_id NUMBER(19),
+    points_delta NUMBER(10),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    published_seq NUMBER(19),
+    published_at TIMESTAMP
+);
+
+CREATE TABLE user_data_versions (
+    mobile_number VARCHAR2(15) PRIMARY KEY,
+    data_version NUMBER(19) NOT NULL
+);
+
+CREATE TABLE reward_rollups (
+    user_id NUMBER(19) NOT NULL,
+    bucket_month NUMBER(6) NOT NULL,
+    source VARCHAR2(100) NOT NULL,
+    vendor_code VARCHAR2(10) NOT NULL,
+    points_earned NUMBER(19) DEFAULT 0 NOT NULL,
+    points_redeemed NUMBER(19) DEFAULT 0 NOT NULL,
+    lots_earned NUMBER(10) DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_reward_rollups PRIMARY KEY (user_id, bucket_month, source, vendor_code)
+);
+
+CREATE INDEX idx_cards_user_active ON cards(user_id, is_active);
+CREATE INDEX idx_cards_vendor ON cards(vendor_code);
+CREATE INDEX idx_reward_points_card_expiry ON reward_points(card_id, is_expired, expiry_date);
+CREATE INDEX idx_reward_points_card_available ON reward_points(card_id, points_available);
+CREATE INDEX idx_reward_points_card_earning ON reward_points(card_id, earning_date, id);
+CREATE INDEX idx_reward_points_earning_date ON reward_points(earning_date);
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens(expires_at);
+CREATE INDEX idx_reward_points_unswept ON reward_points(is_expired, expiry_key);
+CREATE INDEX idx_outbox_events_published ON outbox_events(published_seq, id);
+
+-- V3
+CREATE TABLE shard_buckets (
+    bucket NUMBER(10) PRIMARY KEY,
+    shard_id NUMBER(5) NOT NULL,
+    target_shard NUMBER(5),
+    frozen NUMBER(1) DEFAULT 0 NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+-- V4
+CREATE TABLE expiry_digests (
+    user_id NUMBER(19) PRIMARY KEY,
+    mobile_number VARCHAR2(15) NOT NULL,
+    points_7d NUMBER(19) DEFAULT 0 NOT NULL,
+    points_30d NUMBER(19) DEFAULT 0 NOT NULL,
+    lots_30d NUMBER(10) DEFAULT 0 NOT NULL,
+    next_expiry TIMESTAMP,
+    digest_date DATE NOT NULL,
+    computed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+CREATE TABLE batch_checkpoints (
+    job_name VARCHAR2(50) NOT NULL,
+    partition_no NUMBER(5) NOT NULL,
+    run_date DATE NOT NULL,
+    last_user_id NUMBER(19) NOT NULL,
+    upper_user_id NUMBER(19) NOT NULL,
+    users_done NUMBER(19) DEFAULT 0 NOT NULL,
+    completed NUMBER(1) DEFAULT 0 NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    CONSTRAINT pk_batch_checkpoints PRIMARY KEY (job_name, partition_no)
+);
+
+-- V5
+CREATE TABLE redemption_catalog (
+    code VARCHAR2(50) PRIMARY KEY,
+    name VARCHAR2(200) NOT NULL,
+    category VARCHAR2(30) NOT NULL,
+    vendor_code VARCHAR2(10),
+    point_cost NUMBER(10) NOT NULL,
+    value_amount NUMBER(15,2) NOT NULL,
+    bonus_multiplier NUMBER(6,4) DEFAULT 1 NOT NULL,
+    is_active NUMBER(1) DEFAULT 1 NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+-- V6
+CREATE UNIQUE INDEX ux_reward_points_card_txn ON reward_points(card_id, transaction_id);
+
+CREATE TABLE ingestion_files (
+    file_name VARCHAR2(255) PRIMARY KEY,
+    records_done NUMBER(19) DEFAULT 0 NOT NULL,
+    lots_created NUMBER(19) DEFAULT 0 NOT NULL,
+    duplicates NUMBER(19) DEFAULT 0 NOT NULL,
+    rejected NUMBER(19) DEFAULT 0 NOT NULL,
+    completed NUMBER(1) DEFAULT 0 NOT NULL,
+    started_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+-- V7, with only the flat base rate and HDFC's rate of its seed rules
+CREATE TABLE accrual_rules (
+    rule_id VARCHAR2(50) PRIMARY KEY,
+    rule_type VARCHAR2(10) NOT NULL,
+    vendor_code VARCHAR2(10),
+    source VARCHAR2(100),
+    category VARCHAR2(30),
+    min_amount NUMBER(15,2) DEFAULT 0 NOT NULL,
+    rule_value NUMBER(14,4) NOT NULL,
+    valid_from TIMESTAMP,
+    valid_to TIMESTAMP,
+    priority NUMBER(5) DEFAULT 0 NOT NULL,
+    is_active NUMBER(1) DEFAULT 1 NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+INSERT INTO accrual_rules (rule_id, rule_type, rule_value, priority) VALUES ('BASE-EARN', 'EARN', 1, 0);
+INSERT INTO accrual_rules (rule_id, rule_type, vendor_code, rule_value) VALUES ('HDFC-EARN', 'EARN', 'HDFC', 2);
@@ -0,0 +1,194 @@
+#!/usr/bin/env bash
+#
+# Fast-start artifacts for auth-service, reward-service and genai-service.
+#
+#   fast-start.sh archive <fat-jar>                  unpack to <target>/cds and record a CDS training run
+#   fast-start.sh run <service-dir> [mode] [args]     start a service in one mode
+#   fast-start.sh bench <service-dir> [modes...]      time-to-ready and RSS per mode
+#
+# Modes: jar (plain executable jar), aot (jar with AOT initializers), cds (unpacked jar with the
+# class data archive, plus AOT when it was built with -Paot) and native (GraalVM executable).
+# Build them with: mvn -Paot,cds package   and/or   mvn -Pnative native:compile
+#
+# Environment: JAVA (default java), JAVA_OPTS, APP_ARGS (extra --spring args for every mode),
+# RUNS (bench repetitions, default 3), READY_TIMEOUT (seconds, default 120).
+
+set -euo pipefail
+
+JAVA=${JAVA:-java}
+JAVA_OPTS=${JAVA_OPTS:-}
+APP_ARGS=${APP_ARGS:-}
+RUNS=${RUNS:-3}
+READY_TIMEOUT=${READY_TIMEOUT:-120}
+
+die() {
+    echo "fast-start: $*" >&2
+    exit 1
+}
+
+service_port() {
+    case "$(basename "$1")" in
+        auth-service) echo 8081 ;;
+        reward-service) echo 8082 ;;
+        genai-service) echo 8083 ;;
+        *) die "unknown service $1" ;;
+    esac
+}
+
+fat_jar() {
+    local jar
+    jar=$(ls "$1"/target/*.jar 2>/dev/null | grep -v -- '-cds' | head -n 1 || true)
+    [ -n "$jar" ] || die "no jar in $1/target; run mvn package first"
+    echo "$jar"
+}
+
+# The training run only has to get the context refreshed: an in-memory H2 in Oracle mode stands in
+# for the database in services that have one (schema from the entities, as the Oracle migrations
+# do not run on H2), and nothing is served.
+training_args() {
+    local args="--server.port=0"
+    if ls "$1"/lib/h2-*.jar >/dev/null 2>&1; then
+        args="$args --spring.datasource.url=jdbc:h2:mem:cds-training;MODE=Oracle"
+        args="$args --spring.datasource.driver-class-name=org.h2.Driver"
+        args="$args --spring.datasource.username=sa --spring.datasource.password="
+        args="$args --spring.flyway.enabled=false --spring.jpa.hibernate.ddl-auto=create-drop"
+    fi
+    echo "$args"
+}
+
+archive() {
+    local jar out work start_class aot_flag=""
+    jar=$(cd "$(dirname "$1")" && pwd)/$(basename "$1")
+    [ -f "$jar" ] || die "$jar not found"
+    out=$(dirname "$jar")/cds
+    work=$(mktemp -d)
+    trap 'rm -rf "$work"' RETURN
+
+    rm -rf "$out"
+    mkdir -p "$out/lib"
+    (cd "$work" && jar xf "$jar")
+
+    start_class=$(sed -n 's/^Start-Class: *//p' "$work/META-INF/MANIFEST.MF" | tr -d '\r')
+    [ -n "$start_class" ] || die "$jar is not a Spring Boot executable jar"
+
+    # CDS needs jars on the class path, not directories: application classes into one jar whose
+    # manifest lists the dependencies in the same order as the fat jar's classpath index
+    cp "$work"/BOOT-INF/lib/*.jar "$out/lib/"
+    {
+        echo "Main-Class: $start_class"
+        echo -n "Class-Path:"
+        sed -n 's/^- "BOOT-INF\/lib\/\(.*\)"$/\1/p' "$work/BOOT-INF/classpath.idx" | while read -r lib; do
+            printf '  lib/%s\n' "$lib"
+        done
+    } > "$work/manifest.txt"
+    jar cfm "$out/application.jar" "$work/manifest.txt" -C "$work/BOOT-INF/classes" .
+
+    if find "$work/BOOT-INF/classes" -name '*__ApplicationContextInitializer.class' | grep -q .; then
+        aot_flag="-Dspring.aot.enabled=true"
+        touch "$out/aot"
+    fi
+
+    echo "fast-start: training run for $start_class ${aot_flag:+(AOT)}"
+    # shellcheck disable=SC2046
+    (cd "$out" && "$JAVA" -XX:ArchiveClassesAtExit=application.jsa -Dspring.context.exit=onRefresh \
+        $aot_flag -jar application.jar $(training_args "$out") > training.log 2>&1) || true
+    [ -f "$out/application.jsa" ] || die "training run did not write a CDS archive; see $out/training.log"
+    echo "fast-start: wrote $out/application.jsa ($(du -h "$out/application.jsa" | cut -f1))"
+}
+
+# Prints the command for a mode as: <working dir> <command...>, one word per line
+command_for() {
+    local service=$1 mode=$2
+    case "$mode" in
+        jar)
+            printf '%s\n' "$service" "$JAVA" $JAVA_OPTS -jar "$(fat_jar "$service")" ;;
+        aot)
+            printf '%s\n' "$service" "$JAVA" $JAVA_OPTS -Dspring.aot.enabled=true -jar "$(fat_jar "$service")" ;;
+        cds)
+            local cds=$service/target/cds
+            [ -f "$cds/application.jsa" ] || die "no CDS archive in $cds; build with -Pcds"
+            local aot=""
+            [ -f "$cds/aot" ] && aot="-Dspring.aot.enabled=true"
+            printf '%s\n' "$cds" "$JAVA" $JAVA_OPTS -XX:SharedArchiveFile=application.jsa $aot -jar application.jar ;;
+        native)
+            local exe=$service/target/$(basename "$service")
+            [ -x "$exe" ] || die "no native executable $exe; build with -Pnative native:compile"
+            printf '%s\n' "$service" "$(cd "$(dirname "$exe")" && pwd)/$(basename "$exe")" ;;
+        *)
+            die "unknown mode $mode" ;;
+    esac
+}
+
+run() {
+    local service mode=${2:-jar}
+    service=$(cd "${1:?service directory}" && pwd)
+    shift $(( $# < 2 ? $# : 2 ))
+    local cmd
+    mapfile -t cmd < <(command_for "$service" "$mode")
+    cd "${cmd[0]}"
+    # shellcheck disable=SC2086
+    exec "${cmd[@]:1}" $APP_ARGS "$@"
+}
+
+available_modes() {
+    local service=$1 modes="jar"
+    if jar tf "$(fat_jar "$service")" | grep -q '__ApplicationContextInitializer.class'; then
+        modes="$modes aot"
+    fi
+    [ -f "$service/target/cds/application.jsa" ] && modes="$modes cds"
+    [ -x "$service/target/$(basename "$service")" ] && modes="$modes native"
+    echo "$modes"
+}
+
+rss_kb() {
+    if [ -r "/proc/$1/status" ]; then
+        awk '/^VmRSS:/ { print $2 }' "/proc/$1/status"
+    else
+        ps -o rss= -p "$1" | tr -d ' '
+    fi
+}
+
+bench() {
+    local service=${1:?service directory}
+    shift
+    service=$(cd "$service" && pwd)
+    local port modes
+    port=$(service_port "$service")
+    modes=${*:-$(available_modes "$service")}
+    local readiness="http://localhost:$port/actuator/health/readiness"
+
+    printf '%-8s %5s %12s %12s %10s\n' mode runs "ready avg" "ready min" "rss MB"
+    for mode in $modes; do
+        local total=0 best=0 rss=0
+        for _ in $(seq "$RUNS"); do
+            local log start pid elapsed=0
+            log=$(mktemp)
+            start=$(date +%s%N)
+            "$0" run "$service" "$mode" > "$log" 2>&1 &
+            pid=$!
+            until curl -fs -o /dev/null "$readiness"; do
+                kill -0 "$pid" 2>/dev/null || die "$mode exited before becoming ready; see $log"
+                elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+                [ "$elapsed" -lt $(( READY_TIMEOUT * 1000 )) ] || { kill "$pid"; die "$mode not ready after ${READY_TIMEOUT}s; see $log"; }
+                sleep 0.05
+            done
+            elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+            rss=$(rss_kb "$pid")
+            kill "$pid"
+            wait "$pid" 2>/dev/null || true
+            rm -f "$log"
+            total=$(( total + elapsed ))
+            if [ "$best" -eq 0 ] || [ "$elapsed" -lt "$best" ]; then
+                best=$elapsed
+            fi
+        done
+        printf '%-8s %5d %10dms %10dms %10d\n' "$mode" "$RUNS" $(( total / RUNS )) "$best" $(( rss / 1024 ))
+    done
+}
+
+case "${1:-}" in
+    archive) shift; archive "$@" ;;
+    run) shift; run "$@" ;;
+    bench) shift; bench "$@" ;;
+    *) sed -n '3,15p' "$0" | sed 's/^# \{0,1\}//'; exit 2 ;;
+esac